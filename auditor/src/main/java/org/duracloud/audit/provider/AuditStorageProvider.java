@@ -15,13 +15,18 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.task.Task;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A StorageProvider decorator class which passes through calls from a target
@@ -80,6 +85,25 @@ public class AuditStorageProvider implements StorageProvider {
                                  String spaceACLs,
                                  String sourceSpaceId,
                                  String sourceContentId) {
+        Task writeTask = createWriteTask(action, spaceId, contentId,
+                                         contentChecksum, contentMimetype,
+                                         contentSize, contentProperties,
+                                         spaceACLs, sourceSpaceId,
+                                         sourceContentId);
+        taskQueue.put(writeTask);
+        writeLogger.log(writeTask);
+    }
+
+    private Task createWriteTask(String action,
+                                 String spaceId,
+                                 String contentId,
+                                 String contentChecksum,
+                                 String contentMimetype,
+                                 String contentSize,
+                                 Map<String,String> contentProperties,
+                                 String spaceACLs,
+                                 String sourceSpaceId,
+                                 String sourceContentId) {
         AuditTask task = new AuditTask();
         task.setAction(action);
         task.setUserId(getUserId());
@@ -96,10 +120,7 @@ public class AuditStorageProvider implements StorageProvider {
         task.setContentProperties(contentProperties);
         task.setSourceSpaceId(sourceSpaceId);
         task.setSourceContentId(sourceContentId);
-
-        Task writeTask = task.writeTask();
-        taskQueue.put(writeTask);
-        writeLogger.log(writeTask);
+        return task.writeTask();
     }
 
     /*
@@ -167,6 +188,20 @@ public class AuditStorageProvider implements StorageProvider {
         return  spaceContents;
     }
 
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        List<ContentSummary> spaceContents =
+            target.getSpaceContentSummariesChunked(spaceId, prefix,
+                                                   maxResults, marker);
+
+        String action = AuditTask.ActionType.GET_SPACE_CONTENTS_CHUNKED.name();
+        submitReadTask(action, spaceId, AuditTask.NA);
+        return spaceContents;
+    }
+
     @Override
     public Map<String, String> getSpaceProperties(String spaceId) {
         Map<String, String> spaceProps = target.getSpaceProperties(spaceId);
@@ -194,6 +229,19 @@ public class AuditStorageProvider implements StorageProvider {
         return content;
     }
 
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        InputStream content =
+            target.getContent(spaceId, contentId, startByte, endByte);
+
+        String action = AuditTask.ActionType.GET_CONTENT.name();
+        submitReadTask(action, spaceId, contentId);
+        return content;
+    }
+
     @Override
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId) {
@@ -296,6 +344,61 @@ public class AuditStorageProvider implements StorageProvider {
                         contentSize, null, null, AuditTask.NA, AuditTask.NA);
     }
 
+    /**
+     * The audit tasks for the removed items are passed to the task queue
+     * together. Properties are retrieved only for items whose summary does
+     * not include a size and checksum. The mimetype is recorded where the
+     * summary includes it or the properties were retrieved; items summarized
+     * from a space listing are recorded without a mimetype (see AuditTask).
+     */
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        List<ContentSummary> toDelete = new ArrayList<>(contents.size());
+        for (ContentSummary content : contents) {
+            String contentId = content.getContentId();
+            if (null == content.getSize() || null == content.getChecksum()) {
+                Map<String, String> props;
+                try {
+                    props = target.getContentProperties(spaceId, contentId);
+                } catch (NotFoundException e) {
+                    continue; // Nothing to remove
+                }
+                content = new ContentSummary(
+                    contentId,
+                    props.get(StorageProvider.PROPERTIES_CONTENT_SIZE),
+                    props.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+                    props.get(StorageProvider.PROPERTIES_CONTENT_MODIFIED));
+                content.setMimetype(
+                    props.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+            }
+            toDelete.add(content);
+        }
+
+        Map<String, String> failures =
+            target.deleteContents(spaceId, toDelete);
+
+        String action = AuditTask.ActionType.DELETE_CONTENT.name();
+        Set<Task> tasks = new HashSet<>();
+        for (ContentSummary content : toDelete) {
+            String contentId = content.getContentId();
+            if (!failures.containsKey(contentId)) {
+                Task writeTask =
+                    createWriteTask(action, spaceId, contentId,
+                                    content.getChecksum(),
+                                    content.getMimetype(),
+                                    content.getSize(), null, null,
+                                    AuditTask.NA, AuditTask.NA);
+                tasks.add(writeTask);
+                writeLogger.log(writeTask);
+            }
+        }
+        if (!tasks.isEmpty()) {
+            taskQueue.put(tasks);
+        }
+        return failures;
+    }
+
     @Override
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
@@ -21,6 +21,11 @@ import java.util.Map;
  * A Task which will be used to capture an action taken on a
  * DuraCloud content item.
  *
+ * The content mimetype of a DELETE_CONTENT action may be missing: items
+ * removed as part of a batch whose size and checksum are taken from a space
+ * listing are recorded without retrieving their properties, and space
+ * listings do not include the mimetype.
+ *
  * @author Bill Branan
  *         Date: 3/14/14
  */
@@ -14,6 +14,7 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.task.Task;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
@@ -29,7 +30,9 @@ import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -386,6 +389,65 @@ public class AuditStorageProviderTest extends EasyMockSupport {
 
     }
 
+    @Test
+    public void testDeleteContents() throws Exception {
+        String contentId0 = "content-id-0";
+        String contentId1 = "content-id-1";
+        String contentId2 = "content-id-2";
+        List<ContentSummary> contents = new ArrayList<>();
+        ContentSummary summary0 = new ContentSummary(contentId0,
+                                                     contentSize + "",
+                                                     contentChecksum, null);
+        summary0.setMimetype(contentMimeType);
+        contents.add(summary0);
+        // Properties are retrieved only where the summary lacks them
+        contents.add(new ContentSummary(contentId1, null, null, null));
+        contents.add(new ContentSummary(contentId2, contentSize + "",
+                                        contentChecksum, null));
+
+        Map<String,String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, contentMimeType);
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, contentSize+"");
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, contentChecksum);
+        EasyMock.expect(targetProvider.getContentProperties(spaceId, contentId1))
+                .andReturn(props);
+
+        Capture<List<ContentSummary>> deleteCapture = new Capture<>();
+        Map<String, String> failures = new HashMap<>();
+        failures.put(contentId2, "failed");
+        EasyMock.expect(targetProvider.deleteContents(EasyMock.eq(spaceId),
+                                                      EasyMock.capture(deleteCapture)))
+                .andReturn(failures);
+
+        // Audit tasks are queued together, only for removed items
+        Capture<Set<Task>> auditTaskCapture = new Capture<>();
+        taskQueue.put(EasyMock.capture(auditTaskCapture));
+        EasyMock.expectLastCall().once();
+        EasyMock.expect(userUtil.getCurrentUsername()).andReturn(user).times(2);
+        writeLogger.log(EasyMock.<Task>anyObject());
+        EasyMock.expectLastCall().times(2);
+
+        replayAll();
+        assertEquals(failures, provider.deleteContents(spaceId, contents));
+
+        assertEquals(3, deleteCapture.getValue().size());
+        Set<Task> auditTasks = auditTaskCapture.getValue();
+        assertEquals(2, auditTasks.size());
+        for (Task auditTask : auditTasks) {
+            Map<String, String> taskProps =
+                verifyTask(auditTask, AuditTask.ActionType.DELETE_CONTENT.name());
+            String taskContentId = taskProps.get(AuditTask.CONTENT_ID_PROP);
+            assertTrue(contentId0.equals(taskContentId) ||
+                       contentId1.equals(taskContentId));
+            assertEquals(contentSize,
+                         Long.parseLong(taskProps.get(AuditTask.CONTENT_SIZE_PROP)));
+            assertEquals(contentChecksum,
+                         taskProps.get(AuditTask.CONTENT_CHECKSUM_PROP));
+            assertEquals(contentMimeType,
+                         taskProps.get(AuditTask.CONTENT_MIMETYPE_PROP));
+        }
+    }
+
     @Test
     public void testSetContentProperties() throws Exception {
         Capture<Task> auditTaskCapture = mockAuditCall();
@@ -8,7 +8,14 @@
 package org.duracloud.chunk;
 
 import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -16,13 +23,18 @@ import org.apache.commons.io.IOUtils;
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.stream.ChunkInputStream;
 import org.duracloud.chunk.stream.CountingDigestInputStream;
+import org.duracloud.chunk.stream.FileRegionInputStream;
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.CountListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class manages the provided content stream by breaking it chunks of the
  * size specified by maxChunkSize.
+ * When the content is a local file, each chunk is read directly from its own
+ * region of the file, and may be read again using ChunkInputStream.reopen().
  *
  * @author Andrew Woods
  *         Date: Feb 2, 2010
@@ -32,6 +44,9 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
     private final Logger log = LoggerFactory.getLogger(ChunkableContent.class);
 
     private CountingDigestInputStream largeStream;
+    // Set in place of largeStream when chunking a file
+    private FileChannel fileChannel;
+    private MessageDigest sourceDigest;
     private String contentId;
     private long maxChunkSize;
     private long contentSize;
@@ -41,6 +56,7 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
 
     private long bytesRead;
     private boolean preserveChunkMD5s = false;
+    private CountListener countListener;
 
     private static final String DEFAULT_MIME = "application/octet-stream";
     private final int BUFFER_SIZE;
@@ -71,6 +87,38 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
                                            contentSize);
     }
 
+    public ChunkableContent(String contentId,
+                            File file,
+                            long maxChunkSize) {
+        this(contentId, DEFAULT_MIME, file, maxChunkSize);
+    }
+
+    public ChunkableContent(String contentId,
+                            String contentMimetype,
+                            File file,
+                            long maxChunkSize) {
+        BUFFER_SIZE = calculateBufferSize(maxChunkSize);
+
+        this.contentId = contentId;
+        this.maxChunkSize = maxChunkSize;
+        this.contentSize = file.length();
+        this.currentChunk = null;
+        this.bytesRead = 0;
+        this.manifest = new ChunksManifest(this.contentId,
+                                           contentMimetype,
+                                           contentSize);
+        try {
+            this.sourceDigest =
+                MessageDigest.getInstance(ChecksumUtil.Algorithm.MD5.toString());
+            this.fileChannel = FileChannel.open(file.toPath(),
+                                                StandardOpenOption.READ);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            String m = "Unable to read file " + file + ": " + e.getMessage();
+            log.error(m);
+            throw new DuraCloudRuntimeException(m, e);
+        }
+    }
+
     /**
      * This method finds the maximum 1-KB divisor of arg maxChunkSize that is
      * less than 8-KB.
@@ -135,6 +183,19 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
         long chunkSize = calculateNextChunkSize();
         String chunkId = manifest.nextChunkId();
 
+        if (null != fileChannel) {
+            // The chunk begins where the previous chunk ended. As the chunks
+            // are read in order, their bytes also make up the source digest.
+            FileRegionInputStream region =
+                new FileRegionInputStream(fileChannel, bytesRead, chunkSize);
+            region.setCountListener(countListener);
+            return currentChunk =
+                new ChunkInputStream(chunkId,
+                                     new DigestInputStream(region, sourceDigest),
+                                     region,
+                                     preserveChunkMD5s);
+        }
+
         InputStream buffIS = new BufferedInputStream(largeStream, BUFFER_SIZE);
         return currentChunk = new ChunkInputStream(chunkId,
                                                    buffIS,
@@ -187,6 +248,14 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
         this.preserveChunkMD5s = preserveChunkMD5s;
     }
 
+    /**
+     * Sets a listener to be given the number of bytes of the file read so
+     * far, as each chunk is read. Applies only to content read from a file.
+     */
+    public void setCountListener(CountListener countListener) {
+        this.countListener = countListener;
+    }
+
     public long getMaxChunkSize() {
         return maxChunkSize;
     }
@@ -195,11 +264,28 @@ public class ChunkableContent implements Iterable<ChunkInputStream>, Iterator<Ch
         return manifest;
     }
 
+    /**
+     * Releases the source content. This is done by finalizeManifest(), but
+     * may be called to release the source when chunking is abandoned.
+     */
+    public void close() {
+        if (null != fileChannel) {
+            IOUtils.closeQuietly(fileChannel);
+        } else {
+            IOUtils.closeQuietly(largeStream);
+        }
+    }
+
     public ChunksManifest finalizeManifest() {
         addEntry();
         
-        manifest.setMD5OfSourceContent(largeStream.getMD5());
-        IOUtils.closeQuietly(largeStream);
+        if (null != fileChannel) {
+            manifest.setMD5OfSourceContent(
+                ChecksumUtil.checksumBytesToString(sourceDigest.digest()));
+        } else {
+            manifest.setMD5OfSourceContent(largeStream.getMD5());
+        }
+        close();
         return manifest;
     }
 }
@@ -27,12 +27,14 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.input.AutoCloseInputStream;
+import org.apache.commons.io.input.CountingInputStream;
 import org.duracloud.chunk.error.NotFoundException;
 import org.duracloud.chunk.stream.ChunkInputStream;
 import org.duracloud.chunk.writer.AddContentResult;
 import org.duracloud.chunk.writer.ContentWriter;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.CountListener;
 import org.duracloud.common.util.ExceptionUtil;
 import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
@@ -124,12 +126,76 @@ public class FileChunker {
             StorageProviderUtil.createContentProperties(
                                                         file.getAbsolutePath(), 
                                                         null);
-        addContent(destSpaceId,
-                   destContentId,
-                   fileChecksum,
-                   file.length(),
-                   getInputStream(file),
-                   properties);
+        try {
+            doAddContent(destSpaceId,
+                         destContentId,
+                         fileChecksum,
+                         file,
+                         properties,
+                         null);
+        } catch(NotFoundException e) {
+            throw new DuraCloudRuntimeException(e);
+        }
+    }
+
+    /**
+     * This method pushes the content file to the space destSpaceId with the
+     * content ID destContentId. A file which needs chunking is read by region,
+     * one independent read per chunk.
+     *
+     * @param destSpaceId   of content destination
+     * @param destContentId of content
+     * @param fileChecksum MD5 checksum of file or null if not known
+     * @param file          to add
+     * @param properties user-defined properties associated with content
+     * @return MD5 checksum of the content, computed while the content was
+     *         transferred if fileChecksum is null, or null if the content
+     *         was ignored
+     */
+    public String addContent(String destSpaceId,
+                             String destContentId,
+                             String fileChecksum,
+                             File file,
+                             Map<String,String> properties) {
+        return addContent(destSpaceId,
+                          destContentId,
+                          fileChecksum,
+                          file,
+                          properties,
+                          null);
+    }
+
+    /**
+     * This method pushes the content file to the space destSpaceId with the
+     * content ID destContentId, reporting the number of bytes of the file
+     * read so far to the given listener as the content is transferred.
+     *
+     * @param destSpaceId   of content destination
+     * @param destContentId of content
+     * @param fileChecksum MD5 checksum of file or null if not known
+     * @param file          to add
+     * @param properties user-defined properties associated with content
+     * @param listener to be given the count of bytes read, or null for none
+     * @return MD5 checksum of the content, computed while the content was
+     *         transferred if fileChecksum is null, or null if the content
+     *         was ignored
+     */
+    public String addContent(String destSpaceId,
+                             String destContentId,
+                             String fileChecksum,
+                             File file,
+                             Map<String,String> properties,
+                             CountListener listener) {
+        try {
+            return doAddContent(destSpaceId,
+                                destContentId,
+                                fileChecksum,
+                                file,
+                                properties,
+                                listener);
+        } catch(NotFoundException e) {
+            throw new DuraCloudRuntimeException(e);
+        }
     }
 
     /**
@@ -141,15 +207,18 @@ public class FileChunker {
      * @param fileChecksum MD5 checksum of file or null if not known
      * @param stream        to add
      * @param properties user-defined properties associated with content
+     * @return MD5 checksum of the content, computed while the content was
+     *         transferred if fileChecksum is null, or null if the content
+     *         was ignored
      */
-    public void addContent(String destSpaceId,
-                           String destContentId,
-                           String fileChecksum,
-                           long fileSize,
-                           InputStream stream,
-                           Map<String,String> properties) {
+    public String addContent(String destSpaceId,
+                             String destContentId,
+                             String fileChecksum,
+                             long fileSize,
+                             InputStream stream,
+                             Map<String,String> properties) {
         try {
-            doAddContent(destSpaceId,
+            return doAddContent(destSpaceId,
                          destContentId,
                          fileChecksum,
                          fileSize,
@@ -197,52 +266,88 @@ public class FileChunker {
             StorageProviderUtil.createContentProperties(file.getAbsolutePath(),
                                                         null);
         String destContentId = getContentId(baseDir, file);
-        InputStream stream = getInputStream(file);
-        doAddContent(destSpaceId, destContentId, null, file.length(), stream, properties);
+        doAddContent(destSpaceId, destContentId, null, file, properties, null);
     }
 
-    private void doAddContent(String destSpaceId,
-                              String destContentId,
-                              String fileChecksum,
-                              long fileSize,
-                              InputStream stream, 
-                              Map<String,String> properties)
+    /*
+     * Files which are to be chunked are read by region rather than as a
+     * stream, allowing each chunk to be read independently.
+     */
+    private String doAddContent(String destSpaceId,
+                                String destContentId,
+                                String fileChecksum,
+                                File file,
+                                Map<String,String> properties,
+                                CountListener listener)
+        throws NotFoundException {
+        long fileSize = file.length();
+        if (fileSize <= options.getMaxChunkSize() ||
+            options.isIgnoreLargeFiles()) {
+            InputStream stream = getInputStream(file);
+            if (null != listener) {
+                stream = new CountingInputStream(stream) {
+                    @Override
+                    protected synchronized void afterRead(int n) {
+                        super.afterRead(n);
+                        listener.setCount(getByteCount());
+                    }
+                };
+            }
+            return doAddContent(destSpaceId,
+                                destContentId,
+                                fileChecksum,
+                                fileSize,
+                                stream,
+                                properties);
+        }
+
+        ChunkableContent chunkable = new ChunkableContent(destContentId,
+                                                          file,
+                                                          options.getMaxChunkSize());
+        chunkable.setCountListener(listener);
+        try {
+            return writeChunked(destSpaceId,
+                                fileChecksum,
+                                chunkable,
+                                properties);
+        } finally {
+            chunkable.close();
+        }
+    }
+
+    private String doAddContent(String destSpaceId,
+                                String destContentId,
+                                String fileChecksum,
+                                long fileSize,
+                                InputStream stream,
+                                Map<String,String> properties)
         throws NotFoundException {
         long maxChunkSize = options.getMaxChunkSize();
         boolean ignoreLargeFiles = options.isIgnoreLargeFiles();
-        boolean preserveChunkMD5s = options.isPreserveChunkMD5s();
 
+        String finalChecksum = null;
         log.debug("loading file: " + destContentId + "[" + fileSize + "]");
         if (fileSize <= maxChunkSize) {
+            // Compute the checksum as the content is written if not provided
+            boolean computeChecksum = (null == fileChecksum);
             BufferedInputStream buffStream = new BufferedInputStream(stream);
             ChunkInputStream chunk = new ChunkInputStream(destContentId,
                                                           buffStream,
                                                           fileSize,
-                                                          false);
+                                                          computeChecksum);
 
             contentWriter.writeSingle(destSpaceId, fileChecksum, chunk, properties);
+            finalChecksum = computeChecksum ? chunk.getMD5() : fileChecksum;
 
         } else if (!ignoreLargeFiles) {
             ChunkableContent chunkable = new ChunkableContent(destContentId,
                                                               stream,
                                                               fileSize,
                                                               maxChunkSize);
-            chunkable.setPreserveChunkMD5s(preserveChunkMD5s);
-
-            contentWriter.write(destSpaceId, chunkable, properties);
-
-            // Verify final checksum
-            if(fileChecksum != null) {
-                String finalChecksum =
-                    chunkable.getManifest().getHeader().getSourceMD5();                
-                if(!fileChecksum.equals(finalChecksum)) {
-                    String err = "Final checksum of chunked content " +
-                                 finalChecksum +
-                                 " does not match provided checksum " +
-                                 fileChecksum;
-                    throw new DuraCloudRuntimeException(err);
-                }
-            }
+            finalChecksum = writeChunked(destSpaceId,
+                                         fileChecksum,
+                                         chunkable,
+                                         properties);
 
         } else {
             log.info("Ignoring: [" + destContentId + "]");
@@ -250,6 +355,34 @@ public class FileChunker {
         }
 
         IOUtils.closeQuietly(stream);
+        return finalChecksum;
+    }
+
+    /*
+     * Writes the chunks of the content and verifies the final checksum
+     */
+    private String writeChunked(String destSpaceId,
+                                String fileChecksum,
+                                ChunkableContent chunkable,
+                                Map<String,String> properties)
+        throws NotFoundException {
+        chunkable.setPreserveChunkMD5s(options.isPreserveChunkMD5s());
+
+        contentWriter.write(destSpaceId, chunkable, properties);
+
+        // Verify final checksum
+        String finalChecksum =
+            chunkable.getManifest().getHeader().getSourceMD5();
+        if(fileChecksum != null) {
+            if(!fileChecksum.equals(finalChecksum)) {
+                String err = "Final checksum of chunked content " +
+                             finalChecksum +
+                             " does not match provided checksum " +
+                             fileChecksum;
+                throw new DuraCloudRuntimeException(err);
+            }
+        }
+        return finalChecksum;
     }
 
     private Collection<File> listFiles(File baseDir,
@@ -29,6 +29,7 @@ import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.model.Credential;
+import org.duracloud.common.web.HttpConnectionPool;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -154,6 +155,15 @@ public class FileChunkerDriver {
         cloud.setArgName("host:port");
         cloud.setValueSeparator(':');
 
+        Option uploadThreads = new Option("t",
+                                          "upload-threads",
+                                          true,
+                                          "number of chunks of each file to " +
+                                              "upload concurrently to the " +
+                                              "cloud store (default 1)");
+        uploadThreads.setArgs(1);
+        uploadThreads.setArgName("n");
+
         Option excludeChunkMD5s = new Option("x",
                                              "exclude-chunk-md5s",
                                              false,
@@ -177,6 +187,7 @@ public class FileChunkerDriver {
         options.addOption(fileFiltered);
         options.addOption(dirFiltered);
         options.addOption(cloud);
+        options.addOption(uploadThreads);
         options.addOption(excludeChunkMD5s);
         options.addOption(ignoreLargeFiles);
 
@@ -233,14 +244,22 @@ public class FileChunkerDriver {
             String[] vals = cmd.getOptionValues("cloud-store");
             String host = vals[0];
             String port = vals[1];
-            ContentStoreManager mgr = new ContentStoreManagerImpl(host, port);
+            ContentStoreManager mgr =
+                new ContentStoreManagerImpl(host, port, null,
+                                            new HttpConnectionPool());
 
             if (credential != null) {
                 mgr.login(credential);
             }
 
-            writer = new DuracloudContentWriter(mgr.getPrimaryContentStore(),
-                                                username);
+            DuracloudContentWriter cloudWriter =
+                new DuracloudContentWriter(mgr.getPrimaryContentStore(),
+                                           username);
+            if (cmd.hasOption("upload-threads")) {
+                cloudWriter.setUploadThreads(
+                    Integer.parseInt(cmd.getOptionValue("upload-threads")));
+            }
+            writer = cloudWriter;
         } else {
             writer = new FilesystemContentWriter();
         }
@@ -0,0 +1,239 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * This class holds a bounded set of reusable buffers in which chunks can be
+ * kept in memory while they are transferred, so that a chunk which must be
+ * read more than once does not need to be written to a temp file.
+ *
+ * Memory is handed out in fixed-size segments, a chunk using as many segments
+ * as it needs. Segments are allocated on first use and then reused, and may
+ * be allocated outside of the heap. Callers wait when all segments are in
+ * use, so the pool never holds more than its capacity.
+ */
+public class ChunkBufferPool {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private final int segmentSize;
+    private final boolean direct;
+    private final long capacity;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<ByteBuffer> free;
+
+    /**
+     * @param capacity maximum number of bytes held by the pool
+     * @param segmentSize size of each buffer segment
+     * @param direct if true, segments are allocated outside of the heap
+     */
+    public ChunkBufferPool(long capacity, int segmentSize, boolean direct) {
+        if (segmentSize < 1 || capacity < segmentSize) {
+            throw new IllegalArgumentException(
+                "Capacity must be at least one segment of at least one byte");
+        }
+        long segments = capacity / segmentSize;
+        this.segmentSize = segmentSize;
+        this.direct = direct;
+        this.capacity = Math.min(segments, Integer.MAX_VALUE) * segmentSize;
+        this.available = new Semaphore((int) Math.min(segments,
+                                                      Integer.MAX_VALUE),
+                                       true);
+        this.free = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * @return true if a chunk of the given length fits in this pool
+     */
+    public boolean canHold(long length) {
+        return length <= capacity;
+    }
+
+    /**
+     * Reads length bytes of the given stream into pooled buffers, waiting
+     * for buffers to be released if necessary. The returned buffer must be
+     * released once it is no longer needed.
+     *
+     * @param stream from which to read
+     * @param length number of bytes to read
+     * @return the buffered bytes
+     * @throws IOException if the stream ends early or cannot be read
+     * @throws InterruptedException if interrupted while waiting for buffers
+     */
+    public PooledBuffer fill(InputStream stream, long length)
+        throws IOException, InterruptedException {
+        if (!canHold(length)) {
+            throw new IllegalArgumentException(
+                "Length " + length + " exceeds pool capacity " + capacity);
+        }
+        int count = (int) ((length + segmentSize - 1) / segmentSize);
+        available.acquire(count);
+
+        List<ByteBuffer> segments = new ArrayList<>(count);
+        PooledBuffer buffer = new PooledBuffer(segments, length);
+        try {
+            long remaining = length;
+            for (int i = 0; i < count; i++) {
+                ByteBuffer segment = takeSegment();
+                segments.add(segment);
+                int size = (int) Math.min(segmentSize, remaining);
+                readFully(stream, segment, size);
+                segment.flip();
+                remaining -= size;
+            }
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            // Unused permits are returned along with the filled segments
+            available.release(count - segments.size());
+            buffer.release();
+            throw e;
+        }
+    }
+
+    private ByteBuffer takeSegment() {
+        ByteBuffer segment = free.poll();
+        if (null == segment) {
+            segment = direct ? ByteBuffer.allocateDirect(segmentSize)
+                             : ByteBuffer.allocate(segmentSize);
+        }
+        segment.clear();
+        return segment;
+    }
+
+    private void readFully(InputStream stream, ByteBuffer segment, int size)
+        throws IOException {
+        if (segment.hasArray()) {
+            byte[] array = segment.array();
+            int offset = segment.arrayOffset();
+            int read = 0;
+            while (read < size) {
+                int count = stream.read(array, offset + read, size - read);
+                if (count == -1) {
+                    throw new IOException("Stream ended after " + read +
+                                          " bytes of a " + size +
+                                          " byte segment");
+                }
+                read += count;
+            }
+            segment.position(size);
+        } else {
+            byte[] transfer = new byte[Math.min(size, 64 * 1024)];
+            while (segment.position() < size) {
+                int count = stream.read(transfer, 0,
+                                        Math.min(transfer.length,
+                                                 size - segment.position()));
+                if (count == -1) {
+                    throw new IOException("Stream ended after " +
+                                          segment.position() + " bytes of a " +
+                                          size + " byte segment");
+                }
+                segment.put(transfer, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Bytes held in pooled buffers, which may be read any number of times.
+     */
+    public class PooledBuffer {
+        private final List<ByteBuffer> segments;
+        private final long length;
+        private boolean released = false;
+
+        private PooledBuffer(List<ByteBuffer> segments, long length) {
+            this.segments = segments;
+            this.length = length;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * @return a new stream over the buffered bytes, from the start
+         */
+        public InputStream newInputStream() {
+            if (released) {
+                throw new IllegalStateException("Buffer has been released");
+            }
+            List<ByteBuffer> views = new ArrayList<>(segments.size());
+            for (ByteBuffer segment : segments) {
+                views.add(segment.duplicate());
+            }
+            return new SegmentInputStream(views);
+        }
+
+        /**
+         * Returns the buffers to the pool. Streams retrieved from this
+         * buffer must no longer be used.
+         */
+        public synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            free.addAll(segments);
+            available.release(segments.size());
+        }
+    }
+
+    private static class SegmentInputStream extends InputStream {
+        private final List<ByteBuffer> segments;
+        private int current = 0;
+
+        private SegmentInputStream(List<ByteBuffer> segments) {
+            this.segments = segments;
+        }
+
+        private ByteBuffer segment() {
+            while (current < segments.size() &&
+                   !segments.get(current).hasRemaining()) {
+                current++;
+            }
+            return current < segments.size() ? segments.get(current) : null;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer segment = segment();
+            return null == segment ? -1 : (segment.get() & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer segment = segment();
+            if (null == segment) {
+                return -1;
+            }
+            int count = Math.min(len, segment.remaining());
+            segment.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            long remaining = 0;
+            for (int i = current; i < segments.size(); i++) {
+                remaining += segments.get(i).remaining();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+    }
+
+}
@@ -30,6 +30,7 @@ public class ChunkInputStream extends InputStream {
     private long chunkSize;
     private String mimetype;
     private boolean preserveMD5;
+    private FileRegionInputStream region;
 
     public ChunkInputStream(String chunkId,
                             InputStream inputStream,
@@ -43,6 +44,48 @@ public class ChunkInputStream extends InputStream {
         mimetype = mimeUtil.getMimeType(chunkId);
     }
 
+    /**
+     * Creates a chunk whose content is a region of a file. The content is
+     * read through the arg inputStream, which must read from the arg region,
+     * allowing the caller to observe the bytes as they pass. The region
+     * itself is used to read the chunk again by way of reopen().
+     *
+     * @param chunkId of chunk
+     * @param inputStream which reads the content of the region
+     * @param region of file which contains the chunk
+     * @param preserveMD5 if true, the MD5 of the chunk is computed
+     */
+    public ChunkInputStream(String chunkId,
+                            InputStream inputStream,
+                            FileRegionInputStream region,
+                            boolean preserveMD5) {
+        this(chunkId, inputStream, region.getLength(), preserveMD5);
+        this.region = region;
+    }
+
+    /**
+     * @return true if this chunk can be read again using reopen()
+     */
+    public boolean isReopenable() {
+        return null != region;
+    }
+
+    /**
+     * Provides a new stream over the content of this chunk, read directly
+     * from its file region. This allows a chunk to be read again (such as
+     * when a transfer is retried) without reading the source from the start.
+     *
+     * @return new chunk stream, positioned at the start of the chunk
+     */
+    public ChunkInputStream reopen() {
+        if (!isReopenable()) {
+            throw new UnsupportedOperationException(
+                "Chunk " + chunkId + " is not read from a file region");
+        }
+        FileRegionInputStream regionCopy = region.reopen();
+        return new ChunkInputStream(chunkId, regionCopy, regionCopy, preserveMD5);
+    }
+
     /**
      * This method reads up to chunkSize number of bytes from the stream.
      * When either chunkSize bytes have been read, or the end of the stream
@@ -0,0 +1,180 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.duracloud.common.util.CountListener;
+
+/**
+ * This class reads a fixed region of a file using positional reads on a
+ * FileChannel. The channel position is never changed, so any number of
+ * regions of the same file may be read independently, and a region may be
+ * read again from the start by way of reopen().
+ *
+ * Large reads are made directly into the caller's buffer; only small reads
+ * pass through the internal buffer.
+ *
+ * Closing this stream does not close the underlying channel.
+ *
+ * A CountListener may be set to follow progress through the file; it is
+ * given the file position reached by each read. The listener is not carried
+ * over by reopen(), so re-reading a region does not report progress twice.
+ */
+public class FileRegionInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long offset;
+    private final long length;
+
+    private long position;
+    private ByteBuffer buffer;
+    private CountListener listener;
+
+    /**
+     * @param channel file from which to read
+     * @param offset position in the file at which the region begins
+     * @param length number of bytes in the region
+     */
+    public FileRegionInputStream(FileChannel channel, long offset, long length) {
+        this.channel = channel;
+        this.offset = offset;
+        this.length = length;
+        this.position = 0;
+    }
+
+    /**
+     * @return a new stream which reads this same region from its start
+     */
+    public FileRegionInputStream reopen() {
+        return new FileRegionInputStream(channel, offset, length);
+    }
+
+    /**
+     * @param listener to be given the file position after each read, or
+     *                 null for none
+     */
+    public void setCountListener(CountListener listener) {
+        this.listener = listener;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return (read == -1) ? -1 : (single[0] & 0xff);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        long remaining = length - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        // Serve from bytes already buffered
+        if (null != buffer && buffer.hasRemaining()) {
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            advance(count);
+            return count;
+        }
+
+        int count = (int) Math.min(len, remaining);
+        if (count >= BUFFER_SIZE) {
+            // Large read, fill the caller's array directly
+            count = readAt(ByteBuffer.wrap(b, off, count));
+        } else {
+            if (null == buffer) {
+                buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, remaining));
+            readAt(buffer);
+            buffer.flip();
+            count = Math.min(count, buffer.remaining());
+            buffer.get(b, off, count);
+        }
+        advance(count);
+        return count;
+    }
+
+    private void advance(long count) {
+        position += count;
+        if (null != listener) {
+            listener.setCount(offset + position);
+        }
+    }
+
+    /*
+     * Reads into the given buffer from the current position, filling as much
+     * of the buffer as the file allows. Only called when no buffered bytes
+     * remain, so the current position is the next byte to be read.
+     */
+    private int readAt(ByteBuffer target) throws IOException {
+        long filePosition = offset + position;
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, filePosition + total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        if (total == 0) {
+            throw new IOException("Unexpected end of file at position " +
+                                  filePosition + " while reading region of " +
+                                  length + " bytes at " + offset);
+        }
+        return total;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = 0;
+        if (null != buffer && buffer.hasRemaining()) {
+            skipped = Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + (int) skipped);
+        }
+        long unbuffered = Math.min(n - skipped, length - position - skipped);
+        skipped += Math.max(0, unbuffered);
+        advance(skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // do not close the shared channel
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.writer;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.duracloud.chunk.stream.ChunkBufferPool;
+import org.duracloud.chunk.stream.ChunkInputStream;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The content of a chunk which has been read from its source, along with the
+ * checksum computed as it was read. The content can be opened any number of
+ * times, allowing a failed transfer to be retried.
+ *
+ * Chunks read from a file region are opened again from the file itself.
+ * Other chunks are held in pooled memory buffers where they fit, or in a temp
+ * file where they do not. Either way the chunk is read from its source once,
+ * and the checksum is computed during that same read.
+ */
+abstract class ChunkSource {
+
+    private final String checksum;
+    private final long length;
+
+    private ChunkSource(String checksum, long length) {
+        this.checksum = checksum;
+        this.length = length;
+    }
+
+    /**
+     * Reads the chunk from its source, which leaves the chunk fully read.
+     *
+     * @param chunk to read
+     * @param bufferPool used to hold chunks which cannot be reopened, may be
+     *                   null to always use temp files
+     */
+    static ChunkSource read(ChunkInputStream chunk, ChunkBufferPool bufferPool) {
+        // Chunks preserving their MD5 already compute it as they are read
+        MessageDigest digest = chunk.md5Preserved() ? null : createDigest();
+        InputStream stream =
+            (null == digest) ? chunk : new DigestInputStream(chunk, digest);
+        try {
+            if (chunk.isReopenable()) {
+                IOUtils.copy(stream, NullOutputStream.NULL_OUTPUT_STREAM);
+                return new RegionSource(chunk, checksum(chunk, digest));
+            } else if (null != bufferPool &&
+                       bufferPool.canHold(chunk.getChunkSize())) {
+                ChunkBufferPool.PooledBuffer buffer =
+                    bufferPool.fill(stream, chunk.getChunkSize());
+                return new BufferSource(buffer, checksum(chunk, digest));
+            } else {
+                File file = IOUtil.writeStreamToFile(stream);
+                return new FileSource(file, checksum(chunk, digest));
+            }
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to read chunk " + chunk.getChunkId() + ": " +
+                e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuraCloudRuntimeException(
+                "Interrupted while reading chunk " + chunk.getChunkId(), e);
+        }
+    }
+
+    /**
+     * Provides the content of a chunk of a file region which has already
+     * been fully read, preserving its MD5, such as by a failed transfer.
+     *
+     * @param chunk fully read chunk
+     */
+    static ChunkSource readRegion(ChunkInputStream chunk) {
+        return new RegionSource(chunk, chunk.getMD5());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(
+                ChecksumUtil.Algorithm.MD5.toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new DuraCloudRuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static String checksum(ChunkInputStream chunk,
+                                   MessageDigest digest) {
+        if (null == digest) {
+            return chunk.getMD5();
+        }
+        return ChecksumUtil.checksumBytesToString(digest.digest());
+    }
+
+    String getChecksum() {
+        return checksum;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * @return a new stream over the content of the chunk
+     */
+    abstract InputStream open() throws IOException;
+
+    /**
+     * Releases any resources held for the chunk content
+     */
+    abstract void release();
+
+    private static class RegionSource extends ChunkSource {
+        private final ChunkInputStream chunk;
+
+        private RegionSource(ChunkInputStream chunk, String checksum) {
+            super(checksum, chunk.getChunkSize());
+            this.chunk = chunk;
+        }
+
+        @Override
+        InputStream open() {
+            return chunk.reopen();
+        }
+
+        @Override
+        void release() {
+            // The source file is owned by the chunkable content
+        }
+    }
+
+    private static class BufferSource extends ChunkSource {
+        private final ChunkBufferPool.PooledBuffer buffer;
+
+        private BufferSource(ChunkBufferPool.PooledBuffer buffer,
+                             String checksum) {
+            super(checksum, buffer.getLength());
+            this.buffer = buffer;
+        }
+
+        @Override
+        InputStream open() {
+            return buffer.newInputStream();
+        }
+
+        @Override
+        void release() {
+            buffer.release();
+        }
+    }
+
+    private static class FileSource extends ChunkSource {
+        private final File file;
+
+        private FileSource(File file, String checksum) {
+            super(checksum, file.length());
+            this.file = file;
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            return new FileInputStream(file);
+        }
+
+        @Override
+        void release() {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+}
@@ -7,11 +7,13 @@
  */
 package org.duracloud.chunk.writer;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.duracloud.chunk.ChunkableContent;
 import org.duracloud.chunk.error.ContentNotAddedException;
 import org.duracloud.chunk.error.NotFoundException;
 import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.stream.ChunkBufferPool;
 import org.duracloud.chunk.stream.ChunkInputStream;
 import org.duracloud.chunk.stream.KnownLengthInputStream;
 import org.duracloud.chunk.util.ChunkUtil;
@@ -19,24 +21,27 @@ import org.duracloud.client.ContentStore;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
 import org.duracloud.common.util.ChecksumUtil;
-import org.duracloud.common.util.IOUtil;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 
 /**
@@ -44,6 +49,22 @@ import java.util.Set;
  * content to the Duracloud storeclient interface. Warning: this class is NOT 
  * thread-safe.
  *
+ * When more than one upload thread is configured, the chunks of a single
+ * content item are transferred concurrently: chunks are still read from the
+ * source in order (so the manifest and source checksum are built in a single
+ * pass), but each chunk is uploaded in the background while the following
+ * chunks are read, with at most one chunk per upload thread held locally.
+ *
+ * Each chunk is read from its source once, computing its checksum as it is
+ * read. When chunks are transferred one at a time, a chunk of a local file
+ * which is not already in storage is transferred by that same read, and its
+ * checksum verified once the transfer completes. Otherwise chunks of local
+ * files are transferred (and retried) by reading their file region again,
+ * while chunks of other streams are held in a pool of reusable memory
+ * buffers, falling back to a temp file only for chunks larger than the pool.
+ * Unless a pool is provided, the pool is sized to hold a chunk per upload
+ * thread, within a quarter of the maximum heap size.
+ *
  * @author Andrew Woods
  *         Date: Feb 5, 2010
  */
@@ -53,8 +74,9 @@ public class DuracloudContentWriter implements ContentWriter {
 
     private ContentStore contentStore;
     private String username;
-    private Set<String> existingSpaces = new HashSet<String>();
-    private List<AddContentResult> results = new ArrayList<AddContentResult>();
+    private Set<String> existingSpaces = ConcurrentHashMap.newKeySet();
+    private List<AddContentResult> results =
+        Collections.synchronizedList(new ArrayList<AddContentResult>());
     private ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
 
     // if true, skip writing results and throw exception when errors occur
@@ -66,8 +88,15 @@ public class DuracloudContentWriter implements ContentWriter {
     private static int DEFAULT_MAX_RETRIES = 4;  //actual attempts will always equal MAX_RETRIES+1
     private static int DEFAULT_WAIT_IN_MS_BETWEEN_RETRIES = 1000;
     
+    public static final int DEFAULT_UPLOAD_THREADS = 1;
+    public static final long DEFAULT_BUFFER_POOL_SIZE = 64 * 1024 * 1024;
+
     private int maxRetries = DEFAULT_MAX_RETRIES;
     private int waitInMsBetweenRetries = DEFAULT_MAX_RETRIES;
+    private int uploadThreads = DEFAULT_UPLOAD_THREADS;
+    // Null until sized for the first chunked content, unless provided
+    private ChunkBufferPool bufferPool = null;
+    private boolean bufferPoolProvided = false;
     
     public DuracloudContentWriter(ContentStore contentStore, String username) {
         this(contentStore,
@@ -117,6 +146,51 @@ public class DuracloudContentWriter implements ContentWriter {
         return results;
     }
 
+    public int getUploadThreads() {
+        return uploadThreads;
+    }
+
+    /**
+     * @param uploadThreads number of chunks of a content item to transfer
+     *                      concurrently, 1 transfers chunks one at a time
+     */
+    public void setUploadThreads(int uploadThreads) {
+        if (uploadThreads < 1) {
+            throw new IllegalArgumentException("Upload threads must be " +
+                                               "greater than zero");
+        }
+        this.uploadThreads = uploadThreads;
+    }
+
+    /**
+     * @param bufferPool holds chunks which are not read from a local file
+     *                   while they are transferred, null to use temp files
+     */
+    public void setChunkBufferPool(ChunkBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.bufferPoolProvided = true;
+    }
+
+    /*
+     * Creates the default pool, or replaces it with a larger one, so that it
+     * can hold a chunk of the given size per upload thread where memory
+     * allows. Segments are allocated as they are used, so a pool which is
+     * larger than needed costs nothing.
+     */
+    private synchronized void sizeBufferPool(long maxChunkSize) {
+        if (bufferPoolProvided) {
+            return;
+        }
+        long wanted = Math.max(DEFAULT_BUFFER_POOL_SIZE,
+                               Math.min(maxChunkSize * uploadThreads,
+                                        Runtime.getRuntime().maxMemory() / 4));
+        if (null == bufferPool || !bufferPool.canHold(wanted)) {
+            bufferPool = new ChunkBufferPool(wanted,
+                                             ChunkBufferPool.DEFAULT_SEGMENT_SIZE,
+                                             false);
+        }
+    }
+
     public void ignore(String spaceId, String contentId, long contentSize) {
         AddContentResult result = new AddContentResult(spaceId,
                                                        contentId,
@@ -150,10 +224,15 @@ public class DuracloudContentWriter implements ContentWriter {
         createSpaceIfNotExist(spaceId);
         boolean errorsExist = false;
         results.clear();
-        for (ChunkInputStream chunk : chunkable) {
-            writeChunk(spaceId, chunk);
-            if(errorsExist = errorsExist()){
-                break;
+        sizeBufferPool(chunkable.getMaxChunkSize());
+        if (uploadThreads > 1) {
+            errorsExist = writeChunksConcurrently(spaceId, chunkable);
+        } else {
+            for (ChunkInputStream chunk : chunkable) {
+                writeChunk(spaceId, chunk);
+                if(errorsExist = errorsExist()){
+                    break;
+                }
             }
         }
 
@@ -184,27 +263,142 @@ public class DuracloudContentWriter implements ContentWriter {
 
     protected boolean errorsExist() {
         boolean containsErrors = false;
-        for(AddContentResult result : this.results){
-            if(result.getState().equals(AddContentResult.State.ERROR)){
-                containsErrors = true;
-                break;
+        synchronized (results) {
+            for(AddContentResult result : this.results){
+                if(result.getState().equals(AddContentResult.State.ERROR)){
+                    containsErrors = true;
+                    break;
+                }
             }
         }
         return containsErrors;
     }
 
+    /*
+     * Reads each chunk in turn, handing the upload of each chunk to a pool of
+     * upload threads. Reading pauses while every upload thread has a chunk in
+     * hand, which bounds the number of chunks held locally.
+     * Returns true if errors were recorded for any chunk.
+     */
+    private boolean writeChunksConcurrently(String spaceId,
+                                            ChunkableContent chunkable) {
+        ExecutorService uploader = Executors.newFixedThreadPool(uploadThreads);
+        Semaphore uploadSlots = new Semaphore(uploadThreads);
+        List<Future<?>> uploads = new ArrayList<>();
+        try {
+            for (ChunkInputStream chunk : chunkable) {
+                uploadSlots.acquire();
+                if (errorsExist() || anyFailed(uploads)) {
+                    uploadSlots.release();
+                    break;
+                }
+
+                String chunkId = chunk.getChunkId();
+                ChunkSource source;
+                try {
+                    source = ChunkSource.read(chunk, bufferPool);
+                } catch (RuntimeException e) {
+                    uploadSlots.release();
+                    throw e;
+                }
+                try {
+                    uploads.add(uploader.submit(() -> {
+                        try {
+                            uploadChunk(spaceId, chunkId, source);
+                        } finally {
+                            uploadSlots.release();
+                        }
+                        return null;
+                    }));
+                } catch (RuntimeException e) {
+                    source.release();
+                    throw e;
+                }
+            }
+
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuraCloudRuntimeException(
+                "Interrupted while writing chunks to space " + spaceId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DuraCloudRuntimeException(cause.getMessage(), cause);
+        } finally {
+            uploader.shutdownNow();
+        }
+        return errorsExist();
+    }
+
+    private boolean anyFailed(List<Future<?>> uploads) {
+        for (Future<?> upload : uploads) {
+            if (upload.isDone()) {
+                try {
+                    upload.get();
+                } catch (Exception e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /*
      * Writes chunk to DuraCloud if it does not already exist in DuraCloud with a
      * matching checksum. Retry failed transfers.
      */
     private void writeChunk(String spaceId, ChunkInputStream chunk)
         throws NotFoundException {
-        // Write chunk as a temp file
+        if (chunk.isReopenable() && chunk.md5Preserved() &&
+            (jumpStart || !chunkExists(spaceId, chunk.getChunkId()))) {
+            writeRegionChunk(spaceId, chunk);
+            return;
+        }
+        ChunkSource source = ChunkSource.read(chunk, bufferPool);
+        uploadChunk(spaceId, chunk.getChunkId(), source);
+    }
+
+    /*
+     * Transfers a chunk of a file region by its first read, which computes
+     * the checksum of the chunk (verified against the stored checksum) and
+     * feeds the source checksum. Should that transfer fail, the rest of the
+     * chunk is read to complete its checksum, and the transfer is retried
+     * by reading the region again.
+     */
+    private void writeRegionChunk(String spaceId, ChunkInputStream chunk)
+        throws NotFoundException {
         String chunkId = chunk.getChunkId();
-        File chunkFile = IOUtil.writeStreamToFile(chunk);
+        try {
+            addChunk(spaceId, null, chunk, null, false);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Transfer of chunk {} failed, retrying: {}",
+                     chunkId, e.getMessage());
+        }
 
         try {
-            String chunkChecksum = getChunkChecksum(chunkFile);
+            IOUtils.copy(chunk, NullOutputStream.NULL_OUTPUT_STREAM);
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to read chunk " + chunkId + ": " + e.getMessage(), e);
+        }
+        uploadChunk(spaceId, chunkId, ChunkSource.readRegion(chunk));
+    }
+
+    /*
+     * Transfers a chunk which has been read from its source, releasing the
+     * chunk content when done.
+     */
+    private void uploadChunk(String spaceId,
+                             String chunkId,
+                             ChunkSource source) {
+        try {
+            String chunkChecksum = source.getChecksum();
 
             // Write chunk if it is not already in storage (or jumpstart is enabled)
             if (jumpStart || !chunkInStorage(spaceId, chunkId, chunkChecksum)) {
@@ -214,13 +408,15 @@ public class DuracloudContentWriter implements ContentWriter {
                         @Override
                         public Object retry() throws Exception {
                             attempt++;
-                            try(InputStream chunkStream = new FileInputStream(chunkFile)) {
-                                ChunkInputStream chunkFileStream =
+                            try(InputStream chunkStream = source.open()) {
+                                // The checksum is already known, so it is
+                                // not computed again during the transfer
+                                ChunkInputStream chunkSourceStream =
                                     new ChunkInputStream(chunkId,
                                                          chunkStream,
-                                                         chunkFile.length(),
-                                                         chunk.md5Preserved());
-                                writeSingle(spaceId, chunkChecksum, chunkFileStream, attempt == getMaxRetries()+1);
+                                                         source.getLength(),
+                                                         false);
+                                writeSingle(spaceId, chunkChecksum, chunkSourceStream, attempt == getMaxRetries()+1);
                             }
                             return "";
                         }
@@ -234,28 +430,25 @@ public class DuracloudContentWriter implements ContentWriter {
                 }
             }
         } finally {
-            if(null != chunkFile && chunkFile.exists()) {
-                FileUtils.deleteQuietly(chunkFile);
-            }
+            source.release();
         }
     }
 
+    protected void setChecksumUtil(ChecksumUtil checksumUtil) {
+        this.checksumUtil = checksumUtil;
+    }
+
     /*
-     * Determine the checksum of the chunk file
+     * Determines if a file chunk exists in DuraCloud storage
      */
-    private String getChunkChecksum(File chunkFile) {
+    private boolean chunkExists(String spaceId, String contentId) {
         try {
-            return checksumUtil.generateChecksum(chunkFile);
-        } catch(IOException e) {
-            throw new DuraCloudRuntimeException("Unable to generate checksum for file " +
-                                                chunkFile + " due to: " + e.getMessage());
+            return contentStore.contentExists(spaceId, contentId);
+        } catch (ContentStoreException e) {
+            return false;
         }
     }
 
-    protected void setChecksumUtil(ChecksumUtil checksumUtil) {
-        this.checksumUtil = checksumUtil;
-    }
-
     /*
      * Determines if a file chunk exists in DuraCloud storage with the given checksum
      */
@@ -450,14 +643,15 @@ public class DuracloudContentWriter implements ContentWriter {
             properties.put(StorageProvider.PROPERTIES_CONTENT_CREATOR, username);
         }
 
+        String md5;
         try {
-            return contentStore.addContent(spaceId,
-                                           contentId,
-                                           contentStream,
-                                           contentSize,
-                                           contentMimetype,
-                                           contentChecksum,
-                                           properties);
+            md5 = contentStore.addContent(spaceId,
+                                          contentId,
+                                          contentStream,
+                                          contentSize,
+                                          contentMimetype,
+                                          contentChecksum,
+                                          properties);
         } catch (ContentStoreException e) {
             log.error(e.getFormattedMessage(), e);
             throw new ContentNotAddedException(spaceId, contentId, e);
@@ -465,6 +659,22 @@ public class DuracloudContentWriter implements ContentWriter {
             log.error("Error adding content:" + ex.getMessage(), ex);
             throw new ContentNotAddedException(spaceId, contentId, ex);
         }
+
+        // When no checksum was known up front, verify the checksum computed
+        // while the content was transferred against the stored checksum
+        if (null == contentChecksum &&
+            contentStream instanceof ChunkInputStream) {
+            ChunkInputStream chunk = (ChunkInputStream) contentStream;
+            if (chunk.md5Preserved() && !chunk.getMD5().equals(md5)) {
+                String err = "Checksum of content computed during transfer (" +
+                             chunk.getMD5() + ") does not match the checksum " +
+                             "of stored content (" + md5 + ")";
+                log.error(err);
+                throw new ContentNotAddedException(
+                    spaceId, contentId, new DuraCloudRuntimeException(err));
+            }
+        }
+        return md5;
     }
 
     private void createSpaceIfNotExist(String spaceId)
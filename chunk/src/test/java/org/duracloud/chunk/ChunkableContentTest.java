@@ -80,6 +80,38 @@ public class ChunkableContentTest {
         verifyTotalChunkChecksum();
     }
 
+    @Test
+    public void testFileChunking() throws Exception {
+        ChunkableContent fileChunkable =
+            new ChunkableContent(contentId, contentFile, MAX_CHUNK_SIZE);
+        fileChunkable.setPreserveChunkMD5s(true);
+
+        byte[] content = FileUtils.readFileToByteArray(contentFile);
+        int offset = 0;
+        for (ChunkInputStream chunk : fileChunkable) {
+            Assert.assertTrue(chunk.isReopenable());
+            byte[] chunkBytes = IOUtils.toByteArray(chunk);
+            Assert.assertEquals(chunk.getChunkSize(), chunkBytes.length);
+            for (int i = 0; i < chunkBytes.length; i++) {
+                Assert.assertEquals(content[offset + i], chunkBytes[i]);
+            }
+            offset += chunkBytes.length;
+
+            // Reading the chunk again provides the same content
+            ChunkInputStream reopened = chunk.reopen();
+            Assert.assertArrayEquals(chunkBytes, IOUtils.toByteArray(reopened));
+            Assert.assertEquals(chunk.getMD5(), reopened.getMD5());
+        }
+        Assert.assertEquals(contentSize, offset);
+
+        ChunksManifest manifest = fileChunkable.finalizeManifest();
+        Assert.assertEquals(5, manifest.getEntries().size());
+
+        ChecksumUtil checksumUtil = new ChecksumUtil(Algorithm.MD5);
+        Assert.assertEquals(checksumUtil.generateChecksum(contentFile),
+                            manifest.getHeader().getSourceMD5());
+    }
+
     private void doChunking() throws IOException {
         int i = 0;
         File f;
@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkBufferPoolTest {
+
+    private static final int SEGMENT_SIZE = 1000;
+
+    private byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        return content;
+    }
+
+    @Test
+    public void testFillAndReread() throws Exception {
+        doTestFillAndReread(false);
+        doTestFillAndReread(true);
+    }
+
+    private void doTestFillAndReread(boolean direct) throws Exception {
+        ChunkBufferPool pool = new ChunkBufferPool(10 * SEGMENT_SIZE,
+                                                   SEGMENT_SIZE,
+                                                   direct);
+        byte[] content = createContent(2500);
+        ChunkBufferPool.PooledBuffer buffer =
+            pool.fill(new ByteArrayInputStream(content), content.length);
+        Assert.assertEquals(content.length, buffer.getLength());
+
+        // The buffered bytes may be read any number of times
+        Assert.assertArrayEquals(content,
+                                 IOUtils.toByteArray(buffer.newInputStream()));
+        Assert.assertArrayEquals(content,
+                                 IOUtils.toByteArray(buffer.newInputStream()));
+        buffer.release();
+        buffer.release();
+
+        // Released segments are reused
+        byte[] next = createContent(SEGMENT_SIZE * 10);
+        buffer = pool.fill(new ByteArrayInputStream(next), next.length);
+        Assert.assertArrayEquals(next,
+                                 IOUtils.toByteArray(buffer.newInputStream()));
+        buffer.release();
+    }
+
+    @Test
+    public void testCapacity() throws Exception {
+        ChunkBufferPool pool = new ChunkBufferPool(2 * SEGMENT_SIZE,
+                                                   SEGMENT_SIZE,
+                                                   false);
+        Assert.assertTrue(pool.canHold(2 * SEGMENT_SIZE));
+        Assert.assertFalse(pool.canHold(2 * SEGMENT_SIZE + 1));
+
+        byte[] content = createContent(2 * SEGMENT_SIZE);
+        ChunkBufferPool.PooledBuffer first =
+            pool.fill(new ByteArrayInputStream(content), content.length);
+
+        // No segments are free until the first buffer is released
+        CountDownLatch filled = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                pool.fill(new ByteArrayInputStream(content), 1).release();
+                filled.countDown();
+            } catch (IOException | InterruptedException e) {
+                // fails the test by not counting down
+            }
+        });
+        thread.start();
+        Assert.assertFalse(filled.await(200, TimeUnit.MILLISECONDS));
+
+        first.release();
+        Assert.assertTrue(filled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShortStream() throws Exception {
+        ChunkBufferPool pool = new ChunkBufferPool(2 * SEGMENT_SIZE,
+                                                   SEGMENT_SIZE,
+                                                   false);
+        try {
+            pool.fill(new ByteArrayInputStream(createContent(1500)), 2000);
+            Assert.fail("Exception expected");
+        } catch (IOException expected) {
+        }
+
+        // All segments were returned to the pool
+        byte[] content = createContent(2000);
+        ChunkBufferPool.PooledBuffer buffer =
+            pool.fill(new ByteArrayInputStream(content), content.length);
+        Assert.assertArrayEquals(content,
+                                 IOUtils.toByteArray(buffer.newInputStream()));
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileRegionInputStreamTest {
+
+    private File file;
+    private byte[] content;
+    private FileChannel channel;
+
+    @Before
+    public void setUp() throws IOException {
+        content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        file = File.createTempFile("file-region", ".bin");
+        FileUtils.writeByteArrayToFile(file, content);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    @After
+    public void tearDown() {
+        IOUtils.closeQuietly(channel);
+        FileUtils.deleteQuietly(file);
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        int offset = 1000;
+        int length = 150 * 1024;
+        FileRegionInputStream region =
+            new FileRegionInputStream(channel, offset, length);
+
+        // Single byte, small and large reads
+        byte[] read = new byte[length];
+        read[0] = (byte) region.read();
+        int count = 1;
+        count += region.read(read, count, 10);
+        while (count < length) {
+            int result = region.read(read, count, length - count);
+            Assert.assertTrue(result > 0);
+            count += result;
+        }
+        Assert.assertEquals(-1, region.read());
+
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(content[offset + i], read[i]);
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        FileRegionInputStream region =
+            new FileRegionInputStream(channel, 10, 100);
+        byte[] first = IOUtils.toByteArray(region);
+        byte[] second = IOUtils.toByteArray(region.reopen());
+        Assert.assertEquals(100, first.length);
+        Assert.assertArrayEquals(first, second);
+
+        // Closing a region leaves the channel open
+        region.close();
+        Assert.assertTrue(channel.isOpen());
+    }
+
+    @Test
+    public void testSkip() throws IOException {
+        FileRegionInputStream region =
+            new FileRegionInputStream(channel, 0, 100);
+        region.read();
+        Assert.assertEquals(49, region.skip(49));
+        Assert.assertEquals(content[50], (byte) region.read());
+        Assert.assertEquals(49, region.skip(1000));
+        Assert.assertEquals(-1, region.read());
+    }
+
+    @Test
+    public void testCountListener() throws IOException {
+        final long[] count = new long[1];
+        FileRegionInputStream region =
+            new FileRegionInputStream(channel, 1000, 100);
+        region.setCountListener(c -> count[0] = c);
+
+        region.read();
+        Assert.assertEquals(1001, count[0]);
+        region.skip(9);
+        Assert.assertEquals(1010, count[0]);
+        IOUtils.toByteArray(region);
+        Assert.assertEquals(1100, count[0]);
+
+        // A reopened region does not report its reads again
+        IOUtils.toByteArray(region.reopen());
+        Assert.assertEquals(1100, count[0]);
+    }
+
+}
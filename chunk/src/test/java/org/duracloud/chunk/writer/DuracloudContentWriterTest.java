@@ -7,8 +7,10 @@
  */
 package org.duracloud.chunk.writer;
 
+import org.apache.commons.io.FileUtils;
 import org.duracloud.chunk.ChunkableContent;
 import org.duracloud.chunk.error.NotFoundException;
+import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.stream.ChunkInputStream;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -28,6 +30,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -105,6 +108,12 @@ public class DuracloudContentWriterTest {
 
     private void updateMockContentStoreContentCheck(boolean chunkExists)
         throws ContentStoreException {
+        updateMockContentStoreContentCheck(chunkExists, checksum);
+    }
+
+    private void updateMockContentStoreContentCheck(boolean chunkExists,
+                                                    String storedChecksum)
+        throws ContentStoreException {
         if (!chunkExists) {
             EasyMock.expect(contentStore.contentExists(EasyMock.isA(String.class),
                                                        EasyMock.isA(String.class)))
@@ -117,7 +126,7 @@ public class DuracloudContentWriterTest {
                 .anyTimes();
 
             Map<String, String> props = new HashMap<>();
-            props.put(ContentStore.CONTENT_CHECKSUM, checksum);
+            props.put(ContentStore.CONTENT_CHECKSUM, storedChecksum);
             EasyMock.expect(contentStore.getContentProperties(EasyMock.isA(String.class),
                                                               EasyMock.isA(String.class)))
                     .andReturn(props)
@@ -247,7 +256,11 @@ public class DuracloudContentWriterTest {
     public void testWriteCorrectChunkExists() throws Exception {
         expectDelete(false);
         createMockContentStore(true, false);
-        updateMockContentStoreContentCheck(true);
+        // Every chunk of the uniform content has the same checksum
+        String chunkChecksum =
+            new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+                .generateChecksum(createUniformContentStream(1000));
+        updateMockContentStoreContentCheck(true, chunkChecksum);
         doTestWrite(true, false);
     }
 
@@ -276,21 +289,56 @@ public class DuracloudContentWriterTest {
         doTestWrite(false, false);
     }
 
-    private void doTestWrite(boolean validChecksum, boolean jumpStart) throws Exception {
+    /*
+     * Tests a write in which chunks are uploaded concurrently
+     */
+    @Test
+    public void testWriteConcurrentUploads() throws Exception {
+        createMockContentStore(true, true);
+        updateMockContentStoreContentCheck(false);
+        replayMocks();
+
         DuracloudContentWriter writer =
-            new DuracloudContentWriter(contentStore, username, false, jumpStart);
-        if(validChecksum) {
-            writer.setChecksumUtil(new ChecksumUtil (ChecksumUtil.Algorithm.MD5) {
-                @Override
-                public String generateChecksum(File file) throws IOException {
-                    return checksum;
-                }
-            });
+            new DuracloudContentWriter(contentStore, username, false, false);
+        writer.setUploadThreads(3);
+
+        long contentSize = 4000;
+        ChunkableContent chunkable =
+            new ChunkableContent(contentId,
+                                 createContentStream(contentSize),
+                                 contentSize,
+                                 1000);
+        ChunksManifest manifest = writer.write(spaceId, chunkable);
+
+        // Manifest entries remain in source order
+        List<ChunksManifest.ManifestEntry> entries = manifest.getEntries();
+        Assert.assertEquals(4, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertEquals(i, entries.get(i).getIndex());
+            Assert.assertEquals(1000, entries.get(i).getByteSize());
         }
+        Assert.assertNotNull(manifest.getHeader().getSourceMD5());
+
+        // Four chunks and the manifest
+        List<AddContentResult> results = writer.getResults();
+        Assert.assertEquals(5, results.size());
+        for (AddContentResult result : results) {
+            Assert.assertEquals(AddContentResult.State.SUCCESS,
+                                result.getState());
+        }
+
+        EasyMock.verify(contentStore);
+    }
+
+    private void doTestWrite(boolean uniformContent, boolean jumpStart) throws Exception {
+        DuracloudContentWriter writer =
+            new DuracloudContentWriter(contentStore, username, false, jumpStart);
 
         replayMocks();
         long contentSize = 4000;
-        InputStream contentStream = createContentStream(contentSize);
+        InputStream contentStream = uniformContent ?
+            createUniformContentStream(contentSize) :
+            createContentStream(contentSize);
 
         long maxChunkSize = 1000;
         ChunkableContent chunkable = new ChunkableContent(contentId,
@@ -427,6 +475,65 @@ public class DuracloudContentWriterTest {
         EasyMock.verify(contentStoreThrow);
     }
     
+    /*
+     * Tests that chunks of a file are retried by reading the file again
+     */
+    @Test
+    public void testWriteFileChunksRetry() throws Exception {
+        File file = File.createTempFile("chunk-source", ".txt");
+        try {
+            FileUtils.copyInputStreamToFile(createContentStream(4000), file);
+            ChunkableContent chunkable =
+                new ChunkableContent(contentId, file, 1000);
+
+            // The first attempt to add each of two chunks fails, the
+            // others are stored by the read which computes their checksum
+            setupThrowingMockContentStore(0, 0, 0, 0);
+            expectStoredContent(false);
+            expectStoredContent(true);
+            expectStoredContent(false);
+            expectStoredContent(true);
+            expectStoredContent(true);
+            expectStoredContent(true);
+            expectStoredContent(true);
+            replayMocks();
+
+            ChunksManifest manifest = writerErrorThrow.write(spaceId, chunkable);
+            Assert.assertEquals(4, manifest.getEntries().size());
+            Assert.assertEquals(
+                new ChecksumUtil(ChecksumUtil.Algorithm.MD5).generateChecksum(file),
+                manifest.getHeader().getSourceMD5());
+
+            EasyMock.verify(contentStoreThrow);
+        } finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    /*
+     * Expects content to be added, either failing or returning the checksum
+     * of the content read from the given stream, as storage would
+     */
+    private void expectStoredContent(boolean succeed)
+        throws ContentStoreException {
+        EasyMock.expect(contentStoreThrow.addContent(EasyMock.isA(String.class),
+                                                     EasyMock.isA(String.class),
+                                                     isChunkInputStream(),
+                                                     EasyMock.anyLong(),
+                                                     EasyMock.isA(String.class),
+                                                     (String) EasyMock.anyObject(),
+                                                     (Map) EasyMock.anyObject()))
+                .andAnswer(() -> {
+                    if (!succeed) {
+                        throw new ContentStoreException("Expected addContent Error ");
+                    }
+                    InputStream stream =
+                        (InputStream) EasyMock.getCurrentArguments()[2];
+                    return new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+                        .generateChecksum(stream);
+                });
+    }
+
     private InputStream createContentStream(long size) {
         Assert.assertTrue("let's keep it reasonable", size < 10001);
 
@@ -442,6 +549,12 @@ public class DuracloudContentWriterTest {
         return new ByteArrayInputStream(out.toByteArray());
     }
 
+    private InputStream createUniformContentStream(long size) {
+        byte[] content = new byte[(int) size];
+        Arrays.fill(content, (byte) 'a');
+        return new ByteArrayInputStream(content);
+    }
+
     @Test
     public void testWriteSingle() throws Exception {
         createMockContentStore(true, true);
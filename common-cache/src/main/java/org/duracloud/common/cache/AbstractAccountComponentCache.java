@@ -7,41 +7,310 @@
  */
 package org.duracloud.common.cache;
 
-import java.util.HashMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.common.util.BlockingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * 
+ * A thread-safe cache of components, one per account.
+ *
+ * Each component is created at most once at a time: when several threads
+ * request the component for an account which is not cached, one of them
+ * creates it while the others wait for the result. A failure to create the
+ * component is passed to all waiting threads, and the next request tries
+ * again.
+ *
+ * The cache holds at most maxSize components, evicting the least recently
+ * used component when full, and components which have not been used for
+ * maxIdleMillis are evicted as well. Evicted and removed components are
+ * passed to destroyInstance() so that any resources they hold are released.
+ * Evicted components are destroyed in the background, so that the request
+ * which caused the eviction does not wait for them to be released.
+ *
  * @author Daniel Bernstein
  *
  * @param <T>
  */
 public abstract class AbstractAccountComponentCache<T> implements AccountComponentCache<T> {
-    private Map<String, T> cache;
+
+    private static final Logger log =
+        LoggerFactory.getLogger(AbstractAccountComponentCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final long DEFAULT_MAX_IDLE_MILLIS = 60 * 60 * 1000; // 1 hour
+
+    private static final int DESTROY_THREADS = 2;
+
+    // Shared by all caches, evictions being infrequent
+    private static final Executor defaultDestroyExecutor =
+        BlockingExecutor.createExecutor(DESTROY_THREADS, "component-destroy");
+
+    // Entries in least recently used order, guarded by itself
+    private final LinkedHashMap<String, Entry<T>> cache;
+    private final int maxSize;
+    private final long maxIdleMillis;
+    private final Executor destroyExecutor;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadFailureCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
 
     public AbstractAccountComponentCache() {
-        this.cache = new HashMap<>();
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    /**
+     * @param maxSize maximum number of components to cache
+     * @param maxIdleMillis time after which an unused component is evicted
+     */
+    public AbstractAccountComponentCache(int maxSize, long maxIdleMillis) {
+        this(maxSize, maxIdleMillis, defaultDestroyExecutor);
+    }
+
+    /**
+     * @param maxSize maximum number of components to cache
+     * @param maxIdleMillis time after which an unused component is evicted
+     * @param destroyExecutor runs the destruction of evicted components
+     */
+    protected AbstractAccountComponentCache(int maxSize,
+                                            long maxIdleMillis,
+                                            Executor destroyExecutor) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxSize = maxSize;
+        this.maxIdleMillis = maxIdleMillis;
+        this.destroyExecutor = destroyExecutor;
     }
 
     protected void remove(String key) {
-        this.cache.remove(key);
+        Entry<T> entry;
+        synchronized (cache) {
+            entry = cache.remove(key);
+        }
+        if (null != entry) {
+            destroy(key, entry);
+        }
     }
 
     protected void removeAll() {
-        this.cache.clear();
+        List<Map.Entry<String, Entry<T>>> removed;
+        synchronized (cache) {
+            removed = new ArrayList<>();
+            for (Map.Entry<String, Entry<T>> entry : cache.entrySet()) {
+                removed.add(new SimpleImmutableEntry<>(entry));
+            }
+            cache.clear();
+        }
+        for (Map.Entry<String, Entry<T>> entry : removed) {
+            destroy(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public T get(String accountId) {
-        T instance = this.cache.get(accountId);
-        if (instance == null) {
-            instance = createInstance(accountId);
-            this.cache.put(accountId, instance);
+        long now = currentTimeMillis();
+        List<Map.Entry<String, Entry<T>>> evicted = new ArrayList<>();
+        Entry<T> entry;
+        boolean load = false;
+        synchronized (cache) {
+            entry = cache.get(accountId);
+            if (null != entry && entry.isIdle(now, maxIdleMillis)) {
+                cache.remove(accountId);
+                evicted.add(new SimpleImmutableEntry<>(accountId, entry));
+                entry = null;
+            }
+            if (null == entry) {
+                evictIdle(now, evicted);
+                entry = new Entry<>();
+                cache.put(accountId, entry);
+                load = true;
+                evictOverflow(evicted);
+            }
+            entry.lastAccess = now;
+        }
+
+        for (Map.Entry<String, Entry<T>> evictedEntry : evicted) {
+            evictionCount.incrementAndGet();
+            destroyLater(evictedEntry.getKey(), evictedEntry.getValue());
+        }
+
+        if (load) {
+            missCount.incrementAndGet();
+            load(accountId, entry);
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return entry.await();
+    }
+
+    private void load(String accountId, Entry<T> entry) {
+        long start = currentTimeMillis();
+        try {
+            T instance = createInstance(accountId);
+            long loadTime = currentTimeMillis() - start;
+            totalLoadTime.addAndGet(loadTime);
+            log.debug("Created component for account {} in {} ms",
+                      accountId, loadTime);
+            entry.instance.complete(instance);
+        } catch (RuntimeException | Error e) {
+            loadFailureCount.incrementAndGet();
+            synchronized (cache) {
+                if (cache.get(accountId) == entry) {
+                    cache.remove(accountId);
+                }
+            }
+            entry.instance.completeExceptionally(e);
+        }
+    }
+
+    /*
+     * Removes entries which have gone unused for too long. Entries are in
+     * least recently used order, so only the expired entries at the head
+     * need to be visited. Must be called while holding the cache lock.
+     */
+    private void evictIdle(long now, List<Map.Entry<String, Entry<T>>> evicted) {
+        Iterator<Map.Entry<String, Entry<T>>> entries =
+            cache.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Entry<T>> next = entries.next();
+            if (!next.getValue().isIdle(now, maxIdleMillis)) {
+                break;
+            }
+            evicted.add(new SimpleImmutableEntry<>(next));
+            entries.remove();
+        }
+    }
+
+    /*
+     * Removes the least recently used entries beyond the maximum size. Must
+     * be called while holding the cache lock.
+     */
+    private void evictOverflow(List<Map.Entry<String, Entry<T>>> evicted) {
+        Iterator<Map.Entry<String, Entry<T>>> entries =
+            cache.entrySet().iterator();
+        while (cache.size() > maxSize && entries.hasNext()) {
+            evicted.add(new SimpleImmutableEntry<>(entries.next()));
+            entries.remove();
+        }
+    }
+
+    /*
+     * Releases the resources of an evicted component in the background, or
+     * straight away if the background executor does not accept the task
+     */
+    private void destroyLater(String accountId, Entry<T> entry) {
+        try {
+            destroyExecutor.execute(() -> destroy(accountId, entry));
+        } catch (RejectedExecutionException e) {
+            destroy(accountId, entry);
         }
+    }
 
-        return instance;
+    /*
+     * Releases the resources of a removed component. Components which are
+     * still being created (or failed to be created) have nothing to release.
+     */
+    private void destroy(String accountId, Entry<T> entry) {
+        if (!entry.instance.isDone() ||
+            entry.instance.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            destroyInstance(accountId, entry.instance.join());
+        } catch (Exception e) {
+            log.warn("Error releasing cached component for account " +
+                     accountId + ": " + e.getMessage(), e);
+        }
     }
 
     protected abstract T createInstance(String accountId);
 
+    /**
+     * Releases any resources held by a component which has been removed
+     * from the cache. Components which implement AutoCloseable are closed.
+     * Note that threads which retrieved the component before it was removed
+     * may still be using it.
+     *
+     * @param accountId the account to which the component belongs
+     * @param instance the removed component
+     */
+    protected void destroyInstance(String accountId, T instance)
+        throws Exception {
+        if (instance instanceof AutoCloseable) {
+            ((AutoCloseable) instance).close();
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.get();
+    }
+
+    /**
+     * @return the total time, in milliseconds, spent creating components
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static class Entry<T> {
+        private final CompletableFuture<T> instance = new CompletableFuture<>();
+        private volatile long lastAccess;
+
+        private boolean isIdle(long now, long maxIdleMillis) {
+            return now - lastAccess >= maxIdleMillis;
+        }
+
+        private T await() {
+            try {
+                return instance.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
 }
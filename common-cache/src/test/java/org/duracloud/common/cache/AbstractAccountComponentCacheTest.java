@@ -0,0 +1,200 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.common.event.AccountChangeEvent;
+import org.junit.Test;
+
+public class AbstractAccountComponentCacheTest {
+
+    private static final long MAX_IDLE = 1000;
+
+    @Test
+    public void testSingleLoadPerAccount() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TestCache cache = new TestCache(10, release);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Component>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(new Callable<Component>() {
+                @Override
+                public Component call() {
+                    return cache.get("account");
+                }
+            }));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        Component component = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Component> result : results) {
+            assertSame(component, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, cache.created.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(threads - 1, cache.getHitCount());
+    }
+
+    @Test
+    public void testLoadFailure() {
+        TestCache cache = new TestCache(10, null);
+        cache.fail = true;
+        try {
+            cache.get("account");
+            fail("Exception expected");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(1, cache.getLoadFailureCount());
+        assertEquals(0, cache.getSize());
+
+        cache.fail = false;
+        assertEquals("account", cache.get("account").accountId);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        TestCache cache = new TestCache(2, null);
+        Component one = cache.get("one");
+        Component two = cache.get("two");
+        cache.get("one");
+        cache.get("three");
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(two.destroyed);
+        assertSame(one, cache.get("one"));
+    }
+
+    @Test
+    public void testEvictIdle() {
+        TestCache cache = new TestCache(10, null);
+        Component one = cache.get("one");
+        cache.time += MAX_IDLE;
+        Component two = cache.get("two");
+
+        assertTrue(one.destroyed);
+        assertEquals(1, cache.getSize());
+        assertSame(two, cache.get("two"));
+
+        cache.time += MAX_IDLE;
+        assertNotSame(two, cache.get("two"));
+        assertTrue(two.destroyed);
+    }
+
+    @Test
+    public void testEvictInBackground() {
+        List<Runnable> destroyTasks = new ArrayList<>();
+        TestCache cache = new TestCache(1, null, destroyTasks::add);
+        Component one = cache.get("one");
+        cache.get("two");
+
+        // The eviction does not wait for the component to be destroyed
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(one.destroyed);
+        assertEquals(1, destroyTasks.size());
+        destroyTasks.get(0).run();
+        assertTrue(one.destroyed);
+    }
+
+    @Test
+    public void testRemove() {
+        TestCache cache = new TestCache(10, null);
+        Component one = cache.get("one");
+        Component two = cache.get("two");
+
+        cache.remove("one");
+        assertTrue(one.destroyed);
+        assertEquals(1, cache.getSize());
+
+        cache.removeAll();
+        assertTrue(two.destroyed);
+        assertEquals(0, cache.getSize());
+    }
+
+    private static class Component implements AutoCloseable {
+        private final String accountId;
+        private boolean destroyed = false;
+
+        private Component(String accountId) {
+            this.accountId = accountId;
+        }
+
+        @Override
+        public void close() {
+            destroyed = true;
+        }
+    }
+
+    private static class TestCache
+        extends AbstractAccountComponentCache<Component> {
+        private final CountDownLatch release;
+        private final AtomicInteger created = new AtomicInteger(0);
+        private volatile boolean fail = false;
+        private long time = 0;
+
+        private TestCache(int maxSize, CountDownLatch release) {
+            // Destroy evicted components straight away
+            this(maxSize, release, Runnable::run);
+        }
+
+        private TestCache(int maxSize,
+                          CountDownLatch release,
+                          Executor destroyExecutor) {
+            super(maxSize, MAX_IDLE, destroyExecutor);
+            this.release = release;
+        }
+
+        @Override
+        protected Component createInstance(String accountId) {
+            if (null != release) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new IllegalStateException("Unable to create component");
+            }
+            created.incrementAndGet();
+            return new Component(accountId);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return time;
+        }
+
+        @Override
+        public void onEvent(AccountChangeEvent event) {
+        }
+    }
+
+}
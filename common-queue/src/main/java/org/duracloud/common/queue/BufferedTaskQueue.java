@@ -0,0 +1,368 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.queue.task.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TaskQueue which places tasks on an underlying queue asynchronously. Tasks
+ * which are put are held in a bounded in-memory buffer and are moved to the
+ * underlying queue in batches by a background thread, so that callers do not
+ * wait on a round-trip to the underlying queue. A batch is sent as soon as it
+ * is full, or once the flush interval has passed since its first task was
+ * buffered.
+ *
+ * When the underlying queue falls far enough behind that the buffer fills,
+ * callers wait for space in the buffer, and after a time place their tasks on
+ * the underlying queue directly, so that no task is dropped. A batch which
+ * cannot be placed on the underlying queue is retried, and if it still fails
+ * is returned to the buffer to be sent with a later batch. Buffered tasks
+ * are drained when the queue is shut down, or when the JVM exits.
+ *
+ * All operations other than puts are passed directly to the underlying queue.
+ */
+public class BufferedTaskQueue implements TaskQueue {
+
+    private static Logger log = LoggerFactory.getLogger(BufferedTaskQueue.class);
+
+    /**
+     * Largest number of tasks sent to the underlying queue in a single put,
+     * matching the SQS batch limit.
+     */
+    public static final int BATCH_SIZE = 10;
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    // Time a caller waits for space in a full buffer before putting directly
+    private static final long OFFER_TIMEOUT_MILLIS = 5000;
+    // Time the background thread waits for tasks before stopping
+    private static final long IDLE_TIMEOUT_MILLIS = 60000;
+    // Attempts made to place a batch, waiting longer after each failure
+    private static final int FLUSH_ATTEMPTS = 3;
+    private static final long RETRY_WAIT_MILLIS = 1000;
+    // Time shutdown waits for the background thread to send its batch
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 60000;
+
+    private static final Set<BufferedTaskQueue> openQueues =
+        Collections.newSetFromMap(new WeakHashMap<BufferedTaskQueue, Boolean>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            List<BufferedTaskQueue> queues;
+            synchronized (openQueues) {
+                queues = new ArrayList<>(openQueues);
+            }
+            for (BufferedTaskQueue queue : queues) {
+                queue.shutdown();
+            }
+        }, "buffered-task-queue-shutdown"));
+    }
+
+    private final TaskQueue target;
+    private final BlockingQueue<Task> buffer;
+    private final long flushIntervalMillis;
+
+    private Thread flusher; // guarded by this
+    private boolean flushing = false; // guarded by this
+    private volatile boolean shutdown = false;
+
+    public BufferedTaskQueue(TaskQueue target) {
+        this(target, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param target the queue on which tasks are ultimately placed
+     * @param capacity the maximum number of tasks held in the buffer
+     * @param flushIntervalMillis the longest time a partial batch is held
+     */
+    public BufferedTaskQueue(TaskQueue target,
+                             int capacity,
+                             long flushIntervalMillis) {
+        this.target = target;
+        this.buffer = new LinkedBlockingQueue<>(capacity);
+        this.flushIntervalMillis = flushIntervalMillis;
+        synchronized (openQueues) {
+            openQueues.add(this);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public void put(Task task) {
+        if (shutdown) {
+            target.put(task);
+            return;
+        }
+
+        boolean buffered;
+        try {
+            buffered = buffer.offer(task,
+                                    OFFER_TIMEOUT_MILLIS,
+                                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            buffered = false;
+        }
+
+        if (buffered) {
+            if (shutdown) {
+                // Shut down while buffering, so no thread remains to send it
+                drainBuffer();
+            } else {
+                startFlusher();
+            }
+        } else {
+            log.warn("Task buffer for queue {} is full, placing {} on the " +
+                     "queue directly", getName(), task);
+            target.put(task);
+        }
+    }
+
+    @Override
+    public void put(Task... tasks) {
+        put(new LinkedHashSet<>(Arrays.asList(tasks)));
+    }
+
+    @Override
+    public void put(Set<Task> tasks) {
+        for (Task task : tasks) {
+            put(task);
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting in the buffer
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Stops buffering and places all buffered tasks on the underlying queue,
+     * waiting for the background thread to send any batch already in hand.
+     * A batch being sent is allowed to finish rather than being interrupted.
+     * Tasks put after shutdown are placed on the underlying queue directly.
+     */
+    public void shutdown() {
+        Thread running;
+        synchronized (this) {
+            shutdown = true;
+            running = flusher;
+            // Only wake the thread if it is waiting for tasks
+            if (null != running && !flushing) {
+                running.interrupt();
+            }
+        }
+        if (null != running) {
+            try {
+                running.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        drainBuffer();
+
+        synchronized (openQueues) {
+            openQueues.remove(this);
+        }
+    }
+
+    private void drainBuffer() {
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+            flush(batch);
+        }
+    }
+
+    /*
+     * Starts the background thread if it is not running. This is called after
+     * each task is buffered, and the thread only stops when it finds the
+     * buffer empty while holding the same lock, so a buffered task is never
+     * left without a thread to send it.
+     */
+    private synchronized void startFlusher() {
+        if (null == flusher && !shutdown) {
+            flusher = new Thread(this::runFlusher,
+                                 "buffered-task-queue-" + getName());
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    private void runFlusher() {
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!shutdown) {
+                Task first = buffer.poll(IDLE_TIMEOUT_MILLIS,
+                                         TimeUnit.MILLISECONDS);
+                if (null == first) {
+                    synchronized (this) {
+                        if (buffer.isEmpty()) {
+                            flusher = null;
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                long flushTime = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < BATCH_SIZE) {
+                    long wait = flushTime - System.currentTimeMillis();
+                    Task next = (wait > 0)
+                        ? buffer.poll(wait, TimeUnit.MILLISECONDS)
+                        : buffer.poll();
+                    if (null == next) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                synchronized (this) {
+                    flushing = true;
+                }
+                // Clear an interrupt which arrived before flushing was set,
+                // the loop ends on its own if shutting down
+                Thread.interrupted();
+                try {
+                    flush(batch);
+                } finally {
+                    synchronized (this) {
+                        flushing = false;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down, remaining tasks are drained by shutdown()
+        } finally {
+            // Send the batch in hand without being cut short by an interrupt
+            Thread.interrupted();
+            flush(batch);
+            synchronized (this) {
+                if (flusher == Thread.currentThread()) {
+                    flusher = null;
+                }
+            }
+        }
+    }
+
+    /*
+     * Sends the batch to the underlying queue and clears it, retrying on
+     * failure. A batch which still cannot be sent is returned to the buffer,
+     * unless shutting down (or the buffer is full), in which case the failure
+     * is logged rather than thrown, as there is no caller to report it to.
+     */
+    private void flush(List<Task> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    target.put(new LinkedHashSet<>(batch));
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= FLUSH_ATTEMPTS) {
+                        requeue(batch, e);
+                        return;
+                    }
+                    log.warn("Failed to place {} tasks on queue {} due to " +
+                             "{}, retrying", batch.size(), getName(),
+                             e.getMessage());
+                }
+                try {
+                    Thread.sleep(RETRY_WAIT_MILLIS * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    requeue(batch, e);
+                    return;
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void requeue(List<Task> batch, Exception cause) {
+        List<Task> lost = new ArrayList<>();
+        for (Task task : batch) {
+            if (shutdown || !buffer.offer(task)) {
+                lost.add(task);
+            }
+        }
+        if (lost.isEmpty()) {
+            log.warn("Failed to place {} tasks on queue {} due to {}, " +
+                     "returned them to the buffer", batch.size(), getName(),
+                     cause.getMessage());
+        } else {
+            log.error("Failed to place " + lost.size() + " tasks on queue " +
+                      getName() + ": " + lost + " due to " +
+                      cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public Task take() throws TimeoutException {
+        return target.take();
+    }
+
+    @Override
+    public Set<Task> take(int maxTasks) throws TimeoutException {
+        return target.take(maxTasks);
+    }
+
+    @Override
+    public void extendVisibilityTimeout(Task task)
+        throws TaskNotFoundException {
+        target.extendVisibilityTimeout(task);
+    }
+
+    @Override
+    public void deleteTask(Task task) throws TaskNotFoundException {
+        target.deleteTask(task);
+    }
+
+    @Override
+    public void deleteTasks(Set<Task> tasks) throws TaskException {
+        target.deleteTasks(tasks);
+    }
+
+    @Override
+    public Integer size() {
+        return target.size();
+    }
+
+    @Override
+    public Integer sizeIncludingInvisibleAndDelayed() {
+        return target.sizeIncludingInvisibleAndDelayed();
+    }
+
+    @Override
+    public void requeue(Task task) {
+        target.requeue(task);
+    }
+
+}
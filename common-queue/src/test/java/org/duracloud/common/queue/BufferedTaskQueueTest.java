@@ -0,0 +1,156 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.queue.local.LocalTaskQueue;
+import org.duracloud.common.queue.task.Task;
+import org.junit.Test;
+
+public class BufferedTaskQueueTest {
+
+    /*
+     * Records the size of each batch placed on the queue
+     */
+    private static class RecordingTaskQueue extends LocalTaskQueue {
+        private final List<Integer> batches =
+            Collections.synchronizedList(new ArrayList<Integer>());
+
+        @Override
+        public synchronized void put(Set<Task> tasks) {
+            batches.add(tasks.size());
+            super.put(tasks);
+        }
+    }
+
+    private Task createTask(int index) {
+        Task task = new Task();
+        task.setType(Task.Type.AUDIT);
+        task.addProperty("index", String.valueOf(index));
+        return task;
+    }
+
+    @Test
+    public void testBatches() throws Exception {
+        RecordingTaskQueue target = new RecordingTaskQueue();
+        BufferedTaskQueue queue = new BufferedTaskQueue(target, 100, 60000);
+
+        for (int i = 0; i < 25; i++) {
+            queue.put(createTask(i));
+        }
+
+        // Full batches are sent without waiting for the flush interval
+        long wait = System.currentTimeMillis() + 5000;
+        while (target.size() < 20 && System.currentTimeMillis() < wait) {
+            Thread.sleep(10);
+        }
+        assertEquals(20, target.size().intValue());
+
+        // The remaining partial batch is sent on shutdown
+        queue.shutdown();
+        assertEquals(25, target.size().intValue());
+        for (int batch : target.batches) {
+            assertTrue(batch <= BufferedTaskQueue.BATCH_SIZE);
+        }
+        assertEquals(0, queue.getBufferedCount());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        RecordingTaskQueue target = new RecordingTaskQueue();
+        BufferedTaskQueue queue = new BufferedTaskQueue(target, 100, 50);
+
+        queue.put(createTask(1), createTask(2));
+
+        long wait = System.currentTimeMillis() + 5000;
+        while (target.size() < 2 && System.currentTimeMillis() < wait) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, target.size().intValue());
+        assertEquals(1, target.batches.size());
+        queue.shutdown();
+    }
+
+    @Test
+    public void testPutAfterShutdown() throws Exception {
+        RecordingTaskQueue target = new RecordingTaskQueue();
+        BufferedTaskQueue queue = new BufferedTaskQueue(target);
+        queue.shutdown();
+
+        queue.put(createTask(1));
+        assertEquals(1, target.size().intValue());
+    }
+
+    @Test
+    public void testFailedBatchRetried() throws Exception {
+        RecordingTaskQueue target = new RecordingTaskQueue() {
+            private boolean failed = false;
+
+            @Override
+            public synchronized void put(Set<Task> tasks) {
+                if (!failed) {
+                    failed = true;
+                    throw new RuntimeException("unavailable");
+                }
+                super.put(tasks);
+            }
+        };
+        BufferedTaskQueue queue = new BufferedTaskQueue(target, 100, 60000);
+
+        for (int i = 0; i < 10; i++) {
+            queue.put(createTask(i));
+        }
+
+        long wait = System.currentTimeMillis() + 10000;
+        while (target.size() < 10 && System.currentTimeMillis() < wait) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, target.size().intValue());
+        queue.shutdown();
+    }
+
+    @Test
+    public void testShutdownDuringFlush() throws Exception {
+        CountDownLatch putStarted = new CountDownLatch(1);
+        RecordingTaskQueue target = new RecordingTaskQueue() {
+            @Override
+            public void put(Set<Task> tasks) {
+                putStarted.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException("interrupted");
+                }
+                super.put(tasks);
+            }
+        };
+        BufferedTaskQueue queue = new BufferedTaskQueue(target, 100, 60000);
+
+        for (int i = 0; i < 15; i++) {
+            queue.put(createTask(i));
+        }
+        assertTrue(putStarted.await(5, TimeUnit.SECONDS));
+
+        // The batch being sent completes, then the rest is drained
+        queue.shutdown();
+        assertEquals(15, target.size().intValue());
+        assertFalse(target.batches.isEmpty());
+        assertEquals(0, queue.getBufferedCount());
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks on an underlying executor while limiting the number of tasks
+ * which are in progress or waiting to run. Callers submitting a task when the
+ * limit has been reached block until a running task completes, at which point
+ * the freed slot is handed to a waiting caller immediately. This allows a
+ * producer to feed work to a fixed number of workers without polling.
+ *
+ * The underlying executor may be provided, or created with
+ * createExecutor(), which uses virtual threads when they are both available
+ * and enabled via the "duracloud.virtualThreads" system property.
+ */
+public class BlockingExecutor {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(BlockingExecutor.class);
+
+    public static final String VIRTUAL_THREADS_PROPERTY =
+        "duracloud.virtualThreads";
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    /**
+     * Creates a BlockingExecutor which runs up to the given number of tasks
+     * at once, with no tasks waiting beyond those which are running.
+     *
+     * @param threads number of tasks which may run at once
+     * @param name used to name the threads which run tasks
+     */
+    public BlockingExecutor(int threads, String name) {
+        this(threads, 0, createExecutor(threads, name));
+    }
+
+    /**
+     * @param threads number of tasks which may run at once
+     * @param queueSize number of additional tasks which may wait to run
+     *                  before callers are blocked
+     * @param executor runs tasks, must be able to run at least the given
+     *                 number of threads at once
+     */
+    public BlockingExecutor(int threads,
+                            int queueSize,
+                            ExecutorService executor) {
+        if (threads < 1 || queueSize < 0) {
+            throw new IllegalArgumentException(
+                "threads must be at least 1 and queueSize at least 0");
+        }
+        this.executor = executor;
+        this.slots = new Semaphore(threads + queueSize, true);
+    }
+
+    /**
+     * Runs the task, waiting for a slot to become available if necessary.
+     *
+     * @param task to run
+     * @throws InterruptedException if interrupted while waiting for a slot
+     * @throws RejectedExecutionException if this executor has been shut down
+     */
+    public void execute(Runnable task) throws InterruptedException {
+        slots.acquire();
+        submit(task);
+    }
+
+    /**
+     * Runs the task if a slot becomes available within the given time.
+     *
+     * @return true if the task was accepted, false if no slot was available
+     * @throws InterruptedException if interrupted while waiting for a slot
+     * @throws RejectedExecutionException if this executor has been shut down
+     */
+    public boolean tryExecute(Runnable task, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (!slots.tryAcquire(timeout, unit)) {
+            return false;
+        }
+        submit(task);
+        return true;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Creates an executor for running the given number of tasks at once. A
+     * virtual thread per task executor is used if the runtime supports
+     * virtual threads and the "duracloud.virtualThreads" system property is
+     * set to true, otherwise a fixed pool of platform threads is used.
+     *
+     * @param threads number of tasks which may run at once
+     * @param name used to name platform threads
+     */
+    public static ExecutorService createExecutor(int threads, String name) {
+        if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+            try {
+                Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not supported by this Java " +
+                         "runtime, using a pool of {} threads for {}",
+                         threads, name);
+            }
+        }
+
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable,
+                                  name + "-" + count.incrementAndGet());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads ahead through a paged listing, in which each page is retrieved using
+ * the last item of the previous page as a marker. Up to a fixed number of
+ * pages (the depth) following the page currently being consumed are
+ * requested in the background, one after another, so that the consumer does
+ * not wait on a request at each page boundary. No more than depth pages are
+ * ever held ahead of the consumer.
+ *
+ * Background requests are made on shared daemon threads, so a prefetcher
+ * which is abandoned part way through a listing holds no resources beyond
+ * the pages already requested.
+ *
+ * @param <T> type of item in the listing
+ */
+public class PagePrefetcher<T> {
+
+    /**
+     * Retrieves a page of a listing.
+     */
+    public interface PageLoader<T> {
+        /**
+         * @param lastItem the last item of the previous page
+         * @return the page following the given item, empty at end of listing
+         */
+        List<T> loadPage(T lastItem) throws Exception;
+    }
+
+    private static final ExecutorService executor =
+        Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "page-prefetch-" +
+                                                     count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    private final PageLoader<T> loader;
+    private final Deque<CompletableFuture<List<T>>> pages;
+
+    /**
+     * Begins requesting the pages which follow the given page.
+     *
+     * @param loader retrieves each page
+     * @param currentPage the page currently being consumed
+     * @param depth number of pages to request ahead of the consumer
+     */
+    public PagePrefetcher(PageLoader<T> loader,
+                          List<T> currentPage,
+                          int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Prefetch depth must be " +
+                                               "greater than zero");
+        }
+        this.loader = loader;
+        this.pages = new ArrayDeque<>(depth);
+
+        CompletableFuture<List<T>> page =
+            CompletableFuture.completedFuture(currentPage);
+        for (int i = 0; i < depth; i++) {
+            page = loadAfter(page);
+            pages.addLast(page);
+        }
+    }
+
+    private CompletableFuture<List<T>> loadAfter(
+        CompletableFuture<List<T>> previousPage) {
+        return previousPage.thenApplyAsync(previous -> {
+            if (null == previous || previous.isEmpty()) {
+                // End of listing, nothing further to request
+                return Collections.<T>emptyList();
+            }
+            try {
+                return loader.loadPage(previous.get(previous.size() - 1));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Provides the page following the last page returned (or the initial
+     * page, on the first call), waiting for it to be retrieved if necessary,
+     * and requests a further page in its place.
+     *
+     * @return the next page, empty at end of listing
+     * @throws Exception thrown by the loader while retrieving the page
+     */
+    public List<T> nextPage() throws Exception {
+        CompletableFuture<List<T>> next = pages.removeFirst();
+        pages.addLast(loadAfter(pages.isEmpty() ? next : pages.peekLast()));
+        try {
+            return next.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException &&
+                null != cause.getCause()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.bulk;
+
+/**
+ * A single line of a checksum manifest: a checksum and an entry name
+ * separated by a single whitespace character.
+ */
+public class ManifestEntry {
+
+    private final String name;
+    private final String checksum;
+
+    public ManifestEntry(String name, String checksum) {
+        this.name = name;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Parses a manifest line of the form <checksum><whitespace><entryname>.
+     * Trailing whitespace is ignored; any other whitespace, or a missing
+     * checksum or name, makes the line invalid.
+     *
+     * @throws RuntimeException if the line is not a valid manifest entry
+     */
+    public static ManifestEntry parse(String line) {
+        int end = line.length();
+        while (end > 0 && isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+
+        int delim = -1;
+        for (int i = 0; i < end; i++) {
+            if (isWhitespace(line.charAt(i))) {
+                if (delim != -1) {
+                    delim = -1;
+                    break;
+                }
+                delim = i;
+            }
+        }
+        if (delim < 1) {
+            throw new RuntimeException("Invalid manifest file.");
+        }
+
+        return new ManifestEntry(line.substring(delim + 1, end),
+                                 line.substring(0, delim));
+    }
+
+    /*
+     * Matches the characters of the regular expression class \s
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' ||
+               c == '\f' || c == '\r';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+}
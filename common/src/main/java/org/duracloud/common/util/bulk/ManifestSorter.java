@@ -0,0 +1,419 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.bulk;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.util.BlockingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts the entries of a manifest by name without holding the whole manifest
+ * in memory.
+ *
+ * The manifest is read in chunks of a fixed number of entries. Each chunk is
+ * sorted and written to a temporary run file, with several chunks sorted at
+ * once on separate threads, and the runs are then merged as the sorted
+ * entries are read. At most (threads + 1) chunks are held in memory at once.
+ *
+ * No more than a fixed number of runs are merged at once, to bound the
+ * number of open files. When there are more runs than that, groups of runs
+ * are first merged into longer runs, in as many passes as needed.
+ *
+ * The manifest, and the run files, are read and written as UTF-8.
+ */
+public class ManifestSorter {
+
+    private final Logger log = LoggerFactory.getLogger(ManifestSorter.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 100000;
+    public static final int DEFAULT_MAX_MERGE_RUNS = 64;
+
+    private static final char RUN_DELIM = '\t';
+
+    // Runs are in manifest order, so equal names are taken from earlier runs
+    // first
+    private static final Comparator<Run> RUN_ORDER =
+        Comparator.comparing((Run run) -> run.current.getName())
+                  .thenComparingInt(run -> run.index);
+
+    private final File workDir;
+    private final int chunkSize;
+    private final int threads;
+    private final int maxMergeRuns;
+
+    public ManifestSorter() {
+        this(new File(System.getProperty("java.io.tmpdir")),
+             DEFAULT_CHUNK_SIZE,
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param workDir directory in which temporary run files are written
+     * @param chunkSize number of entries sorted in memory at once
+     * @param threads number of chunks sorted at once
+     */
+    public ManifestSorter(File workDir, int chunkSize, int threads) {
+        this(workDir, chunkSize, threads, DEFAULT_MAX_MERGE_RUNS);
+    }
+
+    /**
+     * @param workDir directory in which temporary run files are written
+     * @param chunkSize number of entries sorted in memory at once
+     * @param threads number of chunks sorted at once
+     * @param maxMergeRuns number of run files merged (and open) at once
+     */
+    public ManifestSorter(File workDir,
+                          int chunkSize,
+                          int threads,
+                          int maxMergeRuns) {
+        if (chunkSize < 1 || threads < 1) {
+            throw new IllegalArgumentException(
+                "chunkSize and threads must be at least 1");
+        }
+        if (maxMergeRuns < 2) {
+            throw new IllegalArgumentException(
+                "maxMergeRuns must be at least 2");
+        }
+        this.workDir = workDir;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.maxMergeRuns = maxMergeRuns;
+    }
+
+    /**
+     * Sorts the entries of a manifest. Where the manifest includes more than
+     * one entry with the same name, only the last of them is kept.
+     *
+     * @param manifest file to sort
+     * @param filters lines including any of these are skipped
+     * @return the sorted entries, which must be closed once read so that the
+     *         temporary files are removed
+     * @throws RuntimeException if the manifest cannot be read or includes
+     *                          an invalid line
+     */
+    public SortedManifest sort(File manifest, List<String> filters) {
+        File sortDir;
+        try {
+            FileUtils.forceMkdir(workDir);
+            sortDir = Files.createTempDirectory(workDir.toPath(),
+                                                "manifest-sort").toFile();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        BlockingExecutor executor =
+            new BlockingExecutor(threads, "manifest-sort");
+        List<File> runs = new ArrayList<>();
+        List<CompletableFuture<Void>> sorted = new ArrayList<>();
+        boolean success = false;
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(manifest),
+                                  StandardCharsets.UTF_8))) {
+            List<ManifestEntry> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!isFiltered(line, filters)) {
+                    chunk.add(ManifestEntry.parse(line));
+                }
+                if (chunk.size() == chunkSize) {
+                    sortRun(chunk, runs, sorted, sortDir, executor);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sortRun(chunk, runs, sorted, sortDir, executor);
+            }
+
+            CompletableFuture.allOf(sorted.toArray(new CompletableFuture[0]))
+                             .join();
+            log.debug("Sorted {} into {} runs", manifest, runs.size());
+            runs = mergeRuns(runs, sortDir);
+            SortedManifest result = new SortedManifest(sortDir, runs);
+            success = true;
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+            if (!success) {
+                // Runs still being written must finish before removal
+                try {
+                    executor.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                FileUtils.deleteQuietly(sortDir);
+            }
+        }
+    }
+
+    private boolean isFiltered(String line, List<String> filters) {
+        for (String filter : filters) {
+            if (line.indexOf(filter) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Sorts a chunk and writes it to the next run file on another thread,
+     * waiting if the maximum number of chunks are already being sorted
+     */
+    private void sortRun(List<ManifestEntry> chunk,
+                         List<File> runs,
+                         List<CompletableFuture<Void>> sorted,
+                         File sortDir,
+                         BlockingExecutor executor)
+        throws InterruptedException {
+        File run = new File(sortDir, "run-" + runs.size());
+        runs.add(run);
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        sorted.add(result);
+        executor.execute(() -> {
+            try {
+                // The sort is stable, so duplicates remain in manifest order
+                chunk.sort(Comparator.comparing(ManifestEntry::getName));
+                writeRun(chunk, run);
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void writeRun(List<ManifestEntry> chunk, File run)
+        throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(run), StandardCharsets.UTF_8))) {
+            for (ManifestEntry entry : chunk) {
+                writeEntry(writer, entry);
+            }
+        }
+    }
+
+    private static void writeEntry(Writer writer, ManifestEntry entry)
+        throws IOException {
+        writer.write(entry.getName());
+        writer.write(RUN_DELIM);
+        writer.write(entry.getChecksum());
+        writer.write('\n');
+    }
+
+    /*
+     * Merges consecutive groups of runs into longer runs until no more than
+     * maxMergeRuns remain. Groups are merged in manifest order, and entries
+     * with the same name are kept in manifest order within each merged run,
+     * so the last entry of each name is still the one kept.
+     */
+    private List<File> mergeRuns(List<File> runs, File sortDir)
+        throws IOException {
+        int pass = 0;
+        while (runs.size() > maxMergeRuns) {
+            pass++;
+            List<File> merged = new ArrayList<>();
+            for (int start = 0; start < runs.size(); start += maxMergeRuns) {
+                List<File> group =
+                    runs.subList(start,
+                                 Math.min(start + maxMergeRuns, runs.size()));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                File run = new File(sortDir,
+                                    "merge-" + pass + "-" + merged.size());
+                mergeRun(group, run);
+                for (File file : group) {
+                    FileUtils.deleteQuietly(file);
+                }
+                merged.add(run);
+            }
+            log.debug("Merged {} runs into {}", runs.size(), merged.size());
+            runs = merged;
+        }
+        return runs;
+    }
+
+    private void mergeRun(List<File> group, File run) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<>(group.size(), RUN_ORDER);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(run), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < group.size(); i++) {
+                Run source = new Run(i, group.get(i));
+                if (source.advance()) {
+                    queue.add(source);
+                } else {
+                    source.close();
+                }
+            }
+
+            Run source;
+            while ((source = queue.poll()) != null) {
+                writeEntry(writer, source.current);
+                if (source.advance()) {
+                    queue.add(source);
+                } else {
+                    source.close();
+                }
+            }
+        } finally {
+            for (Run source : queue) {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * The entries of a manifest in name order, read by merging the sorted
+     * run files.
+     */
+    public static class SortedManifest
+        implements Iterator<ManifestEntry>, Closeable {
+
+        private final File sortDir;
+        private final PriorityQueue<Run> queue;
+        private ManifestEntry next;
+
+        private SortedManifest(File sortDir, List<File> runFiles)
+            throws IOException {
+            this.sortDir = sortDir;
+            this.queue =
+                new PriorityQueue<>(Math.max(1, runFiles.size()), RUN_ORDER);
+            try {
+                for (int i = 0; i < runFiles.size(); i++) {
+                    Run run = new Run(i, runFiles.get(i));
+                    if (run.advance()) {
+                        queue.add(run);
+                    } else {
+                        run.close();
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+            this.next = poll();
+        }
+
+        /*
+         * Retrieves the next entry from the merged runs, or null if all
+         * runs are exhausted
+         */
+        private ManifestEntry poll() {
+            Run run = queue.poll();
+            if (null == run) {
+                return null;
+            }
+            ManifestEntry entry = run.current;
+            try {
+                if (run.advance()) {
+                    queue.add(run);
+                } else {
+                    run.close();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return entry;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        /**
+         * @return the next entry, which is the last entry in the manifest
+         *         with its name
+         */
+        @Override
+        public ManifestEntry next() {
+            if (null == next) {
+                throw new NoSuchElementException();
+            }
+            ManifestEntry entry = next;
+            next = poll();
+            while (null != next && next.getName().equals(entry.getName())) {
+                entry = next;
+                next = poll();
+            }
+            return entry;
+        }
+
+        @Override
+        public void close() {
+            Run run;
+            while ((run = queue.poll()) != null) {
+                run.close();
+            }
+            FileUtils.deleteQuietly(sortDir);
+        }
+    }
+
+    private static class Run {
+        private final int index;
+        private final BufferedReader reader;
+        private ManifestEntry current;
+
+        private Run(int index, File file) throws IOException {
+            this.index = index;
+            this.reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8));
+        }
+
+        private boolean advance() throws IOException {
+            String line = reader.readLine();
+            if (null == line) {
+                current = null;
+                return false;
+            }
+            int delim = line.indexOf(RUN_DELIM);
+            current = new ManifestEntry(line.substring(0, delim),
+                                        line.substring(delim + 1));
+            return true;
+        }
+
+        private void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Nothing more can be read from the run either way
+            }
+        }
+    }
+
+}
@@ -13,6 +13,7 @@ import org.duracloud.common.error.ManifestVerifyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -54,9 +55,19 @@ public class ManifestVerifier {
 
     private Map<String, ResultEntry> results; // filename -> resultEntry
 
+    private ManifestSorter sorter;
+
     public ManifestVerifier(File file0, File file1) {
+        this(file0, file1, new ManifestSorter());
+    }
+
+    /**
+     * @param sorter used by verifySorted() to sort the manifests
+     */
+    public ManifestVerifier(File file0, File file1, ManifestSorter sorter) {
         this.file0 = file0;
         this.file1 = file1;
+        this.sorter = sorter;
         entries0 = new HashMap<String, String>();
         entries1 = new HashMap<String, String>();
         filters = new ArrayList<String>();
@@ -64,6 +75,15 @@ public class ManifestVerifier {
     }
 
     public void report(OutputStream out) {
+        write(out, reportHeader());
+
+        Iterator<ResultEntry> entries = resultEntries();
+        while (entries.hasNext()) {
+            write(out, entries.next().toString());
+        }
+    }
+
+    private String reportHeader() {
         String newline = System.getProperty("line.separator");
 
         StringBuilder sb = new StringBuilder();
@@ -71,13 +91,7 @@ public class ManifestVerifier {
         String cksum1 = "1:" + FilenameUtils.getName(file1.getName());
         sb.append("title,file," + cksum0 + "," + cksum1 + ",state");
         sb.append(newline);
-
-        write(out, sb.toString());
-
-        Iterator<ResultEntry> entries = resultEntries();
-        while (entries.hasNext()) {
-            write(out, entries.next().toString());
-        }
+        return sb.toString();
     }
 
     private void write(OutputStream out, String text) {
@@ -120,6 +134,95 @@ public class ManifestVerifier {
         verifyFiles();
     }
 
+    /**
+     * Compares the manifest files in the same way as verify(), but without
+     * loading them into memory. Each manifest is sorted by entry name, using
+     * temporary files, and the sorted entries are then compared in turn.
+     * Memory use therefore does not depend on the size of the manifests,
+     * making this suitable for very large manifests.
+     *
+     * Results are written to the report as they are found, in entry name
+     * order, rather than being made available via resultEntries().
+     *
+     * @param report to which the header and a line per entry are written
+     * @param filters List of names that if found in the manifests will be ignored.
+     * @throws ManifestVerifyException if files differ in size or checksums
+     */
+    public void verifySorted(OutputStream report, String... filters)
+        throws ManifestVerifyException {
+        if (filters != null) {
+            this.filters = Arrays.asList(filters);
+            logFilters();
+        }
+
+        String newline = System.getProperty("line.separator");
+        BufferedOutputStream out = new BufferedOutputStream(report);
+        write(out, reportHeader());
+
+        boolean hasErrors = false;
+        try (ManifestSorter.SortedManifest sorted0 =
+                 sorter.sort(file0, this.filters);
+             ManifestSorter.SortedManifest sorted1 =
+                 sorter.sort(file1, this.filters)) {
+            ManifestEntry entry0 = sorted0.hasNext() ? sorted0.next() : null;
+            ManifestEntry entry1 = sorted1.hasNext() ? sorted1.next() : null;
+            while (null != entry0 || null != entry1) {
+                int compare;
+                if (null == entry0) {
+                    compare = 1;
+                } else if (null == entry1) {
+                    compare = -1;
+                } else {
+                    compare = entry0.getName().compareTo(entry1.getName());
+                }
+
+                ResultEntry result;
+                if (compare < 0) {
+                    result = resultEntry(entry0.getName());
+                    result.setChecksum0(entry0.getChecksum());
+                    result.setState(State.MISSING_FROM_1);
+                    entry0 = sorted0.hasNext() ? sorted0.next() : null;
+                } else if (compare > 0) {
+                    result = resultEntry(entry1.getName());
+                    result.setChecksum1(entry1.getChecksum());
+                    result.setState(State.MISSING_FROM_0);
+                    entry1 = sorted1.hasNext() ? sorted1.next() : null;
+                } else {
+                    result = resultEntry(entry0.getName());
+                    result.setChecksum0(entry0.getChecksum());
+                    result.setChecksum1(entry1.getChecksum());
+                    if (result.getChecksum0().equals(result.getChecksum1())) {
+                        result.setState(State.VALID);
+                    } else {
+                        result.setState(State.MISMATCH);
+                    }
+                    entry0 = sorted0.hasNext() ? sorted0.next() : null;
+                    entry1 = sorted1.hasNext() ? sorted1.next() : null;
+                }
+
+                hasErrors |= result.isError();
+                write(out, result.toString() + newline);
+            }
+        } finally {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                log.warn("Error writing manifest report: " + e.getMessage());
+            }
+        }
+
+        if (hasErrors) {
+            throw new ManifestVerifyException("Manifests do not match.");
+        }
+    }
+
+    private ResultEntry resultEntry(String name) {
+        ResultEntry entry = new ResultEntry();
+        entry.setTitle(titleOf(name));
+        entry.setFile(fileOf(name));
+        return entry;
+    }
+
     private void loadEntries() {
         loadEntries(file0, entries0);
         loadEntries(file1, entries1);
@@ -148,12 +251,8 @@ public class ManifestVerifier {
     }
 
     protected void addEntry(String line, Map<String, String> entries) {
-        String[] cksumFilenamePair = line.split("\\s");
-        if (cksumFilenamePair == null || cksumFilenamePair.length != 2) {
-            throw new RuntimeException("Invalid manifest file.");
-        }
-
-        entries.put(cksumFilenamePair[1], cksumFilenamePair[0]);
+        ManifestEntry entry = ManifestEntry.parse(line);
+        entries.put(entry.getName(), entry.getChecksum());
     }
 
     private InputStream getInputStream(File file) {
@@ -20,12 +20,12 @@ public class ManifestVerifierDriver {
     private static void verify(File file0, File file1, String[] filters) {
         ManifestVerifier verifier = new ManifestVerifier(file0, file1);
         try {
-            verifier.verify(filters);
+            // Sorting keeps memory use flat for manifests of any size
+            verifier.verifySorted(System.out, filters);
             success();
         } catch (ManifestVerifyException e) {
             reportError(e);
         }
-        verifier.report(System.out);
     }
 
     private static void reportError(ManifestVerifyException e) {
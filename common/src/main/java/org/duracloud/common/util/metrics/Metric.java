@@ -18,7 +18,10 @@ import java.util.Stack;
  * This class holds timing metrics for a set of related events (MetricElements).
  *
  * @author Andrew Woods
+ * @deprecated not thread-safe and grows with every call, use
+ *             {@link MetricsRegistry} instead
  */
+@Deprecated
 public class Metric {
 
     private final Logger log = LoggerFactory.getLogger(Metric.class);
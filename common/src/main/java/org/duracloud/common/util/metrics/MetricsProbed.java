@@ -12,7 +12,9 @@ package org.duracloud.common.util.metrics;
  * which to collect Metrics.
  *
  * @author Andrew Woods
+ * @deprecated use {@link MetricsRegistry} instead
  */
+@Deprecated
 public interface MetricsProbed {
 
     public void setMetricsTable(MetricsTable metricsTable);
@@ -0,0 +1,299 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Formatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the metrics collected for each operation of each provider, replacing
+ * the single-threaded Metric and MetricsTable.
+ *
+ * Metrics for an operation are created on first use and retained until
+ * their provider is removed (see removeProvider()). Operations are held per provider, and the number of
+ * distinct operations of each provider is bounded: once maxOperations have
+ * been created for a provider, its further operations are combined under a
+ * single overflow entry for that provider. Memory use per provider stays
+ * fixed even if callers generate operation names freely, while every
+ * provider's own operations are always tracked separately.
+ *
+ * When an MBeanServer is provided, each operation is registered as an MBean
+ * named {domain}:type=Operation,provider={provider},operation={operation}.
+ * The metrics may also be written out as a text report.
+ */
+public class MetricsRegistry {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final String DEFAULT_JMX_DOMAIN = "org.duracloud.metrics";
+    public static final int DEFAULT_MAX_OPERATIONS = 100;
+
+    protected static final String OVERFLOW_NAME = "other";
+
+    private static MetricsRegistry instance;
+
+    private final ConcurrentMap<String, ProviderOperations> providers;
+    private final int maxOperations;
+    private final MBeanServer mbeanServer;
+    private final String jmxDomain;
+
+    /**
+     * @return the registry shared within this JVM, which is registered with
+     *         the platform MBeanServer
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (null == instance) {
+            instance =
+                new MetricsRegistry(DEFAULT_MAX_OPERATIONS,
+                                    ManagementFactory.getPlatformMBeanServer(),
+                                    DEFAULT_JMX_DOMAIN);
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a registry which is not exposed via JMX
+     */
+    public MetricsRegistry() {
+        this(DEFAULT_MAX_OPERATIONS, null, null);
+    }
+
+    /**
+     * @param maxOperations maximum number of operations of each provider
+     *                      tracked separately
+     * @param mbeanServer server with which to register operations, may be
+     *                    null to not use JMX
+     * @param jmxDomain domain of the registered MBean names
+     */
+    public MetricsRegistry(int maxOperations,
+                           MBeanServer mbeanServer,
+                           String jmxDomain) {
+        if (maxOperations < 1) {
+            throw new IllegalArgumentException(
+                "maxOperations must be at least 1");
+        }
+        this.providers = new ConcurrentHashMap<>();
+        this.maxOperations = maxOperations;
+        this.mbeanServer = mbeanServer;
+        this.jmxDomain = jmxDomain;
+    }
+
+    /**
+     * Retrieves the metrics for an operation, creating them if necessary.
+     * Callers on a hot path should hold on to the result rather than look
+     * it up on every call.
+     *
+     * @param provider name of the component performing the operation
+     * @param operation name of the operation
+     * @return metrics for the operation, or the provider's overflow metrics
+     *         if the maximum number of operations of the provider has been
+     *         reached
+     */
+    public OperationMetrics getOperation(String provider, String operation) {
+        return providers.computeIfAbsent(provider, ProviderOperations::new)
+                        .getOperation(operation);
+    }
+
+    /**
+     * Removes the metrics of all operations of a provider, unregistering
+     * them from JMX. Metrics already retrieved for the provider may still be
+     * recorded to, but are no longer reported, and metrics retrieved for the
+     * provider from now on start over.
+     *
+     * @param provider name of the component whose metrics are removed
+     */
+    public void removeProvider(String provider) {
+        ProviderOperations removed = providers.remove(provider);
+        if (null == removed) {
+            return;
+        }
+        List<OperationMetrics> operations = new ArrayList<>();
+        removed.addOperations(operations);
+        for (OperationMetrics metrics : operations) {
+            unregister(metrics);
+        }
+    }
+
+    /**
+     * @return the metrics for all operations, ordered by provider and then
+     *         operation, with each provider's overflow metrics (if any)
+     *         following its other operations
+     */
+    public List<OperationMetrics> getOperations() {
+        List<ProviderOperations> all = new ArrayList<>(providers.values());
+        all.sort(Comparator.comparing(p -> p.provider));
+        List<OperationMetrics> operations = new ArrayList<>();
+        for (ProviderOperations provider : all) {
+            provider.addOperations(operations);
+        }
+        return operations;
+    }
+
+    /**
+     * Writes a table of all operations. Times are in milliseconds.
+     */
+    public void writeReport(Writer writer) throws IOException {
+        Formatter formatter = new Formatter(writer);
+        String header = "%-40s %10s %8s %14s %10s %10s %10s %10s %10s%n";
+        String row = "%-40s %10d %8d %14d %10.3f %10.3f %10.3f %10.3f %10.3f%n";
+        formatter.format(header, "operation", "count", "errors", "bytes",
+                         "mean", "median", "95th", "99th", "max");
+        for (OperationMetrics metrics : getOperations()) {
+            formatter.format(row,
+                             metrics.getProvider() + "." +
+                             metrics.getOperation(),
+                             metrics.getCount(),
+                             metrics.getErrorCount(),
+                             metrics.getBytes(),
+                             millis(metrics.getMeanNanos()),
+                             millis(metrics.getMedianNanos()),
+                             millis(metrics.get95thPercentileNanos()),
+                             millis(metrics.get99thPercentileNanos()),
+                             millis(metrics.getMaxNanos()));
+        }
+        formatter.flush();
+        if (null != formatter.ioException()) {
+            throw formatter.ioException();
+        }
+    }
+
+    /**
+     * @return the text report, as written by writeReport()
+     */
+    public String getReport() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeReport(writer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return writer.toString();
+    }
+
+    private double millis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    private ObjectName getObjectName(OperationMetrics metrics)
+        throws JMException {
+        return new ObjectName(jmxDomain + ":type=Operation" +
+                              ",provider=" +
+                              ObjectName.quote(metrics.getProvider()) +
+                              ",operation=" +
+                              ObjectName.quote(metrics.getOperation()));
+    }
+
+    private void register(OperationMetrics metrics) {
+        if (null == mbeanServer) {
+            return;
+        }
+        try {
+            ObjectName name = getObjectName(metrics);
+            if (!mbeanServer.isRegistered(name)) {
+                mbeanServer.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            log.warn("Unable to register metrics for " +
+                     metrics.getProvider() + "." + metrics.getOperation() +
+                     " with JMX: " + e.getMessage());
+        }
+    }
+
+    private void unregister(OperationMetrics metrics) {
+        if (null == mbeanServer) {
+            return;
+        }
+        try {
+            ObjectName name = getObjectName(metrics);
+            if (mbeanServer.isRegistered(name)) {
+                mbeanServer.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            log.warn("Unable to unregister metrics for " +
+                     metrics.getProvider() + "." + metrics.getOperation() +
+                     " from JMX: " + e.getMessage());
+        }
+    }
+
+    /*
+     * The operations of a single provider
+     */
+    private class ProviderOperations {
+        private final String provider;
+        private final ConcurrentMap<String, OperationMetrics> operations;
+        private volatile OperationMetrics overflow;
+
+        private ProviderOperations(String provider) {
+            this.provider = provider;
+            this.operations = new ConcurrentHashMap<>();
+        }
+
+        private OperationMetrics getOperation(String operation) {
+            OperationMetrics metrics = operations.get(operation);
+            if (null != metrics) {
+                return metrics;
+            }
+            if (operations.size() >= maxOperations) {
+                return getOverflow();
+            }
+
+            metrics = new OperationMetrics(provider, operation);
+            OperationMetrics existing =
+                operations.putIfAbsent(operation, metrics);
+            if (null != existing) {
+                return existing;
+            }
+            register(metrics);
+            return metrics;
+        }
+
+        private OperationMetrics getOverflow() {
+            if (null == overflow) {
+                synchronized (this) {
+                    if (null == overflow) {
+                        log.warn("Metrics are being collected for more than " +
+                                 "{} operations of {}, further operations " +
+                                 "will be reported as {}", maxOperations,
+                                 provider, OVERFLOW_NAME);
+                        OperationMetrics metrics =
+                            new OperationMetrics(provider, OVERFLOW_NAME);
+                        register(metrics);
+                        overflow = metrics;
+                    }
+                }
+            }
+            return overflow;
+        }
+
+        private void addOperations(List<OperationMetrics> all) {
+            List<OperationMetrics> sorted =
+                new ArrayList<>(operations.values());
+            sorted.sort(Comparator.comparing(OperationMetrics::getOperation));
+            all.addAll(sorted);
+            if (null != overflow) {
+                all.add(overflow);
+            }
+        }
+    }
+
+}
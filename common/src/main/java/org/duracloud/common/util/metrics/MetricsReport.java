@@ -25,7 +25,9 @@ import org.slf4j.LoggerFactory;
  * metricsFileName.
  *
  * @author Andrew Woods
+ * @deprecated use {@link MetricsRegistry#writeReport} instead
  */
+@Deprecated
 public class MetricsReport {
 
     protected final Logger log = LoggerFactory.getLogger(MetricsReport.class);
@@ -19,7 +19,10 @@ import org.duracloud.common.util.metrics.Metric.MetricElement;
  * stack.
  *
  * @author Andrew Woods
+ * @deprecated not thread-safe and grows with every call, use
+ *             {@link MetricsRegistry} instead
  */
+@Deprecated
 public class MetricsTable {
 
     private final LinkedHashMap<Metric, Map<MetricElement, MetricsTable>> table;
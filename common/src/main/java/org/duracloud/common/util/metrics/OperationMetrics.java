@@ -0,0 +1,117 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counts, latencies and bytes transferred for a single operation of a
+ * single provider. All methods are thread-safe and lock-free.
+ */
+public class OperationMetrics implements OperationMetricsMBean {
+
+    private final String provider;
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public OperationMetrics(String provider, String operation) {
+        this.provider = provider;
+        this.operation = operation;
+    }
+
+    /**
+     * Records a successful call
+     *
+     * @param nanos time taken by the call
+     */
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * Records a call which failed. Failed calls are included in the latency
+     * figures as well as the error count.
+     *
+     * @param nanos time taken by the call
+     */
+    public void recordError(long nanos) {
+        latency.record(nanos);
+        errors.increment();
+    }
+
+    /**
+     * @param count number of bytes transferred as part of this operation
+     */
+    public void addBytes(long count) {
+        bytes.add(count);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getProvider() {
+        return provider;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getMeanNanos() {
+        return latency.getMeanNanos();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return latency.getMaxNanos();
+    }
+
+    @Override
+    public long getMedianNanos() {
+        return latency.getPercentileNanos(0.5);
+    }
+
+    @Override
+    public long get95thPercentileNanos() {
+        return latency.getPercentileNanos(0.95);
+    }
+
+    @Override
+    public long get99thPercentileNanos() {
+        return latency.getPercentileNanos(0.99);
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics[" + provider + "." + operation +
+               ", count=" + getCount() + ", errors=" + getErrorCount() +
+               ", bytes=" + getBytes() + "]";
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+/**
+ * JMX view of the metrics collected for a single operation.
+ */
+public interface OperationMetricsMBean {
+
+    public String getProvider();
+
+    public String getOperation();
+
+    public long getCount();
+
+    public long getErrorCount();
+
+    public long getBytes();
+
+    public long getMeanNanos();
+
+    public long getMaxNanos();
+
+    public long getMedianNanos();
+
+    public long get95thPercentileNanos();
+
+    public long get99thPercentileNanos();
+
+}
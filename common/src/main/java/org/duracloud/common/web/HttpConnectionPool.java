@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.AuthCache;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of persistent HTTP connections which can be shared by any number of
+ * RestHttpHelper instances (and therefore by any number of threads). Reusing
+ * connections avoids paying for a new TCP (and TLS) handshake on every call
+ * to DuraCloud.
+ *
+ * Connections are kept alive between requests, limited both in total and per
+ * route (host), and closed by a background evictor once they have been idle
+ * for longer than the idle timeout. A request which cannot lease a
+ * connection within the connection request timeout, because all connections
+ * are in use, fails rather than waiting indefinitely.
+ */
+public class HttpConnectionPool {
+
+    private final Logger log = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+    public static final int DEFAULT_MAX_TOTAL = 100;
+    public static final int DEFAULT_MAX_PER_ROUTE = 50;
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = 60000;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private IdleConnectionEvictor evictor;
+    private CloseableHttpClient httpClient;
+    private CloseableHttpClient httpHeadClient;
+
+    // Preemptive basic auth schemes, shared across requests to each host
+    private AuthCache authCache = new BasicAuthCache();
+
+    public HttpConnectionPool() {
+        this(DEFAULT_MAX_TOTAL,
+             DEFAULT_MAX_PER_ROUTE,
+             DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Creates a connection pool sized to allow each of the given number of
+     * threads to hold a connection to the same host.
+     *
+     * @param threads number of threads expected to make concurrent calls
+     */
+    public HttpConnectionPool(int threads) {
+        this(Math.max(threads * 2, DEFAULT_MAX_TOTAL),
+             Math.max(threads * 2, DEFAULT_MAX_PER_ROUTE),
+             DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * @param maxTotal maximum number of open connections, across all hosts
+     * @param maxPerRoute maximum number of open connections to any one host
+     * @param idleTimeoutSeconds time after which an unused connection is closed
+     */
+    public HttpConnectionPool(int maxTotal,
+                              int maxPerRoute,
+                              long idleTimeoutSeconds) {
+        this(maxTotal,
+             maxPerRoute,
+             idleTimeoutSeconds,
+             DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxTotal maximum number of open connections, across all hosts
+     * @param maxPerRoute maximum number of open connections to any one host
+     * @param idleTimeoutSeconds time after which an unused connection is closed
+     * @param connectionRequestTimeoutMillis time to wait for a connection to
+     *                                       become available when all
+     *                                       connections are in use
+     */
+    public HttpConnectionPool(int maxTotal,
+                              int maxPerRoute,
+                              long idleTimeoutSeconds,
+                              int connectionRequestTimeoutMillis) {
+        if (maxTotal < 1 || maxPerRoute < 1) {
+            throw new IllegalArgumentException(
+                "Connection limits must be greater than zero");
+        }
+
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        // Check connections which have been idle a while before reuse, to
+        // avoid sending a request over a connection closed by the server
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig =
+            RequestConfig.custom()
+                         .setConnectionRequestTimeout(
+                             connectionRequestTimeoutMillis)
+                         .build();
+        httpClient = buildClient(HttpClients.custom(), requestConfig);
+        httpHeadClient =
+            buildClient(HttpClients.custom().disableContentCompression(),
+                        requestConfig);
+
+        evictor = new IdleConnectionEvictor(connectionManager,
+                                            idleTimeoutSeconds,
+                                            TimeUnit.SECONDS);
+        evictor.start();
+
+        log.debug("Created HTTP connection pool with max total {}, " +
+                  "max per route {}, idle timeout {}s",
+                  maxTotal, maxPerRoute, idleTimeoutSeconds);
+    }
+
+    private CloseableHttpClient buildClient(HttpClientBuilder builder,
+                                            RequestConfig requestConfig) {
+        return builder.setConnectionManager(connectionManager)
+                      .setConnectionManagerShared(true)
+                      .setDefaultRequestConfig(requestConfig)
+                      .build();
+    }
+
+    /**
+     * @param disableCompression true if the response will not have a body
+     *                           (as with HEAD requests)
+     * @return the pooled client
+     */
+    protected CloseableHttpClient getClient(boolean disableCompression) {
+        if (disableCompression) {
+            return httpHeadClient;
+        }
+        return httpClient;
+    }
+
+    /**
+     * Creates a request context which performs preemptive basic auth against
+     * the given host, using a scheme which is cached for use by later requests.
+     * Contexts are not thread safe, so a new one is created per request.
+     */
+    protected HttpClientContext createContext(HttpHost target,
+                                              CredentialsProvider credsProvider) {
+        if (null == authCache.get(target)) {
+            authCache.put(target, new BasicScheme());
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setCredentialsProvider(credsProvider);
+        context.setAuthCache(authCache);
+        return context;
+    }
+
+    /**
+     * @return the number of connections currently leased from the pool
+     */
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * @return the number of idle connections available in the pool
+     */
+    public int getAvailableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Closes all pooled connections and stops the idle connection evictor.
+     */
+    public void shutdown() {
+        evictor.shutdown();
+        connectionManager.shutdown();
+    }
+
+}
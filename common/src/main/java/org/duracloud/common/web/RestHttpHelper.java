@@ -34,6 +34,7 @@ import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
@@ -62,11 +63,25 @@ public class RestHttpHelper {
 
     private CredentialsProvider credsProvider;
 
+    private HttpConnectionPool connectionPool;
+
     public RestHttpHelper() {
         this(null);
     }
 
     public RestHttpHelper(Credential credential) {
+        this(credential, null);
+    }
+
+    /**
+     * @param credential user credentials, may be null for anonymous access
+     * @param connectionPool pool of connections to be reused across requests,
+     *                       may be null, in which case a new connection is
+     *                       opened for each request
+     */
+    public RestHttpHelper(Credential credential,
+                          HttpConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
         if (credential != null) {
             credsProvider = new BasicCredentialsProvider();
             credsProvider.setCredentials(
@@ -139,6 +154,11 @@ public class RestHttpHelper {
         return executeRequest(url, Method.GET, null, null);
     }
 
+    public HttpResponse get(String url,
+                            Map<String, String> headers) throws Exception {
+        return executeRequest(url, Method.GET, null, headers);
+    }
+
     public HttpResponse head(String url) throws Exception {
         return executeRequest(url, Method.HEAD, null, null);
     }
@@ -279,7 +299,9 @@ public class RestHttpHelper {
         }
 
         org.apache.http.HttpResponse response;
-        if (null != credsProvider) {
+        if (null != connectionPool) {
+            response = executePooledRequest(httpRequest, method);
+        } else if (null != credsProvider) {
             CloseableHttpClient httpClient =
                 buildClient(HttpClients.custom()
                                        .setDefaultCredentialsProvider(credsProvider),
@@ -311,6 +333,35 @@ public class RestHttpHelper {
         return httpResponse;
     }
 
+    private org.apache.http.HttpResponse executePooledRequest(
+        HttpRequestBase httpRequest, Method method) throws IOException {
+        CloseableHttpClient httpClient =
+            connectionPool.getClient(method.equals(Method.HEAD));
+
+        org.apache.http.HttpResponse response;
+        if (null != credsProvider) {
+            URI requestUri = httpRequest.getURI();
+            HttpHost target = new HttpHost(requestUri.getHost(),
+                                           requestUri.getPort(),
+                                           requestUri.getScheme());
+            response = httpClient.execute(
+                httpRequest, connectionPool.createContext(target, credsProvider));
+        } else {
+            response = httpClient.execute(httpRequest);
+        }
+
+        // A pooled connection is only released once the response body has
+        // been read. Only GET responses are streamed back to the caller,
+        // the (small) bodies of all other responses are read in here so that
+        // their connections go straight back to the pool.
+        HttpEntity entity = response.getEntity();
+        if (null != entity && !method.equals(Method.GET)) {
+            response.setEntity(new BufferedHttpEntity(entity));
+            EntityUtils.consume(entity);
+        }
+        return response;
+    }
+
     private CloseableHttpClient buildClient(HttpClientBuilder builder,
                                             Method method) {
         if (method.equals(Method.HEAD)) {
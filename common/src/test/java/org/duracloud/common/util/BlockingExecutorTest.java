@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BlockingExecutorTest {
+
+    @Test
+    public void testExecuteLimitsRunningTasks() throws Exception {
+        int threads = 3;
+        BlockingExecutor executor = new BlockingExecutor(threads, "test");
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger maxRunning = new AtomicInteger(0);
+        AtomicInteger completed = new AtomicInteger(0);
+
+        int tasks = 30;
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                int now = running.incrementAndGet();
+                maxRunning.accumulateAndGet(now, Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                completed.incrementAndGet();
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(tasks, completed.get());
+        assertTrue(maxRunning.get() <= threads);
+    }
+
+    @Test
+    public void testTryExecute() throws Exception {
+        BlockingExecutor executor =
+            new BlockingExecutor(1, 1, Executors.newFixedThreadPool(1));
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // One running and one queued task fill the available slots
+        assertTrue(executor.tryExecute(blocked, 1, TimeUnit.SECONDS));
+        assertTrue(executor.tryExecute(blocked, 1, TimeUnit.SECONDS));
+        assertFalse(executor.tryExecute(blocked, 50, TimeUnit.MILLISECONDS));
+
+        // Completed tasks free their slots
+        release.countDown();
+        assertTrue(executor.tryExecute(() -> { }, 1, TimeUnit.SECONDS));
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        try {
+            executor.execute(() -> { });
+            fail("Exception expected after shutdown");
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PagePrefetcherTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    /*
+     * Loads pages of consecutive integers up to the given total
+     */
+    private static class CountingLoader
+        implements PagePrefetcher.PageLoader<Integer> {
+        private final int total;
+        private final AtomicInteger calls = new AtomicInteger(0);
+
+        public CountingLoader(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public List<Integer> loadPage(Integer lastItem) throws Exception {
+            calls.incrementAndGet();
+            List<Integer> page = new ArrayList<>();
+            int start = (null == lastItem) ? 0 : lastItem + 1;
+            for (int i = start; i < Math.min(start + PAGE_SIZE, total); i++) {
+                page.add(i);
+            }
+            return page;
+        }
+    }
+
+    @Test
+    public void testPages() throws Exception {
+        for (int depth = 1; depth <= 3; depth++) {
+            CountingLoader loader = new CountingLoader(10);
+            List<Integer> page = loader.loadPage(null);
+            PagePrefetcher<Integer> prefetcher =
+                new PagePrefetcher<>(loader, page, depth);
+
+            List<Integer> items = new ArrayList<>(page);
+            while (!page.isEmpty()) {
+                page = prefetcher.nextPage();
+                items.addAll(page);
+            }
+
+            assertEquals(10, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                assertEquals(i, items.get(i).intValue());
+            }
+            // Nothing is requested after the end of the listing is reached
+            assertEquals(5, loader.calls.get());
+        }
+    }
+
+    @Test
+    public void testBoundedReadAhead() throws Exception {
+        CountingLoader loader = new CountingLoader(1000);
+        List<Integer> page = loader.loadPage(null);
+        PagePrefetcher<Integer> prefetcher =
+            new PagePrefetcher<>(loader, page, 2);
+
+        prefetcher.nextPage();
+        Thread.sleep(200);
+        // Initial page, the page consumed, and two pages read ahead
+        assertTrue(loader.calls.get() <= 4);
+    }
+
+    @Test
+    public void testLoadError() throws Exception {
+        PagePrefetcher<Integer> prefetcher = new PagePrefetcher<>(
+            lastItem -> {
+                throw new IOException("expected");
+            }, Arrays.asList(1), 2);
+
+        try {
+            prefetcher.nextPage();
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertEquals("expected", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDepth() {
+        new PagePrefetcher<>(new CountingLoader(1), Arrays.asList(1), 0);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ManifestSorterTest {
+
+    private File tempDir;
+    private File workDir;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = File.createTempFile("manifest", "sort");
+        tempDir.delete();
+        tempDir.mkdirs();
+        workDir = new File(tempDir, "work");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteQuietly(tempDir);
+    }
+
+    @Test
+    public void testSort() throws Exception {
+        List<String> lines = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String name = "data/title/file-" + (i * 37 % 100);
+            names.add(name);
+            lines.add("checksum" + i + " " + name);
+        }
+        Collections.sort(names);
+
+        ManifestSorter sorter = new ManifestSorter(workDir, 7, 3);
+        List<String> sorted = new ArrayList<>();
+        try (ManifestSorter.SortedManifest manifest =
+                 sorter.sort(writeManifest(lines),
+                             Collections.<String>emptyList())) {
+            while (manifest.hasNext()) {
+                sorted.add(manifest.next().getName());
+            }
+        }
+        assertEquals(names, sorted);
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testSortDuplicatesAndFilters() throws Exception {
+        File file = writeManifest(Arrays.asList("aaa data/t/b",
+                                                "bbb data/t/a",
+                                                "ccc data/t/b",
+                                                "ddd data/t/skip",
+                                                "eee data/t/b  "));
+        ManifestSorter sorter = new ManifestSorter(workDir, 2, 2);
+        try (ManifestSorter.SortedManifest manifest =
+                 sorter.sort(file, Arrays.asList("skip"))) {
+            ManifestEntry entry = manifest.next();
+            assertEquals("data/t/a", entry.getName());
+            assertEquals("bbb", entry.getChecksum());
+
+            // The last of the duplicate entries is kept
+            entry = manifest.next();
+            assertEquals("data/t/b", entry.getName());
+            assertEquals("eee", entry.getChecksum());
+            assertFalse(manifest.hasNext());
+        }
+    }
+
+    @Test
+    public void testMultiPassMerge() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add("checksum" + i + " data/t/\u00e9-" + (i * 37 % 100));
+        }
+
+        // 100 runs of 2, merged 3 at a time
+        ManifestSorter sorter = new ManifestSorter(workDir, 2, 2, 3);
+        List<String> names = new ArrayList<>();
+        try (ManifestSorter.SortedManifest manifest =
+                 sorter.sort(writeManifest(lines),
+                             Collections.<String>emptyList())) {
+            while (manifest.hasNext()) {
+                ManifestEntry entry = manifest.next();
+                names.add(entry.getName());
+                // The later of the two entries of each name is kept
+                int index = Integer.parseInt(
+                    entry.getChecksum().substring("checksum".length()));
+                assertTrue(index >= 100);
+            }
+        }
+        assertEquals(100, names.size());
+        List<String> expected = new ArrayList<>(names);
+        Collections.sort(expected);
+        assertEquals(expected, names);
+        assertTrue(names.get(0).startsWith("data/t/\u00e9-"));
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testSortInvalidLine() throws Exception {
+        File file = writeManifest(Arrays.asList("aaa data/t/a",
+                                                "bbb data/t/b extra"));
+        ManifestSorter sorter = new ManifestSorter(workDir, 1, 1);
+        try {
+            sorter.sort(file, Collections.<String>emptyList());
+            fail("Exception expected");
+        } catch (RuntimeException expected) {
+        }
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testParse() {
+        ManifestEntry entry = ManifestEntry.parse("abc\tdata/t/a\r");
+        assertEquals("abc", entry.getChecksum());
+        assertEquals("data/t/a", entry.getName());
+
+        for (String line : new String[] {"", "abc", " data/t/a",
+                                         "abc  data/t/a"}) {
+            try {
+                ManifestEntry.parse(line);
+                fail("Exception expected for: " + line);
+            } catch (RuntimeException expected) {
+            }
+        }
+    }
+
+    private File writeManifest(List<String> lines) throws Exception {
+        File file = new File(tempDir, "manifest.txt");
+        FileUtils.writeLines(file, "UTF-8", lines);
+        return file;
+    }
+
+}
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 
 /**
@@ -123,4 +124,78 @@ public class ManifestVerifierTest {
         assertTrue(runtimeThrown);
 
     }
+
+    @Test
+    public void testVerifySortedGood() throws Exception {
+        verifier = new ManifestVerifier(file0, file1, sorter());
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        verifier.verifySorted(report);
+
+        String[] lines = report.toString().split("\n");
+        assertEquals(225, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            assertTrue(lines[i], lines[i].trim().endsWith("VALID"));
+        }
+    }
+
+    @Test
+    public void testVerifySortedUneven() {
+        verifySortedInvalid(file0, file2, "MISSING_FROM_1");
+        verifySortedInvalid(file2, file0, "MISSING_FROM_0");
+    }
+
+    @Test
+    public void testVerifySortedMismatch() {
+        verifySortedInvalid(file0, file3, "MISMATCH");
+        verifySortedInvalid(file0, file4, "MISSING_FROM_0");
+        verifySortedInvalid(file0, file5, "MISMATCH");
+    }
+
+    @Test
+    public void testVerifySortedFiltered() throws Exception {
+        // Ignores the entries missing from the second manifest
+        verifier = new ManifestVerifier(file0, file2, sorter());
+        verifier.verifySorted(new ByteArrayOutputStream(),
+                              "additionalnewste657puth",
+                              "atolloffunafutie217219aust",
+                              "diefischederosts00mb",
+                              "festivalofameric00festi",
+                              "smtihsonianfolkl00smit");
+    }
+
+    @Test
+    public void testVerifySortedBad() {
+        verifier = new ManifestVerifier(file0, file6, sorter());
+        try {
+            verifier.verifySorted(new ByteArrayOutputStream());
+            fail("Exception expected.");
+        } catch (ManifestVerifyException e) {
+            fail("ManifestVerifyException not expected.\n" +
+                e.getFormattedMessage());
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    private void verifySortedInvalid(File manifest0,
+                                     File manifest1,
+                                     String expectedState) {
+        verifier = new ManifestVerifier(manifest0, manifest1, sorter());
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        try {
+            verifier.verifySorted(report);
+            fail("Exception expected.");
+        } catch (ManifestVerifyException e) {
+            assertEquals(ManifestVerifyException.ErrorType.INVALID,
+                         e.getErrorType());
+        }
+        assertTrue(report.toString().contains(expectedState));
+    }
+
+    /*
+     * Uses small chunks so that the test manifests are split into
+     * several runs
+     */
+    private ManifestSorter sorter() {
+        return new ManifestSorter(new File("target"), 2, 2);
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] {0, 1, 3, 4, 7, 8, 100, 1000000,
+                                      Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index < LatencyHistogram.BUCKETS);
+            assertTrue(value >= LatencyHistogram.bucketLowerBound(index));
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+        }
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            assertEquals(LatencyHistogram.bucketUpperBound(i - 1) + 1,
+                         LatencyHistogram.bucketLowerBound(i));
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getMeanNanos());
+        assertEquals(1000000, histogram.getMaxNanos());
+        assertWithin(500000, histogram.getPercentileNanos(0.5));
+        assertWithin(990000, histogram.getPercentileNanos(0.99));
+        assertEquals(1000000, histogram.getPercentileNanos(1));
+    }
+
+    private void assertWithin(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual,
+                   actual >= expected && actual <= expected * 1.25);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        int threads = 8;
+        int calls = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                OperationMetrics metrics =
+                    registry.getOperation("provider", "operation");
+                for (int j = 0; j < calls; j++) {
+                    metrics.record(j);
+                    metrics.addBytes(2);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        OperationMetrics metrics =
+            registry.getOperation("provider", "operation");
+        assertEquals(threads * calls, metrics.getCount());
+        assertEquals(threads * calls * 2L, metrics.getBytes());
+        assertEquals(calls - 1, metrics.getMaxNanos());
+        assertEquals(1, registry.getOperations().size());
+    }
+
+    @Test
+    public void testMaxOperations() {
+        MetricsRegistry registry = new MetricsRegistry(2, null, null);
+        OperationMetrics one = registry.getOperation("provider", "one");
+        registry.getOperation("provider", "two");
+        OperationMetrics three = registry.getOperation("provider", "three");
+        OperationMetrics four = registry.getOperation("provider", "four");
+
+        assertSame(one, registry.getOperation("provider", "one"));
+        assertSame(three, four);
+        assertEquals(MetricsRegistry.OVERFLOW_NAME, three.getOperation());
+        assertEquals(3, registry.getOperations().size());
+    }
+
+    @Test
+    public void testMaxOperationsPerProvider() {
+        MetricsRegistry registry = new MetricsRegistry(2, null, null);
+        for (int i = 0; i < 100; i++) {
+            registry.getOperation("provider" + i, "one");
+            registry.getOperation("provider" + i, "two");
+        }
+
+        // Each provider's operations are tracked separately
+        OperationMetrics last = registry.getOperation("provider99", "two");
+        assertEquals("provider99", last.getProvider());
+        assertEquals("two", last.getOperation());
+        assertEquals(200, registry.getOperations().size());
+
+        // Overflow is per provider
+        OperationMetrics overflow =
+            registry.getOperation("provider1", "three");
+        assertEquals("provider1", overflow.getProvider());
+        assertEquals(MetricsRegistry.OVERFLOW_NAME, overflow.getOperation());
+        assertEquals("two", registry.getOperation("provider2", "two")
+                                    .getOperation());
+    }
+
+    @Test
+    public void testReport() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.getOperation("b", "read").record(2000000);
+        registry.getOperation("a", "write").recordError(1000000);
+
+        List<OperationMetrics> operations = registry.getOperations();
+        assertEquals("a", operations.get(0).getProvider());
+        assertEquals(1, operations.get(0).getErrorCount());
+
+        String[] lines = registry.getReport().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1], lines[1].startsWith("a.write "));
+        assertTrue(lines[2], lines[2].startsWith("b.read "));
+        assertTrue(lines[2], lines[2].trim().endsWith("2.000"));
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        MetricsRegistry registry = new MetricsRegistry(10, server, "test");
+        registry.getOperation("s3-1", "getContent").record(5);
+
+        ObjectName name =
+            new ObjectName("test:type=Operation,provider=\"s3-1\"," +
+                           "operation=\"getContent\"");
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "Count"));
+        assertEquals(5L, server.getAttribute(name, "MaxNanos"));
+    }
+
+    @Test
+    public void testRemoveProvider() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        MetricsRegistry registry = new MetricsRegistry(10, server, "test");
+        registry.getOperation("s3-1", "getContent").record(5);
+        registry.getOperation("s3-2", "getContent").record(5);
+
+        registry.removeProvider("s3-1");
+        ObjectName name =
+            new ObjectName("test:type=Operation,provider=\"s3-1\"," +
+                           "operation=\"getContent\"");
+        assertFalse(server.isRegistered(name));
+        assertEquals(1, registry.getOperations().size());
+        assertEquals("s3-2", registry.getOperations().get(0).getProvider());
+
+        // The metrics of a provider used again start over
+        assertEquals(0, registry.getOperation("s3-1", "getContent").getCount());
+        assertTrue(server.isRegistered(name));
+    }
+
+}
@@ -18,6 +18,7 @@ import java.util.Map;
 import org.apache.http.HttpEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.duracloud.common.model.Credential;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.duracloud.common.web.RestHttpHelper.HttpResponse;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
@@ -30,6 +31,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 public class RestHttpHelperTest {
 
@@ -100,6 +102,56 @@ public class RestHttpHelperTest {
         verifyResponse(response);
     }
 
+    @Test
+    public void testPooledBasicAuth() throws Exception {
+        HttpConnectionPool pool = new HttpConnectionPool(1);
+        Credential credential = new Credential("joeUser", "joesPassword");
+        helper = new RestHttpHelper(credential, pool);
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                verifyResponse(helper.put(getUrl(), "<x>junk</x>", headers));
+                verifyResponse(helper.head(getUrl()));
+                verifyResponse(helper.delete(getUrl()));
+            }
+            // Responses not streamed to the caller release their connection
+            assertEquals(0, pool.getLeasedConnections());
+            assertEquals(1, pool.getAvailableConnections());
+
+            HttpResponse response = helper.get(getUrl());
+            verifyResponse(response);
+            response.getResponseBody();
+            assertEquals(0, pool.getLeasedConnections());
+            assertEquals(1, pool.getAvailableConnections());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPoolExhausted() throws Exception {
+        HttpConnectionPool pool = new HttpConnectionPool(1, 1, 60, 100);
+        helper = new RestHttpHelper(null, pool);
+
+        try {
+            // The connection is held until the response body is read
+            HttpResponse response = helper.get(getUrl());
+            assertEquals(1, pool.getLeasedConnections());
+
+            try {
+                helper.get(getUrl());
+                fail("Exception expected when no connection is available");
+            } catch (ConnectionPoolTimeoutException expected) {
+                assertNotNull(expected.getMessage());
+            }
+
+            response.getResponseBody();
+            verifyResponse(helper.head(getUrl()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void testDelete() throws Exception {
         HttpResponse response = helper.delete(getUrl());
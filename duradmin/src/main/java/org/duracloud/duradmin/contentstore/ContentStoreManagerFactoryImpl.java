@@ -10,17 +10,32 @@ package org.duracloud.duradmin.contentstore;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
+import org.duracloud.common.web.HttpConnectionPool;
 
 public class ContentStoreManagerFactoryImpl
         implements ContentStoreManagerFactory {
 
     private DuraCloudRequestContextUtil requestUtil;
 
+    // Shared by the content store managers of all requests, so that calls
+    // to DuraStore reuse open connections
+    private HttpConnectionPool connectionPool = new HttpConnectionPool();
+
     public ContentStoreManagerFactoryImpl(DuraCloudRequestContextUtil requestUtil){
         this.requestUtil = requestUtil;
     }
     public ContentStoreManager create() throws Exception {
         return new ContentStoreManagerImpl(requestUtil.getHost(),
-                                           requestUtil.getPort()+"");
+                                           requestUtil.getPort()+"",
+                                           null,
+                                           connectionPool);
+    }
+
+    /**
+     * Closes the pooled connections, called when the application context
+     * is destroyed.
+     */
+    public void shutdown() {
+        connectionPool.shutdown();
     }
 }
@@ -19,6 +19,7 @@ import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.fileupload.util.Streams;
 import org.apache.commons.lang.StringUtils;
+import org.duracloud.chunk.stream.ChunkBufferPool;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.duradmin.domain.ContentItem;
@@ -46,7 +47,14 @@ public class ContentItemUploadController  {
         LoggerFactory.getLogger(ContentItemUploadController.class);
 
 
+    // Shared by all uploads, bounding the memory used to hold chunks
+    private static final long BUFFER_POOL_SIZE = 256L * 1024 * 1024;
+
     private ContentStoreManager contentStoreManager;
+    private ChunkBufferPool bufferPool =
+        new ChunkBufferPool(BUFFER_POOL_SIZE,
+                            ChunkBufferPool.DEFAULT_SEGMENT_SIZE,
+                            false);
 
     @Autowired
     public ContentItemUploadController(
@@ -66,6 +74,7 @@ public class ContentItemUploadController  {
             String spaceId = null;
             String storeId = null;
             String contentId = null;
+            long contentSize = -1;
             List<ContentItem> results = new ArrayList<ContentItem>();
 
             while (iter.hasNext()) {
@@ -79,6 +88,14 @@ public class ContentItemUploadController  {
                         storeId = value;
                     } else if (item.getFieldName().equals("contentId")) {
                         contentId = value;
+                    } else if (item.getFieldName().equals("contentSize")) {
+                        contentSize = parseContentSize(value);
+                        if (contentSize < 0) {
+                            response.sendError(
+                                HttpServletResponse.SC_BAD_REQUEST,
+                                "Invalid contentSize: " + value);
+                            return null;
+                        }
                     }
                 } else {
                     log.debug("setting fileStream: {}", item);
@@ -102,8 +119,12 @@ public class ContentItemUploadController  {
                         new ContentItemUploadTask(ci,
                                                   contentStore,
                                                   item.openStream(),
+                                                  contentSize,
                                                   request.getUserPrincipal()
                                                          .getName());
+                    task.setChunking(ContentItemUploadTask.DEFAULT_CHUNK_THRESHOLD,
+                                     ContentItemUploadTask.DEFAULT_CHUNK_SIZE,
+                                     bufferPool);
 
                     task.execute();
                     ContentItem result = new ContentItem();
@@ -113,11 +134,12 @@ public class ContentItemUploadController  {
                     SpaceUtil.populateContentItem(ContentItemController.getBaseURL(request),
                                                   result,
                                                   ci.getSpaceId(),
-                                                  ci.getContentId(),
+                                                  task.getStoredContentId(),
                                                   contentStore,
                                                   auth);
                     results.add(result);
                     contentId = null;
+                    contentSize = -1;
                 }
             }
 
@@ -130,4 +152,15 @@ public class ContentItemUploadController  {
 
     }
 
+    /*
+     * @return the size, or -1 if the value is not a valid size
+     */
+    private long parseContentSize(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
 }
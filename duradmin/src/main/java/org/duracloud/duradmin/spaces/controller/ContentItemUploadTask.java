@@ -9,7 +9,9 @@
 package org.duracloud.duradmin.spaces.controller;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,56 +19,106 @@ import java.util.Map;
 import org.apache.commons.fileupload.ProgressListener;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.duracloud.chunk.ChunkableContent;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.stream.ChunkBufferPool;
+import org.duracloud.chunk.writer.DuracloudContentWriter;
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.IOUtil;
 import org.duracloud.duradmin.domain.ContentItem;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Uploads a single item received by duradmin to the content store.
+ *
+ * When the size of the item is known, the upload stream is passed straight
+ * through to storage as it is received, with its MD5 computed on the way.
+ * Items larger than the chunk threshold are split into chunks as they are
+ * read, each chunk being held in a pooled buffer only while it is
+ * transferred. Only items of unknown size are first copied to a temp file.
+ *
+ * Progress is reported as bytes are read by the transfer to storage.
+ *
  * @author Daniel Bernstein
  */
 public class ContentItemUploadTask implements Comparable, ProgressListener {
     Logger log = LoggerFactory.getLogger(ContentItemUploadTask.class);
 
+    // Items larger than this are chunked
+    public static final long DEFAULT_CHUNK_THRESHOLD = 1000L * 1000 * 1000;
+    // Must be a multiple of 1000, see ChunkableContent
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1000 * 1000;
+
     private ContentItem contentItem;
     private ContentStore contentStore;
-    private long totalBytes = 0;
-    private long bytesRead = 0;
+    private volatile long totalBytes = 0;
+    private volatile long bytesRead = 0;
 
     private String username;
     private Date startDate = null;
     private InputStream stream = null;
+    private String storedContentId;
+
+    private long chunkThreshold = DEFAULT_CHUNK_THRESHOLD;
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+    private ChunkBufferPool bufferPool = null;
 
     public ContentItemUploadTask(ContentItem contentItem,
                                  ContentStore contentStore,
                                  InputStream stream,
                                  String username) throws Exception {
+        this(contentItem, contentStore, stream, -1, username);
+    }
+
+    /**
+     * @param contentSize size of the item in bytes, -1 if not known
+     */
+    public ContentItemUploadTask(ContentItem contentItem,
+                                 ContentStore contentStore,
+                                 InputStream stream,
+                                 long contentSize,
+                                 String username) throws Exception {
         this.stream = stream;
         this.contentItem = contentItem;
         this.contentStore = contentStore;
         this.username = username;
-        this.totalBytes = -1;
+        this.totalBytes = contentSize;
+        this.storedContentId = contentItem.getContentId();
         log.info("new task created for {} by {}", contentItem, username);
     }
 
+    /**
+     * @param chunkThreshold items larger than this are stored in chunks
+     * @param chunkSize size of each chunk, a multiple of 1000
+     * @param bufferPool holds chunks while they are transferred, null to
+     *                   use a pool for this upload alone
+     */
+    public void setChunking(long chunkThreshold,
+                            long chunkSize,
+                            ChunkBufferPool bufferPool) {
+        this.chunkThreshold = chunkThreshold;
+        this.chunkSize = chunkSize;
+        this.bufferPool = bufferPool;
+    }
+
     public void execute() throws Exception {
-        File tmpFile = null;
-        InputStream tmpStream = null;
         try {
             log.info("executing file upload: {}", contentItem);
             startDate = new Date();
 
-            tmpFile = IOUtil.writeStreamToFile(this.stream);
-            tmpStream = IOUtil.getFileStream(tmpFile);
-
-            contentStore.addContent(contentItem.getSpaceId(),
-                                    contentItem.getContentId(),
-                                    tmpStream,
-                                    tmpFile.length(),
-                                    contentItem.getContentMimetype(),
-                                    null,
-                                    null);
+            if (totalBytes < 0) {
+                uploadSpooled();
+            } else if (totalBytes > chunkThreshold) {
+                uploadChunked();
+            } else {
+                uploadStreamed();
+            }
             log.info("file upload completed successfully: {}", contentItem);
 
         } catch (Exception ex) {
@@ -80,12 +132,187 @@ public class ContentItemUploadTask implements Comparable, ProgressListener {
                 ex.printStackTrace();
                 throw ex;
 
+        }
+    }
+
+    /*
+     * Passes the upload straight through to storage, then compares the
+     * checksum and length of what was read along the way with the checksum
+     * computed by storage and the expected size. Should they differ, the
+     * stored item is removed rather than left in place holding content
+     * which does not match the upload.
+     */
+    private void uploadStreamed() throws ContentStoreException {
+        CountingInputStream counted = new CountingInputStream(countBytes(stream));
+        DigestInputStream content =
+            ChecksumUtil.wrapStream(counted, ChecksumUtil.Algorithm.MD5);
+        String spaceId = contentItem.getSpaceId();
+        String contentId = contentItem.getContentId();
+        String storedChecksum =
+            contentStore.addContent(spaceId,
+                                    contentId,
+                                    content,
+                                    totalBytes,
+                                    contentItem.getContentMimetype(),
+                                    null,
+                                    null);
+
+        String error = checkLength(counted.getByteCount());
+        if (null == error) {
+            String checksum = ChecksumUtil.getChecksum(content);
+            if (!checksum.equals(storedChecksum)) {
+                error = "Checksum of uploaded content " + checksum +
+                        " does not match stored checksum " + storedChecksum +
+                        " for " + contentId;
+            }
+        }
+
+        if (null != error) {
+            removeContent(contentId);
+            throw new ContentStoreException(error);
+        }
+    }
+
+    /*
+     * @return a description of the mismatch if the number of bytes
+     *         transferred, or the remainder of the upload stream, shows that
+     *         the upload was not of the expected length, otherwise null
+     */
+    private String checkLength(long transferred) {
+        if (transferred != totalBytes || hasMoreContent(stream)) {
+            return "Length of uploaded content does not match expected " +
+                   "length " + totalBytes + " (" + transferred +
+                   " bytes transferred) for " + contentItem.getContentId();
+        }
+        return null;
+    }
+
+    private void removeContent(String contentId) {
+        String spaceId = contentItem.getSpaceId();
+        try {
+            contentStore.deleteContent(spaceId, contentId);
+        } catch (NotFoundException e) {
+            // Not stored
+        } catch (ContentStoreException e) {
+            log.error("Unable to remove failed upload of {} from {}: {}",
+                      new Object[]{contentId, spaceId, e.getMessage()});
+        }
+    }
+
+    private boolean hasMoreContent(InputStream in) {
+        try {
+            return in.read() >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Splits the upload into chunks as it is read. The writer verifies the
+     * checksum of each chunk and the manifest records the source checksum.
+     * Should the upload fail, or turn out not to be of the expected length,
+     * the chunks and manifest written for it are removed.
+     */
+    private void uploadChunked() throws Exception {
+        CountingInputStream counted = new CountingInputStream(countBytes(stream));
+        ChunkableContent chunkable =
+            new ChunkableContent(contentItem.getContentId(),
+                                 contentItem.getContentMimetype(),
+                                 counted,
+                                 totalBytes,
+                                 chunkSize);
+        DuracloudContentWriter writer =
+            new DuracloudContentWriter(contentStore, username, true, false);
+        // Reading the next chunk from the client overlaps the transfer of
+        // the previous one
+        writer.setUploadThreads(2);
+        if (null != bufferPool) {
+            writer.setChunkBufferPool(bufferPool);
+        }
+
+        boolean stored = false;
+        try {
+            ChunksManifest manifest =
+                writer.write(contentItem.getSpaceId(), chunkable);
+            String error = checkLength(counted.getByteCount());
+            if (null != error) {
+                throw new ContentStoreException(error);
+            }
+            storedContentId = manifest.getManifestId();
+            stored = true;
+            log.info("uploaded {} in {} chunks, md5: {}",
+                     new Object[]{storedContentId,
+                                  manifest.getEntries().size(),
+                                  manifest.getHeader().getSourceMD5()});
+        } finally {
+            chunkable.close();
+            if (!stored) {
+                removeChunks(counted.getByteCount());
+            }
+        }
+    }
+
+    /*
+     * Removes the manifest and any chunks which may have been written for
+     * an upload of which the given number of bytes was read
+     */
+    private void removeChunks(long read) {
+        ChunksManifest manifest =
+            new ChunksManifest(contentItem.getContentId(),
+                               contentItem.getContentMimetype(),
+                               totalBytes);
+        removeContent(manifest.getManifestId());
+        long chunks = Math.min(read / chunkSize + 1,
+                               (totalBytes + chunkSize - 1) / chunkSize);
+        for (long i = 0; i < chunks; i++) {
+            removeContent(manifest.nextChunkId());
+        }
+    }
+
+    /*
+     * Copies the upload to a temp file first, as the content store requires
+     * the size of an item before it is sent.
+     */
+    private void uploadSpooled() throws Exception {
+        File tmpFile = null;
+        InputStream tmpStream = null;
+        try {
+            tmpFile = IOUtil.writeStreamToFile(countBytes(this.stream));
+            tmpStream = IOUtil.getFileStream(tmpFile);
+            totalBytes = tmpFile.length();
+
+            contentStore.addContent(contentItem.getSpaceId(),
+                                    contentItem.getContentId(),
+                                    tmpStream,
+                                    tmpFile.length(),
+                                    contentItem.getContentMimetype(),
+                                    null,
+                                    null);
         } finally {
             FileUtils.deleteQuietly(tmpFile);
             IOUtils.closeQuietly(tmpStream);
         }
     }
 
+    private InputStream countBytes(InputStream in) {
+        return new ProxyInputStream(in) {
+            @Override
+            protected void afterRead(int n) throws IOException {
+                if (n > 0) {
+                    bytesRead += n;
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the ID under which the item was stored, which is the ID of the
+     *         chunks manifest when the item was chunked
+     */
+    public String getStoredContentId() {
+        return storedContentId;
+    }
+
     public void update(long pBytesRead, long pContentLength, int pItems) {
         bytesRead = pBytesRead;
         totalBytes = pContentLength;
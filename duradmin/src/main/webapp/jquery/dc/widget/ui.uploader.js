@@ -188,6 +188,9 @@ $.widget("ui.uploader", {
 
                    $.each(files, function(j, file){
                        if(file.name == initialVal){
+                           //sent ahead of the file so that the upload can
+                           //be streamed through to storage
+                           formData.append('contentSize', file.size);
                            formData.append('file', file);
                        }
                    });
@@ -7,15 +7,21 @@
  */
 package org.duracloud.duradmin.spaces.controller;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.duradmin.domain.ContentItem;
 import org.duracloud.error.ContentStoreException;
 import org.easymock.EasyMock;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -41,12 +47,18 @@ public class ContentItemUploadTaskTest {
         contentItem.setContentId("content-id");
         contentItem.setContentMimetype("text/plain");
 
-        contentStore = createMockContentStore();
         stream = IOUtils.toInputStream(text);
         username = "user-name";
     }
 
-    private ContentStore createMockContentStore() throws ContentStoreException {
+    private ContentStore createMockContentStore(String storedChecksum)
+        throws ContentStoreException {
+        return createMockContentStore(storedChecksum, false);
+    }
+
+    private ContentStore createMockContentStore(String storedChecksum,
+                                                boolean expectDelete)
+        throws ContentStoreException {
         ContentStore store = EasyMock.createMock("Store", ContentStore.class);
         EasyMock.expect(store.addContent(EasyMock.eq(contentItem.getSpaceId()),
                                          EasyMock.eq(contentItem.getContentId()),
@@ -55,7 +67,18 @@ public class ContentItemUploadTaskTest {
                                          EasyMock.eq(contentItem.getContentMimetype()),
                                          EasyMock.<String>isNull(),
                                          EasyMock.<Map<String, String>>isNull()))
-            .andReturn(null);
+            .andAnswer(() -> {
+                InputStream content =
+                    (InputStream) EasyMock.getCurrentArguments()[2];
+                IOUtils.toByteArray(content);
+                return storedChecksum;
+            });
+
+        if (expectDelete) {
+            store.deleteContent(contentItem.getSpaceId(),
+                                contentItem.getContentId());
+            EasyMock.expectLastCall().once();
+        }
 
         EasyMock.replay(store);
         return store;
@@ -68,6 +91,7 @@ public class ContentItemUploadTaskTest {
 
     @Test
     public void testExecute() throws Exception {
+        contentStore = createMockContentStore(null);
         task = new ContentItemUploadTask(contentItem,
                                          contentStore,
                                          stream,
@@ -77,4 +101,119 @@ public class ContentItemUploadTaskTest {
         task.execute();
 
     }
+
+    @Test
+    public void testExecuteStreamed() throws Exception {
+        String checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(text);
+        contentStore = createMockContentStore(checksum);
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         stream,
+                                         text.length(),
+                                         username);
+
+        task.execute();
+
+        Map<String, String> progress = task.getProperties();
+        Assert.assertEquals(String.valueOf(text.length()),
+                            progress.get("bytesRead"));
+        Assert.assertEquals(String.valueOf(text.length()),
+                            progress.get("totalBytes"));
+        Assert.assertEquals(contentItem.getContentId(),
+                            task.getStoredContentId());
+    }
+
+    @Test
+    public void testExecuteStreamedChecksumMismatch() throws Exception {
+        contentStore = createMockContentStore("bad-checksum", true);
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         stream,
+                                         text.length(),
+                                         username);
+
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (ContentStoreException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteStreamedShort() throws Exception {
+        // The upload ends before the expected length is received
+        String received = text.substring(0, text.length() - 1);
+        String checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(received);
+        contentStore = createMockContentStore(checksum, true);
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         IOUtils.toInputStream(received),
+                                         text.length(),
+                                         username);
+
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (ContentStoreException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteChunkedLong() throws Exception {
+        // The upload continues past the expected length
+        byte[] received = new byte[2500];
+        Arrays.fill(received, (byte) 'a');
+        long expectedSize = 2000;
+
+        contentStore = EasyMock.createMock("Store", ContentStore.class);
+        EasyMock.expect(contentStore.getSpaceACLs(contentItem.getSpaceId()))
+                .andReturn(new HashMap<String, AclType>()).anyTimes();
+        EasyMock.expect(contentStore.contentExists(EasyMock.anyString(),
+                                                   EasyMock.anyString()))
+                .andReturn(false).anyTimes();
+        EasyMock.expect(contentStore.addContent(EasyMock.anyString(),
+                                                EasyMock.anyString(),
+                                                EasyMock.<InputStream>anyObject(),
+                                                EasyMock.anyLong(),
+                                                EasyMock.anyString(),
+                                                EasyMock.<String>anyObject(),
+                                                EasyMock.<Map<String, String>>anyObject()))
+            .andAnswer(() -> {
+                InputStream content =
+                    (InputStream) EasyMock.getCurrentArguments()[2];
+                return new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+                    .generateChecksum(content);
+            }).times(3);
+
+        // The manifest and both chunks are removed
+        String contentId = contentItem.getContentId();
+        contentStore.deleteContent(contentItem.getSpaceId(),
+                                   contentId + ".dura-manifest");
+        EasyMock.expectLastCall().once();
+        contentStore.deleteContent(contentItem.getSpaceId(),
+                                   contentId + ".dura-chunk-0000");
+        EasyMock.expectLastCall().once();
+        contentStore.deleteContent(contentItem.getSpaceId(),
+                                   contentId + ".dura-chunk-0001");
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(contentStore);
+
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         new ByteArrayInputStream(received),
+                                         expectedSize,
+                                         username);
+        task.setChunking(1000, 1000, null);
+
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (ContentStoreException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,360 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import org.apache.http.HttpStatus;
+import org.duracloud.common.util.BlockingExecutor;
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.error.InvalidIdException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageStateException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.provider.StorageProviderBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performs a batch of content operations on a single space, several at once,
+ * handing the result of each operation to a handler as soon as it is known.
+ *
+ * Delete operations are grouped and performed using
+ * StorageProvider.deleteContents(), with the size and checksum of each item
+ * included, the other operations are performed one item at a time. Results
+ * are handed to the handler on the calling thread, in the order in which the
+ * operations complete.
+ *
+ * The operations of all batches are run by a shared pool of threads, with
+ * each batch running no more than a given number of operations at once.
+ */
+class ContentOperationExecutor {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ContentOperationExecutor.class);
+
+    public static final int DEFAULT_THREADS = 8;
+
+    private static final int SHARED_THREADS = 32;
+
+    // Shared by all batches, so that the number of threads is bounded
+    // however many batches are in progress
+    private static final ExecutorService sharedExecutor =
+        BlockingExecutor.createExecutor(SHARED_THREADS, "content-batch");
+
+    private static final long SUBMIT_WAIT_MILLIS = 100;
+
+    // Pages of the space listing searched for the items in a delete batch
+    private static final int DELETE_LISTING_PAGES = 3;
+
+    /**
+     * Receives the result of each operation.
+     */
+    interface ResultHandler {
+        void handle(ContentOperationResult result) throws IOException;
+
+        /**
+         * Called when no further results are immediately available
+         */
+        void flush() throws IOException;
+    }
+
+    private final StorageProvider storage;
+    private final String spaceId;
+    private final int threads;
+
+    ContentOperationExecutor(StorageProvider storage,
+                             String spaceId,
+                             int threads) {
+        this.storage = storage;
+        this.spaceId = spaceId;
+        this.threads = threads;
+    }
+
+    /**
+     * Performs the operations, returning once the results of all operations
+     * have been handed to the handler.
+     *
+     * @throws IOException if the handler fails, in which case operations
+     *                     which have not yet started are abandoned
+     */
+    void execute(List<ContentOperation> operations, ResultHandler handler)
+        throws IOException {
+        BlockingQueue<ContentOperationResult> results =
+            new LinkedBlockingQueue<>();
+        // The executor of this batch is not shut down, as doing so would
+        // shut down the shared executor. Should the handler fail, operations
+        // which have not yet been submitted are abandoned.
+        BlockingExecutor executor =
+            new BlockingExecutor(threads, 0, sharedExecutor);
+        try {
+            int handled = 0;
+            for (Runnable task : createTasks(operations, results)) {
+                // Results are passed on while waiting for a free worker
+                while (!executor.tryExecute(task, SUBMIT_WAIT_MILLIS,
+                                            TimeUnit.MILLISECONDS)) {
+                    handled += drain(results, handler);
+                }
+                handled += drain(results, handler);
+            }
+
+            while (handled < operations.size()) {
+                handler.handle(results.take());
+                handled++;
+                handled += drain(results, handler);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while performing content " +
+                                  "operations on space " + spaceId, e);
+        }
+    }
+
+    /*
+     * Hands all currently available results to the handler
+     */
+    private int drain(BlockingQueue<ContentOperationResult> results,
+                      ResultHandler handler) throws IOException {
+        List<ContentOperationResult> available = new ArrayList<>();
+        results.drainTo(available);
+        for (ContentOperationResult result : available) {
+            handler.handle(result);
+        }
+        if (!available.isEmpty()) {
+            handler.flush();
+        }
+        return available.size();
+    }
+
+    private List<Runnable> createTasks(
+        List<ContentOperation> operations,
+        BlockingQueue<ContentOperationResult> results) {
+        List<Runnable> tasks = new ArrayList<>();
+        List<ContentOperation> deletes = new ArrayList<>();
+        for (ContentOperation operation : operations) {
+            if (ContentOperation.Type.DELETE.equals(operation.getType())) {
+                deletes.add(operation);
+                if (deletes.size() == StorageProviderBase.DELETE_BATCH_SIZE) {
+                    tasks.add(deleteTask(deletes, results));
+                    deletes = new ArrayList<>();
+                }
+            } else {
+                tasks.add(() -> results.add(perform(operation)));
+            }
+        }
+        if (!deletes.isEmpty()) {
+            tasks.add(deleteTask(deletes, results));
+        }
+        return tasks;
+    }
+
+    private Runnable deleteTask(
+        List<ContentOperation> deletes,
+        BlockingQueue<ContentOperationResult> results) {
+        return () -> {
+            for (ContentOperationResult result : delete(deletes)) {
+                results.add(result);
+            }
+        };
+    }
+
+    /*
+     * Deletes a group of content items. The size and checksum of each item
+     * are passed on to record the removal, so they are taken from a listing
+     * of the space, or retrieved from the properties of items which are not
+     * found in the listing. Items which do not exist are reported as not
+     * found, as they are when removed one at a time.
+     */
+    private List<ContentOperationResult> delete(
+        List<ContentOperation> deletes) {
+        List<ContentOperationResult> results = new ArrayList<>();
+        Map<String, ContentSummary> listed = listSummaries(deletes);
+        List<ContentOperation> found = new ArrayList<>(deletes.size());
+        List<ContentSummary> contents = new ArrayList<>(deletes.size());
+        for (ContentOperation delete : deletes) {
+            String contentId = delete.getContentId();
+            ContentSummary content = listed.get(contentId);
+            if (null == content) {
+                try {
+                    content = getSummary(contentId);
+                } catch (NotFoundException e) {
+                    results.add(createErrorResult(delete, e));
+                    continue;
+                } catch (Exception e) {
+                    // Removed without its size and checksum being known
+                    content = new ContentSummary(contentId, null, null, null);
+                }
+            }
+            found.add(delete);
+            contents.add(content);
+        }
+        if (contents.isEmpty()) {
+            return results;
+        }
+
+        try {
+            Map<String, String> failures =
+                storage.deleteContents(spaceId, contents);
+            for (ContentOperation delete : found) {
+                String failure = failures.get(delete.getContentId());
+                ContentOperationResult result =
+                    createResult(delete, null == failure ? HttpStatus.SC_OK
+                                         : HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                result.setMessage(failure);
+                results.add(result);
+            }
+        } catch (Exception e) {
+            for (ContentOperation delete : found) {
+                results.add(createErrorResult(delete, e));
+            }
+        }
+        return results;
+    }
+
+    /*
+     * Lists the space from the longest prefix shared by the items to be
+     * deleted, for no more than a few pages, collecting the summaries of
+     * those items which include a size and checksum.
+     */
+    private Map<String, ContentSummary> listSummaries(
+        List<ContentOperation> deletes) {
+        TreeSet<String> contentIds = new TreeSet<>();
+        for (ContentOperation delete : deletes) {
+            contentIds.add(delete.getContentId());
+        }
+        String first = contentIds.first();
+        String last = contentIds.last();
+        int prefixLength = 0;
+        while (prefixLength < first.length() &&
+               prefixLength < last.length() &&
+               first.charAt(prefixLength) == last.charAt(prefixLength)) {
+            prefixLength++;
+        }
+        String prefix = prefixLength > 0 ? first.substring(0, prefixLength)
+                                         : null;
+
+        Map<String, ContentSummary> summaries = new HashMap<>();
+        String marker = null;
+        try {
+            for (int page = 0; page < DELETE_LISTING_PAGES; page++) {
+                List<ContentSummary> listing =
+                    storage.getSpaceContentSummariesChunked(
+                        spaceId, prefix, StorageProviderBase.DELETE_BATCH_SIZE,
+                        marker);
+                for (ContentSummary content : listing) {
+                    if (contentIds.contains(content.getContentId()) &&
+                        null != content.getSize() &&
+                        null != content.getChecksum()) {
+                        summaries.put(content.getContentId(), content);
+                    }
+                }
+                if (listing.size() < StorageProviderBase.DELETE_BATCH_SIZE ||
+                    summaries.size() == contentIds.size()) {
+                    break;
+                }
+                marker = listing.get(listing.size() - 1).getContentId();
+                if (marker.compareTo(last) >= 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to list space " + spaceId + " for delete, " +
+                     "properties will be retrieved for each item: " +
+                     e.getMessage());
+        }
+        return summaries;
+    }
+
+    private ContentSummary getSummary(String contentId) {
+        Map<String, String> properties =
+            storage.getContentProperties(spaceId, contentId);
+        ContentSummary summary = new ContentSummary(
+            contentId,
+            properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE),
+            properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+            properties.get(StorageProvider.PROPERTIES_CONTENT_MODIFIED));
+        summary.setMimetype(
+            properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+        return summary;
+    }
+
+    private ContentOperationResult perform(ContentOperation operation) {
+        String contentId = operation.getContentId();
+        try {
+            ContentOperationResult result =
+                createResult(operation, HttpStatus.SC_OK);
+            switch (operation.getType()) {
+                case HEAD:
+                    result.setProperties(
+                        storage.getContentProperties(spaceId, contentId));
+                    break;
+                case SET_PROPERTIES:
+                    storage.setContentProperties(spaceId,
+                                                 contentId,
+                                                 operation.getProperties());
+                    break;
+                case COPY:
+                    String checksum =
+                        storage.copyContent(spaceId,
+                                            contentId,
+                                            spaceId,
+                                            operation.getDestContentId());
+                    result.setStatus(HttpStatus.SC_CREATED);
+                    result.getProperties().put(
+                        StorageProvider.PROPERTIES_CONTENT_CHECKSUM, checksum);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                        "Unsupported operation type: " + operation.getType());
+            }
+            return result;
+        } catch (Exception e) {
+            return createErrorResult(operation, e);
+        }
+    }
+
+    private ContentOperationResult createResult(ContentOperation operation,
+                                                int status) {
+        return new ContentOperationResult(operation.getType(),
+                                          operation.getContentId(),
+                                          status);
+    }
+
+    private ContentOperationResult createErrorResult(ContentOperation operation,
+                                                     Exception e) {
+        int status;
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.SC_NOT_FOUND;
+        } else if (e instanceof StorageStateException) {
+            status = HttpStatus.SC_CONFLICT;
+        } else if (e instanceof InvalidIdException ||
+                   e instanceof IllegalArgumentException) {
+            status = HttpStatus.SC_BAD_REQUEST;
+        } else {
+            status = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            log.error("Error performing " + operation.getType() + " of " +
+                      spaceId + "/" + operation.getContentId() + ": " +
+                      e.getMessage(), e);
+        }
+        ContentOperationResult result = createResult(operation, status);
+        result.setMessage(e.getMessage());
+        return result;
+    }
+
+}
@@ -22,6 +22,13 @@ public interface ContentResource {
     InputStream getContent(String spaceID, String contentID, String storeID)
         throws ResourceException;
 
+    InputStream getContent(String spaceID,
+                           String contentID,
+                           String storeID,
+                           long startByte,
+                           Long endByte)
+        throws ResourceException;
+
     Map<String, String> getContentProperties(String spaceID,
                                              String contentID,
                                              String storeID)
@@ -73,6 +73,42 @@ public class ContentResourceImpl implements ContentResource {
         }
     }
 
+    /**
+     * Retrieves a range of bytes of content from a space.
+     *
+     * @param spaceID
+     * @param contentID
+     * @param startByte first byte of the range
+     * @param endByte last byte of the range (inclusive), null for the end
+     * @return InputStream which can be used to read the content range.
+     */
+    @Override
+    public InputStream getContent(String spaceID,
+                                  String contentID,
+                                  String storeID,
+                                  long startByte,
+                                  Long endByte)
+    throws ResourceException {
+        try {
+            StorageProvider storage =
+                storageProviderFactory.getStorageProvider(storeID);
+            return storage.getContent(spaceID, contentID, startByte, endByte);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("get content",
+                                                spaceID,
+                                                contentID,
+                                                e);
+        } catch (StorageStateException e) {
+            throw new ResourceStateException("get content",
+                                             spaceID,
+                                             contentID,
+                                             e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("get content", spaceID, contentID, e);
+        }
+    }
+
     /**
      * Retrieves the properties of a piece of content.
      *
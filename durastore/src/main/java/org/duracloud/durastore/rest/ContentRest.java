@@ -70,7 +70,15 @@ public class ContentRest extends BaseRest {
     /**
      * see ContentResource.getContent()
      * see ContentResource.getContentProperties()
-     * @return 200 response with content stream as body and content properties as headers
+     *
+     * A single byte range may be requested using the Range header, in which
+     * case only that range of the content is returned. An If-Range header
+     * which does not match the current ETag or Last-Modified value of the
+     * content causes the full content to be returned.
+     *
+     * @return 200 response with content stream as body and content properties
+     *         as headers, 206 response with the requested range of content as
+     *         body, or 416 response if the requested range cannot be satisfied
      */
     @GET
     public Response getContent(@PathParam("spaceID")
@@ -80,7 +88,11 @@ public class ContentRest extends BaseRest {
                                @QueryParam("storeID")
                                String storeID, 
                                @QueryParam("attachment")
-                               boolean attachment) {
+                               boolean attachment,
+                               @HeaderParam(HttpHeaders.RANGE)
+                               String range,
+                               @HeaderParam(HttpHeaders.IF_RANGE)
+                               String ifRange) {
         StringBuilder msg = new StringBuilder("getting content(");
         msg.append(spaceID);
         msg.append(", ");
@@ -89,11 +101,20 @@ public class ContentRest extends BaseRest {
         msg.append(storeID);
         msg.append(", ");
         msg.append(attachment);
+        if(null != range) {
+            msg.append(", ");
+            msg.append(range);
+        }
         msg.append(")");
 
         try {
             log.debug(msg.toString());
-            return doGetContent(spaceID, contentID, storeID, attachment);
+            return doGetContent(spaceID,
+                                contentID,
+                                storeID,
+                                attachment,
+                                range,
+                                ifRange);
 
         } catch (ResourceNotFoundException e) {
             return responseNotFound(msg.toString(), e, NOT_FOUND);
@@ -112,19 +133,168 @@ public class ContentRest extends BaseRest {
     private Response doGetContent(String spaceID,
                                   String contentID,
                                   String storeID,
-                                  boolean attachment) throws ResourceException {
+                                  boolean attachment,
+                                  String range,
+                                  String ifRange) throws ResourceException {
         Map<String, String> properties =
             contentResource.getContentProperties(spaceID, contentID, storeID);
-        InputStream content =
-            new AutoCloseInputStream(contentResource.getContent(spaceID, contentID, storeID));
-        
-        ResponseBuilder responseBuilder = Response.ok(content);
+
+        Long contentSize = getContentSize(properties);
+        ByteRange byteRange = null;
+        if(null != range && null != contentSize &&
+           rangeApplies(ifRange, properties)) {
+            byteRange = parseRange(range, contentSize);
+        }
+
+        if(byteRange == ByteRange.UNSATISFIABLE) {
+            return Response.status(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(HttpHeaders.CONTENT_RANGE,
+                                   "bytes */" + contentSize)
+                           .build();
+        }
+
+        ResponseBuilder responseBuilder;
+        if(null == byteRange) {
+            InputStream content = new AutoCloseInputStream(
+                contentResource.getContent(spaceID, contentID, storeID));
+            responseBuilder = Response.ok(content);
+        } else {
+            InputStream content = new AutoCloseInputStream(
+                contentResource.getContent(spaceID,
+                                           contentID,
+                                           storeID,
+                                           byteRange.start,
+                                           byteRange.end));
+            responseBuilder = Response.status(HttpStatus.SC_PARTIAL_CONTENT)
+                                      .entity(content);
+            responseBuilder.header(HttpHeaders.CONTENT_RANGE,
+                                   "bytes " + byteRange.start + "-" +
+                                   byteRange.end + "/" + contentSize);
+            // The length of the response is the length of the range
+            properties.remove(HttpHeaders.CONTENT_LENGTH);
+            properties.remove(HttpHeaders.CONTENT_RANGE);
+            properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                           String.valueOf(byteRange.getLength()));
+        }
+        responseBuilder.header(HttpHeaders.ACCEPT_RANGES, "bytes");
 
         if(attachment){
             addContentDispositionHeader(responseBuilder, contentID);
         }
-        return addContentPropertiesToResponse(responseBuilder,
-                                              properties);
+        Response response = addContentPropertiesToResponse(responseBuilder,
+                                                           properties);
+        if(null != byteRange) {
+            // The checksum of the full content does not apply to a range
+            response = Response.fromResponse(response)
+                               .header(HttpHeaders.CONTENT_MD5, null)
+                               .build();
+        }
+        return response;
+    }
+
+    /*
+     * A range of bytes, with both start and end being inclusive
+     */
+    private static class ByteRange {
+        private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        private final long start;
+        private final long end;
+
+        private ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private long getLength() {
+            return end - start + 1;
+        }
+    }
+
+    private Long getContentSize(Map<String, String> properties) {
+        if(null != properties) {
+            String size =
+                properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+            if(null != size) {
+                try {
+                    return Long.valueOf(size);
+                } catch(NumberFormatException e) {
+                    log.warn("Unable to parse content size: " + size);
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Determines if a range request should be honored based on the If-Range
+     * header, which must match either the ETag or Last-Modified value of the
+     * content when provided.
+     */
+    private boolean rangeApplies(String ifRange,
+                                 Map<String, String> properties) {
+        if(null == ifRange) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if(value.startsWith("W/")) {
+            // Weak validators are not used for range requests
+            return false;
+        }
+        if(value.startsWith("\"")) {
+            String etag = value.replace("\"", "");
+            return etag.equals(
+                properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        }
+        return value.equals(properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM)) ||
+               value.equals(properties.get(StorageProvider.PROPERTIES_CONTENT_MODIFIED));
+    }
+
+    /*
+     * Parses a Range header value which includes a single byte range, in
+     * one of the forms: bytes=first-last, bytes=first- or bytes=-suffix.
+     *
+     * @return the range to be returned, null if the header should be ignored,
+     *         or ByteRange.UNSATISFIABLE if no part of the range is available
+     */
+    private ByteRange parseRange(String range, long contentSize) {
+        String prefix = "bytes=";
+        String value = range.trim();
+        if(!value.toLowerCase().startsWith(prefix)) {
+            return null;
+        }
+        value = value.substring(prefix.length()).trim();
+        int dash = value.indexOf('-');
+        if(dash < 0 || value.contains(",")) {
+            // Multiple ranges are not supported, the full content is returned
+            return null;
+        }
+
+        try {
+            String first = value.substring(0, dash).trim();
+            String last = value.substring(dash + 1).trim();
+            if(first.isEmpty()) {
+                // Suffix range, the final bytes of the content
+                long suffix = Long.parseLong(last);
+                if(suffix <= 0 || contentSize == 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, contentSize - suffix),
+                                     contentSize - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? contentSize - 1 : Long.parseLong(last);
+            if(start < 0 || end < start) {
+                return null;
+            }
+            if(start >= contentSize) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, contentSize - 1));
+        } catch(NumberFormatException e) {
+            return null;
+        }
     }
 
     private void addContentDispositionHeader(ResponseBuilder responseBuilder,
@@ -10,18 +10,29 @@ package org.duracloud.durastore.rest;
 import org.duracloud.common.model.AclType;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.util.StorageProviderFactory;
 import org.duracloud.storage.error.InvalidIdException;
+import org.duracloud.storage.error.InvalidRequestException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.util.IdUtil;
-import org.jdom.Document;
-import org.jdom.Element;
-import org.jdom.output.XMLOutputter;
+import org.duracloud.storage.xml.ContentOperationsDocumentBinding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +46,19 @@ public class SpaceResource {
 
     protected static final Logger log = LoggerFactory.getLogger(SpaceResource.class);
 
+    private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+    private static final XMLOutputFactory xmlOutputFactory =
+        XMLOutputFactory.newInstance();
+
+    // Number of items listed at a time while writing a space listing
+    private static final long LISTING_PAGE_SIZE = 1000;
+
     private StorageProviderFactory storageProviderFactory;
 
+    private final ContentOperationsDocumentBinding operationsBinding =
+        new ContentOperationsDocumentBinding();
+
     public SpaceResource(StorageProviderFactory storageProviderFactory) {
         this.storageProviderFactory = storageProviderFactory;
     }
@@ -46,34 +68,44 @@ public class SpaceResource {
      * always included in the list, closed spaces are included based
      * on user authorization.
      *
+     * The listing is written directly to the response as each space is
+     * read, rather than being assembled in memory first.
+     *
      * @param storeID
      * @return XML listing of spaces
      */
-    public String getSpaces(String storeID)
+    public StreamingOutput getSpaces(final String storeID)
     throws ResourceException {
         log.debug("Enter");
-        Element spacesElem = new Element("spaces");
 
+        final Iterator<String> spaces;
         try {
             StorageProvider storage =
                 storageProviderFactory.getStorageProvider(storeID);
-
-            Iterator<String> spaces = storage.getSpaces();
-            while(spaces.hasNext()) {
-                String spaceID = spaces.next();
-                Element spaceElem = new Element("space");
-                spaceElem.setAttribute("id", spaceID);
-                spacesElem.addContent(spaceElem);
-            }
+            spaces = storage.getSpaces();
         } catch (Exception e) {
             storageProviderFactory.expireStorageProvider(storeID);
             throw new ResourceException("Error attempting to build spaces XML",
                                         e);
         }
 
-        Document doc = new Document(spacesElem);
-        XMLOutputter xmlConverter = new XMLOutputter();
-        return xmlConverter.outputString(doc);
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    XMLStreamWriter writer = startXml(output, "spaces");
+                    while (spaces.hasNext()) {
+                        writer.writeEmptyElement("space");
+                        writer.writeAttribute("id", spaces.next());
+                    }
+                    endXml(writer);
+                } catch (XMLStreamException e) {
+                    storageProviderFactory.expireStorageProvider(storeID);
+                    throw new IOException("Error attempting to write " +
+                                          "spaces XML: " + e.getMessage(), e);
+                }
+            }
+        };
     }
 
     /**
@@ -134,32 +166,100 @@ public class SpaceResource {
      * @param prefix
      * @param maxResults
      * @param marker
-     * @return XML listing of space contents
+     * @return XML listing of space contents, written directly to the
+     *         response a page of content items at a time
      */
-    public String getSpaceContents(String spaceID,
-                                   String storeID,
-                                   String prefix,
-                                   long maxResults,
-                                   String marker)
+    public StreamingOutput getSpaceContents(final String spaceID,
+                                            String storeID,
+                                            final String prefix,
+                                            long maxResults,
+                                            String marker)
     throws ResourceException {
-        Element spaceElem = new Element("space");
-        spaceElem.setAttribute("id", spaceID);
-
+        final long total = getTotalResults(maxResults);
+        final StorageProvider storage;
+        List<String> contents;
         try {
-            StorageProvider storage =
-                storageProviderFactory.getStorageProvider(storeID);
+            storage = storageProviderFactory.getStorageProvider(storeID);
 
-            List<String> contents = storage.getSpaceContentsChunked(spaceID,
-                                                                    prefix,
-                                                                    maxResults,
-                                                                    marker);
-            if(contents != null) {
-                for(String contentItem : contents) {
-                    Element contentElem = new Element("item");
-                    contentElem.setText(contentItem);
-                    spaceElem.addContent(contentElem);
+            // The first page is listed here, so that errors such as a
+            // missing space are reported before the response is started
+            contents = storage.getSpaceContentsChunked(spaceID,
+                                                       prefix,
+                                                       getPageSize(total, 0),
+                                                       marker);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("build space XML for",
+                                                spaceID,
+                                                e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("build space XML for", spaceID, e);
+        }
+
+        final List<String> firstPage = (null != contents) ? contents :
+                                       Collections.<String>emptyList();
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    XMLStreamWriter writer = startXml(output, "space");
+                    writer.writeAttribute("id", spaceID);
+                    List<String> items = firstPage;
+                    long written = 0;
+                    while (true) {
+                        for (String contentItem : items) {
+                            writer.writeStartElement("item");
+                            writer.writeCharacters(contentItem);
+                            writer.writeEndElement();
+                        }
+                        long requested = getPageSize(total, written);
+                        written += items.size();
+                        if (items.size() < requested || written >= total) {
+                            break;
+                        }
+                        writer.flush();
+                        items = storage.getSpaceContentsChunked(
+                            spaceID, prefix, getPageSize(total, written),
+                            items.get(items.size() - 1));
+                    }
+                    endXml(writer);
+                } catch (XMLStreamException e) {
+                    throw new IOException("Error attempting to write space " +
+                                          "XML for " + spaceID + ": " +
+                                          e.getMessage(), e);
                 }
             }
+        };
+    }
+
+    /**
+     * Gets a listing of the contents of a space, including the size, checksum
+     * and modified date of each content item as attributes of the item.
+     *
+     * @param spaceID
+     * @param storeID
+     * @param prefix
+     * @param maxResults
+     * @param marker
+     * @return XML listing of space contents, written directly to the
+     *         response a page of content items at a time
+     */
+    public StreamingOutput getSpaceContentSummaries(final String spaceID,
+                                                    String storeID,
+                                                    final String prefix,
+                                                    long maxResults,
+                                                    String marker)
+    throws ResourceException {
+        final long total = getTotalResults(maxResults);
+        final StorageProvider storage;
+        List<ContentSummary> contents;
+        try {
+            storage = storageProviderFactory.getStorageProvider(storeID);
+
+            // The first page is listed here, so that errors such as a
+            // missing space are reported before the response is started
+            contents = storage.getSpaceContentSummariesChunked(
+                spaceID, prefix, getPageSize(total, 0), marker);
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("build space XML for",
                                                 spaceID,
@@ -169,9 +269,87 @@ public class SpaceResource {
             throw new ResourceException("build space XML for", spaceID, e);
         }
 
-        Document doc = new Document(spaceElem);
-        XMLOutputter xmlConverter = new XMLOutputter();
-        return xmlConverter.outputString(doc);
+        final List<ContentSummary> firstPage = (null != contents) ? contents :
+            Collections.<ContentSummary>emptyList();
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    XMLStreamWriter writer = startXml(output, "space");
+                    writer.writeAttribute("id", spaceID);
+                    List<ContentSummary> items = firstPage;
+                    long written = 0;
+                    while (true) {
+                        for (ContentSummary item : items) {
+                            writer.writeStartElement("item");
+                            writeOptionalAttribute(writer, "size",
+                                                   item.getSize());
+                            writeOptionalAttribute(writer, "checksum",
+                                                   item.getChecksum());
+                            writeOptionalAttribute(writer, "modified",
+                                                   item.getModified());
+                            writer.writeCharacters(item.getContentId());
+                            writer.writeEndElement();
+                        }
+                        long requested = getPageSize(total, written);
+                        written += items.size();
+                        if (items.size() < requested || written >= total) {
+                            break;
+                        }
+                        writer.flush();
+                        items = storage.getSpaceContentSummariesChunked(
+                            spaceID, prefix, getPageSize(total, written),
+                            items.get(items.size() - 1).getContentId());
+                    }
+                    endXml(writer);
+                } catch (XMLStreamException e) {
+                    throw new IOException("Error attempting to write space " +
+                                          "XML for " + spaceID + ": " +
+                                          e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /*
+     * @return the number of items to be listed, the provider default being
+     *         used where no positive maximum is given
+     */
+    private long getTotalResults(long maxResults) {
+        return maxResults > 0 ? maxResults
+                              : StorageProvider.DEFAULT_MAX_RESULTS;
+    }
+
+    /*
+     * @return the number of items to request in the next page of a listing
+     */
+    private long getPageSize(long total, long written) {
+        return Math.min(LISTING_PAGE_SIZE, total - written);
+    }
+
+    private void writeOptionalAttribute(XMLStreamWriter writer,
+                                        String name,
+                                        String value)
+        throws XMLStreamException {
+        if (null != value) {
+            writer.writeAttribute(name, value);
+        }
+    }
+
+    private XMLStreamWriter startXml(OutputStream output, String rootElement)
+        throws XMLStreamException {
+        XMLStreamWriter writer =
+            xmlOutputFactory.createXMLStreamWriter(output, ENCODING);
+        writer.writeStartDocument(ENCODING, "1.0");
+        writer.writeStartElement(rootElement);
+        return writer;
+    }
+
+    private void endXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
     }
 
     /**
@@ -278,4 +456,72 @@ public class SpaceResource {
         }
     }
 
+    /**
+     * Performs a batch of operations on the content of a space, several at
+     * once. The storage provider is retrieved once for the whole batch, and
+     * the operations are read in full before any are performed.
+     *
+     * @param spaceID
+     * @param operations XML listing of the operations to perform
+     * @param storeID
+     * @return XML listing of the result of each operation, written directly
+     *         to the response as each operation completes
+     * @throws InvalidRequestException if the operations cannot be read
+     */
+    public StreamingOutput executeContentOperations(final String spaceID,
+                                                    InputStream operations,
+                                                    String storeID)
+    throws ResourceException, InvalidRequestException {
+        final List<ContentOperation> operationList;
+        try {
+            operationList = operationsBinding.readOperations(operations);
+        } catch (IOException e) {
+            throw new ResourceException("read content operations for",
+                                        spaceID,
+                                        e);
+        }
+
+        final StorageProvider storage;
+        try {
+            storage = storageProviderFactory.getStorageProvider(storeID);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("perform content operations in",
+                                        spaceID,
+                                        e);
+        }
+
+        return new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                final XMLStreamWriter writer =
+                    operationsBinding.startResults(output, spaceID);
+                ContentOperationExecutor executor =
+                    new ContentOperationExecutor(
+                        storage,
+                        spaceID,
+                        ContentOperationExecutor.DEFAULT_THREADS);
+                executor.execute(operationList,
+                                 new ContentOperationExecutor.ResultHandler() {
+                    @Override
+                    public void handle(ContentOperationResult result)
+                        throws IOException {
+                        operationsBinding.writeResult(writer, result);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        try {
+                            writer.flush();
+                        } catch (XMLStreamException e) {
+                            throw new IOException(e.getMessage(), e);
+                        }
+                        output.flush();
+                    }
+                });
+                operationsBinding.endResults(writer);
+            }
+        };
+    }
+
 }
@@ -14,6 +14,7 @@ import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.storage.error.InvalidIdException;
+import org.duracloud.storage.error.InvalidRequestException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -71,7 +73,7 @@ public class SpaceRest extends BaseRest {
         String msg = "getting spaces(" + storeID + ")";
 
         try {
-            String xml = spaceResource.getSpaces(storeID);
+            StreamingOutput xml = spaceResource.getSpaces(storeID);
             return responseOkXml(msg, xml);
 
         } catch (ResourceException e) {
@@ -85,8 +87,11 @@ public class SpaceRest extends BaseRest {
     /**
      * see SpaceResource.getSpaceProperties(String, String);
      * see SpaceResource.getSpaceContents(String, String);
+     * see SpaceResource.getSpaceContentSummaries(String, String);
      * @return 200 response with XML listing of space content and
-     *         space properties included as header values
+     *         space properties included as header values. When summaries
+     *         is true, each listed item includes its size, checksum and
+     *         modified date.
      */
     @Path("/{spaceID}")
     @GET
@@ -100,7 +105,9 @@ public class SpaceRest extends BaseRest {
                              @QueryParam("maxResults")
                              long maxResults,
                              @QueryParam("marker")
-                             String marker) {
+                             String marker,
+                             @QueryParam("summaries")
+                             boolean summaries) {
         StringBuilder msg = new StringBuilder("getting space contents(");
         msg.append(spaceID);
         msg.append(", ");
@@ -111,11 +118,18 @@ public class SpaceRest extends BaseRest {
         msg.append(maxResults);
         msg.append(", ");
         msg.append(marker);
+        msg.append(", ");
+        msg.append(summaries);
         msg.append(")");
 
         try {
             log.debug(msg.toString());
-            return doGetSpace(spaceID, storeID, prefix, maxResults, marker);
+            return doGetSpace(spaceID,
+                              storeID,
+                              prefix,
+                              maxResults,
+                              marker,
+                              summaries);
 
         } catch(ResourceNotFoundException e) {
             return responseNotFound(msg.toString(), e, NOT_FOUND);
@@ -132,12 +146,22 @@ public class SpaceRest extends BaseRest {
                                 String storeID,
                                 String prefix,
                                 long maxResults,
-                                String marker) throws ResourceException {
-        String xml = spaceResource.getSpaceContents(spaceID,
-                                                    storeID,
-                                                    prefix,
-                                                    maxResults,
-                                                    marker);
+                                String marker,
+                                boolean summaries) throws ResourceException {
+        StreamingOutput xml;
+        if (summaries) {
+            xml = spaceResource.getSpaceContentSummaries(spaceID,
+                                                         storeID,
+                                                         prefix,
+                                                         maxResults,
+                                                         marker);
+        } else {
+            xml = spaceResource.getSpaceContents(spaceID,
+                                                 storeID,
+                                                 prefix,
+                                                 maxResults,
+                                                 marker);
+        }
         return addSpacePropertiesToResponse(Response.ok(xml, APPLICATION_XML),
                                             spaceID,
                                             storeID);
@@ -354,7 +378,44 @@ public class SpaceRest extends BaseRest {
         return Response.ok(responseText, TEXT_PLAIN).build();
     }
 
-    private Response responseOkXml(String msg, String text) {
+    /**
+     * see SpaceResource.executeContentOperations(String, InputStream, String);
+     *
+     * Performs a batch of operations (delete, head, set-properties and copy)
+     * on content items in the space, as listed in the request body.
+     *
+     * @return 200 response with XML listing of the result of each operation
+     */
+    @Path("/{spaceID}")
+    @POST
+    @Produces(XML)
+    public Response executeContentOperations(@PathParam("spaceID")
+                                             String spaceID,
+                                             @QueryParam("storeID")
+                                             String storeID) {
+        String msg = "executing content operations(" + spaceID + ", " +
+                     storeID + ")";
+
+        try {
+            log.debug(msg);
+            StreamingOutput xml =
+                spaceResource.executeContentOperations(spaceID,
+                                                       request.getInputStream(),
+                                                       storeID);
+            return responseOkXml(msg, xml);
+
+        } catch (InvalidRequestException e) {
+            return responseBad(msg, e, BAD_REQUEST);
+
+        } catch (ResourceException e) {
+            return responseBad(msg, e, INTERNAL_SERVER_ERROR);
+
+        } catch (Exception e) {
+            return responseBad(msg, e, INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Response responseOkXml(String msg, StreamingOutput text) {
         log.debug(msg);
         return Response.ok(text, APPLICATION_XML).build();
     }
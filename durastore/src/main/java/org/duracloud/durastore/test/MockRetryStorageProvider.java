@@ -8,6 +8,7 @@
 package org.duracloud.durastore.test;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -61,6 +62,20 @@ public class MockRetryStorageProvider implements StorageProvider {
         }
     }
 
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        List<ContentSummary> summaries = new ArrayList<ContentSummary>();
+        for (String contentId : getSpaceContentsChunked(spaceId,
+                                                        prefix,
+                                                        maxResults,
+                                                        marker)) {
+            summaries.add(new ContentSummary(contentId, null, null, null));
+        }
+        return summaries;
+    }
+
     public void createSpace(String spaceId) {
         // Default method body
     }
@@ -113,10 +128,24 @@ public class MockRetryStorageProvider implements StorageProvider {
         return null;
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        // Default method body
+        return null;
+    }
+
     public void deleteContent(String spaceId, String contentId) {
         // Default method body
     }
 
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        // Default method body
+        return null;
+    }
+
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
         // Default method body
@@ -23,6 +23,7 @@ import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.AccountIdUtil;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.security.impl.DuracloudUserDetails;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -232,6 +233,17 @@ public class ACLStorageProvider implements StorageProvider {
                                                       marker);
     }
 
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        return targetProvider.getSpaceContentSummariesChunked(spaceId,
+                                                              prefix,
+                                                              maxResults,
+                                                              marker);
+    }
+
     @Override
     public void createSpace(String spaceId) {
         waitForCache();
@@ -353,11 +365,28 @@ public class ACLStorageProvider implements StorageProvider {
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        return targetProvider.getContent(spaceId,
+                                         contentId,
+                                         startByte,
+                                         endByte);
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         targetProvider.deleteContent(spaceId, contentId);
     }
 
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        return targetProvider.deleteContents(spaceId, contents);
+    }
+
     @Override
     public void setContentProperties(String spaceId,
                                      String contentId,
@@ -14,6 +14,8 @@ import org.duracloud.account.db.repo.DuracloudMillRepo;
 import org.duracloud.common.cache.AbstractAccountComponentCache;
 import org.duracloud.common.event.AccountChangeEvent;
 import org.duracloud.common.event.AccountChangeEvent.EventType;
+import org.duracloud.common.queue.BufferedTaskQueue;
+import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
@@ -107,5 +109,19 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
         
         return factory;
     }
+
+    /*
+     * Releases the providers of an evicted factory, along with their
+     * metrics, and sends any audit tasks still buffered by the factory
+     */
+    @Override
+    protected void destroyInstance(String accountId,
+                                   StorageProviderFactory factory) {
+        factory.expireStorageProviders();
+        TaskQueue auditQueue = factory.getAuditQueue();
+        if (auditQueue instanceof BufferedTaskQueue) {
+            ((BufferedTaskQueue) auditQueue).shutdown();
+        }
+    }
    
 }
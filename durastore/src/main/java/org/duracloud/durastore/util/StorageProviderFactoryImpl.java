@@ -14,12 +14,14 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.audit.provider.AuditStorageProvider;
+import org.duracloud.common.queue.BufferedTaskQueue;
 import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.aws.SQSTaskQueue;
 import org.duracloud.common.queue.noop.NoopTaskQueue;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.common.util.metrics.MetricsRegistry;
 import org.duracloud.durastore.test.MockRetryStorageProvider;
 import org.duracloud.durastore.test.MockVerifyCreateStorageProvider;
 import org.duracloud.durastore.test.MockVerifyDeleteStorageProvider;
@@ -39,6 +41,8 @@ import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.BrokeredStorageProvider;
+import org.duracloud.storage.provider.MetricsStorageProvider;
+import org.duracloud.storage.provider.SpaceStatsStorageProvider;
 import org.duracloud.storage.provider.StatelessStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
@@ -59,6 +63,8 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
 
     private StatelessStorageProvider statelessProvider;
     private Map<String, StorageProvider> storageProviders;
+    // Names under which the metrics of each cached provider are recorded
+    private Map<String, String> metricsNames = new ConcurrentHashMap<>();
     private UserUtil userUtil;
     private TaskQueue auditQueue;
     private boolean cacheStorageProvidersOnInit = false;
@@ -116,6 +122,7 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     }
 
     private void initializeStorageProviders() {
+        expireStorageProviders();
         this.storageProviders = new ConcurrentHashMap<>();
         if(this.cacheStorageProvidersOnInit){
             log.info("Caching storage providers on init is enabled: building storage provider cache...");
@@ -140,7 +147,10 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                 // If no queue name is defined, turn off auditing
                 this.auditQueue = new NoopTaskQueue();
             } else {
-                this.auditQueue = new SQSTaskQueue(queueName);
+                // Audit tasks are sent to SQS in the background, in batches,
+                // to keep the SQS round-trip off of the request path
+                this.auditQueue =
+                    new BufferedTaskQueue(new SQSTaskQueue(queueName));
             }
         }
     }
@@ -240,9 +250,23 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                 + storageAccountId + "): unable to create");
         }
 
+        // Storage account IDs are only unique within an account
+        String accountName = storageAccountManager.getAccountName();
+        String metricsName = type.getName() + "-" + storageAccountId;
+        if (null != accountName) {
+            metricsName = accountName + "-" + metricsName;
+        }
+        metricsNames.put(storageAccountId, metricsName);
+
+        StorageProvider metricsProvider =
+            new MetricsStorageProvider(storageProvider,
+                                       metricsName,
+                                       MetricsRegistry.getInstance());
+        StorageProvider statsProvider =
+            new SpaceStatsStorageProvider(metricsProvider);
         StorageProvider auditProvider =
-            new AuditStorageProvider(storageProvider,
-                                     storageAccountManager.getAccountName(),
+            new AuditStorageProvider(statsProvider,
+                                     accountName,
                                      storageAccountId,
                                      type.getName(),
                                      userUtil,
@@ -272,7 +296,8 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
 
     /**
      * Removes a particular storage provider from the cache, which will
-     * require that the connection be recreated on the next call.
+     * require that the connection be recreated on the next call. The
+     * metrics of the provider are removed along with it.
      *
      * @param storageAccountId - the ID of the storage provider account
      */
@@ -282,6 +307,26 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
 
         log.info("Expiring storage provider connection!  Storage account id: {}", storageAccountId);
         storageProviders.remove(storageAccountId);
+        removeMetrics(storageAccountId);
+    }
+
+    /**
+     * Removes all storage providers from the cache, along with their
+     * metrics.
+     */
+    @Override
+    public void expireStorageProviders() {
+        for (String storageAccountId : storageProviders.keySet()) {
+            storageProviders.remove(storageAccountId);
+            removeMetrics(storageAccountId);
+        }
+    }
+
+    private void removeMetrics(String storageAccountId) {
+        String metricsName = metricsNames.remove(storageAccountId);
+        if (null != metricsName) {
+            MetricsRegistry.getInstance().removeProvider(metricsName);
+        }
     }
 
 }
@@ -53,7 +53,7 @@ public class ContentRestExceptionsTest {
 
     @Test
     public void testGetContent() throws Exception {
-        Response response = contentRest.getContent(null, null, null, false);
+        Response response = contentRest.getContent(null, null, null, false, null, null);
         support.verifyErrorResponse(response);
     }
 
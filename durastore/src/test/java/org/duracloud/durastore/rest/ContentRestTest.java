@@ -7,6 +7,7 @@
  */
 package org.duracloud.durastore.rest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashMap;
@@ -255,6 +256,115 @@ public class ContentRestTest {
         assertFalse(contentRest.validMimetype("***"));
     }
 
+    @Test
+    public void testGetContentRange() throws Exception {
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(createRangeProperties());
+        EasyMock.expect(contentResource.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   10,
+                                                   19L))
+                .andReturn(new ByteArrayInputStream(new byte[10]));
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   false,
+                                                   "bytes=10-19",
+                                                   "checksum");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100",
+                     getHeader(response, HttpHeaders.CONTENT_RANGE));
+        assertEquals("10", getHeader(response, HttpHeaders.CONTENT_LENGTH));
+        assertEquals("bytes", getHeader(response, HttpHeaders.ACCEPT_RANGES));
+        assertEquals("checksum", getHeader(response, HttpHeaders.ETAG));
+        assertHeaderMissing(response, HttpHeaders.CONTENT_MD5);
+    }
+
+    @Test
+    public void testGetContentSuffixRange() throws Exception {
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(createRangeProperties());
+        EasyMock.expect(contentResource.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   70,
+                                                   99L))
+                .andReturn(new ByteArrayInputStream(new byte[30]));
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   false,
+                                                   "bytes=-30",
+                                                   null);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 70-99/100",
+                     getHeader(response, HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testGetContentRangeNotSatisfiable() throws Exception {
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(createRangeProperties());
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   false,
+                                                   "bytes=100-",
+                                                   null);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100",
+                     getHeader(response, HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testGetContentIfRangeChanged() throws Exception {
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(createRangeProperties());
+        EasyMock.expect(contentResource.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId))
+                .andReturn(new ByteArrayInputStream(new byte[100]));
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        // Content has changed since the If-Range value was captured
+        Response response = contentRest.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   false,
+                                                   "bytes=10-19",
+                                                   "\"old-checksum\"");
+        assertEquals(200, response.getStatus());
+        assertEquals("100", getHeader(response, HttpHeaders.CONTENT_LENGTH));
+        assertHeaderMissing(response, HttpHeaders.CONTENT_RANGE);
+    }
+
+    private Map<String, String> createRangeProperties() {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "100");
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, "checksum");
+        props.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+        return props;
+    }
+
     @Test
     public void testCopyContent() throws Exception {
         doTestCopyContent(true, 201);
@@ -0,0 +1,317 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.duracloud.durastore.error.ResourceNotFoundException;
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.error.InvalidRequestException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.duracloud.storage.xml.ContentOperationsDocumentBinding;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceResourceTest {
+
+    private SpaceResource spaceResource;
+    private StorageProviderFactory storageProviderFactory;
+    private StorageProvider storageProvider;
+
+    private String storeId = "1";
+    private String spaceId = "space-id";
+
+    @Before
+    public void setUp() throws Exception {
+        storageProviderFactory =
+            EasyMock.createMock("StorageProviderFactory",
+                                StorageProviderFactory.class);
+        storageProvider = EasyMock.createMock("StorageProvider",
+                                              StorageProvider.class);
+        spaceResource = new SpaceResource(storageProviderFactory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        EasyMock.verify(storageProviderFactory, storageProvider);
+    }
+
+    private void replayMocks() {
+        EasyMock.replay(storageProviderFactory, storageProvider);
+    }
+
+    @Test
+    public void testGetSpaces() throws Exception {
+        List<String> spaces = Arrays.asList("space-a", "space-b");
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        EasyMock.expect(storageProvider.getSpaces())
+                .andReturn(spaces.iterator());
+        replayMocks();
+
+        Element root = readXml(spaceResource.getSpaces(storeId));
+        Assert.assertEquals("spaces", root.getName());
+        List<?> spaceElems = root.getChildren("space");
+        Assert.assertEquals(spaces.size(), spaceElems.size());
+        for (int i = 0; i < spaces.size(); i++) {
+            Element spaceElem = (Element) spaceElems.get(i);
+            Assert.assertEquals(spaces.get(i), spaceElem.getAttributeValue("id"));
+        }
+    }
+
+    @Test
+    public void testGetSpaceContents() throws Exception {
+        List<String> contents = Arrays.asList("item-1", "dir/item<&>2");
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        EasyMock.expect(storageProvider.getSpaceContentsChunked(spaceId,
+                                                                null,
+                                                                2,
+                                                                null))
+                .andReturn(contents);
+        replayMocks();
+
+        Element root = readXml(
+            spaceResource.getSpaceContents(spaceId, storeId, null, 2, null));
+        Assert.assertEquals("space", root.getName());
+        Assert.assertEquals(spaceId, root.getAttributeValue("id"));
+        List<?> items = root.getChildren("item");
+        Assert.assertEquals(contents.size(), items.size());
+        for (int i = 0; i < contents.size(); i++) {
+            Assert.assertEquals(contents.get(i),
+                                ((Element) items.get(i)).getText());
+        }
+    }
+
+    @Test
+    public void testGetSpaceContentsPaged() throws Exception {
+        List<String> firstPage = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            firstPage.add("item-" + i);
+        }
+        List<String> secondPage = Arrays.asList("item-x", "item-y");
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        EasyMock.expect(storageProvider.getSpaceContentsChunked(spaceId,
+                                                                null,
+                                                                1000,
+                                                                null))
+                .andReturn(firstPage);
+        EasyMock.expect(storageProvider.getSpaceContentsChunked(spaceId,
+                                                                null,
+                                                                500,
+                                                                "item-999"))
+                .andReturn(secondPage);
+        replayMocks();
+
+        Element root = readXml(
+            spaceResource.getSpaceContents(spaceId, storeId, null, 1500, null));
+        List<?> items = root.getChildren("item");
+        Assert.assertEquals(1002, items.size());
+        Assert.assertEquals("item-y", ((Element) items.get(1001)).getText());
+    }
+
+    @Test
+    public void testGetSpaceContentSummaries() throws Exception {
+        List<ContentSummary> contents =
+            Arrays.asList(new ContentSummary("item-1", "10", "md5-1", "date-1"),
+                          new ContentSummary("item-2", null, null, null));
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        EasyMock.expect(
+            storageProvider.getSpaceContentSummariesChunked(spaceId,
+                                                            null,
+                                                            2,
+                                                            null))
+                .andReturn(contents);
+        replayMocks();
+
+        Element root = readXml(spaceResource.getSpaceContentSummaries(spaceId,
+                                                                      storeId,
+                                                                      null,
+                                                                      2,
+                                                                      null));
+        Assert.assertEquals(spaceId, root.getAttributeValue("id"));
+        List<?> items = root.getChildren("item");
+        Assert.assertEquals(contents.size(), items.size());
+
+        Element item = (Element) items.get(0);
+        Assert.assertEquals("item-1", item.getText());
+        Assert.assertEquals("10", item.getAttributeValue("size"));
+        Assert.assertEquals("md5-1", item.getAttributeValue("checksum"));
+        Assert.assertEquals("date-1", item.getAttributeValue("modified"));
+
+        item = (Element) items.get(1);
+        Assert.assertEquals("item-2", item.getText());
+        Assert.assertNull(item.getAttributeValue("size"));
+    }
+
+    @Test
+    public void testGetSpaceContentsNotFound() throws Exception {
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        EasyMock.expect(storageProvider.getSpaceContentsChunked(spaceId,
+                                                                null,
+                                                                2,
+                                                                null))
+                .andThrow(new NotFoundException(spaceId));
+        replayMocks();
+
+        try {
+            spaceResource.getSpaceContents(spaceId, storeId, null, 2, null);
+            Assert.fail("Exception expected");
+        } catch (ResourceNotFoundException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteContentOperations() throws Exception {
+        List<ContentOperation> operations = new ArrayList<>();
+        operations.add(new ContentOperation(ContentOperation.Type.DELETE,
+                                            "item-1"));
+        operations.add(new ContentOperation(ContentOperation.Type.DELETE,
+                                            "item-2"));
+        operations.add(new ContentOperation(ContentOperation.Type.DELETE,
+                                            "item-7"));
+        operations.add(new ContentOperation(ContentOperation.Type.HEAD,
+                                            "item-3"));
+        operations.add(new ContentOperation(ContentOperation.Type.HEAD,
+                                            "item-4"));
+        ContentOperation setProps =
+            new ContentOperation(ContentOperation.Type.SET_PROPERTIES,
+                                 "item-5");
+        setProps.getProperties().put("name", "value");
+        operations.add(setProps);
+        ContentOperation copy =
+            new ContentOperation(ContentOperation.Type.COPY, "item-6");
+        copy.setDestContentId("item-6-copy");
+        operations.add(copy);
+
+        ContentOperationsDocumentBinding binding =
+            new ContentOperationsDocumentBinding();
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        binding.writeOperations(operations, request);
+
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andReturn(storageProvider);
+        // Deleted items are found in the listing, other than item-7 which
+        // does not exist
+        List<ContentSummary> listing = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            listing.add(new ContentSummary("item-" + i, String.valueOf(i),
+                                           "md5-" + i, null));
+        }
+        EasyMock.expect(storageProvider.getSpaceContentSummariesChunked(
+            EasyMock.eq(spaceId), EasyMock.eq("item-"), EasyMock.anyLong(),
+            EasyMock.isNull()))
+                .andReturn(listing);
+        EasyMock.expect(storageProvider.getContentProperties(spaceId, "item-7"))
+                .andThrow(new NotFoundException("item-7"));
+        Map<String, String> failures = new HashMap<>();
+        failures.put("item-2", "delete failed");
+        Capture<List<ContentSummary>> deleted = Capture.newInstance();
+        EasyMock.expect(storageProvider.deleteContents(EasyMock.eq(spaceId),
+                                                       EasyMock.capture(deleted)))
+                .andReturn(failures);
+        Map<String, String> properties = new HashMap<>();
+        properties.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, "abc");
+        EasyMock.expect(storageProvider.getContentProperties(spaceId, "item-3"))
+                .andReturn(properties);
+        EasyMock.expect(storageProvider.getContentProperties(spaceId, "item-4"))
+                .andThrow(new NotFoundException("item-4"));
+        storageProvider.setContentProperties(spaceId,
+                                             "item-5",
+                                             setProps.getProperties());
+        EasyMock.expectLastCall();
+        EasyMock.expect(storageProvider.copyContent(spaceId,
+                                                    "item-6",
+                                                    spaceId,
+                                                    "item-6-copy"))
+                .andReturn("def");
+        replayMocks();
+
+        StreamingOutput xml = spaceResource.executeContentOperations(
+            spaceId,
+            new ByteArrayInputStream(request.toByteArray()),
+            storeId);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        xml.write(response);
+
+        Map<String, ContentOperationResult> results = new HashMap<>();
+        for (ContentOperationResult result : binding.readResults(
+            new ByteArrayInputStream(response.toByteArray()))) {
+            results.put(result.getContentId(), result);
+        }
+        Assert.assertEquals(operations.size(), results.size());
+        Assert.assertEquals(200, results.get("item-1").getStatus());
+        Assert.assertEquals(500, results.get("item-2").getStatus());
+        Assert.assertEquals("delete failed",
+                            results.get("item-2").getMessage());
+        Assert.assertEquals(404, results.get("item-7").getStatus());
+        Assert.assertEquals(2, deleted.getValue().size());
+        for (ContentSummary content : deleted.getValue()) {
+            Assert.assertNotNull(content.getSize());
+            Assert.assertNotNull(content.getChecksum());
+        }
+        Assert.assertEquals(200, results.get("item-3").getStatus());
+        Assert.assertEquals(properties, results.get("item-3").getProperties());
+        Assert.assertEquals(404, results.get("item-4").getStatus());
+        Assert.assertEquals(200, results.get("item-5").getStatus());
+        Assert.assertEquals(201, results.get("item-6").getStatus());
+        Map<String, String> copyProperties =
+            results.get("item-6").getProperties();
+        Assert.assertEquals("def", copyProperties.get(
+            StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+    }
+
+    @Test
+    public void testExecuteContentOperationsInvalid() throws Exception {
+        replayMocks();
+
+        String request = "<operations><operation type=\"copy\" " +
+                         "contentId=\"item-1\"/></operations>";
+        try {
+            spaceResource.executeContentOperations(
+                spaceId,
+                new ByteArrayInputStream(request.getBytes()),
+                storeId);
+            Assert.fail("Exception expected");
+        } catch (InvalidRequestException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    private Element readXml(StreamingOutput xml) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        xml.write(output);
+        Document doc = new SAXBuilder().build(
+            new ByteArrayInputStream(output.toByteArray()));
+        return doc.getRootElement();
+    }
+
+}
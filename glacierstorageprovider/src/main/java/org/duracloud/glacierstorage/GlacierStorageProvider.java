@@ -91,6 +91,25 @@ public class GlacierStorageProvider extends S3StorageProvider {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        log.debug("getContent(" + spaceId + ", " + contentId + ", " +
+                  startByte + ", " + endByte + ")");
+
+        try {
+            return super.getContent(spaceId, contentId, startByte, endByte);
+        } catch (StorageException e) {
+            checkStorageState(e);
+            throw e;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -11,6 +11,7 @@ import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.ChecksumUtil.Algorithm;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.SpaceStatsStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.util.StorageProviderUtil;
 import org.junit.Assert;
@@ -212,7 +213,9 @@ public class StorageProvidersTestCore
     public void testGetSpaceProperties(StorageProvider provider, String spaceId0)
             throws StorageException {
         Map<String, String> spaceMd = null;
-        spaceMd = provider.getSpaceProperties(spaceId0);
+        // The space count is provided by the space stats decorator
+        spaceMd = new SpaceStatsStorageProvider(provider)
+            .getSpaceProperties(spaceId0);
         assertNotNull(spaceMd);
 
         assertTrue(spaceMd.containsKey(StorageProvider.PROPERTIES_SPACE_CREATED));
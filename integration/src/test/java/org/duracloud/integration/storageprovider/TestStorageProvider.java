@@ -12,6 +12,7 @@ import org.apache.commons.io.IOUtils;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.SpaceStatsStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
 import org.junit.After;
@@ -512,8 +513,10 @@ public abstract class TestStorageProvider {
     }
 
     private Map<String, String> testSpaceProperties(String spaceId) {
+        // The space count is provided by the space stats decorator
         Map<String, String> sProperties =
-                storageProvider.getSpaceProperties(spaceId);
+                new SpaceStatsStorageProvider(storageProvider)
+                    .getSpaceProperties(spaceId);
 
         assertTrue(sProperties.containsKey(
                 StorageProvider.PROPERTIES_SPACE_CREATED));
@@ -0,0 +1,378 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import edu.umiacs.irods.api.IRodsRequestException;
+import edu.umiacs.irods.operation.ConnectOperation;
+import edu.umiacs.irods.operation.IrodsOperations;
+import org.duracloud.storage.error.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bounded pool of authenticated iRODS connections for a single
+ * host/port/zone/user, so that each storage operation does not need to open
+ * and authenticate a new connection.
+ *
+ * Connections are borrowed for the duration of an operation and then
+ * returned. A connection which has been idle for a while is checked with a
+ * lightweight request before it is handed out, connections which fail with
+ * an I/O error (rather than an error response from iRODS) are discarded, and
+ * connections left idle for longer than the idle timeout are closed.
+ *
+ * Pools are shared by all providers connecting as the same user, see
+ * getPool().
+ */
+public class IrodsConnectionPool {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(IrodsConnectionPool.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 10;
+    public static final long DEFAULT_BORROW_TIMEOUT = 60000; // 1 minute
+    public static final long DEFAULT_MAX_IDLE = 300000; // 5 minutes
+
+    // Idle connections are checked before use once idle for this long
+    protected static final long VALIDATE_AFTER_IDLE = 30000; // 30 seconds
+
+    private static final Map<String, IrodsConnectionPool> pools =
+        new HashMap<>();
+
+    private static final ScheduledExecutorService evictor =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "irods-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final String zone;
+    private final long borrowTimeout;
+    private final long maxIdle;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleConnection> idle;
+    private final Set<ConnectOperation> invalid;
+
+    private volatile boolean shutdown = false;
+    private ScheduledFuture<?> eviction; // guarded by pools
+
+    /**
+     * Retrieves the pool of connections for the given user, creating it if
+     * necessary.
+     */
+    public static IrodsConnectionPool getPool(String host,
+                                              int port,
+                                              String username,
+                                              String password,
+                                              String zone) {
+        String key = username + "#" + zone + "@" + host + ":" + port;
+        synchronized (pools) {
+            IrodsConnectionPool pool = pools.get(key);
+            if (null == pool || !pool.password.equals(password)) {
+                if (null != pool) {
+                    pool.eviction.cancel(false);
+                    pool.shutdown();
+                }
+                pool = new IrodsConnectionPool(host, port, username, password,
+                                               zone, DEFAULT_MAX_CONNECTIONS,
+                                               DEFAULT_BORROW_TIMEOUT,
+                                               DEFAULT_MAX_IDLE);
+                pools.put(key, pool);
+                pool.eviction =
+                    evictor.scheduleWithFixedDelay(pool.new Evictor(),
+                                                   DEFAULT_MAX_IDLE,
+                                                   DEFAULT_MAX_IDLE / 2,
+                                                   TimeUnit.MILLISECONDS);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * @param maxConnections maximum number of connections open at once
+     * @param borrowTimeout milliseconds to wait for a connection when all
+     *                      connections are in use
+     * @param maxIdle milliseconds after which an unused connection is closed
+     */
+    public IrodsConnectionPool(String host,
+                               int port,
+                               String username,
+                               String password,
+                               String zone,
+                               int maxConnections,
+                               long borrowTimeout,
+                               long maxIdle) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException(
+                "maxConnections must be at least 1");
+        }
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.zone = zone;
+        this.borrowTimeout = borrowTimeout;
+        this.maxIdle = maxIdle;
+        this.permits = new Semaphore(maxConnections, true);
+        this.idle = new LinkedBlockingDeque<>();
+        this.invalid =
+            Collections.newSetFromMap(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Borrows a connection, which must be handed back with release() once
+     * the operation is complete. The most recently used idle connection is
+     * preferred; a new connection is created if none are idle.
+     *
+     * @throws StorageException if no connection becomes available within
+     *                          the borrow timeout
+     */
+    public ConnectOperation borrow() {
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new StorageException(
+                    "Timed out waiting for a connection to iRODS host " +
+                    host + " as " + username);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(
+                "Interrupted waiting for a connection to iRODS", e);
+        }
+
+        try {
+            IdleConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                long idleTime = currentTime() - connection.idleSince;
+                if (idleTime >= maxIdle) {
+                    close(connection.operation);
+                } else if (idleTime < VALIDATE_AFTER_IDLE ||
+                           isValid(connection.operation)) {
+                    return connection.operation;
+                } else {
+                    log.debug("Discarding stale connection to iRODS host {}",
+                              host);
+                    close(connection.operation);
+                }
+            }
+            return createConnection();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands a borrowed connection back to the pool. The connection is
+     * closed rather than reused if it has been marked as failed, or if the
+     * pool has been shut down.
+     *
+     * @param operation the borrowed connection, may be null
+     */
+    public void release(ConnectOperation operation) {
+        if (null == operation) {
+            return;
+        }
+        if (invalid.remove(operation) || shutdown) {
+            close(operation);
+        } else {
+            idle.offerFirst(new IdleConnection(operation, currentTime()));
+            // Shut down while being released, so not closed by shutdown()
+            if (shutdown) {
+                evictIdle(0);
+            }
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes all idle connections. Connections in use are closed as they are
+     * released, rather than returned to the pool.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictIdle(0);
+    }
+
+    /**
+     * Records that an operation using a borrowed connection failed. Unless
+     * the failure is an error response from iRODS (in which case the
+     * connection is still usable), the connection is closed when it is
+     * released.
+     */
+    public void failed(ConnectOperation operation, IOException error) {
+        if (!(error instanceof IRodsRequestException)) {
+            invalidate(operation);
+        }
+    }
+
+    /**
+     * Marks a borrowed connection so that it is closed, rather than reused,
+     * when it is released.
+     */
+    public void invalidate(ConnectOperation operation) {
+        invalid.add(operation);
+    }
+
+    /**
+     * Wraps a stream read over a borrowed connection, so that the
+     * connection is released when the stream is closed. A stream closed
+     * before it has been read to the end (as when only a range of the
+     * content is read) leaves unread data on the connection, so the
+     * connection is closed rather than reused.
+     */
+    public InputStream releaseOnClose(final InputStream stream,
+                                      final ConnectOperation operation) {
+        return new FilterInputStream(stream) {
+            private final AtomicBoolean released = new AtomicBoolean(false);
+            private volatile boolean eof = false;
+
+            @Override
+            public int read() throws IOException {
+                try {
+                    int read = super.read();
+                    if (read < 0) {
+                        eof = true;
+                    }
+                    return read;
+                } catch (IOException e) {
+                    failed(operation, e);
+                    throw e;
+                }
+            }
+
+            @Override
+            public int read(byte[] bytes, int off, int len) throws IOException {
+                try {
+                    int read = super.read(bytes, off, len);
+                    if (read < 0) {
+                        eof = true;
+                    }
+                    return read;
+                } catch (IOException e) {
+                    failed(operation, e);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } catch (IOException e) {
+                    failed(operation, e);
+                    throw e;
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        if (!eof) {
+                            invalidate(operation);
+                        }
+                        release(operation);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the number of connections which are open but not in use
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes connections which have been idle for at least the given time
+     */
+    protected void evictIdle(long minIdle) {
+        long now = currentTime();
+        Iterator<IdleConnection> connections = idle.descendingIterator();
+        while (connections.hasNext()) {
+            IdleConnection connection = connections.next();
+            if (now - connection.idleSince >= minIdle &&
+                idle.removeFirstOccurrence(connection)) {
+                close(connection.operation);
+            }
+        }
+    }
+
+    protected ConnectOperation createConnection() {
+        log.debug("Opening connection to iRODS host {} as {}", host, username);
+        return new ConnectOperation(host, port, username, password, zone);
+    }
+
+    /*
+     * Checks that a connection is still usable by retrieving the status of
+     * the zone's root collection
+     */
+    protected boolean isValid(ConnectOperation operation) {
+        try {
+            new IrodsOperations(operation).stat("/" + zone);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    protected void close(ConnectOperation operation) {
+        try {
+            operation.getConnection().closeConnection();
+        } catch (Exception e) {
+            log.debug("Error closing connection to iRODS host " + host +
+                      ": " + e.getMessage());
+        }
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    private static class IdleConnection {
+        private final ConnectOperation operation;
+        private final long idleSince;
+
+        private IdleConnection(ConnectOperation operation, long idleSince) {
+            this.operation = operation;
+            this.idleSince = idleSince;
+        }
+    }
+
+    private class Evictor implements Runnable {
+        @Override
+        public void run() {
+            try {
+                evictIdle(maxIdle);
+            } catch (Exception e) {
+                log.warn("Error evicting idle iRODS connections: " +
+                         e.getMessage());
+            }
+        }
+    }
+
+}
@@ -22,9 +22,11 @@ import edu.umiacs.irods.operation.QueryBuilder;
 import edu.umiacs.irods.operation.QueryResult;
 import edu.umiacs.irods.operation.UnknownSizeOutputStream;
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +70,7 @@ public class IrodsStorageProvider implements StorageProvider {
     private String zone;
     private String host;
     private String storageResource;
+    private IrodsConnectionPool connectionPool;
     private static final int BLOCK_SIZE = 32768;
 
     public IrodsStorageProvider(String username,
@@ -83,6 +86,8 @@ public class IrodsStorageProvider implements StorageProvider {
         this.host = getOptionString(HOST.name(), options);
         this.baseDirectory = getOptionString(BASE_DIRECTORY.name(), options);
         this.storageResource = getOptionString(RESOURCE.name(), options);
+        this.connectionPool = IrodsConnectionPool.getPool(host, port, username,
+                                                          password, zone);
         log.trace("Creating new irods provider " + username + "#" + zone +
                   "@" + host + ":" + port + baseDirectory + " rsrc " +
                   storageResource);
@@ -97,7 +102,10 @@ public class IrodsStorageProvider implements StorageProvider {
     /**
      * Return a list of irods spaces. IRODS spaces are directories under
      * the baseDirectory of this provider.
-     * 
+     *
+     * The returned iterator reads from its own connection rather than one
+     * from the pool, as it may be abandoned before it is exhausted.
+     *
      * @return
      */
     @Override
@@ -118,7 +126,9 @@ public class IrodsStorageProvider implements StorageProvider {
      * Prefix is assumed to be part of the collection name.
      * This also has an issue where items in /irods/home/account/dir1 will br
      * returned if /irods/home/account/dir is asked for (ie, spaceId=dir)
-     * 
+     *
+     * As with getSpaces(), the returned iterator uses its own connection.
+     *
      * @param spaceId
      * @param prefix
      * @return
@@ -150,8 +160,6 @@ public class IrodsStorageProvider implements StorageProvider {
                                                 String prefix,
                                                 long maxResults,
                                                 String marker) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
         List<String> retList = new ArrayList();
 
         String spacepath = baseDirectory + "/" + spaceId;
@@ -172,6 +180,7 @@ public class IrodsStorageProvider implements StorageProvider {
         QueryBuilder qb;
         QueryResult qr;
 
+        ConnectOperation co = connectionPool.borrow();
         try {
 
             qb = new QueryBuilder(GenQueryEnum.COL_COLL_NAME,
@@ -203,9 +212,16 @@ public class IrodsStorageProvider implements StorageProvider {
                 retList.add(resultPath);
                 log.trace("Retrieving path: " + resultPath);
             }
+
+            // A query which was cut short remains open on the server for
+            // as long as the connection is, so the connection is not reused
+            if (retList.size() >= maxResults) {
+                connectionPool.invalidate(co);
+            }
             return retList;
 
         } catch (IOException ex) {
+            connectionPool.failed(co, ex);
             log.error("Error listing directories", ex);
             if (ex instanceof IRodsRequestException &&
                 ((IRodsRequestException) ex).getErrorCode() ==
@@ -213,9 +229,23 @@ public class IrodsStorageProvider implements StorageProvider {
                 return retList;
             }
             throw new StorageException(ex);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        List<String> contentIds =
+            getSpaceContentsChunked(spaceId, prefix, maxResults, marker);
+        return StorageProviderUtil.getContentSummaries(this,
+                                                       spaceId,
+                                                       contentIds);
+    }
+
     private boolean pathMatches(QueryResult qr, String pathSuffix) {
         String dir = qr.getValue(GenQueryEnum.COL_COLL_NAME);
         String file = qr.getValue(GenQueryEnum.COL_DATA_NAME);
@@ -231,23 +261,24 @@ public class IrodsStorageProvider implements StorageProvider {
      */
     @Override
     public void createSpace(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         try {
             IrodsOperations io = new IrodsOperations(co);
             io.mkdir(baseDirectory + "/" + spaceId);
             log.trace("Created space/directory: " +
                       baseDirectory + "/" + spaceId);
         } catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
     @Override
     public void deleteSpace(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         try {
             IrodsOperations io = new IrodsOperations(co);
             io.rmdir(baseDirectory + "/" + spaceId, true);
@@ -255,15 +286,17 @@ public class IrodsStorageProvider implements StorageProvider {
                       baseDirectory + "/" + spaceId);
 
         } catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
     @Override
     public Map<String, String> getSpaceProperties(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         try {
             String path = baseDirectory + "/" + spaceId;
             Map<String,String> properties = getProperties(path,co);
@@ -275,8 +308,11 @@ public class IrodsStorageProvider implements StorageProvider {
             properties.put(PROPERTIES_SPACE_COUNT, "1+");
             return properties;
         }catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
@@ -314,8 +350,7 @@ public class IrodsStorageProvider implements StorageProvider {
         log.trace("Writing to irods path: " + path +
                   " resource: " + storageResource);
 
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         byte[] buffer = new byte[BLOCK_SIZE];
 
         try {
@@ -351,8 +386,11 @@ public class IrodsStorageProvider implements StorageProvider {
 
             return new IrodsOperations(co).stat(path).getChksum();
         } catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Error ingesting file", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
@@ -367,29 +405,49 @@ public class IrodsStorageProvider implements StorageProvider {
     @Override
     public InputStream getContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         try {
             ObjTypeEnum type = new IrodsOperations(co).stat(path).getObjType();
             log.trace("Opening inputstream to irods path: " +
                       path + " type " + type);
-            return new BufferedInputStream(
+            // The connection is returned to the pool once the stream is
+            // closed
+            return connectionPool.releaseOnClose(
+                new BufferedInputStream(
                     new IrodsProxyInputStream(path, co.getConnection()),
-                    BLOCK_SIZE);
+                    BLOCK_SIZE), co);
 
         } catch (IOException e) {
+            connectionPool.failed(co, e);
+            connectionPool.release(co);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } catch (RuntimeException e) {
+            connectionPool.release(co);
+            throw e;
         }
     }
 
+    /**
+     * Retrieves a range of content by reading past the bytes which precede
+     * the range in the content stream.
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        StorageProviderUtil.validateRange(startByte, endByte);
+        return StorageProviderUtil.getContentRange(
+            getContent(spaceId, contentId), startByte, endByte);
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
-        IrodsOperations ops = new IrodsOperations(co);
+        ConnectOperation co = connectionPool.borrow();
         try {
+            IrodsOperations ops = new IrodsOperations(co);
             ObjTypeEnum type;
             if ((type = ops.stat(path).getObjType()) == ObjTypeEnum.DATA_OBJ_T) {
                 log.trace("Removing irods file " + path);
@@ -401,11 +459,20 @@ public class IrodsStorageProvider implements StorageProvider {
                                            "non-directory path");
             }
         } catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        return StorageProviderUtil.deleteContents(this, spaceId, contents);
+    }
+
     @Override
     public void setContentProperties(String spaceId,
                                      String contentId,
@@ -428,8 +495,7 @@ public class IrodsStorageProvider implements StorageProvider {
         } else {
             path = baseDirectory + "/" + spaceId + "/" + contentId;
         }
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
         try {
             Map<String,String> results = getProperties(path,co);
             IrodsOperations ops = new IrodsOperations(co);
@@ -447,8 +513,11 @@ public class IrodsStorageProvider implements StorageProvider {
             return results;
         }
         catch (IOException e) {        
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
@@ -515,8 +584,7 @@ public class IrodsStorageProvider implements StorageProvider {
     }
 
     private void setProperties(String path, Map<String, String> properties) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = connectionPool.borrow();
 
         log.trace("Writing properties for " + path + " elements: " +
                   properties.size());
@@ -532,8 +600,11 @@ public class IrodsStorageProvider implements StorageProvider {
                 mDataMap.put(e, properties.get(e), null);
             }
         } catch (IOException e) {
+            connectionPool.failed(co, e);
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
+        } finally {
+            connectionPool.release(co);
         }
     }
 
@@ -0,0 +1,183 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.umiacs.irods.operation.ConnectOperation;
+import org.duracloud.storage.error.StorageException;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IrodsConnectionPoolTest {
+
+    private static final long MAX_IDLE = 100000;
+
+    private TestPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new TestPool(2);
+    }
+
+    @Test
+    public void testBorrowReusesConnection() {
+        ConnectOperation first = pool.borrow();
+        pool.release(first);
+        assertEquals(1, pool.getIdleCount());
+
+        assertSame(first, pool.borrow());
+        assertEquals(1, pool.created.size());
+    }
+
+    @Test
+    public void testBorrowLimit() {
+        ConnectOperation first = pool.borrow();
+        ConnectOperation second = pool.borrow();
+        assertNotSame(first, second);
+
+        try {
+            pool.borrow();
+            fail("Exception expected when all connections are in use");
+        } catch (StorageException expected) {
+        }
+
+        pool.release(second);
+        assertSame(second, pool.borrow());
+    }
+
+    @Test
+    public void testFailedConnectionClosed() {
+        ConnectOperation first = pool.borrow();
+        pool.failed(first, new IOException("connection reset"));
+        pool.release(first);
+
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.closed.contains(first));
+        assertNotSame(first, pool.borrow());
+    }
+
+    @Test
+    public void testIdleConnectionValidated() {
+        ConnectOperation first = pool.borrow();
+        pool.release(first);
+
+        // Idle long enough to be checked, and found to be unusable
+        pool.time += IrodsConnectionPool.VALIDATE_AFTER_IDLE;
+        pool.valid = false;
+        assertNotSame(first, pool.borrow());
+        assertTrue(pool.closed.contains(first));
+    }
+
+    @Test
+    public void testEvictIdle() {
+        ConnectOperation first = pool.borrow();
+        ConnectOperation second = pool.borrow();
+        pool.release(first);
+        pool.time += MAX_IDLE;
+        pool.release(second);
+
+        pool.evictIdle(MAX_IDLE);
+        assertEquals(1, pool.getIdleCount());
+        assertTrue(pool.closed.contains(first));
+        assertSame(second, pool.borrow());
+    }
+
+    @Test
+    public void testReleaseOnClose() throws Exception {
+        ConnectOperation first = pool.borrow();
+        InputStream stream = pool.releaseOnClose(
+            new ByteArrayInputStream(new byte[] {1, 2, 3}), first);
+        assertEquals(0, pool.getIdleCount());
+
+        while (stream.read(new byte[2]) >= 0) {
+            // Read to the end
+        }
+        stream.close();
+        stream.close();
+        assertEquals(1, pool.getIdleCount());
+        assertSame(first, pool.borrow());
+    }
+
+    @Test
+    public void testCloseBeforeEnd() throws Exception {
+        ConnectOperation first = pool.borrow();
+        InputStream stream = pool.releaseOnClose(
+            new ByteArrayInputStream(new byte[] {1, 2, 3}), first);
+        stream.read();
+        stream.close();
+
+        // Unread content remains on the connection, so it is not reused
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.closed.contains(first));
+        assertNotSame(first, pool.borrow());
+    }
+
+    @Test
+    public void testShutdown() {
+        ConnectOperation first = pool.borrow();
+        ConnectOperation second = pool.borrow();
+        pool.release(first);
+
+        pool.shutdown();
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.closed.contains(first));
+
+        // Connections in use are closed when released
+        pool.release(second);
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(pool.closed.contains(second));
+    }
+
+    private static class TestPool extends IrodsConnectionPool {
+        private List<ConnectOperation> created = new ArrayList<>();
+        private List<ConnectOperation> closed = new ArrayList<>();
+        private boolean valid = true;
+        private long time = 0;
+
+        TestPool(int maxConnections) {
+            super("host", 1247, "user", "pass", "zone", maxConnections, 10,
+                  MAX_IDLE);
+        }
+
+        @Override
+        protected ConnectOperation createConnection() {
+            ConnectOperation operation =
+                EasyMock.createMock(ConnectOperation.class);
+            created.add(operation);
+            return operation;
+        }
+
+        @Override
+        protected boolean isValid(ConnectOperation operation) {
+            return valid;
+        }
+
+        @Override
+        protected void close(ConnectOperation operation) {
+            closed.add(operation);
+        }
+
+        @Override
+        protected long currentTime() {
+            return time;
+        }
+    }
+
+}
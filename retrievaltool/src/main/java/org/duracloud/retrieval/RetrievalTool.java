@@ -10,6 +10,7 @@ package org.duracloud.retrieval;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.util.ApplicationConfig;
+import org.duracloud.common.web.HttpConnectionPool;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.retrieval.config.RetrievalToolConfig;
 import org.duracloud.retrieval.mgmt.CSVFileOutputWriter;
@@ -94,7 +95,8 @@ public class RetrievalTool {
                                           retConfig.getNumThreads(),
                                           outWriter,
                                           createSpaceDir,
-                                          applyTimestamps);
+                                          applyTimestamps,
+                                          retConfig.getNumPartThreads());
 
         executor.execute(retManager);
     }
@@ -210,7 +212,9 @@ public class RetrievalTool {
                                           retConfig.getContext(),
                                           retConfig.getUsername(),
                                           retConfig.getPassword(),
-                                          retConfig.getStoreId());
+                                          retConfig.getStoreId(),
+                                          new HttpConnectionPool(
+                                              retConfig.getNumThreads()));
 
         executor = Executors.newFixedThreadPool(1);
         if(retConfig.isListOnly()) {
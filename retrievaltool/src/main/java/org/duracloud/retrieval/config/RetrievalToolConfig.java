@@ -31,6 +31,7 @@ public class RetrievalToolConfig implements Serializable {
     private File workDir;
     private boolean overwrite;
     private int numThreads;
+    private int numPartThreads;
     private String version;
     private boolean applyTimestamps;
     private boolean listOnly;
@@ -71,6 +72,8 @@ public class RetrievalToolConfig implements Serializable {
         config.append(getWorkDir().getAbsolutePath()).append("\n");
         config.append("Retrieval Tool Overwrite Local Files: ");
         config.append(isOverwrite()).append("\n");
+        config.append("Retrieval Tool Part Threads: ");
+        config.append(getNumPartThreads()).append("\n");
         config.append("Retrieval Tool Retain File Time Stamps: ");
         config.append(isApplyTimestamps()).append("\n");
         config.append("Retrieval Tool List Content Only: ");
@@ -182,6 +185,14 @@ public class RetrievalToolConfig implements Serializable {
         this.numThreads = numThreads;
     }
 
+    public int getNumPartThreads() {
+        return numPartThreads;
+    }
+
+    public void setNumPartThreads(int numPartThreads) {
+        this.numPartThreads = numPartThreads;
+    }
+
     public void setVersion(String version) {
         this.version = version;
     }
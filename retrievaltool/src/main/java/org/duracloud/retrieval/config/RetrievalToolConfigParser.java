@@ -31,6 +31,7 @@ public class RetrievalToolConfigParser {
 
     protected static final int DEFAULT_PORT = 443;
     protected static final int DEFAULT_NUM_THREADS = 3;
+    protected static final int DEFAULT_NUM_PART_THREADS = 4;
     protected static final String DEFAULT_CONTEXT = "durastore";
     
     private Options cmdOptions;
@@ -130,6 +131,16 @@ public class RetrievalToolConfigParser {
         numThreads.setRequired(false);
         cmdOptions.addOption(numThreads);
 
+       Option numPartThreads =
+           new Option("n", "part-threads", true,
+                      "the number of threads shared by all file transfers " +
+                      "which are used to retrieve the parts of large or " +
+                      "chunked files in parallel, a value of 1 retrieves " +
+                      "each file as a single stream (optional, default " +
+                      "value is " + DEFAULT_NUM_PART_THREADS + ")");
+        numPartThreads.setRequired(false);
+        cmdOptions.addOption(numPartThreads);
+
        Option disableTimestamps =
            new Option("d", "disable-timestamps", false,
                       "indicates that timestamp information found as content " +
@@ -293,6 +304,18 @@ public class RetrievalToolConfigParser {
             config.setNumThreads(DEFAULT_NUM_THREADS);
         }
 
+        if(cmd.hasOption("n")) {
+            try {
+                config.setNumPartThreads(
+                    Integer.valueOf(cmd.getOptionValue("n")));
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for part threads (-n) " +
+                                         "must be a number.");
+            }
+        } else {
+            config.setNumPartThreads(DEFAULT_NUM_PART_THREADS);
+        }
+
         if(cmd.hasOption("d")) {
             config.setApplyTimestamps(false);
         } else {
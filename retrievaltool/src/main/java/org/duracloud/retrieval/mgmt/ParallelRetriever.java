@@ -0,0 +1,230 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.mgmt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.retrieval.source.ContentPart;
+import org.duracloud.retrieval.source.ContentStream;
+import org.duracloud.retrieval.source.RetrievalSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retrieves the parts of a content item concurrently, writing each part
+ * directly into its position in the local file. The pool of threads used to
+ * retrieve parts is shared by all of the items being retrieved.
+ */
+public class ParallelRetriever {
+
+    private final Logger logger =
+        LoggerFactory.getLogger(ParallelRetriever.class);
+
+    public static final long DEFAULT_PART_SIZE = 100 * 1000 * 1000;
+
+    private static final int MAX_PART_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private RetrievalSource source;
+    private ExecutorService partPool;
+    private long partSize;
+
+    /**
+     * @param source from which parts are retrieved
+     * @param threads number of parts which may be retrieved at once
+     * @param partSize preferred size of parts of content which is not chunked
+     */
+    public ParallelRetriever(RetrievalSource source, int threads, long partSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.source = source;
+        this.partSize = partSize;
+        this.partPool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "retrieval-part");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Retrieves all parts of the content to the local file. The file is
+     * sized up front and each part is written at its own offset, so parts
+     * may complete in any order. Parts which include a checksum are verified
+     * as they are written.
+     *
+     * @param content including the parts to retrieve
+     * @param localFile to which the content is written
+     * @param listener notified as each chunk is retrieved, may be null
+     * @throws IOException if any part cannot be retrieved
+     */
+    public void retrieve(ContentStream content,
+                         File localFile,
+                         RetrievalListener listener) throws IOException {
+        retrieve(content, localFile, listener, null);
+    }
+
+    /**
+     * Retrieves the parts of the content which have not already been
+     * verified by the checkpoint, recording each part in the checkpoint as
+     * it is completed so that a failed retrieval can be continued.
+     *
+     * @param content including the parts to retrieve
+     * @param localFile to which the content is written
+     * @param listener notified as each chunk is retrieved, may be null
+     * @param checkpoint progress of the retrieval, may be null
+     * @throws IOException if any part cannot be retrieved
+     */
+    public void retrieve(ContentStream content,
+                         File localFile,
+                         RetrievalListener listener,
+                         RetrievalCheckpoint checkpoint) throws IOException {
+        List<ContentPart> parts = content.getParts();
+        long size = 0;
+        for (ContentPart part : parts) {
+            size = Math.max(size, part.getOffset() + part.getLength());
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(localFile, "rw")) {
+            file.setLength(size);
+            FileChannel channel = file.getChannel();
+
+            List<Future<?>> results = new ArrayList<>();
+            for (ContentPart part : parts) {
+                if (null != checkpoint &&
+                    checkpoint.isPartVerified(part.getOffset())) {
+                    logger.debug("Skipping previously retrieved {}", part);
+                    continue;
+                }
+                results.add(partPool.submit(() -> {
+                    retrievePart(part, channel);
+                    if (null != checkpoint) {
+                        checkpoint.partVerified(part.getOffset(),
+                                                part.getChecksum());
+                    }
+                    if (null != listener && !part.isRange()) {
+                        listener.chunkRetrieved(
+                            part.getContentItem().getContentId());
+                    }
+                    return null;
+                }));
+            }
+            waitForParts(results);
+            channel.force(false);
+        }
+    }
+
+    private void waitForParts(List<Future<?>> results) throws IOException {
+        try {
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            cancel(results);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while retrieving parts", e);
+        } catch (ExecutionException e) {
+            cancel(results);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private void cancel(List<Future<?>> results) {
+        for (Future<?> result : results) {
+            result.cancel(true);
+        }
+    }
+
+    /*
+     * Retrieves a single part, retrying on failure
+     */
+    private void retrievePart(ContentPart part, FileChannel channel)
+        throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writePart(part, channel);
+                return;
+            } catch (Exception e) {
+                if (attempt >= MAX_PART_ATTEMPTS ||
+                    Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Unable to retrieve " + part +
+                                          " after " + attempt +
+                                          " attempts: " + e.getMessage(), e);
+                }
+                logger.warn("Failed attempt {} to retrieve {}: {}",
+                            attempt, part, e.getMessage());
+            }
+        }
+    }
+
+    private void writePart(ContentPart part, FileChannel channel)
+        throws IOException {
+        long written = 0;
+        String retrieved;
+        try (DigestInputStream stream =
+                 ChecksumUtil.wrapStream(source.getSourcePart(part),
+                                         ChecksumUtil.Algorithm.MD5)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                if (written + read > part.getLength()) {
+                    throw new IOException("Retrieved more than the expected " +
+                                          part.getLength() + " bytes");
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes, part.getOffset() + written +
+                                         bytes.position());
+                }
+                written += read;
+            }
+            retrieved = ChecksumUtil.getChecksum(stream);
+        }
+
+        if (written != part.getLength()) {
+            throw new IOException("Retrieved " + written + " bytes, expected " +
+                                  part.getLength());
+        }
+        String checksum = part.getChecksum();
+        if (null != checksum) {
+            if (!checksum.equals(retrieved)) {
+                throw new IOException("Checksum of retrieved part " +
+                                      retrieved + " does not match expected " +
+                                      "checksum " + checksum);
+            }
+        }
+    }
+
+    /**
+     * Stops the threads used to retrieve parts
+     */
+    public void shutdown() {
+        partPool.shutdownNow();
+    }
+
+}
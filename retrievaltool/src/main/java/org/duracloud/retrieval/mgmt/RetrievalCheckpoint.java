@@ -0,0 +1,225 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.mgmt;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the progress of retrieving a single file, allowing a failed
+ * retrieval to continue where it left off rather than starting over.
+ *
+ * Content is written to a ".part" file next to the local file. A small
+ * ".part.progress" sidecar records the checksum of the remote content being
+ * retrieved, the number of contiguous bytes written so far, and the parts
+ * (by offset) which have been retrieved and verified. Progress is only
+ * honored if the remote checksum is unchanged and the part file holds at
+ * least the recorded number of bytes.
+ */
+public class RetrievalCheckpoint {
+
+    private final Logger logger =
+        LoggerFactory.getLogger(RetrievalCheckpoint.class);
+
+    protected static final String PART_SUFFIX = ".part";
+    protected static final String PROGRESS_SUFFIX = ".part.progress";
+
+    private static final String CHECKSUM = "checksum";
+    private static final String BYTES_DONE = "bytes-done";
+    private static final String PART_PREFIX = "part.";
+
+    private File partFile;
+    private File progressFile;
+    private String checksum;
+    private long bytesDone;
+    private Map<Long, String> verifiedParts;
+    private boolean progressed;
+
+    /**
+     * @param localFile the file to which content is being retrieved
+     */
+    public RetrievalCheckpoint(File localFile) {
+        this.partFile = new File(localFile.getParentFile(),
+                                 localFile.getName() + PART_SUFFIX);
+        this.progressFile = new File(localFile.getParentFile(),
+                                     localFile.getName() + PROGRESS_SUFFIX);
+        this.verifiedParts = new HashMap<>();
+    }
+
+    /**
+     * @return the file to which content is written until it is complete
+     */
+    public File getPartFile() {
+        return partFile;
+    }
+
+    /**
+     * @return true if progress has been recorded for this file, which may be
+     *         loaded in order to continue the retrieval
+     */
+    public boolean hasProgress() {
+        return progressFile.exists() && partFile.exists();
+    }
+
+    /**
+     * Loads recorded progress, if any exists for the given remote content.
+     * Progress recorded for different content is discarded.
+     *
+     * @param remoteChecksum checksum of the content being retrieved
+     */
+    public synchronized void load(String remoteChecksum) {
+        checksum = remoteChecksum;
+        bytesDone = 0;
+        verifiedParts.clear();
+        if (!hasProgress()) {
+            return;
+        }
+
+        Properties progress = new Properties();
+        try (InputStream input = new FileInputStream(progressFile)) {
+            progress.load(input);
+        } catch (IOException e) {
+            logger.warn("Unable to read progress of {}, starting over: {}",
+                        partFile.getAbsolutePath(), e.getMessage());
+            discard();
+            return;
+        }
+
+        if (null == remoteChecksum ||
+            !remoteChecksum.equals(progress.getProperty(CHECKSUM))) {
+            logger.info("Discarding progress of {}, remote content has " +
+                        "changed", partFile.getAbsolutePath());
+            discard();
+            return;
+        }
+
+        try {
+            long done = Long.parseLong(progress.getProperty(BYTES_DONE, "0"));
+            bytesDone = Math.min(done, partFile.length());
+            for (String name : progress.stringPropertyNames()) {
+                if (name.startsWith(PART_PREFIX)) {
+                    long offset =
+                        Long.parseLong(name.substring(PART_PREFIX.length()));
+                    verifiedParts.put(offset, progress.getProperty(name));
+                }
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Unable to read progress of {}, starting over: {}",
+                        partFile.getAbsolutePath(), e.getMessage());
+            discard();
+        }
+    }
+
+    /**
+     * @return the number of contiguous bytes at the start of the part file
+     *         which have been retrieved
+     */
+    public synchronized long getBytesDone() {
+        return bytesDone;
+    }
+
+    public synchronized void setBytesDone(long bytesDone) {
+        if (bytesDone > this.bytesDone) {
+            progressed = true;
+        }
+        this.bytesDone = bytesDone;
+    }
+
+    /**
+     * @param checksum of the remote content to which progress applies
+     */
+    public synchronized void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * @return true if any bytes or parts have been retrieved since progress
+     *         was loaded
+     */
+    public synchronized boolean hasProgressed() {
+        return progressed;
+    }
+
+    /**
+     * @return true if the part at the given offset has been retrieved and
+     *         verified
+     */
+    public synchronized boolean isPartVerified(long offset) {
+        return verifiedParts.containsKey(offset);
+    }
+
+    /**
+     * Records that the part at the given offset has been retrieved and
+     * verified, and saves the progress.
+     */
+    public synchronized void partVerified(long offset, String partChecksum)
+        throws IOException {
+        verifiedParts.put(offset, null == partChecksum ? "" : partChecksum);
+        progressed = true;
+        save();
+    }
+
+    /**
+     * Writes the current progress to the sidecar file. The file is replaced
+     * atomically so that an interrupted save does not lose earlier progress.
+     */
+    public synchronized void save() throws IOException {
+        Properties progress = new Properties();
+        if (null != checksum) {
+            progress.setProperty(CHECKSUM, checksum);
+        }
+        progress.setProperty(BYTES_DONE, String.valueOf(bytesDone));
+        for (Map.Entry<Long, String> part : verifiedParts.entrySet()) {
+            progress.setProperty(PART_PREFIX + part.getKey(), part.getValue());
+        }
+
+        File tempFile = new File(progressFile.getParentFile(),
+                                 progressFile.getName() + ".tmp");
+        try (OutputStream output = new FileOutputStream(tempFile)) {
+            progress.store(output, null);
+        }
+        Files.move(tempFile.toPath(), progressFile.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Moves the completed part file into place as the local file and removes
+     * the recorded progress.
+     */
+    public synchronized void complete(File localFile) throws IOException {
+        Files.move(partFile.toPath(), localFile.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING);
+        FileUtils.deleteQuietly(progressFile);
+    }
+
+    /**
+     * Removes the part file and all recorded progress
+     */
+    public synchronized void discard() {
+        bytesDone = 0;
+        progressed = false;
+        verifiedParts.clear();
+        FileUtils.deleteQuietly(partFile);
+        FileUtils.deleteQuietly(progressFile);
+    }
+
+}
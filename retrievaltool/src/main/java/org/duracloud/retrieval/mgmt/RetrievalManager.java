@@ -8,14 +8,13 @@
 package org.duracloud.retrieval.mgmt;
 
 import org.duracloud.common.model.ContentItem;
+import org.duracloud.common.util.BlockingExecutor;
 import org.duracloud.retrieval.source.RetrievalSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -34,11 +33,12 @@ public class RetrievalManager implements Runnable {
     private File contentDir;
     private File workDir;
     private boolean overwrite;
-    private ThreadPoolExecutor workerPool;
+    private BlockingExecutor workerPool;
     private OutputWriter outWriter;
     private boolean createSpaceDir;
     private boolean applyTimestamps;
     private boolean complete;
+    private ParallelRetriever parallelRetriever;
 
     public RetrievalManager(RetrievalSource source,
                             File contentDir,
@@ -48,6 +48,25 @@ public class RetrievalManager implements Runnable {
                             OutputWriter outWriter,
                             boolean createSpaceDir,
                             boolean applyTimestamps) {
+        this(source, contentDir, workDir, overwrite, threads, outWriter,
+             createSpaceDir, applyTimestamps, 1);
+    }
+
+    /**
+     * @param partThreads the number of threads shared by all workers for
+     *                    retrieving the parts of large or chunked content
+     *                    concurrently. A value of 1 or less retrieves each
+     *                    content item as a single stream.
+     */
+    public RetrievalManager(RetrievalSource source,
+                            File contentDir,
+                            File workDir,
+                            boolean overwrite,
+                            int threads,
+                            OutputWriter outWriter,
+                            boolean createSpaceDir,
+                            boolean applyTimestamps,
+                            int partThreads) {
         logger.info("Starting Retrieval Manager with " + threads + " threads");
         this.source = source;
         this.contentDir = contentDir;
@@ -58,13 +77,14 @@ public class RetrievalManager implements Runnable {
         this.applyTimestamps = applyTimestamps;
 
         // Create thread pool for retrieval workers
-        workerPool =
-            new ThreadPoolExecutor(threads,
-                                   threads,
-                                   Long.MAX_VALUE,
-                                   TimeUnit.NANOSECONDS,
-                                   new SynchronousQueue(),
-                                   new ThreadPoolExecutor.AbortPolicy());
+        workerPool = new BlockingExecutor(threads, "retrieval-worker");
+
+        if(partThreads > 1) {
+            parallelRetriever =
+                new ParallelRetriever(source,
+                                      partThreads,
+                                      ParallelRetriever.DEFAULT_PART_SIZE);
+        }
     }
 
     /**
@@ -78,19 +98,17 @@ public class RetrievalManager implements Runnable {
                 break;
             }
 
-            while(!retrieveContent(contentItem)) {
-                sleep(1000);
+            if(!retrieveContent(contentItem)) {
+                shutdown();
+                break;
             }
         }
     }
 
-    private void sleep(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-        }
-    }
-
+    /*
+     * Hands the content item to a worker, waiting for a worker to become
+     * available. Returns false if the item could not be handed off.
+     */
     private boolean retrieveContent(ContentItem contentItem) {
         try {
             logger.debug("contentItem={}", contentItem);
@@ -100,9 +118,15 @@ public class RetrievalManager implements Runnable {
                                                          overwrite,
                                                          outWriter,
                                                          createSpaceDir,
-                                                         applyTimestamps);
+                                                         applyTimestamps,
+                                                         parallelRetriever);
             workerPool.execute(worker);
             return true;
+        } catch(InterruptedException e) {
+            logger.warn("Interrupted while waiting to retrieve {}",
+                        contentItem);
+            Thread.currentThread().interrupt();
+            return false;
         } catch(RejectedExecutionException e) {
             return false;
         }
@@ -121,6 +145,10 @@ public class RetrievalManager implements Runnable {
         } catch(InterruptedException e) {          
         }
 
+        if(null != parallelRetriever) {
+            parallelRetriever.shutdown();
+        }
+
         complete = true;
     }
 
@@ -8,25 +8,28 @@
 package org.duracloud.retrieval.mgmt;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.duracloud.chunk.util.ChunkUtil;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
+import org.duracloud.retrieval.source.ContentPart;
 import org.duracloud.retrieval.source.ContentStream;
 import org.duracloud.retrieval.source.RetrievalSource;
 import org.slf4j.Logger;
@@ -42,8 +45,13 @@ public class RetrievalWorker implements Runnable {
 
     private final Logger logger = LoggerFactory.getLogger(RetrievalWorker.class);
 
+    // Attempts which make no progress before giving up
     private static final int MAX_ATTEMPTS = 5;
+    // Attempts of any kind before giving up
+    private static final int MAX_TOTAL_ATTEMPTS = 20;
     private static final String COPY = "-copy";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long CHECKPOINT_BYTES = 64 * 1024 * 1024;
 
     private ContentItem contentItem;
     private RetrievalSource source;
@@ -55,6 +63,8 @@ public class RetrievalWorker implements Runnable {
     private int attempts;
     private File localFile;
     private ContentStream contentStream;
+    private ParallelRetriever parallelRetriever;
+    private RetrievalCheckpoint checkpoint;
 
     private StatusManager statusManager;
 
@@ -68,6 +78,23 @@ public class RetrievalWorker implements Runnable {
                            OutputWriter outWriter,
                            boolean createSpaceDir,
                            boolean applyTimestamps) {
+        this(contentItem, source, contentDir, overwrite, outWriter,
+             createSpaceDir, applyTimestamps, null);
+    }
+
+    /**
+     * Creates a Retrieval Worker to handle retrieving a file, using the
+     * given parallel retriever (which may be null) to retrieve the parts of
+     * large or chunked content concurrently
+     */
+    public RetrievalWorker(ContentItem contentItem,
+                           RetrievalSource source,
+                           File contentDir,
+                           boolean overwrite,
+                           OutputWriter outWriter,
+                           boolean createSpaceDir,
+                           boolean applyTimestamps,
+                           ParallelRetriever parallelRetriever) {
         this.contentItem = contentItem;
         this.source = source;
         this.contentDir = contentDir;
@@ -75,6 +102,7 @@ public class RetrievalWorker implements Runnable {
         this.outWriter = outWriter;
         this.createSpaceDir = createSpaceDir;
         this.applyTimestamps = applyTimestamps;
+        this.parallelRetriever = parallelRetriever;
         this.statusManager = StatusManager.getInstance();
         this.attempts = 0;
     }
@@ -88,43 +116,68 @@ public class RetrievalWorker implements Runnable {
         return retrieveFile(null);
     }
     
+    /**
+     * Retrieves the file, retrying on failure. Attempts which retrieved more
+     * of the file before failing are not counted against the limit of
+     * attempts without progress, but all attempts count towards an overall
+     * limit.
+     *
+     * @return properties of the content, or null if retrieval failed
+     */
     public Map<String,String> retrieveFile(RetrievalListener listener) {
-        attempts++;
+        int attemptsWithoutProgress = 0;
+        while(true) {
+            attempts++;
+            checkpoint = null;
+            try {
+                return attemptRetrieval(listener);
+            } catch(Exception e) {
+                logger.error("Exception retrieving remote file " +
+                             contentItem.getContentId() + " as local file " +
+                             getLocalFile().getAbsolutePath() + ": " +
+                             e.getMessage(), e);
+                // Progress which was discarded (due to a checksum mismatch)
+                // is not counted
+                boolean progressed =
+                    null != checkpoint && checkpoint.hasProgressed();
+                if(!progressed) {
+                    attemptsWithoutProgress++;
+                }
+                if(attemptsWithoutProgress >= MAX_ATTEMPTS ||
+                   attempts >= MAX_TOTAL_ATTEMPTS) {
+                    fail(e.getMessage());
+                    return null;
+                }
+            }
+        }
+    }
+
+    private Map<String,String> attemptRetrieval(RetrievalListener listener)
+        throws IOException {
         File localFile = getLocalFile();
         Map<String,String> props = null;
-        try {
-            if(localFile.exists()) { // File already exists
-                props = getContentProperties();
-                if(checksumsMatch(localFile,
-                                  props.get(ContentStore.CONTENT_CHECKSUM))) {
-                    noChangeNeeded(localFile.getAbsolutePath());
-                } else { // Different file in DuraStore
-                    if(overwrite) {
-                        deleteFile(localFile);
-                    } else {
-                        renameFile(localFile);
-                    }
-                    props = retrieveToFile(localFile, listener);
-                    succeed(localFile.getAbsolutePath());
-                }
-            } else { // File does not exist
-                File parentDir = localFile.getParentFile();
-                if(!parentDir.exists()) {
-                    parentDir.mkdirs();
-                    parentDir.setWritable(true);
+        if(localFile.exists()) { // File already exists
+            props = getContentProperties();
+            if(checksumsMatch(localFile,
+                              props.get(ContentStore.CONTENT_CHECKSUM))) {
+                noChangeNeeded(localFile.getAbsolutePath());
+            } else { // Different file in DuraStore
+                if(overwrite) {
+                    deleteFile(localFile);
+                } else {
+                    renameFile(localFile);
                 }
                 props = retrieveToFile(localFile, listener);
                 succeed(localFile.getAbsolutePath());
             }
-        } catch(Exception e) {
-            logger.error("Exception retrieving remote file " +
-                         contentItem.getContentId() + " as local file " +
-                         localFile.getAbsolutePath() + ": " + e.getMessage(), e);
-            if(attempts < MAX_ATTEMPTS) {
-                props = retrieveFile();
-            } else {
-                fail(e.getMessage());
+        } else { // File does not exist
+            File parentDir = localFile.getParentFile();
+            if(!parentDir.exists()) {
+                parentDir.mkdirs();
+                parentDir.setWritable(true);
             }
+            props = retrieveToFile(localFile, listener);
+            succeed(localFile.getAbsolutePath());
         }
         return props;
     }
@@ -215,7 +268,10 @@ public class RetrievalWorker implements Runnable {
     }
 
     /**
-     * Transfers the remote file stream to the local file
+     * Transfers the remote file stream to the local file. Content is written
+     * to a part file alongside the local file, with progress recorded so that
+     * a failed transfer can be continued by a later attempt. The part file is
+     * moved into place once its checksum has been verified.
      * @returns the checksum of the File upon successful retrieval.  Successful
      * retrieval means the checksum of the local file and remote file match,
      * otherwise an IOException is thrown.
@@ -225,29 +281,133 @@ public class RetrievalWorker implements Runnable {
      * @throws IOException
      */
     protected Map<String, String> retrieveToFile(File localFile, RetrievalListener listener) throws IOException {
+        checkpoint = new RetrievalCheckpoint(localFile);
+        File partFile = checkpoint.getPartFile();
 
-        contentStream = source.getSourceContent(contentItem, listener);
+        if(null != parallelRetriever) {
+            ContentStream parts = source.getSourceContentParts(
+                contentItem, parallelRetriever.getPartSize());
+            if(null != parts) {
+                contentStream = parts;
+                checkpoint.load(parts.getChecksum());
+                parallelRetriever.retrieve(parts, partFile, listener,
+                                           checkpoint);
 
-        try (
-            InputStream inStream = contentStream.getStream();
-            OutputStream outStream = new FileOutputStream(localFile);
-        ) {
-            IOUtils.copyLarge(inStream, outStream);
-        } catch(IOException e) {
-            try {
-                deleteFile(localFile);
-            } catch(IOException ioe) {
-                logger.error("Exception deleting local file " +
-                             localFile.getAbsolutePath() + " due to: " + ioe.getMessage());
+                // Parts without checksums are verified by reading the file
+                if(!partsVerified(parts) &&
+                   !checksumsMatch(partFile, parts.getChecksum())) {
+                    checkpoint.discard();
+                    throw new IOException("Calculated checksum value for " +
+                                          "retrieved file does not match " +
+                                          "properties checksum.");
+                }
+                return completeRetrieval(localFile);
             }
-            throw e;
         }
 
-        if(! checksumsMatch(localFile, contentStream.getChecksum())) {
-            deleteFile(localFile);
+        // Progress is only kept if the remote content is unchanged
+        String remoteChecksum = null;
+        if(checkpoint.hasProgress()) {
+            remoteChecksum = source.getSourceChecksum(contentItem);
+        }
+        checkpoint.load(remoteChecksum);
+        long startByte = checkpoint.getBytesDone();
+        if(startByte > 0) {
+            logger.info("Continuing retrieval of {} from byte {}",
+                        contentItem, startByte);
+            contentStream =
+                source.getSourceContent(contentItem, startByte, listener);
+        } else {
+            contentStream = source.getSourceContent(contentItem, listener);
+        }
+        checkpoint.setChecksum(contentStream.getChecksum());
+
+        String localChecksum = transferToFile(partFile, startByte);
+        String checksum = contentStream.getChecksum();
+        if(checksum == null || "".equals(checksum)) {
+            checksum = source.getSourceChecksum(contentItem);
+        }
+        if(!localChecksum.equals(checksum)) {
+            checkpoint.discard();
             throw new IOException("Calculated checksum value for retrieved " +
                                   "file does not match properties checksum.");
         }
+        return completeRetrieval(localFile);
+    }
+
+    /*
+     * Writes the content stream to the part file, beginning at the start
+     * byte, and computes the checksum of the file as it is written. Progress
+     * is recorded periodically and when the transfer fails.
+     */
+    private String transferToFile(File partFile, long startByte)
+        throws IOException {
+        try (DigestInputStream inStream =
+                 ChecksumUtil.wrapStream(contentStream.getStream(),
+                                         ChecksumUtil.Algorithm.MD5);
+             FileOutputStream outStream =
+                 new FileOutputStream(partFile, startByte > 0)) {
+            MessageDigest digest = inStream.getMessageDigest();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            // Include previously retrieved bytes in the checksum
+            if(startByte > 0) {
+                outStream.getChannel().truncate(startByte);
+                try (InputStream done = new BoundedInputStream(
+                         new FileInputStream(partFile), startByte)) {
+                    while((read = done.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+
+            long written = startByte;
+            long saved = startByte;
+            try {
+                while((read = inStream.read(buffer)) != -1) {
+                    outStream.write(buffer, 0, read);
+                    written += read;
+                    if(written - saved >= CHECKPOINT_BYTES) {
+                        checkpoint.setBytesDone(written);
+                        checkpoint.save();
+                        saved = written;
+                    }
+                }
+            } catch(IOException | RuntimeException e) {
+                checkpoint.setBytesDone(written);
+                try {
+                    checkpoint.save();
+                } catch(IOException ioe) {
+                    logger.error("Unable to record progress of " +
+                                 partFile.getAbsolutePath() + " due to: " +
+                                 ioe.getMessage());
+                }
+                throw e;
+            }
+            return ChecksumUtil.getChecksum(inStream);
+        }
+    }
+
+    /*
+     * Determines if every part includes a checksum, and so has been verified
+     * as it was retrieved
+     */
+    private boolean partsVerified(ContentStream parts) {
+        for(ContentPart part : parts.getParts()) {
+            if(null == part.getChecksum()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Moves the retrieved file into place and applies timestamps
+     */
+    private Map<String, String> completeRetrieval(File localFile)
+        throws IOException {
+        checkpoint.complete(localFile);
 
         // Set time stamps
         if(applyTimestamps) {
@@ -8,14 +8,13 @@
 package org.duracloud.retrieval.mgmt;
 
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.util.BlockingExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,7 +30,7 @@ public class SpaceListManager implements Runnable {
     private final Logger logger =
         LoggerFactory.getLogger(SpaceListManager.class);
 
-    private ThreadPoolExecutor workerPool;
+    private BlockingExecutor workerPool;
     private ContentStore contentStore;
     private File contentDir;
     private List<String> spaces;
@@ -49,33 +48,20 @@ public class SpaceListManager implements Runnable {
         this.overwrite = overwrite;
 
         // Create thread pool for  SpaceListWorkers
-        workerPool =
-            new ThreadPoolExecutor(threads,
-                                   threads,
-                                   Long.MAX_VALUE,
-                                   TimeUnit.NANOSECONDS,
-                                   new SynchronousQueue(),
-                                   new ThreadPoolExecutor.AbortPolicy());
+        workerPool = new BlockingExecutor(threads, "space-list-worker");
     }
 
     public void run() {
         while(!complete) {
             for(String spaceName: spaces) {
-                while(!retrieveSpaceList(spaceName)) {
-                    sleep(1000);
+                if(!retrieveSpaceList(spaceName)) {
+                    break;
                 }
             }
             shutdown();
         }
     }
 
-    private void sleep(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-        }
-    }
-
     private boolean retrieveSpaceList(String spaceName) {
         try {
             SpaceListWorker worker = new SpaceListWorker(contentStore,
@@ -84,6 +70,11 @@ public class SpaceListManager implements Runnable {
                                                          overwrite);
             workerPool.execute(worker);
             return true;
+        } catch(InterruptedException e) {
+            logger.warn("Interrupted while waiting to list space {}",
+                        spaceName);
+            Thread.currentThread().interrupt();
+            return false;
         } catch(RejectedExecutionException e) {
             return false;
         }
@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.source;
+
+import org.duracloud.common.model.ContentItem;
+
+/**
+ * A part of a content item which can be retrieved independently of the other
+ * parts of the same item. A part is either a full content item (such as a
+ * chunk of chunked content) or a range of bytes of a content item.
+ */
+public class ContentPart {
+
+    private ContentItem contentItem;
+    private Long startByte;
+    private Long endByte;
+    private long offset;
+    private long length;
+    private String checksum;
+
+    /**
+     * Creates a part which is made up of a full content item
+     *
+     * @param contentItem the item which holds the part
+     * @param offset position of the part in the retrieved content
+     * @param length number of bytes in the part
+     * @param checksum MD5 checksum of the part, may be null
+     */
+    public ContentPart(ContentItem contentItem,
+                       long offset,
+                       long length,
+                       String checksum) {
+        this(contentItem, null, null, offset, length, checksum);
+    }
+
+    /**
+     * Creates a part which is made up of a range of bytes of a content item
+     *
+     * @param contentItem the item which holds the part
+     * @param startByte first byte of the part within the content item
+     * @param endByte last byte of the part within the content item (inclusive)
+     * @param offset position of the part in the retrieved content
+     * @param length number of bytes in the part
+     * @param checksum MD5 checksum of the part, may be null
+     */
+    public ContentPart(ContentItem contentItem,
+                       Long startByte,
+                       Long endByte,
+                       long offset,
+                       long length,
+                       String checksum) {
+        this.contentItem = contentItem;
+        this.startByte = startByte;
+        this.endByte = endByte;
+        this.offset = offset;
+        this.length = length;
+        this.checksum = checksum;
+    }
+
+    public ContentItem getContentItem() {
+        return contentItem;
+    }
+
+    /**
+     * @return first byte of the part within its content item, or null if
+     *         the part includes the full content item
+     */
+    public Long getStartByte() {
+        return startByte;
+    }
+
+    /**
+     * @return last byte of the part within its content item, or null if
+     *         the part includes the full content item
+     */
+    public Long getEndByte() {
+        return endByte;
+    }
+
+    public boolean isRange() {
+        return null != startByte;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder part = new StringBuilder(contentItem.toString());
+        if(isRange()) {
+            part.append(" [").append(startByte).append("-").append(endByte);
+            part.append("]");
+        }
+        return part.toString();
+    }
+
+}
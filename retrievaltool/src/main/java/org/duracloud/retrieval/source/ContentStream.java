@@ -10,6 +10,7 @@ package org.duracloud.retrieval.source;
 import org.duracloud.client.ContentStore;
 
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +21,7 @@ public class ContentStream {
 
     private InputStream stream;
     private Map<String, String> properties;
+    private List<ContentPart> parts;
 
     public ContentStream(InputStream stream,
                          Map<String, String> properties) {
@@ -27,10 +29,28 @@ public class ContentStream {
         this.properties = properties;
     }
 
+    /**
+     * Creates a ContentStream for content which is to be retrieved as a set
+     * of independent parts rather than as a single stream.
+     */
+    public ContentStream(Map<String, String> properties,
+                         List<ContentPart> parts) {
+        this.parts = parts;
+        this.properties = properties;
+    }
+
     public InputStream getStream() {
         return stream;
     }
 
+    /**
+     * @return the parts which make up the content, or null if the content
+     *         is available as a single stream
+     */
+    public List<ContentPart> getParts() {
+        return parts;
+    }
+
     public Map<String, String> getProperties() {
         return properties;
     }
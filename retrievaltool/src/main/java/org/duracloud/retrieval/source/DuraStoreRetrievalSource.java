@@ -7,6 +7,7 @@
  */
 package org.duracloud.retrieval.source;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -128,6 +129,85 @@ public class DuraStoreRetrievalSource implements RetrievalSource {
                                  content.getProperties());
     }
 
+    /**
+     * Requests only the bytes from the start byte onward
+     */
+    @Override
+    public ContentStream getSourceContent(ContentItem contentItem,
+                                          long startByte,
+                                          RetrievalListener listener) {
+        Content content = doGetContent(contentItem, startByte, listener);
+        return new ContentStream(content.getStream(),
+                                 content.getProperties());
+    }
+
+    /**
+     * Divides content which is larger than the part size into byte ranges
+     */
+    @Override
+    public ContentStream getSourceContentParts(ContentItem contentItem,
+                                               long partSize) {
+        Map<String, String> properties = getSourceProperties(contentItem);
+        long size;
+        try {
+            size = Long.parseLong(properties.get(ContentStore.CONTENT_SIZE));
+        } catch(NumberFormatException e) {
+            return null;
+        }
+        if(size <= partSize) {
+            return null;
+        }
+
+        List<ContentPart> parts = new ArrayList<>();
+        for(long start = 0; start < size; start += partSize) {
+            long end = Math.min(start + partSize, size) - 1;
+            parts.add(new ContentPart(contentItem,
+                                      start,
+                                      end,
+                                      start,
+                                      end - start + 1,
+                                      null));
+        }
+        return new ContentStream(properties, parts);
+    }
+
+    @Override
+    public InputStream getSourcePart(ContentPart part) {
+        ContentItem item = part.getContentItem();
+        try {
+            Content content;
+            if(part.isRange()) {
+                content = contentStore.getContent(item.getSpaceId(),
+                                                  item.getContentId(),
+                                                  part.getStartByte(),
+                                                  part.getEndByte());
+            } else {
+                content = contentStore.getContent(item.getSpaceId(),
+                                                  item.getContentId());
+            }
+            return content.getStream();
+        } catch (ContentStoreException e) {
+            throw new RuntimeException(
+                "Unable to get content for " + part.toString() +
+                    " due to: " + e.getMessage());
+        }
+    }
+
+    protected Content doGetContent(ContentItem contentItem,
+                                   long startByte,
+                                   RetrievalListener listener) {
+        try {
+            return contentStore.getContent(contentItem.getSpaceId(),
+                                           contentItem.getContentId(),
+                                           startByte,
+                                           null);
+        } catch (ContentStoreException e) {
+            throw new RuntimeException(
+                "Unable to get content for " + contentItem.toString() +
+                    " from byte " + startByte + " due to: " + e.getMessage());
+        }
+    }
+
     protected Content doGetContent(ContentItem contentItem, RetrievalListener listener) {
         try {
             return contentStore.getContent(contentItem.getSpaceId(),
@@ -7,9 +7,13 @@
  */
 package org.duracloud.retrieval.source;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean;
 import org.duracloud.chunk.util.ChunkUtil;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -105,6 +109,88 @@ public class DuraStoreStitchingRetrievalSource extends DuraStoreRetrievalSource
         }
     }
 
+    @Override
+    protected Content doGetContent(ContentItem item,
+                                   long startByte,
+                                   RetrievalListener listener) {
+        if (chunkUtil.isChunk(item.getContentId())) {
+            throw new DuraCloudRuntimeException(
+                "Unexpected content item: " + item +
+                ", chunks not allowed for direct access.");
+        }
+
+        if (chunkUtil.isChunkManifest(item.getContentId())) {
+            log.debug("retrieving manifest from byte {}: {}", startByte, item);
+            try {
+                return stitcher.getContentFromManifest(item.getSpaceId(),
+                                                       item.getContentId(),
+                                                       startByte,
+                                                       null);
+            } catch (InvalidManifestException e) {
+                String msg = "Unable to get content for " + item +
+                             " due to: " + e.getMessage();
+                log.error(msg);
+                throw new RuntimeException(msg);
+            }
+        } else {
+            return super.doGetContent(item, startByte, listener);
+        }
+    }
+
+    /**
+     * Chunked content is divided into its chunks, in index order, each of
+     * which is verified against the checksum recorded in the manifest.
+     */
+    @Override
+    public ContentStream getSourceContentParts(ContentItem contentItem,
+                                               long partSize) {
+        if (chunkUtil.isChunk(contentItem.getContentId())) {
+            throw new DuraCloudRuntimeException(
+                "Unexpected content item: " + contentItem +
+                ", chunks not allowed for direct access.");
+        }
+        if (!chunkUtil.isChunkManifest(contentItem.getContentId())) {
+            return super.getSourceContentParts(contentItem, partSize);
+        }
+
+        ChunksManifest manifest;
+        try {
+            manifest = stitcher.getManifest(contentItem.getSpaceId(),
+                                            contentItem.getContentId());
+        } catch (InvalidManifestException e) {
+            throw new RuntimeException(
+                "Unable to get manifest for " + contentItem.toString() +
+                " due to: " + e.getMessage());
+        }
+
+        Map<Integer, ChunksManifestBean.ManifestEntry> sortedEntries =
+            new TreeMap<>();
+        for (ChunksManifestBean.ManifestEntry entry : manifest.getEntries()) {
+            sortedEntries.put(entry.getIndex(), entry);
+        }
+        List<ContentPart> parts = new ArrayList<>();
+        long offset = 0;
+        for (ChunksManifestBean.ManifestEntry entry : sortedEntries.values()) {
+            ContentItem chunk =
+                new ContentItem(contentItem.getSpaceId(), entry.getChunkId());
+            parts.add(new ContentPart(chunk,
+                                      offset,
+                                      entry.getByteSize(),
+                                      entry.getChunkMD5()));
+            offset += entry.getByteSize();
+        }
+
+        // Properties of the manifest, overlaid with those of the source file
+        ChunksManifestBean.ManifestHeader header = manifest.getHeader();
+        Map<String, String> properties = getSourceProperties(contentItem);
+        properties.put(ContentStore.CONTENT_SIZE,
+                       String.valueOf(header.getSourceByteSize()));
+        properties.put(ContentStore.CONTENT_MIMETYPE,
+                       header.getSourceMimetype());
+        properties.put(ContentStore.CONTENT_CHECKSUM, header.getSourceMD5());
+        return new ContentStream(properties, parts);
+    }
+
     protected Content doGetContentFromManifest(ContentItem item, RetrievalListener listener) {
         try {
             return stitcher.getContentFromManifest(item.getSpaceId(),
@@ -7,8 +7,11 @@
  */
 package org.duracloud.retrieval.source;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.retrieval.mgmt.RetrievalListener;
 
@@ -62,6 +65,60 @@ public interface RetrievalSource {
      * @return
      */
     public ContentStream getSourceContent(ContentItem contentItem, RetrievalListener listener);
+
+    /**
+     * Gets the content of a file, beginning at the given byte. Used to
+     * continue a retrieval which was interrupted. The properties of the
+     * returned content describe the full file.
+     *
+     * By default the full file is requested and the bytes prior to the start
+     * byte are skipped; sources which are able to request a range of bytes
+     * should do so.
+     *
+     * @param contentItem the file to retrieve
+     * @param startByte position of the first byte to retrieve (0-based)
+     * @param listener of the specified operation
+     * @return content stream beginning at the start byte
+     */
+    default public ContentStream getSourceContent(ContentItem contentItem,
+                                                  long startByte,
+                                                  RetrievalListener listener) {
+        ContentStream content = getSourceContent(contentItem, listener);
+        try {
+            IOUtils.skipFully(content.getStream(), startByte);
+        } catch(IOException e) {
+            IOUtils.closeQuietly(content.getStream());
+            throw new RuntimeException("Unable to skip to byte " + startByte +
+                                       " of " + contentItem.toString() +
+                                       " due to: " + e.getMessage());
+        }
+        return content;
+    }
+
+    /**
+     * Describes the content as a set of parts which can be retrieved
+     * independently and in parallel, each no larger than the given part size
+     * where the source is able to choose the size of parts. No content is
+     * retrieved by this call.
+     *
+     * @param contentItem the file to retrieve
+     * @param partSize the preferred number of bytes in each part
+     * @return content stream which includes the parts and properties of the
+     *         specified file, or null if the file should be retrieved as a
+     *         single stream
+     */
+    default public ContentStream getSourceContentParts(ContentItem contentItem,
+                                                       long partSize) {
+        return null;
+    }
+
+    /**
+     * Gets the content of a single part of a file.
+     *
+     * @param part as provided by getSourceContentParts()
+     * @return stream including only the bytes of the part
+     */
+    public InputStream getSourcePart(ContentPart part);
     
     
 }
@@ -11,6 +11,7 @@ import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.common.model.Credential;
+import org.duracloud.common.web.HttpConnectionPool;
 import org.duracloud.error.ContentStoreException;
 
 /**
@@ -25,8 +26,26 @@ public class StoreClientUtil {
                                            String username,
                                            String password,
                                            String storeId) {
+        return createContentStore(host, port, context, username, password,
+                                  storeId, null);
+    }
+
+    /**
+     * Creates a ContentStore which makes its calls to DuraCloud over
+     * connections drawn from the given pool.
+     *
+     * @param connectionPool pool of HTTP connections, may be null
+     */
+    public ContentStore createContentStore(String host,
+                                           int port,
+                                           String context,
+                                           String username,
+                                           String password,
+                                           String storeId,
+                                           HttpConnectionPool connectionPool) {
         ContentStoreManager storeManager =
-            new ContentStoreManagerImpl(host, String.valueOf(port), context);
+            new ContentStoreManagerImpl(host, String.valueOf(port), context,
+                                        connectionPool);
         storeManager.login(new Credential(username, password));
 
         ContentStore contentStore;
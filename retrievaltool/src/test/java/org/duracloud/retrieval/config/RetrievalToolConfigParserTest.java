@@ -65,6 +65,7 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         argsMap.remove("-a");
         argsMap.remove("-o");
         argsMap.remove("-t");
+        argsMap.remove("-n");
         argsMap.remove("-d");
         argsMap.remove("-l");
         argsMap.remove("-w");
@@ -75,6 +76,8 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
                      retConfig.getPort());
         assertEquals(RetrievalToolConfigParser.DEFAULT_NUM_THREADS,
                      retConfig.getNumThreads());
+        assertEquals(RetrievalToolConfigParser.DEFAULT_NUM_PART_THREADS,
+                     retConfig.getNumPartThreads());
         assertEquals(false, retConfig.isAllSpaces());
         assertEquals(false, retConfig.isOverwrite());
         assertEquals(true, retConfig.isApplyTimestamps());
@@ -94,6 +97,8 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         addArgFailTest(retConfigParser, argsMap, "-r", "nonNum", failMsg);
         failMsg = "Threads arg should require a numerical value";
         addArgFailTest(retConfigParser, argsMap, "-t", "nonNum", failMsg);
+        failMsg = "Part threads arg should require a numerical value";
+        addArgFailTest(retConfigParser, argsMap, "-n", "nonNum", failMsg);
     }
 
     private HashMap<String, String> getArgsMap() {
@@ -108,6 +113,7 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         argsMap.put("-w", tempDir.getAbsolutePath());
         argsMap.put("-o", "");
         argsMap.put("-t", "5");
+        argsMap.put("-n", "6");
         argsMap.put("-d", "");
         return argsMap;
     }
@@ -133,6 +139,8 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         assertEquals(true, retConfig.isOverwrite());
         assertEquals(argsMap.get("-t"),
                      String.valueOf(retConfig.getNumThreads()));
+        assertEquals(argsMap.get("-n"),
+                     String.valueOf(retConfig.getNumPartThreads()));
     }
 
     private String[] mapToArray(HashMap<String, String> map) {
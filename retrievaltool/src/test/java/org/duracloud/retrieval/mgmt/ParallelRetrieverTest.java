@@ -0,0 +1,182 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.mgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.model.ContentItem;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.retrieval.RetrievalTestBase;
+import org.duracloud.retrieval.source.ContentPart;
+import org.duracloud.retrieval.source.ContentStream;
+import org.duracloud.retrieval.source.RetrievalSource;
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+public class ParallelRetrieverTest extends RetrievalTestBase {
+
+    private final String spaceId = "space-id";
+    private final int partSize = 1000;
+
+    @Test
+    public void testRetrieveRanges() throws Exception {
+        byte[] content = createContent(partSize * 4 + 10);
+        ContentItem item = new ContentItem(spaceId, "content-id");
+        MockPartSource source = new MockPartSource();
+        source.contents.put(item.getContentId(), content);
+
+        // Parts are listed out of order to ensure offsets are honored
+        List<ContentPart> parts = new ArrayList<>();
+        for (long start = content.length - 10; start >= 0; start -= partSize) {
+            long end = Math.min(start + partSize, content.length) - 1;
+            parts.add(new ContentPart(item, start, end, start,
+                                      end - start + 1, null));
+        }
+
+        File localFile = new File(tempDir, "ranges");
+        ParallelRetriever retriever = new ParallelRetriever(source, 3, partSize);
+        try {
+            retriever.retrieve(new ContentStream(new HashMap<>(), parts),
+                               localFile, null);
+        } finally {
+            retriever.shutdown();
+        }
+
+        assertTrue(Arrays.equals(content,
+                                 FileUtils.readFileToByteArray(localFile)));
+        assertEquals(parts.size(), source.requests.get());
+    }
+
+    @Test
+    public void testRetrieveChunks() throws Exception {
+        List<ContentPart> parts = new ArrayList<>();
+        MockPartSource source = new MockPartSource();
+        ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        byte[] all = new byte[0];
+        for (int i = 0; i < 3; i++) {
+            byte[] chunk = createContent(partSize + i);
+            ContentItem item = new ContentItem(spaceId, "chunk-" + i);
+            source.contents.put(item.getContentId(), chunk);
+            String md5 =
+                checksumUtil.generateChecksum(new ByteArrayInputStream(chunk));
+            parts.add(new ContentPart(item, all.length, chunk.length, md5));
+
+            byte[] combined = Arrays.copyOf(all, all.length + chunk.length);
+            System.arraycopy(chunk, 0, combined, all.length, chunk.length);
+            all = combined;
+        }
+
+        List<String> retrieved = new ArrayList<>();
+        RetrievalListener listener = new RetrievalListener() {
+            @Override
+            public synchronized void chunkRetrieved(String chunkId) {
+                retrieved.add(chunkId);
+            }
+        };
+
+        File localFile = new File(tempDir, "chunks");
+        ParallelRetriever retriever = new ParallelRetriever(source, 2, partSize);
+        try {
+            retriever.retrieve(new ContentStream(new HashMap<>(), parts),
+                               localFile, listener);
+        } finally {
+            retriever.shutdown();
+        }
+
+        assertTrue(Arrays.equals(all, FileUtils.readFileToByteArray(localFile)));
+        assertEquals(3, retrieved.size());
+    }
+
+    @Test
+    public void testRetrieveFailure() throws Exception {
+        byte[] chunk = createContent(partSize);
+        ContentItem item = new ContentItem(spaceId, "chunk-0");
+        MockPartSource source = new MockPartSource();
+        source.contents.put(item.getContentId(), chunk);
+
+        List<ContentPart> parts = new ArrayList<>();
+        parts.add(new ContentPart(item, 0, chunk.length, "invalid-checksum"));
+
+        File localFile = new File(tempDir, "failure");
+        ParallelRetriever retriever = new ParallelRetriever(source, 2, partSize);
+        try {
+            retriever.retrieve(new ContentStream(new HashMap<>(), parts),
+                               localFile, null);
+            fail("Exception expected with non-matching checksum");
+        } catch (IOException expected) {
+            assertFalse(expected.getMessage().isEmpty());
+        } finally {
+            retriever.shutdown();
+        }
+
+        // Each failed part is retried
+        assertTrue(source.requests.get() > 1);
+    }
+
+    private byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        return content;
+    }
+
+    private class MockPartSource implements RetrievalSource {
+        private Map<String, byte[]> contents = new HashMap<>();
+        private AtomicInteger requests = new AtomicInteger(0);
+
+        @Override
+        public ContentItem getNextContentItem() {
+            return null;
+        }
+
+        @Override
+        public Map<String, String> getSourceProperties(ContentItem item) {
+            return new HashMap<>();
+        }
+
+        @Override
+        public String getSourceChecksum(ContentItem item) {
+            return null;
+        }
+
+        @Override
+        public ContentStream getSourceContent(ContentItem item,
+                                              RetrievalListener listener) {
+            return null;
+        }
+
+        @Override
+        public InputStream getSourcePart(ContentPart part) {
+            requests.incrementAndGet();
+            byte[] content = contents.get(part.getContentItem().getContentId());
+            if (part.isRange()) {
+                int start = part.getStartByte().intValue();
+                int end = part.getEndByte().intValue();
+                return new ByteArrayInputStream(content, start,
+                                                end - start + 1);
+            }
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.mgmt;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.retrieval.RetrievalTestBase;
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class RetrievalCheckpointTest extends RetrievalTestBase {
+
+    private final String checksum = "checksum";
+
+    @Test
+    public void testLoadProgress() throws Exception {
+        File localFile = new File(tempDir, "checkpoint-test");
+        RetrievalCheckpoint checkpoint = new RetrievalCheckpoint(localFile);
+        assertFalse(checkpoint.hasProgress());
+
+        FileUtils.writeStringToFile(checkpoint.getPartFile(), "0123456789");
+        checkpoint.load(checksum);
+        checkpoint.setBytesDone(8);
+        checkpoint.partVerified(100, "part-checksum");
+        checkpoint.partVerified(200, null);
+        assertTrue(checkpoint.hasProgress());
+        assertTrue(checkpoint.hasProgressed());
+
+        // Progress is restored for the same remote content
+        checkpoint = new RetrievalCheckpoint(localFile);
+        checkpoint.load(checksum);
+        assertEquals(8, checkpoint.getBytesDone());
+        assertTrue(checkpoint.isPartVerified(100));
+        assertTrue(checkpoint.isPartVerified(200));
+        assertFalse(checkpoint.isPartVerified(0));
+        assertFalse(checkpoint.hasProgressed());
+
+        // Bytes done is limited to the size of the part file
+        checkpoint.setBytesDone(50);
+        checkpoint.save();
+        checkpoint = new RetrievalCheckpoint(localFile);
+        checkpoint.load(checksum);
+        assertEquals(10, checkpoint.getBytesDone());
+
+        // Progress is discarded when the remote content has changed
+        checkpoint = new RetrievalCheckpoint(localFile);
+        checkpoint.load("changed-checksum");
+        assertEquals(0, checkpoint.getBytesDone());
+        assertFalse(checkpoint.isPartVerified(100));
+        assertFalse(checkpoint.getPartFile().exists());
+        assertFalse(checkpoint.hasProgress());
+    }
+
+    @Test
+    public void testComplete() throws Exception {
+        File localFile = new File(tempDir, "checkpoint-complete-test");
+        RetrievalCheckpoint checkpoint = new RetrievalCheckpoint(localFile);
+        FileUtils.writeStringToFile(checkpoint.getPartFile(), "content");
+        checkpoint.load(checksum);
+        checkpoint.setBytesDone(7);
+        checkpoint.save();
+
+        checkpoint.complete(localFile);
+        assertEquals("content", FileUtils.readFileToString(localFile));
+        assertFalse(checkpoint.getPartFile().exists());
+        assertFalse(checkpoint.hasProgress());
+    }
+
+}
@@ -11,6 +11,7 @@ import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.retrieval.RetrievalTestBase;
+import org.duracloud.retrieval.source.ContentPart;
 import org.duracloud.retrieval.source.ContentStream;
 import org.duracloud.retrieval.source.RetrievalSource;
 import org.easymock.EasyMock;
@@ -92,6 +93,17 @@ public class RetrievalManagerTest extends RetrievalTestBase {
             return new ContentStream(stream, getSourceProperties(contentItem));
         }
 
+        @Override
+        public InputStream getSourcePart(ContentPart part) {
+            byte[] bytes = part.getContentItem().getContentId().getBytes();
+            if (part.isRange()) {
+                int start = part.getStartByte().intValue();
+                int end = part.getEndByte().intValue();
+                return new ByteArrayInputStream(bytes, start, end - start + 1);
+            }
+            return new ByteArrayInputStream(bytes);
+        }
+
         private InputStream getStream(String contentId) {
             return new ByteArrayInputStream(contentId.getBytes());
         }
@@ -13,6 +13,7 @@ import org.duracloud.common.model.ContentItem;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.retrieval.RetrievalTestBase;
+import org.duracloud.retrieval.source.ContentPart;
 import org.duracloud.retrieval.source.ContentStream;
 import org.duracloud.retrieval.source.RetrievalSource;
 import org.junit.Test;
@@ -21,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
@@ -29,6 +31,7 @@ import java.util.Map;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
@@ -121,6 +124,36 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
         assertNotNull(fileProps);
     }
 
+    @Test
+    public void testResumeRetrieveFile() throws Exception {
+        ResumableMockRetrievalSource source = new ResumableMockRetrievalSource();
+        RetrievalWorker worker =
+            new RetrievalWorker(new ContentItem(spaceId, contentId),
+                                source,
+                                tempDir,
+                                true,
+                                createMockOutputWriter(),
+                                true,
+                                false);
+        File localFile = worker.getLocalFile();
+        assertFalse(localFile.exists());
+
+        StatusManager status = StatusManager.getInstance();
+        status.reset();
+
+        // The first attempt fails part way through the content, the
+        // second attempt continues from where the first left off
+        Map<String, String> props = worker.retrieveFile();
+        checkFile(localFile, contentValue);
+        checkStatus(status, 1, 0, 0);
+        assertNotNull(props);
+        assertEquals(source.failAfter, source.startByte);
+
+        RetrievalCheckpoint checkpoint = new RetrievalCheckpoint(localFile);
+        assertFalse(checkpoint.getPartFile().exists());
+        assertFalse(checkpoint.hasProgress());
+    }
+
     @Test
     public void testGetLocalFile() throws Exception {
         RetrievalWorker worker = createRetrievalWorker(true);
@@ -220,6 +253,25 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
         }
     }
 
+    @Test
+    public void testChecksumMismatchRetriesLimited() throws Exception {
+        BrokenMockRetrievalSource source = new BrokenMockRetrievalSource();
+        RetrievalWorker worker =
+            new RetrievalWorker(new ContentItem(spaceId, contentId),
+                                source,
+                                tempDir,
+                                true,
+                                createMockOutputWriter(),
+                                true,
+                                false);
+
+        // Each attempt retrieves the whole file, which is discarded as it
+        // does not match, so no attempt counts as progress
+        assertNull(worker.retrieveFile());
+        assertEquals(5, source.requests);
+        assertFalse(worker.getLocalFile().exists());
+    }
+
     @Test
     public void testApplyTimestamps() throws Exception {
         String time1 = DateUtil.convertToStringLong(testTime + 100000);
@@ -343,6 +395,17 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
                 new ByteArrayInputStream(contentValue.getBytes());
             return new ContentStream(stream, getSourceProperties(contentItem));
         }
+
+        @Override
+        public InputStream getSourcePart(ContentPart part) {
+            byte[] bytes = contentValue.getBytes();
+            if (part.isRange()) {
+                int start = part.getStartByte().intValue();
+                int end = part.getEndByte().intValue();
+                return new ByteArrayInputStream(bytes, start, end - start + 1);
+            }
+            return new ByteArrayInputStream(bytes);
+        }
         
         
     }
@@ -352,8 +415,11 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
      * with checksums that do not match
      */
     private class BrokenMockRetrievalSource extends MockRetrievalSource {
+        private int requests = 0;
+
         @Override
         public ContentStream getSourceContent(ContentItem contentItem, RetrievalListener listener) {
+            requests++;
             InputStream stream =
                 new ByteArrayInputStream(contentValue.getBytes());
             Map<String,String> props = new HashMap<>();
@@ -363,6 +429,42 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
         }
     }
 
+    /*
+     * Create a retrieval source that will fail part way through the content
+     * stream on the first call to getSourceContent(), then provide the
+     * remaining content when asked to continue from a start byte.
+     */
+    private class ResumableMockRetrievalSource extends MockRetrievalSource {
+        private int failAfter = 5;
+        private long startByte = -1;
+
+        @Override
+        public ContentStream getSourceContent(ContentItem contentItem, RetrievalListener listener) {
+            InputStream partial =
+                new ByteArrayInputStream(contentValue.getBytes(), 0, failAfter);
+            InputStream broken = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("Connection reset");
+                }
+            };
+            return new ContentStream(new SequenceInputStream(partial, broken),
+                                     getSourceProperties(contentItem));
+        }
+
+        @Override
+        public ContentStream getSourceContent(ContentItem contentItem,
+                                              long startByte,
+                                              RetrievalListener listener) {
+            this.startByte = startByte;
+            byte[] bytes = contentValue.getBytes();
+            InputStream stream =
+                new ByteArrayInputStream(bytes, (int) startByte,
+                                         bytes.length - (int) startByte);
+            return new ContentStream(stream, getSourceProperties(contentItem));
+        }
+    }
+
     /*
      * Create a retrieval source that will throw an exception on the first
      * call to getSourceContent(), then succeed in subsequent attempts.
@@ -19,7 +19,10 @@ import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -36,6 +39,7 @@ import org.duracloud.common.stream.ChecksumInputStream;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.storage.domain.ContentIterator;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
@@ -59,6 +63,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.duracloud.storage.error.StorageException.NO_RETRY;
 import static org.duracloud.storage.error.StorageException.RETRY;
@@ -72,7 +79,6 @@ public class S3StorageProvider extends StorageProviderBase {
 
     private final Logger log = LoggerFactory.getLogger(S3StorageProvider.class);
 
-    protected static final int MAX_ITEM_COUNT = 1000;
     private static final StorageClass DEFAULT_STORAGE_CLASS =
         StorageClass.Standard;
 
@@ -80,10 +86,32 @@ public class S3StorageProvider extends StorageProviderBase {
     
     protected static final String HEADER_VALUE_PREFIX = UTF_8 + "''";
     protected static final String HEADER_KEY_SUFFIX = "*";
-    
+
+    // According to AWS docs, the access key (used in DuraCloud as a
+    // prefix for uniqueness) is a 20 character alphanumeric sequence.
+    private static final Pattern SPACE_BUCKET_PATTERN =
+        Pattern.compile("[\\w]{20}[.](.*)");
+
+    // Time after which the cached space to bucket mapping is reloaded, to
+    // pick up spaces created or removed through other provider instances
+    protected static final long BUCKET_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    // Time for which a space found not to exist is not looked up again, so
+    // that repeated requests for a missing space do not each reload the
+    // bucket listing
+    protected static final long BUCKET_MISS_TTL_MILLIS = 10 * 1000;
+    private static final int MAX_MISSING_SPACES = 1000;
+
     private String accessKeyId = null;
     protected AmazonS3Client s3Client = null;
 
+    // Maps each space ID to the bucket in which the space is stored
+    private volatile Map<String, Bucket> spaceBuckets =
+        new ConcurrentHashMap<>();
+    private volatile long spaceBucketsLoaded = 0;
+    // Spaces recently found not to exist, mapped to the time of the lookup
+    private final Map<String, Long> missingSpaces = new ConcurrentHashMap<>();
+
     public S3StorageProvider(String accessKey, String secretKey) {
         this(S3ProviderUtil.getAmazonS3Client(accessKey, secretKey, null),
              accessKey,
@@ -119,14 +147,8 @@ public class S3StorageProvider extends StorageProviderBase {
     public Iterator<String> getSpaces() {
         log.debug("getSpaces()");
 
-        List<String> spaces = new ArrayList<>();
-        List<Bucket> buckets = listAllBuckets();
-        for (Bucket bucket : buckets) {
-            String bucketName = bucket.getName();
-            if (isSpace(bucketName)) {
-                spaces.add(getSpaceId(bucketName));
-            }
-        }
+        List<String> spaces =
+            new ArrayList<>(loadSpaceBuckets(listAllBuckets()).keySet());
 
         // sort after the bucket prefix has been stripped off
         Collections.sort(spaces);
@@ -176,6 +198,42 @@ public class S3StorageProvider extends StorageProviderBase {
         return getCompleteBucketContents(bucketName, prefix, maxResults, marker);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        log.debug("getSpaceContentSummariesChunked(" + spaceId + ", " +
+                  prefix + ", " + maxResults + ", " + marker + ")");
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        if(maxResults <= 0) {
+            maxResults = StorageProvider.DEFAULT_MAX_RESULTS;
+        }
+
+        // The listing includes the same size, ETag and modified date which
+        // are provided as content properties
+        List<ContentSummary> summaries = new ArrayList<>();
+        List<S3ObjectSummary> objects =
+            listObjects(bucketName, prefix, maxResults, marker);
+        for (S3ObjectSummary object : objects) {
+            String modified = null;
+            if (null != object.getLastModified()) {
+                modified = formattedDate(object.getLastModified());
+            }
+            summaries.add(new ContentSummary(object.getKey(),
+                                             String.valueOf(object.getSize()),
+                                             getETagValue(object.getETag()),
+                                             modified));
+        }
+        return summaries;
+    }
+
     private List<String> getCompleteBucketContents(String bucketName,
                                                    String prefix,
                                                    long maxResults,
@@ -230,6 +288,12 @@ public class S3StorageProvider extends StorageProviderBase {
             created = new Date();
         }
 
+        // Make the new space known without waiting for a bucket listing
+        Bucket spaceBucket = new Bucket(getNewBucketName(spaceId));
+        spaceBucket.setCreationDate(created);
+        spaceBuckets.put(spaceId, spaceBucket);
+        missingSpaces.remove(spaceId);
+
         // Empty ACL set for new space (no permissions set)
         Map<String, AclType> spaceACLs = new HashMap<>();
 
@@ -320,6 +384,7 @@ public class S3StorageProvider extends StorageProviderBase {
 
         try {
             s3Client.deleteBucket(bucketName);
+            spaceBuckets.remove(spaceId);
         } catch (AmazonClientException e) {
             String err = "Could not delete S3 bucket with name " + bucketName
                     + " due to error: " + e.getMessage();
@@ -349,59 +414,13 @@ public class S3StorageProvider extends StorageProviderBase {
         // Handle @ symbol (change from +), to allow for email usernames in ACLs
         spaceProperties = replaceInMapValues(spaceProperties, "+", "@");
 
-        // Add space count
-        spaceProperties.put(PROPERTIES_SPACE_COUNT,
-                            getSpaceCount(spaceId, MAX_ITEM_COUNT));
-
+        // The space count is not included, counting the items in a bucket
+        // requires listing it. See SpaceStatsStorageProvider.
         return spaceProperties;
     }
 
-    /*
-     * Counts the number of items in a space up to the maxCount. If maxCount
-     * is reached or exceeded, the returned string will indicate this with a
-     * trailing '+' character (e.g. 1000+).
-     *
-     * Note that anecdotal evidence shows that this method of counting
-     * (using size of chunked calls) is faster in most cases than enumerating
-     * the Iteration: StorageProviderUtil.count(getSpaceContents(spaceId, null))
-     */
-    protected String getSpaceCount(String spaceId, int maxCount) {
-        List<String> spaceContentChunk = null;
-        long count = 0;
-
-        do {
-            String marker = null;
-            if (spaceContentChunk != null && spaceContentChunk.size() > 0) {
-                marker = spaceContentChunk.get(spaceContentChunk.size() - 1);
-            }
-            spaceContentChunk = getSpaceContentsChunked(spaceId,
-                                                        null,
-                                                        MAX_ITEM_COUNT,
-                                                        marker);
-            count += spaceContentChunk.size();
-        } while (spaceContentChunk.size() > 0 && count < maxCount);
-
-        String suffix = "";
-        if(count >= maxCount) {
-            suffix = "+";
-        }
-        return String.valueOf(count) + suffix;
-    }    
-
-    private String getBucketCreationDate(String bucketName) {
-        Date created = null;
-        try {
-            List<Bucket> buckets = s3Client.listBuckets();
-            for(Bucket bucket : buckets) {
-                if(bucket.getName().equals(bucketName)) {
-                    created = bucket.getCreationDate();
-                }
-            }
-        } catch (AmazonClientException e) {
-            String err = "Could not retrieve S3 bucket listing due to error: " +
-                         e.getMessage();
-            throw new StorageException(err, e, RETRY);
-        }
+    private String getBucketCreationDate(String spaceId) {
+        Date created = getSpaceBucket(spaceId).getCreationDate();
 
         String formattedDate = null;
         if(created != null) {
@@ -435,7 +454,7 @@ public class S3StorageProvider extends StorageProviderBase {
         if(creationDate == null) {
             creationDate = spaceProperties.get(PROPERTIES_SPACE_CREATED);
             if(creationDate == null) {
-                creationDate = getBucketCreationDate(bucketName);
+                creationDate = getBucketCreationDate(spaceId);
             }
         }
         spaceProperties.put(PROPERTIES_SPACE_CREATED, creationDate);
@@ -747,6 +766,39 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        log.debug("getContent(" + spaceId + ", " + contentId + ", " +
+                  startByte + ", " + endByte + ")");
+        StorageProviderUtil.validateRange(startByte, endByte);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        try {
+            GetObjectRequest request =
+                new GetObjectRequest(bucketName, contentId);
+            // An end beyond the last byte indicates the end of the content
+            request.setRange(startByte,
+                             null == endByte ? Long.MAX_VALUE - 1 : endByte);
+            S3Object contentItem = s3Client.getObject(request);
+            return contentItem.getObjectContent();
+        } catch (AmazonClientException e) {
+            throwIfContentNotExist(bucketName, contentId);
+            String err = "Could not retrieve range " + startByte + "-" +
+                         endByte + " of content " + contentId +
+                         " in S3 bucket " + bucketName + " due to error: " +
+                         e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -770,6 +822,56 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Content is removed using S3 multi-object delete requests, each of which
+     * removes up to 1000 objects.
+     */
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        log.debug("deleteContents(" + spaceId + ", " + contents.size() +
+                  " items)");
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        Map<String, String> failures = new HashMap<>();
+        for (int i = 0; i < contents.size(); i += DELETE_BATCH_SIZE) {
+            List<ContentSummary> batch =
+                contents.subList(i, Math.min(contents.size(),
+                                             i + DELETE_BATCH_SIZE));
+            List<DeleteObjectsRequest.KeyVersion> keys =
+                new ArrayList<>(batch.size());
+            for (ContentSummary content : batch) {
+                keys.add(new DeleteObjectsRequest.KeyVersion(
+                    content.getContentId()));
+            }
+
+            // In quiet mode only the objects which fail are reported
+            DeleteObjectsRequest request =
+                new DeleteObjectsRequest(bucketName).withKeys(keys)
+                                                    .withQuiet(true);
+            try {
+                s3Client.deleteObjects(request);
+            } catch (MultiObjectDeleteException e) {
+                for (MultiObjectDeleteException.DeleteError error :
+                    e.getErrors()) {
+                    failures.put(error.getKey(),
+                                 error.getCode() + ": " + error.getMessage());
+                }
+            } catch (AmazonClientException e) {
+                String err = "Could not delete content from S3 bucket " +
+                             bucketName + " due to error: " + e.getMessage();
+                for (ContentSummary content : batch) {
+                    failures.put(content.getContentId(), err);
+                }
+            }
+        }
+        return failures;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -963,19 +1065,64 @@ public class S3StorageProvider extends StorageProviderBase {
      * @throws NotFoundException if no bucket matches this spaceID
      */
     public String getBucketName(String spaceId) {
-        // Determine if there is an existing bucket that matches this space ID.
-        // The bucket name may use any access key ID as the prefix, so there is
-        // no way to know the exact bucket name up front.
-        List<Bucket> buckets = listAllBuckets();
-        for(Bucket bucket : buckets){
-            String bucketName = bucket.getName();
-            spaceId = spaceId.replace(".",  "[.]");
-            if(bucketName.matches("[\\w]{20}[.]"+spaceId)) {
-                return bucketName;
+        return getSpaceBucket(spaceId).getName();
+    }
+
+    /*
+     * Finds the bucket in which a space is stored. The bucket name may use
+     * any access key ID as the prefix, so there is no way to know the exact
+     * bucket name up front. Buckets are looked up in a cache which is
+     * reloaded from the S3 bucket listing when it expires, or when it does
+     * not include the space (which may have been created elsewhere), unless
+     * the space was found not to exist within the last few seconds.
+     */
+    private Bucket getSpaceBucket(String spaceId) {
+        long now = System.currentTimeMillis();
+        boolean reloaded = false;
+        if (now - spaceBucketsLoaded > BUCKET_CACHE_TTL_MILLIS) {
+            loadSpaceBuckets(listAllBuckets());
+            reloaded = true;
+        }
+
+        Bucket bucket = spaceBuckets.get(spaceId);
+        if (null == bucket && !reloaded) {
+            Long missing = missingSpaces.get(spaceId);
+            if (null == missing || now - missing > BUCKET_MISS_TTL_MILLIS) {
+                bucket = loadSpaceBuckets(listAllBuckets()).get(spaceId);
+            }
+        }
+
+        if (null == bucket) {
+            if (missingSpaces.size() >= MAX_MISSING_SPACES) {
+                missingSpaces.clear();
+            }
+            missingSpaces.put(spaceId, System.currentTimeMillis());
+            throw new NotFoundException("No S3 bucket found matching " +
+                                        "spaceID: " + spaceId);
+        }
+        return bucket;
+    }
+
+    /*
+     * Replaces the cached space to bucket mapping with the spaces found in
+     * the given bucket listing.
+     *
+     * @return the new mapping
+     */
+    private Map<String, Bucket> loadSpaceBuckets(List<Bucket> buckets) {
+        Map<String, Bucket> loaded = new ConcurrentHashMap<>();
+        for (Bucket bucket : buckets) {
+            Matcher matcher = SPACE_BUCKET_PATTERN.matcher(bucket.getName());
+            if (matcher.matches()) {
+                // Where more than one bucket matches, the first listed wins
+                if (!loaded.containsKey(matcher.group(1))) {
+                    loaded.put(matcher.group(1), bucket);
+                }
             }
         }
-        throw new  NotFoundException("No S3 bucket found matching spaceID: " +
-                                     spaceId);
+        spaceBuckets = loaded;
+        spaceBucketsLoaded = System.currentTimeMillis();
+        return loaded;
     }
 
     /**
@@ -1001,9 +1148,7 @@ public class S3StorageProvider extends StorageProviderBase {
      */
     protected boolean isSpace(String bucketName) {
         boolean isSpace = false;
-        // According to AWS docs, the access key (used in DuraCloud as a
-        // prefix for uniqueness) is a 20 character alphanumeric sequence.
-        if (bucketName.matches("[\\w]{20}[.].*")) {
+        if (SPACE_BUCKET_PATTERN.matcher(bucketName).matches()) {
             isSpace = true;
         }
         return isSpace;
@@ -21,6 +21,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
@@ -42,11 +43,16 @@ import com.amazonaws.services.s3.model.BucketLifecycleConfiguration;
 import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.TagSet;
@@ -399,39 +405,6 @@ public class S3StorageProviderTest {
         return capturedRequest;
     }
 
-    @Test
-    public void testGetSpaceCount1000() {
-        MockS3StorageProvider provider = new MockS3StorageProvider();
-        String count = provider.getSpaceCount(spaceId, 1000);
-        assertEquals("1000+", count);
-
-        count = provider.getSpaceCount(spaceId, 1500);
-        assertEquals("2000+", count);
-
-        count = provider.getSpaceCount(spaceId, 10000);
-        assertEquals("10000+", count);
-    }
-
-    private class MockS3StorageProvider extends S3StorageProvider {
-
-        public MockS3StorageProvider() {
-            super(accessKey, "secretKey");
-        }
-
-        @Override
-        public List<String> getSpaceContentsChunked(String spaceId,
-                                                    String prefix,
-                                                    long maxResults,
-                                                    String marker) {
-            List<String> contents = new ArrayList<String>();
-            for (int i = 0; i < maxResults; i++) {
-                contents.add("contentID" + i);
-            }
-            return contents;
-        }
-
-    }
-
     @Test
     public void testDoesContentExist() {
         s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
@@ -461,6 +434,33 @@ public class S3StorageProviderTest {
         assertEquals(etag, resultEtag);
     }
 
+    @Test
+    public void testGetContentRange() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        Capture<GetObjectRequest> capturedRequest = new Capture<>();
+        S3Object s3Object = new S3Object();
+        EasyMock.expect(s3Client.getObject(EasyMock.capture(capturedRequest)))
+                .andReturn(s3Object)
+                .times(2);
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider =
+            new S3StorageProvider(s3Client, accessKey,
+                                  new HashMap<String, String>());
+
+        provider.getContent(spaceId, "content-id", 10, 20L);
+        GetObjectRequest request = capturedRequest.getValue();
+        assertEquals("content-id", request.getKey());
+        assertArrayEquals(new long[]{10, 20}, request.getRange());
+
+        provider.getContent(spaceId, "content-id", 10, null);
+        request = capturedRequest.getValue();
+        assertEquals(10, request.getRange()[0]);
+        assertEquals(Long.MAX_VALUE - 1, request.getRange()[1]);
+    }
+
     @Test
     public void testGetSpaceContentsChunked() throws Exception {
         s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
@@ -486,11 +486,84 @@ public class S3StorageProviderTest {
         EasyMock.verify(s3Client, objectListing);
     }
 
+    @Test
+    public void testGetSpaceContentSummariesChunked() throws Exception {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        ObjectListing objectListing =
+            EasyMock.createMock("ObjectListing", ObjectListing.class);
+        setUpListObjects(objectListing, 2);
+        EasyMock.replay(s3Client, objectListing);
+
+        S3StorageProvider provider = getProvider();
+        List<ContentSummary> summaries =
+            provider.getSpaceContentSummariesChunked(spaceId, null, 2, null);
+        Assert.assertEquals(2, summaries.size());
+        for(int i=0; i<summaries.size(); i++) {
+            ContentSummary summary = summaries.get(i);
+            Assert.assertEquals("item" + i, summary.getContentId());
+            Assert.assertEquals(String.valueOf(i * 10), summary.getSize());
+            Assert.assertEquals("checksum" + i, summary.getChecksum());
+            Assert.assertNotNull(summary.getModified());
+        }
+
+        EasyMock.verify(s3Client, objectListing);
+    }
+
+    @Test
+    public void testDeleteContents() throws Exception {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        int numItems = S3StorageProvider.DELETE_BATCH_SIZE + 1;
+        List<ContentSummary> contents = new ArrayList<>();
+        for (int i = 0; i < numItems; i++) {
+            contents.add(
+                new ContentSummary("item" + i, "1", "checksum", null));
+        }
+
+        Capture<DeleteObjectsRequest> firstRequest = new Capture<>();
+        EasyMock.expect(s3Client.deleteObjects(EasyMock.capture(firstRequest)))
+                .andReturn(new DeleteObjectsResult(new ArrayList<>()));
+
+        MultiObjectDeleteException.DeleteError error =
+            new MultiObjectDeleteException.DeleteError();
+        error.setKey("item" + (numItems - 1));
+        error.setCode("AccessDenied");
+        error.setMessage("Access Denied");
+        Capture<DeleteObjectsRequest> secondRequest = new Capture<>();
+        EasyMock.expect(s3Client.deleteObjects(EasyMock.capture(secondRequest)))
+                .andThrow(new MultiObjectDeleteException(
+                    Arrays.asList(error), new ArrayList<>()));
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        Map<String, String> failures =
+            provider.deleteContents(spaceId, contents);
+
+        String bucketName = accessKey + "." + spaceId;
+        assertEquals(bucketName, firstRequest.getValue().getBucketName());
+        assertTrue(firstRequest.getValue().getQuiet());
+        assertEquals(S3StorageProvider.DELETE_BATCH_SIZE,
+                     firstRequest.getValue().getKeys().size());
+        assertEquals(1, secondRequest.getValue().getKeys().size());
+
+        assertEquals(1, failures.size());
+        assertEquals("AccessDenied: Access Denied",
+                     failures.get("item" + (numItems - 1)));
+
+        EasyMock.verify(s3Client);
+    }
+
     private void setUpListObjects(ObjectListing objectListing, int numItems) {
         List<S3ObjectSummary> objectSummaries = new ArrayList<>();
         for(int i=0; i<numItems; i++) {
             S3ObjectSummary summary = new S3ObjectSummary();
             summary.setKey("item" + i);
+            summary.setSize(i * 10);
+            summary.setETag("\"checksum" + i + "\"");
+            summary.setLastModified(new Date());
             objectSummaries.add(summary);
         }
 
@@ -521,23 +594,17 @@ public class S3StorageProviderTest {
             s3Client.getBucketTaggingConfiguration(EasyMock.isA(String.class)))
                 .andReturn(tagConfig);
 
-        ObjectListing objectListing =
-            EasyMock.createMock("ObjectListing", ObjectListing.class);
-        setUpListObjects(objectListing, 1);
-        setUpListObjects(objectListing, 0);
-
-        EasyMock.replay(s3Client, objectListing);
+        EasyMock.replay(s3Client);
 
         S3StorageProvider provider = getProvider();
         Map<String, String> spaceProps = provider.getAllSpaceProperties(spaceId);
         Assert.assertNotNull(spaceProps);
         Assert.assertEquals("tag-one-value", spaceProps.get("tag-one"));
         Assert.assertEquals("tagtwo@test.com", spaceProps.get("tag-two"));
-        Assert.assertEquals(String.valueOf(1),
-                            spaceProps.get(
-                                StorageProvider.PROPERTIES_SPACE_COUNT));
+        Assert.assertFalse(
+            spaceProps.containsKey(StorageProvider.PROPERTIES_SPACE_COUNT));
 
-        EasyMock.verify(s3Client, objectListing);
+        EasyMock.verify(s3Client);
     }
 
     @Test
@@ -608,7 +675,6 @@ public class S3StorageProviderTest {
         
         S3StorageProvider provider = getProvider();
         Bucket bucket = EasyMock.createMock(Bucket.class);
-        EasyMock.expect(bucket.getName()).andReturn(bucketName);
         EasyMock.expect(bucket.getCreationDate()).andReturn(new Date());
         EasyMock.expect(this.s3Client.createBucket(bucketName)).andReturn(bucket);
 
@@ -619,11 +685,6 @@ public class S3StorageProviderTest {
                                                  EasyMock.capture(lifecycleConfigCapture));
         EasyMock.expectLastCall().once();
 
-        EasyMock.expect(this.s3Client.listBuckets()).andReturn(Arrays.asList(bucket));
-        
-        List<String> spaceIds2 = new LinkedList<>(spaceIds);
-        spaceIds2.add(spaceId);
-        addListBucketsMock(2, spaceIds2);
         EasyMock.expect(s3Client.getBucketTaggingConfiguration(bucketName))
                 .andReturn(new BucketTaggingConfiguration());
         s3Client.setBucketTaggingConfiguration(EasyMock.eq(bucketName),
@@ -647,6 +708,63 @@ public class S3StorageProviderTest {
     }
 
 
+    @Test
+    public void testBucketNameCache() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock(1, Arrays.asList(spaceId));
+        addListBucketsMock(1, Arrays.asList(spaceId, "new-space-id"));
+        addListBucketsMock(1, Arrays.asList(spaceId));
+
+        s3Client.deleteBucket(accessKey + ".new-space-id");
+        EasyMock.expectLastCall().once();
+
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+
+        // Listing is only retrieved once for known spaces
+        assertEquals(accessKey + "." + spaceId, provider.getBucketName(spaceId));
+        assertEquals(accessKey + "." + spaceId, provider.getBucketName(spaceId));
+
+        // Unknown space causes the listing to be reloaded
+        assertEquals(accessKey + ".new-space-id",
+                     provider.getBucketName("new-space-id"));
+
+        // Removed space is no longer known, and is not found after reload
+        provider.removeSpace("new-space-id");
+        try {
+            provider.getBucketName("new-space-id");
+            fail("Exception expected");
+        } catch (NotFoundException expected) {
+            assertNotNull(expected);
+        }
+
+        EasyMock.verify(s3Client);
+    }
+
+    @Test
+    public void testBucketNameMissCache() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock(2, Arrays.asList(spaceId));
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        assertEquals(accessKey + "." + spaceId, provider.getBucketName(spaceId));
+
+        // The listing is reloaded for the first lookup of a missing space
+        // only, later lookups fail straight away
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.getBucketName("missing-space-id");
+                fail("Exception expected");
+            } catch (NotFoundException expected) {
+                assertNotNull(expected);
+            }
+        }
+
+        EasyMock.verify(s3Client);
+    }
+
     @Test
     public void testEncodeDecodeHeaderKey() throws Exception {
         String key = "key";
@@ -105,8 +105,10 @@ public class SpaceWriteAccessVoter extends SpaceAccessVoter {
             return ACCESS_GRANTED;
         }
 
-        // Do not allow deletions from or of the snapshot metadata space
-        if (isSnapshotMetadataSpace(httpRequest) && isDeleteAction(httpRequest)) {
+        // Do not allow deletions from or of the snapshot metadata space, or
+        // content batches, which may include deletions
+        if (isSnapshotMetadataSpace(httpRequest) &&
+            (isDeleteAction(httpRequest) || isContentBatch(httpRequest))) {
             log.debug(debugText(label, auth, config, resource, ACCESS_DENIED));
             return ACCESS_DENIED;
         }
@@ -224,6 +226,13 @@ public class SpaceWriteAccessVoter extends SpaceAccessVoter {
         return false;
     }
 
+    private boolean isContentBatch(HttpServletRequest httpRequest) {
+        if (HttpVerb.POST.equals(getHttpVerb(httpRequest))) {
+            return !hasContentId(httpRequest) && !isSpaceAclUpdate(httpRequest);
+        }
+        return false;
+    }
+
     private boolean isDeleteAction(HttpServletRequest httpRequest) {
         if (HttpVerb.DELETE.equals(getHttpVerb(httpRequest))) {
             return true;
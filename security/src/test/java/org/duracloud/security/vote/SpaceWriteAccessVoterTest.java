@@ -311,6 +311,23 @@ public class SpaceWriteAccessVoterTest {
         Assert.assertEquals(expectedDecision, decision);
     }
 
+    @Test
+    public void testSnapshotMetdataSpaceAdminNoContentBatch() {
+        LOGIN login = LOGIN.ADMIN;
+        int expectedDecision = ACCESS_DENIED;
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(login, "none");
+        EasyMock.expect(request.getPathInfo()).andReturn(Constants.SNAPSHOT_METADATA_SPACE).atLeastOnce();
+        EasyMock.expect(request.getMethod()).andReturn(HttpVerb.POST.name()).atLeastOnce();
+
+        EasyMock.expect(resource.getHttpRequest()).andReturn(request);
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(expectedDecision, decision);
+    }
+
     private void doTestAclPUT(LOGIN login, int expectedDecision) {
         boolean securedSpace = true;
         Authentication caller = registeredUser(login, "none");
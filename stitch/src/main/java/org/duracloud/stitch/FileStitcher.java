@@ -37,6 +37,29 @@ public interface FileStitcher {
 
     public Content getContentFromManifest(String spaceId, String contentId, FileStitcherListener listener)
         throws InvalidManifestException;
+
+    /**
+     * This method retrieves a range of bytes of the original content item as
+     * defined by the chunks manifest object found in the arg space-id and
+     * content-id. Only the chunks which hold bytes in the range are retrieved.
+     * The properties of the returned content describe the full content item.
+     *
+     * @param spaceId   of chunks manifest
+     * @param contentId of chunks manifest
+     * @param startByte first byte of the range (0-based)
+     * @param endByte   last byte of the range (inclusive), null indicates the
+     *                  end of the content item
+     * @return requested range of the content item defined in manifest
+     * @throws InvalidManifestException if manifest file is named with improper
+     *                                  naming convention, or there is an error
+     *                                  retrieving the manifest.
+     */
+    public Content getContentFromManifest(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          Long endByte)
+        throws InvalidManifestException;
+
     /**
      * This method returns the deserialized ChunksManifest object found in the
      * arg spaceId with the arg manifestId.
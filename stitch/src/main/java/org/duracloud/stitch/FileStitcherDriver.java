@@ -22,6 +22,7 @@ import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.model.Credential;
+import org.duracloud.common.web.HttpConnectionPool;
 import org.duracloud.domain.Content;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.stitch.datasource.DataSource;
@@ -245,7 +246,9 @@ public class FileStitcherDriver {
         String username = cmd.getOptionValue("username");
         String password = cmd.getOptionValue("password");
 
-        ContentStoreManager mgr = new ContentStoreManagerImpl(host, port);
+        ContentStoreManager mgr =
+            new ContentStoreManagerImpl(host, port, null,
+                                        new HttpConnectionPool());
         mgr.login(getCredentials(username, password));
 
         ContentStore contentStore;
@@ -26,4 +26,20 @@ public interface DataSource {
      * @return content
      */
     public Content getContent(String spaceId, String contentId);
+
+    /**
+     * This method returns a range of bytes of the content item specified by
+     * the arg space-id and content-id.
+     *
+     * @param spaceId   of content item
+     * @param contentId of content item
+     * @param startByte first byte of the range (0-based)
+     * @param endByte   last byte of the range (inclusive), null indicates the
+     *                  end of the content item
+     * @return content, including only the requested range of bytes
+     */
+    public Content getContent(String spaceId,
+                              String contentId,
+                              Long startByte,
+                              Long endByte);
 }
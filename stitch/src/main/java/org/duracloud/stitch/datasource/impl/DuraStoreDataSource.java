@@ -40,13 +40,33 @@ public class DuraStoreDataSource implements DataSource {
             return store.getContent(spaceId, contentId);
 
         } catch (ContentStoreException e) {
-            String msg = "Error getting content: " + e.getMessage();
-            if(!(e instanceof NotFoundException)){
-                log.error(msg);
-            }else{
-                log.debug(msg);
-            }
-            throw new DataSourceException(msg, e);
+            throw toDataSourceException(e);
         }
     }
+
+    @Override
+    public Content getContent(String spaceId,
+                              String contentId,
+                              Long startByte,
+                              Long endByte) {
+        log.debug("getContent({}, {}, {}, {})",
+                  spaceId, contentId, startByte, endByte);
+
+        try {
+            return store.getContent(spaceId, contentId, startByte, endByte);
+
+        } catch (ContentStoreException e) {
+            throw toDataSourceException(e);
+        }
+    }
+
+    private DataSourceException toDataSourceException(ContentStoreException e) {
+        String msg = "Error getting content: " + e.getMessage();
+        if(!(e instanceof NotFoundException)){
+            log.error(msg);
+        }else{
+            log.debug(msg);
+        }
+        return new DataSourceException(msg, e);
+    }
 }
@@ -40,6 +40,12 @@ public class FileStitcherImpl implements FileStitcher {
 
     private Logger log = LoggerFactory.getLogger(FileStitcherImpl.class);
 
+    // The next chunk is requested once this many bytes of the chunk being
+    // read remain, buffering up to this many bytes of it, so reading does
+    // not pause between chunks
+    private static final int PREFETCH_CHUNKS = 1;
+    private static final int PREFETCH_BYTES = 8 * 1024 * 1024;
+
     private DataSource dataSource;
 
     public FileStitcherImpl(DataSource dataSource) {
@@ -64,7 +70,43 @@ public class FileStitcherImpl implements FileStitcher {
         // collect ordered sequence of chunk streams.
         InputStream multiStream = getChunkSequenceStream(spaceId, manifest, listener);
 
-        // package the chunks as the reconstituted content item.
+        return createContent(manifest, manifestContent, multiStream);
+    }
+
+    @Override
+    public Content getContentFromManifest(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          Long endByte)
+        throws InvalidManifestException {
+        log.debug("getContentFromManifest({}, {}, {}, {})",
+                  spaceId, contentId, startByte, endByte);
+
+        if (startByte < 0 || (null != endByte && endByte < startByte)) {
+            throw new IllegalArgumentException(
+                "Invalid range: " + startByte + "-" + endByte);
+        }
+
+        // verify contentId corresponds to the manifest naming convention.
+        if (!isManifest(contentId)) {
+            log.error("Invalid manifest name: {}", contentId);
+            throw new InvalidManifestException(spaceId, contentId);
+        }
+
+        Content manifestContent = this.dataSource.getContent(spaceId, contentId);
+        ChunksManifest manifest = getManifest(manifestContent, spaceId, contentId);
+
+        InputStream rangeStream =
+            getChunkRangeStream(spaceId, manifest, startByte, endByte);
+        return createContent(manifest, manifestContent, rangeStream);
+    }
+
+    /*
+     * Packages the chunks as the reconstituted content item.
+     */
+    private Content createContent(ChunksManifest manifest,
+                                  Content manifestContent,
+                                  InputStream multiStream) {
         Content content = new Content();
         content.setStream(multiStream);
         content.setId(manifest.getHeader().getSourceContentId());
@@ -116,8 +158,12 @@ public class FileStitcherImpl implements FileStitcher {
         throws InvalidManifestException {
         // sort chunks by their index.
         Map<Integer, String> sortedChunkIds = new TreeMap<Integer, String>();
+        Map<String, String> checksums = new HashMap<>();
+        Map<String, Long> sizes = new HashMap<>();
         for (ChunksManifestBean.ManifestEntry entry : manifest.getEntries()) {
             sortedChunkIds.put(entry.getIndex(), entry.getChunkId());
+            checksums.put(entry.getChunkId(), entry.getChunkMD5());
+            sizes.put(entry.getChunkId(), entry.getByteSize());
         }
 
         // collect ordered sequence of chunk streams.
@@ -133,16 +179,82 @@ public class FileStitcherImpl implements FileStitcher {
             throw new InvalidManifestException(spaceId, contentId, msg);
         }
         
-        return new MultiContentInputStream(dataSource,
-                                           chunks,
-                                           new MultiContentInputStreamListener() {
-                                               public void
-                                                      contentIdRead(String contentId) {
-                                                   if (listener != null) {
-                                                       listener.chunkStitched(contentId);
-                                                   }
-                                               }
-                                           });
+        MultiContentInputStream stream =
+            new MultiContentInputStream(dataSource,
+                                        chunks,
+                                        new MultiContentInputStreamListener() {
+                                            public void
+                                                   contentIdRead(String contentId) {
+                                                if (listener != null) {
+                                                    listener.chunkStitched(contentId);
+                                                }
+                                            }
+                                        });
+        stream.setChecksums(checksums);
+        stream.setSizes(sizes);
+        stream.setPrefetch(PREFETCH_CHUNKS, PREFETCH_BYTES);
+        return stream;
+    }
+
+    /*
+     * Maps the arg range of the source content onto the chunks which hold
+     * the bytes of that range, using the size of each chunk in index order.
+     */
+    private InputStream getChunkRangeStream(String spaceId,
+                                            ChunksManifest manifest,
+                                            long startByte,
+                                            Long endByte)
+        throws InvalidManifestException {
+        // sort chunks by their index.
+        Map<Integer, ChunksManifestBean.ManifestEntry> sortedEntries =
+            new TreeMap<Integer, ChunksManifestBean.ManifestEntry>();
+        for (ChunksManifestBean.ManifestEntry entry : manifest.getEntries()) {
+            sortedEntries.put(entry.getIndex(), entry);
+        }
+
+        List<ContentItem> chunks = new ArrayList<ContentItem>();
+        Map<String, String> checksums = new HashMap<>();
+        Map<String, Long> sizes = new HashMap<>();
+        long firstStartByte = 0;
+        Long lastEndByte = null;
+        long chunkStart = 0;
+        for (ChunksManifestBean.ManifestEntry entry : sortedEntries.values()) {
+            long chunkEnd = chunkStart + entry.getByteSize() - 1;
+            if (null != endByte && chunkStart > endByte) {
+                break;
+            }
+            if (chunkEnd >= startByte) {
+                if (chunks.isEmpty()) {
+                    firstStartByte = startByte - chunkStart;
+                }
+                chunks.add(new ContentItem(spaceId, entry.getChunkId()));
+                checksums.put(entry.getChunkId(), entry.getChunkMD5());
+                sizes.put(entry.getChunkId(), entry.getByteSize());
+                if (null != endByte && endByte < chunkEnd) {
+                    lastEndByte = endByte - chunkStart;
+                }
+            }
+            chunkStart = chunkEnd + 1;
+        }
+
+        if (chunks.size() == 0) {
+            String contentId = manifest.getHeader().getSourceContentId();
+            String msg = "No chunks found including byte " + startByte +
+                         " of content with size " + chunkStart;
+            log.error(msg);
+            throw new InvalidManifestException(spaceId, contentId, msg);
+        }
+
+        MultiContentInputStream stream =
+            new MultiContentInputStream(dataSource,
+                                        chunks,
+                                        firstStartByte,
+                                        lastEndByte,
+                                        null);
+        stream.setChecksums(checksums);
+        stream.setSizes(sizes);
+        stream.setPrefetch(PREFETCH_CHUNKS, PREFETCH_BYTES);
+        return stream;
     }
 
     private Map<String, String> getContentProperties(ChunksManifest manifest) {
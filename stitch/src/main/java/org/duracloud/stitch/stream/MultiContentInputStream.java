@@ -9,36 +9,117 @@ package org.duracloud.stitch.stream;
 
 import org.apache.commons.io.IOUtils;
 import org.duracloud.common.model.ContentItem;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.domain.Content;
 import org.duracloud.stitch.datasource.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Iterator;
+import java.io.SequenceInputStream;
+import java.security.DigestInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class exposes a single InputStream composed of the sequence of content
  * streams read on-demand from the provided list of ContentItems.
  *
+ * Optionally, only a range of the first and last content items is read, so
+ * that a range of the combined stream can be read without retrieving the
+ * bytes which fall outside of the range.
+ *
+ * Optionally, the content items following the one currently being read can
+ * be requested ahead of time (see setPrefetch()), with the first bytes of
+ * each buffered in memory, so that reading does not stall at each item
+ * boundary while the next request is made. Where the sizes of the items are
+ * known (see setSizes()), the requests are made only once the current item
+ * is nearly read, and no more of an item is buffered than it holds. An item
+ * whose request ahead of time failed is requested again when it is reached.
+ * Content items which are read in full can also be verified against known
+ * checksums (see setChecksums()).
+ *
  * @author Andrew Woods
  *         Date: 9/8/11
  */
 public class MultiContentInputStream extends InputStream {
-    
+
+    private final Logger log =
+        LoggerFactory.getLogger(MultiContentInputStream.class);
+
+    private static final ExecutorService prefetchExecutor =
+        Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "content-prefetch-" +
+                                                     count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
     private DataSource dataSource;
-    private Iterator<ContentItem> contents;
+    private List<ContentItem> contentItems;
     private InputStream currentStream;
+    private DigestInputStream currentDigest;
     private MultiContentInputStreamListener listener;
     private ContentItem currentItem;
 
+    private int itemCount;
+    private int itemIndex;
+    private long firstStartByte;
+    private Long lastEndByte;
+
+    private Map<String, String> checksums;
+    private Map<String, Long> sizes;
+    private long currentRead;
+    private Long currentLength;
+    private int prefetchCount;
+    private int prefetchBytes;
+    private int prefetchIndex;
+    private Deque<Prefetch> prefetched;
+
     public MultiContentInputStream(DataSource dataSource,
                                    List<ContentItem> contentItems,
                                    MultiContentInputStreamListener listener) {
+        this(dataSource, contentItems, 0, null, listener);
+    }
+
+    /**
+     * @param dataSource     from which content is retrieved
+     * @param contentItems   the sequence of content items to be read
+     * @param firstStartByte first byte to be read from the first content item
+     * @param lastEndByte    last byte to be read from the last content item
+     *                       (inclusive), null to read the last item to its end
+     * @param listener       notified as each content item is read, may be null
+     */
+    public MultiContentInputStream(DataSource dataSource,
+                                   List<ContentItem> contentItems,
+                                   long firstStartByte,
+                                   Long lastEndByte,
+                                   MultiContentInputStreamListener listener) {
         this.dataSource = dataSource;
-        this.contents = contentItems.iterator();
+        this.contentItems = contentItems;
         this.currentStream = null;
         this.listener = listener;
+        this.itemCount = contentItems.size();
+        this.itemIndex = -1;
+        this.firstStartByte = firstStartByte;
+        this.lastEndByte = lastEndByte;
+        this.prefetched = new ArrayDeque<>();
     }
 
     public MultiContentInputStream(DataSource dataSource,
@@ -46,38 +127,175 @@ public class MultiContentInputStream extends InputStream {
         this(dataSource, contentItems, null);
     }
 
+    /**
+     * Sets the checksums against which content items are verified as they
+     * are read. Items which are only partially read (due to a range) are not
+     * verified. Must be called prior to reading.
+     *
+     * @param checksums MD5 checksums, keyed by content ID
+     */
+    public void setChecksums(Map<String, String> checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * Sets the sizes of the content items, which allows items to be
+     * requested ahead only when needed (see setPrefetch()). Must be called
+     * prior to reading.
+     *
+     * @param sizes sizes in bytes of the full content items, keyed by
+     *              content ID
+     */
+    public void setSizes(Map<String, Long> sizes) {
+        this.sizes = sizes;
+    }
+
+    /**
+     * Enables requesting content items ahead of the item currently being
+     * read. Must be called prior to reading.
+     *
+     * @param prefetchCount number of items to request ahead of the current
+     *                      item, 0 to request each item when it is reached
+     * @param prefetchBytes maximum number of bytes of each item requested
+     *                      ahead to hold in memory. Where item sizes are
+     *                      known, items are requested ahead once no more
+     *                      than this many bytes of the current item remain.
+     */
+    public void setPrefetch(int prefetchCount, int prefetchBytes) {
+        this.prefetchCount = prefetchCount;
+        this.prefetchBytes = prefetchBytes;
+    }
+
     @Override
     public int read() throws IOException {
-        // initialize current stream
-        if (null == currentStream) {
-            if (contents.hasNext()) {
-                currentStream = nextStream();
+        while (nextStreamAvailable()) {
+            int bite = currentStream.read();
+            if (-1 != bite) {
+                itemRead(1);
+                return bite;
+            }
+            endStream();
+        }
+        return -1;
+    }
 
-            } else {
-                return -1;
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (0 == length) {
+            return 0;
+        }
+        while (nextStreamAvailable()) {
+            int count = currentStream.read(bytes, offset, length);
+            if (-1 != count) {
+                itemRead(count);
+                return count;
             }
+            endStream();
         }
+        return -1;
+    }
 
-        int bite = currentStream.read();
-        if (-1 == bite) {
-            if(contents.hasNext()){
-                currentStream = nextStream();
-                bite = currentStream.read();
-            }else {
-                notifyContentIdRead();
+    @Override
+    public void close() throws IOException {
+        IOUtils.closeQuietly(currentStream);
+        currentStream = null;
+        itemIndex = itemCount;
+        while (!prefetched.isEmpty()) {
+            prefetched.poll().cancel();
+        }
+    }
+
+    /*
+     * Opens the next content item if the current one is finished
+     */
+    private boolean nextStreamAvailable() throws IOException {
+        if (null == currentStream) {
+            if (itemIndex + 1 >= itemCount) {
+                return false;
             }
+            currentStream = nextStream();
         }
+        return true;
+    }
 
-        return bite;
+    private InputStream nextStream() throws IOException {
+        itemIndex++;
+        currentItem = contentItems.get(itemIndex);
+        currentRead = 0;
+        currentLength = getLength(itemIndex);
+
+        InputStream stream = null;
+        Prefetch prefetch = prefetched.peek();
+        if (null != prefetch && prefetch.index == itemIndex) {
+            prefetched.poll();
+            try {
+                stream = prefetch.get();
+            } catch (IOException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                log.warn("Request ahead of {} failed, requesting it again: {}",
+                         currentItem, e.getMessage());
+            }
+        }
+        if (null == stream) {
+            stream = getStream(itemIndex);
+        }
+        prefetch();
+
+        currentDigest = null;
+        if (null != checksums && isFullItem(itemIndex) &&
+            checksums.containsKey(currentItem.getContentId())) {
+            currentDigest =
+                ChecksumUtil.wrapStream(stream, ChecksumUtil.Algorithm.MD5);
+            stream = currentDigest;
+        }
+        return stream;
+    }
+
+    private void itemRead(int count) {
+        currentRead += count;
+        prefetch();
+    }
+
+    /*
+     * Requests the items following the current item, once the current item
+     * is nearly read, or straight away if its length is not known
+     */
+    private void prefetch() {
+        if (prefetchCount <= 0 ||
+            (null != currentLength &&
+             currentLength - currentRead > prefetchBytes)) {
+            return;
+        }
+        prefetchIndex = Math.max(prefetchIndex, itemIndex + 1);
+        while (prefetchIndex < itemCount &&
+               prefetchIndex <= itemIndex + prefetchCount) {
+            Prefetch prefetch = new Prefetch(prefetchIndex++);
+            prefetch.future = prefetchExecutor.submit(prefetch);
+            prefetched.add(prefetch);
+        }
     }
 
-    private InputStream nextStream() {
-        if(this.currentStream != null){
-            IOUtils.closeQuietly(this.currentStream);
-            notifyContentIdRead();
+    /*
+     * Verifies and closes the current content item, which has been read
+     */
+    private void endStream() throws IOException {
+        IOUtils.closeQuietly(currentStream);
+        currentStream = null;
+
+        if (null != currentDigest) {
+            String expected = checksums.get(currentItem.getContentId());
+            String actual = ChecksumUtil.getChecksum(currentDigest);
+            currentDigest = null;
+            if (!expected.equals(actual)) {
+                close();
+                throw new IOException("Checksum of " + currentItem +
+                                      " (" + actual + ") does not match " +
+                                      "expected checksum " + expected);
+            }
         }
-        currentItem = contents.next();
-        return getStream(currentItem);
+        notifyContentIdRead();
     }
 
     protected void notifyContentIdRead() {
@@ -87,10 +305,126 @@ public class MultiContentInputStream extends InputStream {
         }
     }
 
-    private InputStream getStream(ContentItem contentItem) {
-        Content content = dataSource.getContent(contentItem.getSpaceId(),
-                                                contentItem.getContentId());
+    private boolean isFullItem(int index) {
+        return !(index == 0 && firstStartByte > 0) &&
+               !(index == itemCount - 1 && null != lastEndByte);
+    }
+
+    /*
+     * @return the number of bytes to be read from the item, or null if the
+     *         size of the item is not known
+     */
+    private Long getLength(int index) {
+        if (null == sizes) {
+            return null;
+        }
+        Long size = sizes.get(contentItems.get(index).getContentId());
+        if (null == size) {
+            return null;
+        }
+        long startByte = (index == 0) ? firstStartByte : 0;
+        Long endByte = (index == itemCount - 1) ? lastEndByte : null;
+        long end = (null == endByte) ? size : Math.min(size, endByte + 1);
+        return Math.max(0, end - startByte);
+    }
+
+    private InputStream getStream(int index) {
+        ContentItem contentItem = contentItems.get(index);
+        long startByte = (index == 0) ? firstStartByte : 0;
+        Long endByte = (index == itemCount - 1) ? lastEndByte : null;
+
+        Content content;
+        if (startByte == 0 && null == endByte) {
+            content = dataSource.getContent(contentItem.getSpaceId(),
+                                            contentItem.getContentId());
+        } else {
+            content = dataSource.getContent(contentItem.getSpaceId(),
+                                            contentItem.getContentId(),
+                                            startByte,
+                                            endByte);
+        }
         return content.getStream();
     }
 
+    /*
+     * Requests a content item in the background and buffers its first bytes.
+     * The remainder of the item is read from the open stream once the item
+     * is reached.
+     */
+    private class Prefetch implements Callable<InputStream> {
+        private final int index;
+        private Future<InputStream> future;
+        private InputStream stream;
+        private boolean cancelled;
+
+        private Prefetch(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public InputStream call() throws IOException {
+            Long length = getLength(index);
+            int bufferSize = (null == length) ? prefetchBytes :
+                             (int) Math.min(prefetchBytes, length);
+
+            InputStream stream = getStream(index);
+            byte[] buffer = new byte[bufferSize];
+            int count;
+            try {
+                count = IOUtils.read(stream, buffer);
+            } catch (IOException e) {
+                IOUtils.closeQuietly(stream);
+                throw e;
+            }
+
+            // Check whether the full item is buffered
+            InputStream prefetchedStream;
+            if (count < bufferSize || (null != length && count == length)) {
+                IOUtils.closeQuietly(stream);
+                prefetchedStream = new ByteArrayInputStream(buffer, 0, count);
+            } else {
+                prefetchedStream = new SequenceInputStream(
+                    new ByteArrayInputStream(buffer), stream);
+            }
+
+            synchronized (this) {
+                if (cancelled) {
+                    IOUtils.closeQuietly(prefetchedStream);
+                } else {
+                    this.stream = prefetchedStream;
+                }
+            }
+            return prefetchedStream;
+        }
+
+        private InputStream get() throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " +
+                                      contentItems.get(index), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause.getMessage(), cause);
+            }
+        }
+
+        /*
+         * Releases the stream of an item which will not be read
+         */
+        private void cancel() {
+            future.cancel(false);
+            synchronized (this) {
+                cancelled = true;
+                IOUtils.closeQuietly(stream);
+            }
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ import java.util.Map;
 import org.apache.commons.io.IOUtils;
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.domain.Content;
 import org.duracloud.stitch.FileStitcher;
 import org.duracloud.stitch.FileStitcherListener;
@@ -185,6 +186,40 @@ public class FileStitcherImplTest {
                             fullContent.length());
     }
 
+    @Test
+    public void testGetContentRangeFromManifest() throws Exception {
+        ChunksManifest manifest = createManifest(35);
+        for (int i = 0; i < NUM_CHUNKS; ++i) {
+            manifest.addEntry(buildChunkId(i), getMD5(getChunkContent(i)),
+                              getChunkContent(i).length());
+        }
+        EasyMock.expect(dataSource.getContent(spaceId, contentId))
+                .andReturn(doCreateManifestContent(manifest));
+
+        // bytes 10-22 span the end of chunk 1 to the start of chunk 3
+        Content first = new Content();
+        first.setStream(getStream("lo-1"));
+        EasyMock.expect(dataSource.getContent(spaceId, buildChunkId(1), 3L, null))
+                .andReturn(first);
+        Content middle = new Content();
+        middle.setStream(getStream(getChunkContent(2)));
+        EasyMock.expect(dataSource.getContent(spaceId, buildChunkId(2)))
+                .andReturn(middle);
+        Content last = new Content();
+        last.setStream(getStream("he"));
+        EasyMock.expect(dataSource.getContent(spaceId, buildChunkId(3), 0L, 1L))
+                .andReturn(last);
+        replayMocks();
+
+        stitcher = new FileStitcherImpl(dataSource);
+        Content content =
+            stitcher.getContentFromManifest(spaceId, contentId, 10, 22L);
+        Assert.assertEquals("lo-1hello-2he",
+                            IOUtils.toString(content.getStream()));
+        Assert.assertEquals("35",
+                            content.getProperties().get(PROPERTIES_CONTENT_SIZE));
+    }
+
     private void createMocks(MODE mode) {
         if (mode == ERROR_NAME) {
             return;
@@ -215,14 +250,13 @@ public class FileStitcherImplTest {
         // sanity check.
         Assert.assertEquals(NUM_CHUNKS, chunkIndexes.size());
 
-        String md5 = "md5";
         String chunkId;
         String chunkText;
         for (int chunkIndex : chunkIndexes) {
             // create chunk entry.
             chunkId = buildChunkId(chunkIndex);
             chunkText = getChunkContent(chunkIndex);
-            manifest.addEntry(chunkId, md5, chunkText.length());
+            manifest.addEntry(chunkId, getMD5(chunkText), chunkText.length());
 
             // create chunk expectation.
             Content chunk = new Content();
@@ -235,6 +269,12 @@ public class FileStitcherImplTest {
         return doCreateManifestContent(manifest);
     }
 
+    private String getMD5(String text) {
+        ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        return checksumUtil.generateChecksum(
+            new ByteArrayInputStream(text.getBytes()));
+    }
+
     protected String buildChunkId(int index) {
         return chunkIdPrefix + ChunksManifest.chunkSuffix + getStringIndex(index);
     }
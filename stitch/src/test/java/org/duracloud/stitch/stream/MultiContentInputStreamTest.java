@@ -9,6 +9,7 @@ package org.duracloud.stitch.stream;
 
 import org.apache.commons.io.IOUtils;
 import org.duracloud.common.model.ContentItem;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.domain.Content;
 import org.duracloud.stitch.datasource.DataSource;
 import org.easymock.EasyMock;
@@ -19,10 +20,13 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Andrew Woods
@@ -90,6 +94,147 @@ public class MultiContentInputStreamTest {
         out.close();
     }
 
+    @Test
+    public void testReadRange() throws Exception {
+        for (int i = 0; i < 3; ++i) {
+            contentItems.add(new ContentItem("spaceId", "contentId-" + i));
+        }
+        Content first = new Content();
+        first.setStream(getStream("xt-0"));
+        EasyMock.expect(dataSource.getContent("spaceId", "contentId-0", 2L, null))
+                .andReturn(first);
+        Content middle = new Content();
+        middle.setStream(getStream("text-1"));
+        EasyMock.expect(dataSource.getContent("spaceId", "contentId-1"))
+                .andReturn(middle);
+        Content last = new Content();
+        last.setStream(getStream("te"));
+        EasyMock.expect(dataSource.getContent("spaceId", "contentId-2", 0L, 1L))
+                .andReturn(last);
+        replayMocks();
+
+        multiStream =
+            new MultiContentInputStream(dataSource, contentItems, 2, 1L, null);
+        Assert.assertEquals("xt-0text-1te", IOUtils.toString(multiStream));
+    }
+
+    @Test
+    public void testReadPrefetch() throws Exception {
+        String text = createReadMocks();
+        contentItems.stream().forEach(x -> {
+            listener.contentIdRead(x.getContentId());
+            EasyMock.expectLastCall().once();
+        });
+        replayMocks();
+
+        multiStream =
+            new MultiContentInputStream(dataSource, contentItems, listener);
+        multiStream.setChecksums(getChecksums());
+        // Buffer less than a full item to read the rest from each stream
+        multiStream.setPrefetch(2, 3);
+
+        byte[] buffer = new byte[4];
+        StringBuilder read = new StringBuilder();
+        int count;
+        while ((count = multiStream.read(buffer, 0, buffer.length)) != -1) {
+            read.append(new String(buffer, 0, count));
+        }
+        Assert.assertEquals(text, read.toString());
+        Assert.assertEquals(-1, multiStream.read());
+        multiStream.close();
+    }
+
+    @Test
+    public void testReadPrefetchSizes() throws Exception {
+        String text = createReadMocks();
+        replayMocks();
+
+        multiStream = new MultiContentInputStream(dataSource, contentItems);
+        multiStream.setChecksums(getChecksums());
+        multiStream.setSizes(getSizes());
+        multiStream.setPrefetch(1, 3);
+        Assert.assertEquals(text, readAll(multiStream));
+    }
+
+    @Test
+    public void testReadPrefetchRetry() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3; ++i) {
+            String spaceId = "spaceId-" + i;
+            String contentId = "contentId-" + i;
+            contentItems.add(new ContentItem(spaceId, contentId));
+            Content content = new Content();
+            content.setStream(getStream("text-" + i));
+            text.append("text-" + i);
+
+            // The request ahead of the second item fails
+            if (i == 1) {
+                EasyMock.expect(dataSource.getContent(spaceId, contentId))
+                        .andThrow(new RuntimeException("connection reset"));
+            }
+            EasyMock.expect(dataSource.getContent(spaceId, contentId))
+                    .andReturn(content);
+        }
+        replayMocks();
+
+        multiStream = new MultiContentInputStream(dataSource, contentItems);
+        multiStream.setChecksums(getChecksums());
+        multiStream.setSizes(getSizes());
+        multiStream.setPrefetch(1, 3);
+        Assert.assertEquals(text.toString(), readAll(multiStream));
+    }
+
+    private String readAll(InputStream stream) throws IOException {
+        byte[] buffer = new byte[4];
+        StringBuilder read = new StringBuilder();
+        int count;
+        while ((count = stream.read(buffer, 0, buffer.length)) != -1) {
+            read.append(new String(buffer, 0, count));
+        }
+        stream.close();
+        return read.toString();
+    }
+
+    private Map<String, Long> getSizes() {
+        Map<String, Long> sizes = new HashMap<>();
+        for (int i = 0; i < contentItems.size(); ++i) {
+            sizes.put(contentItems.get(i).getContentId(),
+                      (long) ("text-" + i).length());
+        }
+        return sizes;
+    }
+
+    @Test
+    public void testReadChecksumMismatch() throws Exception {
+        createReadMocks();
+        replayMocks();
+
+        Map<String, String> checksums = getChecksums();
+        checksums.put("contentId-4", "invalid-checksum");
+
+        multiStream = new MultiContentInputStream(dataSource, contentItems);
+        multiStream.setChecksums(checksums);
+        try {
+            IOUtils.toString(multiStream);
+            Assert.fail("Exception expected with non-matching checksum");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("contentId-4"));
+        }
+        Assert.assertEquals(-1, multiStream.read());
+    }
+
+    private Map<String, String> getChecksums() {
+        ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        Map<String, String> checksums = new HashMap<>();
+        for (int i = 0; i < contentItems.size(); ++i) {
+            String text = "text-" + i;
+            checksums.put(contentItems.get(i).getContentId(),
+                          checksumUtil.generateChecksum(
+                              new ByteArrayInputStream(text.getBytes())));
+        }
+        return checksums;
+    }
+
     private String createReadMocks() {
         StringBuilder text = new StringBuilder();
         for (int i = 0; i < 5; ++i) {
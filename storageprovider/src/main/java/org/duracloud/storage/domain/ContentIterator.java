@@ -7,6 +7,7 @@
  */
 package org.duracloud.storage.domain;
 
+import org.duracloud.common.util.PagePrefetcher;
 import org.duracloud.storage.provider.StorageProvider;
 
 import java.util.Iterator;
@@ -14,11 +15,20 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
+ * Iterates over the content in a space, retrieving the listing a chunk at a
+ * time. By default, the next chunk is requested in the background while the
+ * current chunk is being consumed.
+ *
  * @author: Bill Branan
  * Date: Dec 22, 2009
  */
 public class ContentIterator implements Iterator<String> {
 
+    /**
+     * Number of chunks requested ahead of the chunk being consumed
+     */
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+
     private StorageProvider provider;
     private String spaceId;
     private String prefix;
@@ -26,6 +36,7 @@ public class ContentIterator implements Iterator<String> {
     private int index;
     private List<String> contentList;
     private long maxResults;
+    private PagePrefetcher<String> prefetcher;
 
     public ContentIterator(StorageProvider provider,
                            String spaceId,
@@ -37,6 +48,19 @@ public class ContentIterator implements Iterator<String> {
                            String spaceId,
                            String prefix,
                            long maxResults) {
+        this(provider, spaceId, prefix, maxResults, DEFAULT_PREFETCH_DEPTH);
+    }
+
+    /**
+     * @param prefetchDepth number of chunks to request ahead of the chunk
+     *                      being consumed, 0 to request each chunk only
+     *                      once the previous chunk has been consumed
+     */
+    public ContentIterator(StorageProvider provider,
+                           String spaceId,
+                           String prefix,
+                           long maxResults,
+                           int prefetchDepth) {
         index = 0;
         this.provider = provider;
         this.spaceId = spaceId;
@@ -46,6 +70,11 @@ public class ContentIterator implements Iterator<String> {
                                                        prefix,
                                                        maxResults,
                                                        null);
+        if (prefetchDepth > 0) {
+            prefetcher = new PagePrefetcher<>(this::loadList,
+                                              contentList,
+                                              prefetchDepth);
+        }
     }
 
     public boolean hasNext() {
@@ -76,12 +105,25 @@ public class ContentIterator implements Iterator<String> {
     }
 
     private void updateList() {
-        String lastItem = contentList.get(contentList.size()-1);
-        contentList = provider.getSpaceContentsChunked(spaceId,
-                                                       prefix,
-                                                       maxResults,
-                                                       lastItem);
+        if (null != prefetcher) {
+            try {
+                contentList = prefetcher.nextPage();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            contentList = loadList(contentList.get(contentList.size()-1));
+        }
         index = 0;
     }
 
+    private List<String> loadList(String lastItem) {
+        return provider.getSpaceContentsChunked(spaceId,
+                                                prefix,
+                                                maxResults,
+                                                lastItem);
+    }
+
 }
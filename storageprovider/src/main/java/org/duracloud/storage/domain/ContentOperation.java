@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single operation on a content item, performed as one of a batch of
+ * operations on the content of a space.
+ *
+ * Properties are the new content properties of a SET_PROPERTIES operation.
+ * The destination content ID is the ID, within the same space, to which the
+ * content item is copied by a COPY operation.
+ */
+public class ContentOperation {
+
+    public enum Type {
+        DELETE("delete"),
+        HEAD("head"),
+        SET_PROPERTIES("set-properties"),
+        COPY("copy");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+
+        public static Type fromString(String name) {
+            for (Type type : values()) {
+                if (type.name.equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Unknown content operation type: " + name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private Type type;
+    private String contentId;
+    private Map<String, String> properties;
+    private String destContentId;
+
+    public ContentOperation() {
+    }
+
+    public ContentOperation(Type type, String contentId) {
+        this.type = type;
+        this.contentId = contentId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public Map<String, String> getProperties() {
+        if (null == properties) {
+            properties = new HashMap<>();
+        }
+        return properties;
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    public String getDestContentId() {
+        return destContentId;
+    }
+
+    public void setDestContentId(String destContentId) {
+        this.destContentId = destContentId;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The outcome of a single content operation within a batch. The status is
+ * the HTTP status code which the equivalent single item request would
+ * have returned.
+ *
+ * Properties are the content properties retrieved by a HEAD operation, or
+ * the checksum of the new content item created by a COPY operation. The
+ * message describes the reason an operation failed.
+ */
+public class ContentOperationResult {
+
+    private ContentOperation.Type type;
+    private String contentId;
+    private int status;
+    private String message;
+    private Map<String, String> properties;
+
+    public ContentOperationResult() {
+    }
+
+    public ContentOperationResult(ContentOperation.Type type,
+                                  String contentId,
+                                  int status) {
+        this.type = type;
+        this.contentId = contentId;
+        this.status = status;
+    }
+
+    /**
+     * @return true if the operation was performed successfully
+     */
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    public ContentOperation.Type getType() {
+        return type;
+    }
+
+    public void setType(ContentOperation.Type type) {
+        this.type = type;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Map<String, String> getProperties() {
+        if (null == properties) {
+            properties = new HashMap<>();
+        }
+        return properties;
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+}
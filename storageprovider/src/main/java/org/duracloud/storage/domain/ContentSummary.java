@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.duracloud.storage.provider.StorageProvider;
+
+/**
+ * A content item as it appears in a space listing, along with the basic
+ * properties (size, checksum and modified date) which are available without
+ * retrieving the full set of content properties. Values are formatted as
+ * they are in the content properties, and are null where not known.
+ *
+ * The mimetype is not included in space listings, so it is only known for
+ * summaries built from the content properties of an item.
+ */
+public class ContentSummary {
+
+    private String contentId;
+    private String size;
+    private String checksum;
+    private String modified;
+    private String mimetype;
+
+    public ContentSummary() {
+    }
+
+    public ContentSummary(String contentId,
+                          String size,
+                          String checksum,
+                          String modified) {
+        this.contentId = contentId;
+        this.size = size;
+        this.checksum = checksum;
+        this.modified = modified;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getModified() {
+        return modified;
+    }
+
+    public void setModified(String modified) {
+        this.modified = modified;
+    }
+
+    public String getMimetype() {
+        return mimetype;
+    }
+
+    public void setMimetype(String mimetype) {
+        this.mimetype = mimetype;
+    }
+
+    /**
+     * @return the known values of this summary, keyed by the content property
+     *         names used by StorageProvider
+     */
+    public Map<String, String> getProperties() {
+        Map<String, String> properties = new HashMap<>();
+        if (null != size) {
+            properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE, size);
+        }
+        if (null != checksum) {
+            properties.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM,
+                           checksum);
+        }
+        if (null != modified) {
+            properties.put(StorageProvider.PROPERTIES_CONTENT_MODIFIED,
+                           modified);
+        }
+        if (null != mimetype) {
+            properties.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE,
+                           mimetype);
+        }
+        return properties;
+    }
+
+}
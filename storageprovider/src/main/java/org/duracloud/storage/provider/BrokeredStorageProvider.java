@@ -8,6 +8,7 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -90,6 +91,15 @@ public class BrokeredStorageProvider
                                        contentId);
     }
 
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents)
+            throws StorageException {
+        return dispatchProvider.deleteContents(targetProvider,
+                                               storeId,
+                                               spaceId,
+                                               contents);
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         dispatchProvider.deleteSpace(targetProvider, storeId, spaceId);
 
@@ -103,6 +113,19 @@ public class BrokeredStorageProvider
                                            contentId);
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte)
+            throws StorageException {
+        return dispatchProvider.getContent(targetProvider,
+                                           storeId,
+                                           spaceId,
+                                           contentId,
+                                           startByte,
+                                           endByte);
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
@@ -133,6 +156,19 @@ public class BrokeredStorageProvider
                                                         marker);
     }
 
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker)
+        throws StorageException {
+        return dispatchProvider.getSpaceContentSummariesChunked(targetProvider,
+                                                                storeId,
+                                                                spaceId,
+                                                                prefix,
+                                                                maxResults,
+                                                                marker);
+    }
+
     public Map<String, String> getSpaceProperties(String spaceId)
         throws StorageException {
         return dispatchProvider.getSpaceProperties(targetProvider,
@@ -0,0 +1,311 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.util.metrics.MetricsRegistry;
+import org.duracloud.common.util.metrics.OperationMetrics;
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.domain.StorageProviderType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A StorageProvider decorator which records the latency of every call made
+ * to the target provider, along with the number of bytes sent by
+ * addContent() and read from the streams returned by getContent().
+ *
+ * The metrics for each method are looked up once, when the decorator is
+ * created, so the cost of each call is two reads of the nanosecond clock and
+ * a few lock-free counter updates. Failed calls are counted as errors.
+ */
+public class MetricsStorageProvider implements StorageProvider {
+
+    private final StorageProvider target;
+
+    private final OperationMetrics getStorageProviderType;
+    private final OperationMetrics getSpaces;
+    private final OperationMetrics getSpaceContents;
+    private final OperationMetrics getSpaceContentsChunked;
+    private final OperationMetrics getSpaceContentSummariesChunked;
+    private final OperationMetrics createSpace;
+    private final OperationMetrics deleteSpace;
+    private final OperationMetrics getSpaceProperties;
+    private final OperationMetrics getSpaceACLs;
+    private final OperationMetrics setSpaceACLs;
+    private final OperationMetrics addContent;
+    private final OperationMetrics copyContent;
+    private final OperationMetrics getContent;
+    private final OperationMetrics deleteContent;
+    private final OperationMetrics deleteContents;
+    private final OperationMetrics setContentProperties;
+    private final OperationMetrics getContentProperties;
+
+    /**
+     * @param target the provider to which calls are passed
+     * @param providerName identifies the target provider in the registry,
+     *                     for example its storage account ID
+     * @param registry where metrics are recorded
+     */
+    public MetricsStorageProvider(StorageProvider target,
+                                  String providerName,
+                                  MetricsRegistry registry) {
+        this.target = target;
+
+        getStorageProviderType =
+            registry.getOperation(providerName, "getStorageProviderType");
+        getSpaces = registry.getOperation(providerName, "getSpaces");
+        getSpaceContents =
+            registry.getOperation(providerName, "getSpaceContents");
+        getSpaceContentsChunked =
+            registry.getOperation(providerName, "getSpaceContentsChunked");
+        getSpaceContentSummariesChunked =
+            registry.getOperation(providerName,
+                                  "getSpaceContentSummariesChunked");
+        createSpace = registry.getOperation(providerName, "createSpace");
+        deleteSpace = registry.getOperation(providerName, "deleteSpace");
+        getSpaceProperties =
+            registry.getOperation(providerName, "getSpaceProperties");
+        getSpaceACLs = registry.getOperation(providerName, "getSpaceACLs");
+        setSpaceACLs = registry.getOperation(providerName, "setSpaceACLs");
+        addContent = registry.getOperation(providerName, "addContent");
+        copyContent = registry.getOperation(providerName, "copyContent");
+        getContent = registry.getOperation(providerName, "getContent");
+        deleteContent = registry.getOperation(providerName, "deleteContent");
+        deleteContents = registry.getOperation(providerName, "deleteContents");
+        setContentProperties =
+            registry.getOperation(providerName, "setContentProperties");
+        getContentProperties =
+            registry.getOperation(providerName, "getContentProperties");
+    }
+
+    /*
+     * Makes a call to the target provider, recording its latency
+     */
+    private <T> T measure(OperationMetrics metrics, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            metrics.record(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private void measure(OperationMetrics metrics, Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+            metrics.record(System.nanoTime() - start);
+        } catch (RuntimeException | Error e) {
+            metrics.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return measure(getStorageProviderType,
+                       () -> target.getStorageProviderType());
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return measure(getSpaces, () -> target.getSpaces());
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return measure(getSpaceContents,
+                       () -> target.getSpaceContents(spaceId, prefix));
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return measure(getSpaceContentsChunked,
+                       () -> target.getSpaceContentsChunked(spaceId,
+                                                            prefix,
+                                                            maxResults,
+                                                            marker));
+    }
+
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        return measure(getSpaceContentSummariesChunked,
+                       () -> target.getSpaceContentSummariesChunked(spaceId,
+                                                                    prefix,
+                                                                    maxResults,
+                                                                    marker));
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        measure(createSpace, () -> target.createSpace(spaceId));
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        measure(deleteSpace, () -> target.deleteSpace(spaceId));
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        return measure(getSpaceProperties,
+                       () -> target.getSpaceProperties(spaceId));
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return measure(getSpaceACLs, () -> target.getSpaceACLs(spaceId));
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        measure(setSpaceACLs, () -> target.setSpaceACLs(spaceId, spaceACLs));
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        InputStream counted = countBytes(content, addContent);
+        return measure(addContent,
+                       () -> target.addContent(spaceId,
+                                               contentId,
+                                               contentMimeType,
+                                               userProperties,
+                                               contentSize,
+                                               contentChecksum,
+                                               counted));
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        return measure(copyContent,
+                       () -> target.copyContent(sourceSpaceId,
+                                                sourceContentId,
+                                                destSpaceId,
+                                                destContentId));
+    }
+
+    /**
+     * The recorded latency is the time taken to open the content stream,
+     * bytes are counted as the stream is read.
+     */
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        return countBytes(measure(getContent,
+                                  () -> target.getContent(spaceId,
+                                                          contentId)),
+                          getContent);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        return countBytes(measure(getContent,
+                                  () -> target.getContent(spaceId,
+                                                          contentId,
+                                                          startByte,
+                                                          endByte)),
+                          getContent);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        measure(deleteContent,
+                () -> target.deleteContent(spaceId, contentId));
+    }
+
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        return measure(deleteContents,
+                       () -> target.deleteContents(spaceId, contents));
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        measure(setContentProperties,
+                () -> target.setContentProperties(spaceId,
+                                                  contentId,
+                                                  contentProperties));
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        return measure(getContentProperties,
+                       () -> target.getContentProperties(spaceId, contentId));
+    }
+
+    private InputStream countBytes(InputStream stream,
+                                   OperationMetrics metrics) {
+        if (null == stream) {
+            return null;
+        }
+        return new ByteCountingInputStream(stream, metrics);
+    }
+
+    /*
+     * Adds the bytes read from a stream to the metrics of an operation
+     */
+    private static class ByteCountingInputStream extends FilterInputStream {
+        private final OperationMetrics metrics;
+
+        private ByteCountingInputStream(InputStream in,
+                                        OperationMetrics metrics) {
+            super(in);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                metrics.addBytes(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            int read = super.read(bytes, off, len);
+            if (read > 0) {
+                metrics.addBytes(read);
+            }
+            return read;
+        }
+    }
+
+}
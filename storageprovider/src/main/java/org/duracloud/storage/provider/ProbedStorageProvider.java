@@ -12,6 +12,7 @@ import org.duracloud.common.util.metrics.Metric;
 import org.duracloud.common.util.metrics.MetricException;
 import org.duracloud.common.util.metrics.MetricsProbed;
 import org.duracloud.common.util.metrics.MetricsTable;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -25,7 +26,9 @@ import java.util.Map;
  * while passing calls down.
  *
  * @author Andrew Woods
+ * @deprecated use {@link MetricsStorageProvider} instead
  */
+@Deprecated
 public abstract class ProbedStorageProvider
         implements StorageProvider, MetricsProbed {
 
@@ -128,6 +131,16 @@ public abstract class ProbedStorageProvider
         stopMetric("deleteContent");
     }
 
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents)
+            throws StorageException {
+        startMetric("deleteContents");
+        Map<String, String> result =
+            storageProvider.deleteContents(spaceId, contents);
+        stopMetric("deleteContents");
+        return result;
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         startMetric("deleteSpace");
         storageProvider.deleteSpace(spaceId);
@@ -142,6 +155,20 @@ public abstract class ProbedStorageProvider
         return result;
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte)
+            throws StorageException {
+        startMetric("getContent");
+        InputStream result = storageProvider.getContent(spaceId,
+                                                        contentId,
+                                                        startByte,
+                                                        endByte);
+        stopMetric("getContent");
+        return result;
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
@@ -175,6 +202,21 @@ public abstract class ProbedStorageProvider
         return result;
     }
 
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker)
+        throws StorageException {
+        startMetric("getSpaceContentSummaries");
+        List<ContentSummary> result =
+            storageProvider.getSpaceContentSummariesChunked(spaceId,
+                                                            prefix,
+                                                            maxResults,
+                                                            marker);
+        stopMetric("getSpaceContentSummaries");
+        return result;
+    }
+
     public Map<String, String> getSpaceProperties(String spaceId)
             throws StorageException {
         startMetric("getSpaceProperties");
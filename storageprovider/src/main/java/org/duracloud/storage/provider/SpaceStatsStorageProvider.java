@@ -0,0 +1,656 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.util.BlockingExecutor;
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A StorageProvider decorator which keeps the number of content items and
+ * the total size of the content in each space, so that the space-count and
+ * space-total-size properties can be included in the space properties
+ * without listing the space.
+ *
+ * The statistics of a space are first gathered when its properties are
+ * requested. A space with fewer items than fit in a single listing is
+ * counted immediately, larger spaces are counted in the background and are
+ * reported with a capped count (e.g. 1000+) until that completes. From
+ * then on, the statistics are updated as content is added, copied and
+ * deleted through this provider, and are recounted in the background once
+ * they are older than the reconcile interval. The recount corrects any
+ * drift caused by writes made through other means. A recount during which
+ * the statistics were updated is discarded, as the listing may or may not
+ * include those updates, and the space is recounted after the next
+ * interval.
+ *
+ * Keeping the statistics exact requires the size of any content item being
+ * replaced or deleted. The sizes of items seen in the last few seconds, such
+ * as by a call to getContentProperties() made just before a delete, are
+ * reused, as is the absence of an item, otherwise a write to a space with statistics includes a call to
+ * getContentProperties(). Should that call fail, the write goes ahead and
+ * the statistics of the space are dropped, to be gathered again. Spaces for
+ * which the target provider reports a space count itself are passed through
+ * untouched.
+ */
+public class SpaceStatsStorageProvider implements StorageProvider {
+
+    private final Logger log =
+        LoggerFactory.getLogger(SpaceStatsStorageProvider.class);
+
+    public static final long DEFAULT_RECONCILE_INTERVAL_MILLIS =
+        TimeUnit.HOURS.toMillis(1);
+
+    private static final int MAX_ITEM_COUNT = 1000;
+
+    private static final int RECENT_SIZES = 1000;
+    private static final long RECENT_SIZE_MILLIS =
+        TimeUnit.SECONDS.toMillis(10);
+
+    private static final int RECONCILE_THREADS = 2;
+    private static final int RECONCILE_QUEUE_SIZE = 1000;
+
+    // Shared by all instances, so expired providers do not leave idle
+    // threads behind
+    private static final BlockingExecutor reconcileExecutor =
+        new BlockingExecutor(RECONCILE_THREADS,
+                             RECONCILE_QUEUE_SIZE,
+                             BlockingExecutor.createExecutor(
+                                 RECONCILE_THREADS, "space-stats"));
+
+    private final StorageProvider target;
+    private final long reconcileIntervalMillis;
+
+    private final Map<String, SpaceStats> spaceStats =
+        new ConcurrentHashMap<>();
+    private final Set<String> reconciling = ConcurrentHashMap.newKeySet();
+    // Spaces which could not be counted, mapped to the time of the attempt
+    private final Map<String, Long> failedCounts = new ConcurrentHashMap<>();
+
+    // Sizes of content items recently seen, keyed by space and content ID
+    private final Map<String, RecentSize> recentSizes =
+        Collections.synchronizedMap(
+            new LinkedHashMap<String, RecentSize>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                    Map.Entry<String, RecentSize> eldest) {
+                    return size() > RECENT_SIZES;
+                }
+            });
+
+    public SpaceStatsStorageProvider(StorageProvider target) {
+        this(target, DEFAULT_RECONCILE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param target the provider to which calls are passed
+     * @param reconcileIntervalMillis age after which the statistics of a
+     *                                space are recounted
+     */
+    public SpaceStatsStorageProvider(StorageProvider target,
+                                     long reconcileIntervalMillis) {
+        this.target = target;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return target.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return target.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return target.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return target.getSpaceContentsChunked(spaceId,
+                                              prefix,
+                                              maxResults,
+                                              marker);
+    }
+
+    @Override
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        return target.getSpaceContentSummariesChunked(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        target.createSpace(spaceId);
+        failedCounts.remove(spaceId);
+        spaceStats.put(spaceId, new SpaceStats(0, 0));
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        target.deleteSpace(spaceId);
+        spaceStats.remove(spaceId);
+        failedCounts.remove(spaceId);
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        Map<String, String> properties = target.getSpaceProperties(spaceId);
+        if (properties.containsKey(PROPERTIES_SPACE_COUNT)) {
+            return properties;
+        }
+
+        // A space which could not be counted is not listed again until the
+        // reconcile interval has passed
+        SpaceStats stats = spaceStats.get(spaceId);
+        Long failed = failedCounts.get(spaceId);
+        boolean countable = null == failed ||
+            System.currentTimeMillis() - failed > reconcileIntervalMillis;
+        if (null == stats && countable) {
+            stats = countSpace(spaceId);
+        }
+
+        if (null == stats) {
+            properties.put(PROPERTIES_SPACE_COUNT, MAX_ITEM_COUNT + "+");
+            if (countable) {
+                reconcile(spaceId);
+            }
+        } else {
+            properties.put(PROPERTIES_SPACE_COUNT,
+                           String.valueOf(stats.getCount()));
+            properties.put(PROPERTIES_SPACE_SIZE,
+                           String.valueOf(stats.getSize()));
+            if (System.currentTimeMillis() - stats.getUpdated() >
+                reconcileIntervalMillis) {
+                reconcile(spaceId);
+            }
+        }
+        return properties;
+    }
+
+    /*
+     * Gathers the statistics of a space which fits in a single listing.
+     *
+     * @return the statistics, or null if the space is too large to count here
+     */
+    private SpaceStats countSpace(String spaceId) {
+        List<ContentSummary> contents =
+            target.getSpaceContentSummariesChunked(spaceId,
+                                                   null,
+                                                   MAX_ITEM_COUNT,
+                                                   null);
+        if (contents.size() >= MAX_ITEM_COUNT) {
+            return null;
+        }
+
+        long size = 0;
+        for (ContentSummary content : contents) {
+            Long contentSize = parseSize(content.getSize());
+            if (null == contentSize) {
+                return null;
+            }
+            size += contentSize;
+        }
+        SpaceStats stats = new SpaceStats(contents.size(), size);
+        SpaceStats existing = spaceStats.putIfAbsent(spaceId, stats);
+        return null == existing ? stats : existing;
+    }
+
+    /*
+     * Recounts a space in the background, unless a recount of the space is
+     * already in progress or waiting to run
+     */
+    private void reconcile(String spaceId) {
+        if (!reconciling.add(spaceId)) {
+            return;
+        }
+
+        boolean accepted = false;
+        try {
+            accepted = reconcileExecutor.tryExecute(() -> {
+                try {
+                    recount(spaceId);
+                } finally {
+                    reconciling.remove(spaceId);
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            log.warn("Unable to schedule recount of space {}: {}",
+                     spaceId, e.getMessage());
+        }
+
+        // The next request for the space properties will try again
+        if (!accepted) {
+            reconciling.remove(spaceId);
+        }
+    }
+
+    private void recount(String spaceId) {
+        long start = System.currentTimeMillis();
+        SpaceStats existing = spaceStats.get(spaceId);
+        long changes = null == existing ? 0 : existing.getChanges();
+        long count = 0;
+        long size = 0;
+        try {
+            List<ContentSummary> contents;
+            String marker = null;
+            do {
+                contents = target.getSpaceContentSummariesChunked(
+                    spaceId, null, MAX_ITEM_COUNT, marker);
+                for (ContentSummary content : contents) {
+                    Long contentSize = parseSize(content.getSize());
+                    if (null == contentSize) {
+                        log.warn("Unable to count space {}, the size of {} " +
+                                 "is not known", spaceId,
+                                 content.getContentId());
+                        countFailed(spaceId);
+                        return;
+                    }
+                    count++;
+                    size += contentSize;
+                }
+                if (!contents.isEmpty()) {
+                    marker = contents.get(contents.size() - 1).getContentId();
+                }
+            } while (!contents.isEmpty());
+        } catch (NotFoundException e) {
+            spaceStats.remove(spaceId);
+            return;
+        } catch (Exception e) {
+            log.warn("Unable to count space {}: {}", spaceId, e.getMessage());
+            countFailed(spaceId);
+            return;
+        }
+
+        failedCounts.remove(spaceId);
+        if (null == existing) {
+            // Statistics gathered while listing are at least as recent
+            spaceStats.putIfAbsent(spaceId, new SpaceStats(count, size));
+        } else if (!existing.set(count, size, changes)) {
+            log.info("Discarded count of space {}, which was updated while " +
+                     "being counted", spaceId);
+            return;
+        }
+        log.info("Counted {} items ({} bytes) in space {} in {} ms",
+                 count, size, spaceId, System.currentTimeMillis() - start);
+    }
+
+    /*
+     * Records a failed recount as an attempt, so that the space is not
+     * listed again on each request for its properties
+     */
+    private void countFailed(String spaceId) {
+        SpaceStats stats = spaceStats.get(spaceId);
+        if (null == stats) {
+            failedCounts.put(spaceId, System.currentTimeMillis());
+        } else {
+            stats.attempted();
+        }
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return target.getSpaceACLs(spaceId);
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        target.setSpaceACLs(spaceId, spaceACLs);
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        SpaceStats stats = spaceStats.get(spaceId);
+        if (null == stats) {
+            return target.addContent(spaceId, contentId, contentMimeType,
+                                     userProperties, contentSize,
+                                     contentChecksum, content);
+        }
+
+        Long previousSize = getContentSize(spaceId, contentId);
+        String checksum =
+            target.addContent(spaceId, contentId, contentMimeType,
+                              userProperties, contentSize, contentChecksum,
+                              content);
+
+        // The size is not always known before the content is stored
+        Long size = contentSize;
+        if (contentSize <= 0) {
+            recentSizes.remove(sizeKey(spaceId, contentId));
+            size = getContentSize(spaceId, contentId);
+        }
+        setRecentSize(spaceId, contentId, size);
+        updateStats(stats, previousSize, size);
+        return checksum;
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        SpaceStats stats = spaceStats.get(destSpaceId);
+        if (null == stats) {
+            return target.copyContent(sourceSpaceId, sourceContentId,
+                                      destSpaceId, destContentId);
+        }
+
+        Long previousSize = getContentSize(destSpaceId, destContentId);
+        String checksum = target.copyContent(sourceSpaceId, sourceContentId,
+                                             destSpaceId, destContentId);
+
+        // The copy has the size of its source, where that is known
+        Long size = getRecentSize(sourceSpaceId, sourceContentId);
+        if (null == size) {
+            recentSizes.remove(sizeKey(destSpaceId, destContentId));
+            size = getContentSize(destSpaceId, destContentId);
+        }
+        setRecentSize(destSpaceId, destContentId, size);
+        updateStats(stats, previousSize, size);
+        return checksum;
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        return target.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        return target.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        SpaceStats stats = spaceStats.get(spaceId);
+        if (null == stats) {
+            target.deleteContent(spaceId, contentId);
+            return;
+        }
+
+        Long size = getContentSize(spaceId, contentId);
+        target.deleteContent(spaceId, contentId);
+        setAbsent(spaceId, contentId);
+        updateStats(stats, size, null);
+    }
+
+    /**
+     * The statistics are updated from the sizes in the content summaries.
+     * When any size is missing the statistics are dropped and the space is
+     * recounted, rather than retrieving the properties of each item.
+     */
+    @Override
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        SpaceStats stats = spaceStats.get(spaceId);
+        if (null == stats) {
+            return target.deleteContents(spaceId, contents);
+        }
+
+        for (ContentSummary content : contents) {
+            recentSizes.remove(sizeKey(spaceId, content.getContentId()));
+        }
+        for (ContentSummary content : contents) {
+            if (null == parseSize(content.getSize())) {
+                Map<String, String> failures =
+                    target.deleteContents(spaceId, contents);
+                spaceStats.remove(spaceId);
+                reconcile(spaceId);
+                return failures;
+            }
+        }
+
+        Map<String, String> failures = target.deleteContents(spaceId, contents);
+        for (ContentSummary content : contents) {
+            if (!failures.containsKey(content.getContentId())) {
+                updateStats(stats, parseSize(content.getSize()), null);
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        target.setContentProperties(spaceId, contentId, contentProperties);
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        Map<String, String> properties;
+        try {
+            properties = target.getContentProperties(spaceId, contentId);
+        } catch (NotFoundException e) {
+            // Such as when checking for an existing item before adding it
+            if (spaceStats.containsKey(spaceId)) {
+                setAbsent(spaceId, contentId);
+            }
+            throw e;
+        }
+        if (spaceStats.containsKey(spaceId)) {
+            setRecentSize(spaceId, contentId,
+                          parseSize(properties.get(PROPERTIES_CONTENT_SIZE)));
+        }
+        return properties;
+    }
+
+    /*
+     * Applies the replacement of a content item of previousSize with one of
+     * size, where a null size indicates that the item does not exist
+     */
+    private void updateStats(SpaceStats stats, Long previousSize, Long size) {
+        long countChange = 0;
+        long sizeChange = 0;
+        if (null != previousSize) {
+            countChange--;
+            sizeChange -= previousSize;
+        }
+        if (null != size) {
+            countChange++;
+            sizeChange += size;
+        }
+        stats.add(countChange, sizeChange);
+    }
+
+    /*
+     * Determines the size of a content item, from the sizes recently seen
+     * where possible. The lookup is only used to keep the statistics, so
+     * should it fail the statistics of the space are dropped, rather than
+     * failing the write.
+     *
+     * @return the size of a content item, or null if the item does not exist
+     *         or its size could not be determined
+     */
+    private Long getContentSize(String spaceId, String contentId) {
+        RecentSize recent = getRecent(spaceId, contentId);
+        if (null != recent) {
+            return recent.size;
+        }
+        try {
+            Map<String, String> properties =
+                target.getContentProperties(spaceId, contentId);
+            Long size = parseSize(properties.get(PROPERTIES_CONTENT_SIZE));
+            return null == size ? 0L : size;
+        } catch (NotFoundException e) {
+            setAbsent(spaceId, contentId);
+            return null;
+        } catch (Exception e) {
+            log.warn("Unable to determine the size of {} in space {}, " +
+                     "statistics of the space will be gathered again: {}",
+                     contentId, spaceId, e.getMessage());
+            spaceStats.remove(spaceId);
+            return null;
+        }
+    }
+
+    private String sizeKey(String spaceId, String contentId) {
+        return spaceId + "/" + contentId;
+    }
+
+    /*
+     * @return the size recently seen of a content item, with a null size if
+     *         the item was recently found not to exist, or null if nothing
+     *         is known of the item
+     */
+    private RecentSize getRecent(String spaceId, String contentId) {
+        RecentSize recent = recentSizes.get(sizeKey(spaceId, contentId));
+        if (null == recent ||
+            System.currentTimeMillis() - recent.seen > RECENT_SIZE_MILLIS) {
+            return null;
+        }
+        return recent;
+    }
+
+    private Long getRecentSize(String spaceId, String contentId) {
+        RecentSize recent = getRecent(spaceId, contentId);
+        return null == recent ? null : recent.size;
+    }
+
+    private void setRecentSize(String spaceId, String contentId, Long size) {
+        String key = sizeKey(spaceId, contentId);
+        if (null == size) {
+            recentSizes.remove(key);
+        } else {
+            recentSizes.put(key, new RecentSize(size));
+        }
+    }
+
+    private void setAbsent(String spaceId, String contentId) {
+        recentSizes.put(sizeKey(spaceId, contentId), new RecentSize(null));
+    }
+
+    private Long parseSize(String size) {
+        if (null == size) {
+            return null;
+        }
+        try {
+            return Long.valueOf(size);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /*
+     * The item count and total content size of a space, along with the time
+     * at which they were last counted and the number of updates made since
+     * they were created
+     */
+    private static class SpaceStats {
+        private long count;
+        private long size;
+        private long updated;
+        private long changes;
+
+        private SpaceStats(long count, long size) {
+            this.count = count;
+            this.size = size;
+            this.updated = System.currentTimeMillis();
+        }
+
+        /*
+         * Replaces the statistics with those of a recount, unless they have
+         * been updated since the recount began. Either way the recount is
+         * recorded as an attempt.
+         *
+         * @param changes the number of updates when the recount began
+         * @return true if the statistics were replaced
+         */
+        synchronized boolean set(long count, long size, long changes) {
+            this.updated = System.currentTimeMillis();
+            if (this.changes != changes) {
+                return false;
+            }
+            this.count = count;
+            this.size = size;
+            return true;
+        }
+
+        /*
+         * Records an attempt to recount which did not complete, so the
+         * next attempt waits for the reconcile interval
+         */
+        synchronized void attempted() {
+            this.updated = System.currentTimeMillis();
+        }
+
+        synchronized void add(long countChange, long sizeChange) {
+            count = Math.max(0, count + countChange);
+            size = Math.max(0, size + sizeChange);
+            changes++;
+        }
+
+        synchronized long getChanges() {
+            return changes;
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        synchronized long getSize() {
+            return size;
+        }
+
+        synchronized long getUpdated() {
+            return updated;
+        }
+    }
+
+    /*
+     * The size of a content item when last seen, or a null size if the item
+     * was found not to exist
+     */
+    private static class RecentSize {
+        private final Long size;
+        private final long seen = System.currentTimeMillis();
+
+        private RecentSize(Long size) {
+            this.size = size;
+        }
+    }
+
+}
@@ -8,6 +8,7 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -50,6 +51,12 @@ public interface StatelessStorageProvider {
                                        String contentId)
             throws StorageException;
 
+    public Map<String, String> deleteContents(StorageProvider targetProvider,
+                                              String storeId,
+                                              String spaceId,
+                                              List<ContentSummary> contents)
+            throws StorageException;
+
     public abstract void deleteSpace(StorageProvider targetProvider,
                                      String storeId,
                                      String spaceId)
@@ -61,6 +68,14 @@ public interface StatelessStorageProvider {
                                            String contentId)
             throws StorageException;
 
+    public abstract InputStream getContent(StorageProvider targetProvider,
+                                           String storeId,
+                                           String spaceId,
+                                           String contentId,
+                                           long startByte,
+                                           Long endByte)
+            throws StorageException;
+
     public abstract Map<String, String> getContentProperties(StorageProvider targetProvider,
                                                              String storeId,
                                                              String spaceId,
@@ -81,6 +96,14 @@ public interface StatelessStorageProvider {
                                                 String marker)
             throws StorageException;
 
+    public List<ContentSummary> getSpaceContentSummariesChunked(StorageProvider targetProvider,
+                                                                String storeId,
+                                                                String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker)
+            throws StorageException;
+
     public abstract Map<String, String> getSpaceProperties(StorageProvider targetProvider,
                                                            String storeId,
                                                            String spaceId)
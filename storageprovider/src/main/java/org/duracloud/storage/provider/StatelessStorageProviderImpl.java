@@ -8,6 +8,7 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -78,6 +79,17 @@ public class StatelessStorageProviderImpl
         targetProvider.deleteContent(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, String> deleteContents(StorageProvider targetProvider,
+                                              String storeId,
+                                              String spaceId,
+                                              List<ContentSummary> contents)
+            throws StorageException {
+        return targetProvider.deleteContents(spaceId, contents);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -98,6 +110,21 @@ public class StatelessStorageProviderImpl
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream getContent(StorageProvider targetProvider,
+                                  String storeId,
+                                  String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) throws StorageException {
+        return targetProvider.getContent(spaceId,
+                                         contentId,
+                                         startByte,
+                                         endByte);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -136,6 +163,22 @@ public class StatelessStorageProviderImpl
                                                       marker);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public List<ContentSummary> getSpaceContentSummariesChunked(StorageProvider targetProvider,
+                                                                String storeId,
+                                                                String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker)
+            throws StorageException {
+        return targetProvider.getSpaceContentSummariesChunked(spaceId,
+                                                              prefix,
+                                                              maxResults,
+                                                              marker);
+    }
+
     /**
      * {@inheritDoc}
      */
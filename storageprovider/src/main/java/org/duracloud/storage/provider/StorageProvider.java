@@ -8,6 +8,7 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
@@ -114,6 +115,26 @@ public interface StorageProvider {
                                                 long maxResults,
                                                 String marker);
 
+    /**
+     * Provides a listing of the content files within a space in the same
+     * manner as getSpaceContentsChunked(), but includes the size, checksum
+     * and modified date of each content item. This allows callers to
+     * compare a listing against local content without having to retrieve
+     * the properties of each item individually.
+     *
+     * @param spaceId - ID of the space
+     * @param prefix - Only retrieve content IDs with this prefix (null for all content ids)
+     * @param maxResults - The maximum number of content items to return in the list (0 indicates default (1000))
+     * @param marker - The content ID marking the last item in the previous set (null indicates the first set of ids)
+     * @return List of content summaries
+     * @throws NotFoundException if space with ID spaceId does not exist
+     * @throws StorageException if errors occur
+     */
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker);
+
     /**
      * Creates a new space.
      *
@@ -222,6 +243,24 @@ public interface StorageProvider {
     public InputStream getContent(String spaceId,
                                   String contentId);
 
+    /**
+     * Gets a range of bytes of content from a space.
+     *
+     * @param spaceId - ID of the space
+     * @param contentId - ID of the content in the space
+     * @param startByte - position of the first byte to be included (0-based)
+     * @param endByte - position of the last byte to be included (inclusive),
+     *                  null indicates the end of the content
+     * @return the content stream, including only the requested bytes
+     * @throws NotFoundException if space with ID spaceId does not exist or the
+     *                           content item with ID contentId does not exist
+     * @throws StorageException if errors occur
+     */
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte);
+
     /**
      * Removes content from a space.
      *
@@ -234,6 +273,23 @@ public interface StorageProvider {
     public void deleteContent(String spaceId,
                               String contentId);
 
+    /**
+     * Removes a batch of content items from a space, using a single request
+     * to the underlying storage where the provider supports it. Unlike
+     * deleteContent(), items which do not exist are not reported as errors.
+     *
+     * The size and checksum of each item, where included in its summary, are
+     * used to record the removal, so that they need not be retrieved again.
+     *
+     * @param spaceId - ID of the space
+     * @param contents - the content items to remove
+     * @return the IDs of items which could not be removed, mapped to the
+     *         reason for the failure (empty if all items were removed)
+     * @throws StorageException if errors occur
+     */
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents);
+
     /**
      * Sets the properties associated with content. This effectively
      * removes all of the current content properties and adds a new
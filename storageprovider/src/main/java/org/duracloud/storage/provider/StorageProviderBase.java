@@ -8,6 +8,8 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.common.util.BlockingExecutor;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
@@ -15,11 +17,15 @@ import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.duracloud.storage.error.StorageException.NO_RETRY;
 
@@ -35,6 +41,14 @@ public abstract class StorageProviderBase implements StorageProvider {
     protected static final String ACL_GROUP_WRITE = "acl-group-write";
     protected static final String ACL_DELIM = ":";
 
+    // Number of content items removed by each bulk delete call
+    public static final int DELETE_BATCH_SIZE = 1000;
+    // Number of bulk delete calls made at once when deleting a space
+    protected static final int DELETE_THREADS = 8;
+    // Space delete progress is recorded after this number of batches
+    private static final int DELETE_PROGRESS_INTERVAL = 10;
+    private static final int DELETE_PASSES = 5;
+
     protected final Logger log = LoggerFactory.getLogger(StorageProviderBase.class);
     private StorageProvider wrappedStorageProvider;
 
@@ -120,6 +134,46 @@ public abstract class StorageProviderBase implements StorageProvider {
         return unpackACLs(allProps);
     }
 
+    /**
+     * Builds content summaries by retrieving the properties of each listed
+     * content item. Providers which are able to include properties as part
+     * of a listing should override this method.
+     */
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker) {
+        List<String> contentIds =
+            getSpaceContentsChunked(spaceId, prefix, maxResults, marker);
+        return StorageProviderUtil.getContentSummaries(this,
+                                                       spaceId,
+                                                       contentIds);
+    }
+
+    /**
+     * Retrieves a range of content by skipping through the full content
+     * stream. Providers which are able to retrieve a range of bytes directly
+     * should override this method.
+     */
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte) {
+        StorageProviderUtil.validateRange(startByte, endByte);
+        return StorageProviderUtil.getContentRange(
+            getContent(spaceId, contentId), startByte, endByte);
+    }
+
+    /**
+     * Removes each content item in turn. Providers which are able to remove
+     * a set of content items in a single request should override this
+     * method.
+     */
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents) {
+        return StorageProviderUtil.deleteContents(this, spaceId, contents);
+    }
+
     /*
      * Converts from packed ACL format:
      * name= acl-read
@@ -324,11 +378,19 @@ public abstract class StorageProviderBase implements StorageProvider {
         deleteWorker.run();
     }
 
+    /**
+     * Removes all content from a space, then the space itself. Content is
+     * listed a batch at a time, and each batch is removed with a single
+     * deleteContents() call, with a number of batches being removed at
+     * once. The number of items removed so far is recorded on the space
+     * properties as the delete progresses.
+     */
     protected class SpaceDeleteWorker implements Runnable {
         protected final Logger log =
             LoggerFactory.getLogger(SpaceDeleteWorker.class);
 
         private String spaceId;
+        private AtomicLong deleted = new AtomicLong(0);
 
         public SpaceDeleteWorker(String spaceId) {
             this.spaceId = spaceId;
@@ -337,36 +399,28 @@ public abstract class StorageProviderBase implements StorageProvider {
         @Override
         public void run() {
             log.debug("SpaceDeleteWorker started!");
-            Iterator<String> contents = getSpaceContents(spaceId, null);
-            int count = 0;
-
-            while(contents.hasNext() && count++ < 5) {
-                try{
-                    Thread.sleep((long)Math.pow(2,count) * 100);
-                } catch(InterruptedException e) {
-                }
-
-                StorageProvider sp = StorageProviderBase.this;
-                if(wrappedStorageProvider != null){
-                    sp = wrappedStorageProvider;
-                }
-
-                while(contents.hasNext()) {
-                    String contentId = contents.next();
-                    log.debug("deleteContent(" + spaceId + ", " +
-                              contentId + ") - count=" + count);
+            StorageProvider sp = StorageProviderBase.this;
+            if(wrappedStorageProvider != null){
+                sp = wrappedStorageProvider;
+            }
 
-                    try {
-                        sp.deleteContent(spaceId, contentId);
-                    } catch(Exception e) {
-                        log.error("Error deleting content " + contentId +
-                            " in space " + spaceId, e);
+            // Content may continue to be listed for a time after it has been
+            // removed, so the space is listed again after each pass
+            List<ContentSummary> contents = listContents(null);
+            int count = 0;
+            while(!contents.isEmpty() && count++ < DELETE_PASSES) {
+                if(count > 1) {
+                    try{
+                        Thread.sleep((long)Math.pow(2,count) * 100);
+                    } catch(InterruptedException e) {
                     }
                 }
-                contents = getSpaceContents(spaceId, null);
+
+                deleteContents(sp, contents, count);
+                contents = listContents(null);
             }
 
-            if(contents.hasNext()) {
+            if(!contents.isEmpty()) {
                 log.debug("deleteSpaceContents(" + spaceId +
                           ") exceeded retries");
 
@@ -380,6 +434,84 @@ public abstract class StorageProviderBase implements StorageProvider {
             }
             log.debug("SpaceDeleteWorker ended!");
         }
+
+        private List<ContentSummary> listContents(String marker) {
+            return getSpaceContentSummariesChunked(spaceId,
+                                                   null,
+                                                   DELETE_BATCH_SIZE,
+                                                   marker);
+        }
+
+        /*
+         * Removes the listed content, beginning with the given batch, and
+         * waits for all batches to complete
+         */
+        private void deleteContents(StorageProvider sp,
+                                    List<ContentSummary> contents,
+                                    int count) {
+            BlockingExecutor executor =
+                new BlockingExecutor(DELETE_THREADS, "space-delete-" + spaceId);
+            try {
+                int batches = 0;
+                while(!contents.isEmpty()) {
+                    List<ContentSummary> batch = contents;
+                    log.debug("deleteContents(" + spaceId + ", " +
+                              batch.size() + " items) - count=" + count);
+                    executor.execute(() -> deleteBatch(sp, batch));
+
+                    if(++batches % DELETE_PROGRESS_INTERVAL == 0) {
+                        recordProgress();
+                    }
+                    String marker = batch.get(batch.size() - 1).getContentId();
+                    contents = listContents(marker);
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdown();
+                try {
+                    executor.awaitTermination(Long.MAX_VALUE,
+                                              TimeUnit.MILLISECONDS);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void deleteBatch(StorageProvider sp,
+                                 List<ContentSummary> batch) {
+            try {
+                Map<String, String> failures =
+                    sp.deleteContents(spaceId, batch);
+                deleted.addAndGet(batch.size() - failures.size());
+                for(Map.Entry<String, String> failure : failures.entrySet()) {
+                    log.error("Error deleting content " + failure.getKey() +
+                              " in space " + spaceId + ": " +
+                              failure.getValue());
+                }
+            } catch(Exception e) {
+                log.error("Error deleting " + batch.size() +
+                          " content items in space " + spaceId, e);
+            }
+        }
+
+        private void recordProgress() {
+            try {
+                Map<String, String> allProps = getAllSpaceProperties(spaceId);
+                allProps.put("delete-count", String.valueOf(deleted.get()));
+                doSetSpaceProperties(spaceId, allProps);
+            } catch(Exception e) {
+                log.warn("Unable to record delete progress of space " +
+                         spaceId + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * @return the number of content items removed so far
+         */
+        public long getDeletedCount() {
+            return deleted.get();
+        }
     }
 
     public SpaceDeleteWorker getSpaceDeleteWorker(String spaceId) {
@@ -8,6 +8,7 @@
 package org.duracloud.storage.provider.mock;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -93,6 +94,13 @@ public class MockStorageProvider
         this.contentId = contentId;
     }
 
+    public Map<String, String> deleteContents(String spaceId,
+                                              List<ContentSummary> contents)
+            throws StorageException {
+        this.spaceId = spaceId;
+        return new HashMap<String, String>();
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         this.spaceId = spaceId;
     }
@@ -102,6 +110,14 @@ public class MockStorageProvider
         return content;
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  Long endByte)
+            throws StorageException {
+        return content;
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
@@ -121,6 +137,20 @@ public class MockStorageProvider
         return spaceContents;
     }
 
+    public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                String prefix,
+                                                                long maxResults,
+                                                                String marker)
+        throws StorageException {
+        List<ContentSummary> summaries = new ArrayList<ContentSummary>();
+        if (null != spaceContents) {
+            for (String contentId : spaceContents) {
+                summaries.add(new ContentSummary(contentId, null, null, null));
+            }
+        }
+        return summaries;
+    }
+
     public Map<String, String> getSpaceProperties(String spaceId)
     throws StorageException {
         return spaceProperties;
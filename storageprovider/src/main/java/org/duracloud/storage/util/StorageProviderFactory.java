@@ -35,6 +35,8 @@ public interface StorageProviderFactory {
         throws StorageException;
 
     public void expireStorageProvider(String storageAccountId);
+
+    public void expireStorageProviders();
     
     public TaskQueue getAuditQueue();
 
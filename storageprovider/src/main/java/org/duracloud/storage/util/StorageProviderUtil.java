@@ -7,8 +7,12 @@
  */
 package org.duracloud.storage.util;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.duracloud.common.util.DateUtil;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
@@ -203,6 +207,116 @@ public class StorageProviderUtil {
         return contents;
     }
     
+    /**
+     * Builds summaries of the given content items by retrieving the
+     * properties of each item in turn. For use by providers which cannot
+     * determine content properties as part of a content listing.
+     *
+     * @param provider the StorageProvider where the content is stored
+     * @param spaceId the Space in which the content is stored
+     * @param contentIds the content items to summarize
+     * @return summaries, in the same order as the content IDs
+     */
+    public static List<ContentSummary> getContentSummaries(
+        StorageProvider provider,
+        String spaceId,
+        List<String> contentIds) {
+        List<ContentSummary> summaries = new ArrayList<>();
+        if(null == contentIds) {
+            return summaries;
+        }
+        for(String contentId : contentIds) {
+            Map<String, String> props =
+                provider.getContentProperties(spaceId, contentId);
+            ContentSummary summary = new ContentSummary(
+                contentId,
+                props.get(StorageProvider.PROPERTIES_CONTENT_SIZE),
+                props.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+                props.get(StorageProvider.PROPERTIES_CONTENT_MODIFIED));
+            summary.setMimetype(
+                props.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Removes the given content items by deleting each item in turn. For use
+     * by providers which cannot remove a set of items in a single request.
+     *
+     * @param provider the StorageProvider where the content is stored
+     * @param spaceId the Space in which the content is stored
+     * @param contents the content items to remove
+     * @return the IDs of items which could not be removed, mapped to the
+     *         reason for the failure
+     */
+    public static Map<String, String> deleteContents(
+        StorageProvider provider,
+        String spaceId,
+        List<ContentSummary> contents) {
+        Map<String, String> failures = new HashMap<>();
+        for(ContentSummary content : contents) {
+            try {
+                provider.deleteContent(spaceId, content.getContentId());
+            } catch(NotFoundException e) {
+                // Already removed
+            } catch(StorageException e) {
+                failures.put(content.getContentId(), e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Limits a content stream to the given range of bytes by skipping to
+     * the start of the range and reading no further than its end. For use by
+     * providers which are not able to retrieve a range of content directly.
+     *
+     * @param content the full content stream
+     * @param startByte position of the first byte to be included
+     * @param endByte position of the last byte to be included (inclusive),
+     *                null indicates the end of the content
+     * @return stream including only the requested bytes
+     */
+    public static InputStream getContentRange(InputStream content,
+                                              long startByte,
+                                              Long endByte) {
+        validateRange(startByte, endByte);
+        try {
+            if(startByte > 0) {
+                IOUtils.skipFully(content, startByte);
+            }
+        } catch(IOException e) {
+            IOUtils.closeQuietly(content);
+            throw new StorageException("Unable to skip to byte " + startByte +
+                                       " of content due to: " + e.getMessage(),
+                                       e, NO_RETRY);
+        }
+        if(null == endByte) {
+            return content;
+        }
+        BoundedInputStream bounded =
+            new BoundedInputStream(content, endByte - startByte + 1);
+        bounded.setPropagateClose(true);
+        return bounded;
+    }
+
+    /**
+     * Ensures that a requested range of bytes is well formed
+     *
+     * @param startByte position of the first byte to be included
+     * @param endByte position of the last byte to be included (inclusive),
+     *                null indicates the end of the content
+     * @throws StorageException if the range is not valid
+     */
+    public static void validateRange(long startByte, Long endByte) {
+        if(startByte < 0 || (null != endByte && endByte < startByte)) {
+            throw new StorageException("Invalid content range, start byte: " +
+                                       startByte + ", end byte: " + endByte,
+                                       NO_RETRY);
+        }
+    }
+
     /**
      * Generates a map of all client-side default content properties to be
      * added with new content.
@@ -0,0 +1,300 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.xml;
+
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.error.InvalidRequestException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class (de)serializes batches of content operations, and the results
+ * of those operations, between objects and xml. The xml is read and written
+ * with StAX, so results can be written one at a time as they become
+ * available.
+ *
+ * Operations are of the form:
+ *   <operations>
+ *     <operation type="set-properties" contentId="item">
+ *       <property name="name">value</property>
+ *     </operation>
+ *     <operation type="copy" contentId="item" destContentId="copy"/>
+ *   </operations>
+ *
+ * Results are of the form:
+ *   <results spaceId="space">
+ *     <result type="head" contentId="item" status="200">
+ *       <property name="name">value</property>
+ *     </result>
+ *     <result type="delete" contentId="item" status="500">
+ *       <message>reason</message>
+ *     </result>
+ *   </results>
+ */
+public class ContentOperationsDocumentBinding {
+
+    /**
+     * The maximum number of operations which may be included in one batch
+     */
+    public static final int MAX_OPERATIONS = 10000;
+
+    private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+    private static final XMLOutputFactory xmlOutputFactory =
+        XMLOutputFactory.newInstance();
+    private static final XMLInputFactory xmlInputFactory = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                            false);
+        return factory;
+    }
+
+    /**
+     * Writes a batch of operations as xml.
+     */
+    public void writeOperations(List<ContentOperation> operations,
+                                OutputStream output) throws IOException {
+        try {
+            XMLStreamWriter writer = startXml(output, "operations");
+            for (ContentOperation operation : operations) {
+                writer.writeStartElement("operation");
+                writer.writeAttribute("type", operation.getType().toString());
+                writer.writeAttribute("contentId", operation.getContentId());
+                if (null != operation.getDestContentId()) {
+                    writer.writeAttribute("destContentId",
+                                          operation.getDestContentId());
+                }
+                writeProperties(writer, operation.getProperties());
+                writer.writeEndElement();
+            }
+            endXml(writer);
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write content operations: " +
+                                  e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a batch of operations from xml.
+     *
+     * @throws InvalidRequestException if the xml is not valid, includes an
+     *                                 incomplete operation, or includes more
+     *                                 than MAX_OPERATIONS operations
+     */
+    public List<ContentOperation> readOperations(InputStream input)
+        throws InvalidRequestException, IOException {
+        List<ContentOperation> operations = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(input);
+            ContentOperation operation = null;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String element = reader.getLocalName();
+                if ("operation".equals(element)) {
+                    if (operations.size() == MAX_OPERATIONS) {
+                        throw new InvalidRequestException(
+                            "A batch may include at most " + MAX_OPERATIONS +
+                            " operations");
+                    }
+                    operation = readOperation(reader);
+                    operations.add(operation);
+                } else if ("property".equals(element) && null != operation) {
+                    readProperty(reader, operation.getProperties());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new InvalidRequestException(
+                "Unable to read content operations: " + e.getMessage());
+        } finally {
+            close(reader);
+        }
+        return operations;
+    }
+
+    private ContentOperation readOperation(XMLStreamReader reader)
+        throws InvalidRequestException {
+        String type = reader.getAttributeValue(null, "type");
+        String contentId = reader.getAttributeValue(null, "contentId");
+        if (null == type || null == contentId || contentId.isEmpty()) {
+            throw new InvalidRequestException(
+                "Each operation must include a type and a contentId");
+        }
+
+        ContentOperation operation;
+        try {
+            operation = new ContentOperation(
+                ContentOperation.Type.fromString(type), contentId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+
+        String destContentId = reader.getAttributeValue(null, "destContentId");
+        if (ContentOperation.Type.COPY.equals(operation.getType()) &&
+            (null == destContentId || destContentId.isEmpty())) {
+            throw new InvalidRequestException(
+                "Copy operation for " + contentId +
+                " does not include a destContentId");
+        }
+        operation.setDestContentId(destContentId);
+        return operation;
+    }
+
+    /**
+     * Starts an xml listing of operation results, to which each result can
+     * then be written as it becomes available.
+     */
+    public XMLStreamWriter startResults(OutputStream output, String spaceId)
+        throws IOException {
+        try {
+            XMLStreamWriter writer = startXml(output, "results");
+            writer.writeAttribute("spaceId", spaceId);
+            return writer;
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write content operation " +
+                                  "results: " + e.getMessage(), e);
+        }
+    }
+
+    public void writeResult(XMLStreamWriter writer,
+                            ContentOperationResult result) throws IOException {
+        try {
+            writer.writeStartElement("result");
+            writer.writeAttribute("type", result.getType().toString());
+            writer.writeAttribute("contentId", result.getContentId());
+            writer.writeAttribute("status",
+                                  String.valueOf(result.getStatus()));
+            writeProperties(writer, result.getProperties());
+            if (null != result.getMessage()) {
+                writer.writeStartElement("message");
+                writer.writeCharacters(result.getMessage());
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write content operation " +
+                                  "results: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes an xml listing of operation results.
+     */
+    public void endResults(XMLStreamWriter writer) throws IOException {
+        try {
+            endXml(writer);
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write content operation " +
+                                  "results: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the results of a batch of operations from xml.
+     */
+    public List<ContentOperationResult> readResults(InputStream input)
+        throws IOException {
+        List<ContentOperationResult> results = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(input);
+            ContentOperationResult result = null;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String element = reader.getLocalName();
+                if ("result".equals(element)) {
+                    result = new ContentOperationResult(
+                        ContentOperation.Type.fromString(
+                            reader.getAttributeValue(null, "type")),
+                        reader.getAttributeValue(null, "contentId"),
+                        Integer.parseInt(
+                            reader.getAttributeValue(null, "status")));
+                    results.add(result);
+                } else if ("property".equals(element) && null != result) {
+                    readProperty(reader, result.getProperties());
+                } else if ("message".equals(element) && null != result) {
+                    result.setMessage(reader.getElementText());
+                }
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Unable to read content operation " +
+                                  "results: " + e.getMessage(), e);
+        } finally {
+            close(reader);
+        }
+        return results;
+    }
+
+    private void writeProperties(XMLStreamWriter writer,
+                                 Map<String, String> properties)
+        throws XMLStreamException {
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            writer.writeStartElement("property");
+            writer.writeAttribute("name", property.getKey());
+            writer.writeCharacters(property.getValue());
+            writer.writeEndElement();
+        }
+    }
+
+    private void readProperty(XMLStreamReader reader,
+                              Map<String, String> properties)
+        throws XMLStreamException {
+        String name = reader.getAttributeValue(null, "name");
+        String value = reader.getElementText();
+        if (null != name) {
+            properties.put(name, value);
+        }
+    }
+
+    private XMLStreamWriter startXml(OutputStream output, String rootElement)
+        throws XMLStreamException {
+        XMLStreamWriter writer =
+            xmlOutputFactory.createXMLStreamWriter(output, ENCODING);
+        writer.writeStartDocument(ENCODING, "1.0");
+        writer.writeStartElement(rootElement);
+        return writer;
+    }
+
+    private void endXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    private void close(XMLStreamReader reader) {
+        if (null != reader) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // The underlying stream is closed by the caller
+            }
+        }
+    }
+
+}
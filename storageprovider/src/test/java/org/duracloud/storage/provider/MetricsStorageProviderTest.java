@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.duracloud.common.util.metrics.MetricsRegistry;
+import org.duracloud.common.util.metrics.OperationMetrics;
+import org.duracloud.storage.error.NotFoundException;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsStorageProviderTest {
+
+    private static final String PROVIDER = "provider";
+
+    private StorageProvider target;
+    private MetricsRegistry registry;
+    private MetricsStorageProvider provider;
+
+    @Before
+    public void setUp() {
+        target = EasyMock.createMock(StorageProvider.class);
+        registry = new MetricsRegistry();
+        provider = new MetricsStorageProvider(target, PROVIDER, registry);
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(target);
+    }
+
+    private OperationMetrics getMetrics(String operation) {
+        return registry.getOperation(PROVIDER, operation);
+    }
+
+    @Test
+    public void testRecordCall() {
+        Iterator<String> spaces = EasyMock.createMock(Iterator.class);
+        EasyMock.expect(target.getSpaces()).andReturn(spaces).times(2);
+        target.deleteSpace("space");
+        EasyMock.expectLastCall();
+        EasyMock.replay(target);
+
+        assertSame(spaces, provider.getSpaces());
+        assertSame(spaces, provider.getSpaces());
+        provider.deleteSpace("space");
+
+        assertEquals(2, getMetrics("getSpaces").getCount());
+        assertEquals(0, getMetrics("getSpaces").getErrorCount());
+        assertEquals(1, getMetrics("deleteSpace").getCount());
+        assertEquals(0, getMetrics("createSpace").getCount());
+    }
+
+    @Test
+    public void testRecordError() {
+        EasyMock.expect(target.getContentProperties("space", "content"))
+                .andThrow(new NotFoundException("not found"));
+        EasyMock.replay(target);
+
+        try {
+            provider.getContentProperties("space", "content");
+            fail("Exception expected");
+        } catch (NotFoundException expected) {
+        }
+
+        assertEquals(1, getMetrics("getContentProperties").getCount());
+        assertEquals(1, getMetrics("getContentProperties").getErrorCount());
+    }
+
+    @Test
+    public void testCountBytes() throws Exception {
+        byte[] data = new byte[1000];
+        EasyMock.expect(target.getContent("space", "content"))
+                .andReturn(new ByteArrayInputStream(data));
+        EasyMock.expect(target.addContent(EasyMock.eq("space"),
+                                          EasyMock.eq("content"),
+                                          EasyMock.isNull(String.class),
+                                          EasyMock.isNull(Map.class),
+                                          EasyMock.eq(500L),
+                                          EasyMock.isNull(String.class),
+                                          EasyMock.isA(InputStream.class)))
+                .andAnswer(() -> {
+                    InputStream content =
+                        (InputStream) EasyMock.getCurrentArguments()[6];
+                    IOUtils.copy(content, NullOutputStream.NULL_OUTPUT_STREAM);
+                    return "checksum";
+                });
+        EasyMock.replay(target);
+
+        try (InputStream content = provider.getContent("space", "content")) {
+            content.read();
+            assertEquals(data.length - 1,
+                         IOUtils.toByteArray(content).length);
+        }
+        assertEquals(1, getMetrics("getContent").getCount());
+        assertEquals(data.length, getMetrics("getContent").getBytes());
+
+        provider.addContent("space", "content", null, null, 500, null,
+                            new ByteArrayInputStream(new byte[500]));
+        assertEquals(500, getMetrics("addContent").getBytes());
+    }
+
+}
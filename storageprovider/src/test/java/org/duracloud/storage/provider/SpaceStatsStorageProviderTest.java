@@ -0,0 +1,248 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceStatsStorageProviderTest {
+
+    private static final String SPACE = "space";
+
+    private StorageProvider target;
+    private SpaceStatsStorageProvider provider;
+
+    @Before
+    public void setUp() {
+        target = EasyMock.createMock(StorageProvider.class);
+        provider = new SpaceStatsStorageProvider(target);
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(target);
+    }
+
+    @Test
+    public void testCountSpace() {
+        List<ContentSummary> contents = new ArrayList<>();
+        contents.add(new ContentSummary("item1", "10", null, null));
+        contents.add(new ContentSummary("item2", "20", null, null));
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>()).times(2);
+        EasyMock.expect(target.getSpaceContentSummariesChunked(SPACE,
+                                                               null,
+                                                               1000,
+                                                               null))
+                .andReturn(contents);
+        EasyMock.replay(target);
+
+        verifyStats(2, 30);
+        // The space is listed only once
+        verifyStats(2, 30);
+    }
+
+    @Test
+    public void testTargetCount() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(StorageProvider.PROPERTIES_SPACE_COUNT, "5");
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(properties);
+        EasyMock.replay(target);
+
+        Map<String, String> spaceProps = provider.getSpaceProperties(SPACE);
+        assertEquals("5", spaceProps.get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        assertFalse(
+            spaceProps.containsKey(StorageProvider.PROPERTIES_SPACE_SIZE));
+    }
+
+    @Test
+    public void testUpdateStats() {
+        InputStream content = new ByteArrayInputStream(new byte[0]);
+        target.createSpace(SPACE);
+        EasyMock.expectLastCall();
+
+        // New item
+        EasyMock.expect(target.getContentProperties(SPACE, "item1"))
+                .andThrow(new NotFoundException("not found"));
+        EasyMock.expect(target.addContent(SPACE, "item1", null, null, 5, null,
+                                          content))
+                .andReturn("checksum");
+
+        // Replaced item, of unknown size when added, its previous size
+        // having just been seen
+        EasyMock.expect(target.addContent(SPACE, "item1", null, null, -1, null,
+                                          content))
+                .andReturn("checksum");
+        EasyMock.expect(target.getContentProperties(SPACE, "item1"))
+                .andReturn(sizeProperties(7));
+
+        // Copied item, which has the size of its source
+        EasyMock.expect(target.getContentProperties(SPACE, "item2"))
+                .andThrow(new NotFoundException("not found"));
+        EasyMock.expect(target.copyContent(SPACE, "item1", SPACE, "item2"))
+                .andReturn("checksum");
+
+        // Deleted item
+        target.deleteContent(SPACE, "item1");
+        EasyMock.expectLastCall();
+
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>()).times(4);
+        EasyMock.replay(target);
+
+        provider.createSpace(SPACE);
+        verifyStats(0, 0);
+
+        provider.addContent(SPACE, "item1", null, null, 5, null, content);
+        provider.addContent(SPACE, "item1", null, null, -1, null, content);
+        verifyStats(1, 7);
+
+        provider.copyContent(SPACE, "item1", SPACE, "item2");
+        verifyStats(2, 14);
+
+        provider.deleteContent(SPACE, "item1");
+        verifyStats(1, 7);
+    }
+
+    @Test
+    public void testDeleteAfterProperties() {
+        List<ContentSummary> contents = new ArrayList<>();
+        contents.add(new ContentSummary("item1", "3", null, null));
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>()).times(2);
+        EasyMock.expect(target.getSpaceContentSummariesChunked(SPACE,
+                                                               null,
+                                                               1000,
+                                                               null))
+                .andReturn(contents);
+
+        // The properties retrieved before the delete provide the size
+        EasyMock.expect(target.getContentProperties(SPACE, "item1"))
+                .andReturn(sizeProperties(3));
+        target.deleteContent(SPACE, "item1");
+        EasyMock.expectLastCall();
+        EasyMock.replay(target);
+
+        verifyStats(1, 3);
+        provider.getContentProperties(SPACE, "item1");
+        provider.deleteContent(SPACE, "item1");
+        verifyStats(0, 0);
+    }
+
+    @Test
+    public void testAddAfterNotFound() {
+        InputStream content = new ByteArrayInputStream(new byte[0]);
+        target.createSpace(SPACE);
+        EasyMock.expectLastCall();
+
+        // The item found not to exist just before the add is not looked up
+        // again by the add
+        EasyMock.expect(target.getContentProperties(SPACE, "item1"))
+                .andThrow(new NotFoundException("not found"));
+        EasyMock.expect(target.addContent(SPACE, "item1", null, null, 5, null,
+                                          content))
+                .andReturn("checksum");
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>());
+        EasyMock.replay(target);
+
+        provider.createSpace(SPACE);
+        try {
+            provider.getContentProperties(SPACE, "item1");
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // expected
+        }
+        provider.addContent(SPACE, "item1", null, null, 5, null, content);
+        verifyStats(1, 5);
+    }
+
+    @Test
+    public void testSizeLookupFailure() {
+        InputStream content = new ByteArrayInputStream(new byte[0]);
+        target.createSpace(SPACE);
+        EasyMock.expectLastCall();
+
+        // The write succeeds, and the space is counted again
+        EasyMock.expect(target.getContentProperties(SPACE, "item1"))
+                .andThrow(new StorageException("unavailable"));
+        EasyMock.expect(target.addContent(SPACE, "item1", null, null, 5, null,
+                                          content))
+                .andReturn("checksum");
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>());
+        List<ContentSummary> contents = new ArrayList<>();
+        contents.add(new ContentSummary("item1", "5", null, null));
+        EasyMock.expect(target.getSpaceContentSummariesChunked(SPACE,
+                                                               null,
+                                                               1000,
+                                                               null))
+                .andReturn(contents);
+        EasyMock.replay(target);
+
+        provider.createSpace(SPACE);
+        assertEquals("checksum", provider.addContent(SPACE, "item1", null,
+                                                     null, 5, null, content));
+        verifyStats(1, 5);
+    }
+
+    @Test
+    public void testDeleteContents() {
+        List<ContentSummary> contents = new ArrayList<>();
+        contents.add(new ContentSummary("item1", "10", null, null));
+        contents.add(new ContentSummary("item2", "20", null, null));
+        EasyMock.expect(target.getSpaceProperties(SPACE))
+                .andReturn(new HashMap<>()).times(2);
+        EasyMock.expect(target.getSpaceContentSummariesChunked(SPACE,
+                                                               null,
+                                                               1000,
+                                                               null))
+                .andReturn(contents);
+        EasyMock.expect(target.deleteContents(SPACE, contents))
+                .andReturn(Collections.singletonMap("item2", "failed"));
+        EasyMock.replay(target);
+
+        verifyStats(2, 30);
+        provider.deleteContents(SPACE, contents);
+        verifyStats(1, 20);
+    }
+
+    private Map<String, String> sizeProperties(long size) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                       String.valueOf(size));
+        return properties;
+    }
+
+    private void verifyStats(long count, long size) {
+        Map<String, String> spaceProps = provider.getSpaceProperties(SPACE);
+        assertEquals(String.valueOf(count),
+                     spaceProps.get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        assertEquals(String.valueOf(size),
+                     spaceProps.get(StorageProvider.PROPERTIES_SPACE_SIZE));
+    }
+
+}
@@ -8,8 +8,10 @@
 package org.duracloud.storage.provider;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -323,10 +325,7 @@ public class StorageProviderBaseTest {
  
     @Test
     public void testEmptyDeleteWorker() {
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(new ArrayList<String>().iterator())
-                .once();
+        expectListContents(null, new ArrayList<ContentSummary>());
 
         providerMock.removeSpace(spaceId);
         EasyMock.expectLastCall().once();
@@ -336,26 +335,39 @@ public class StorageProviderBaseTest {
         StorageProviderBase.SpaceDeleteWorker worker =
             providerBase.getSpaceDeleteWorker(spaceId);
         worker.run();
+        Assert.assertEquals(0, worker.getDeletedCount());
+    }
+
+    private void expectListContents(String marker,
+                                    List<ContentSummary> contents) {
+        EasyMock.expect(providerMock.getSpaceContentSummariesChunked(
+                            EasyMock.eq(spaceId),
+                            EasyMock.<String>isNull(),
+                            EasyMock.eq((long) StorageProviderBase.DELETE_BATCH_SIZE),
+                            EasyMock.eq(marker)))
+                .andReturn(contents)
+                .once();
+    }
+
+    private List<ContentSummary> summaries(String... contentIds) {
+        List<ContentSummary> contents = new ArrayList<>();
+        for (String contentId : contentIds) {
+            contents.add(new ContentSummary(contentId, "1", "checksum", null));
+        }
+        return contents;
     }
 
     @Test
     public void testOnceDeleteWorker() {
         String contentId = "content-id";
-        List<String> contents = new ArrayList<String>();
-        contents.add(contentId);
 
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(contents.iterator())
-                .once();
+        expectListContents(null, summaries(contentId));
 
         providerMock.deleteContent(spaceId, contentId);
         EasyMock.expectLastCall().once();
 
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(new ArrayList<String>().iterator())
-                .once();
+        expectListContents(contentId, new ArrayList<ContentSummary>());
+        expectListContents(null, new ArrayList<ContentSummary>());
 
         providerMock.removeSpace(spaceId);
         EasyMock.expectLastCall().once();
@@ -365,28 +377,25 @@ public class StorageProviderBaseTest {
         StorageProviderBase.SpaceDeleteWorker worker =
             providerBase.getSpaceDeleteWorker(spaceId);
         worker.run();
+        Assert.assertEquals(1, worker.getDeletedCount());
     }
     
     @Test
     public void testOnceDeleteWorkerWithWrappedStorageProvider() {
         String contentId = "content-id";
-        List<String> contents = new ArrayList<String>();
-        contents.add(contentId);
+        List<ContentSummary> contents = summaries(contentId);
         StorageProvider wrappedProvider = EasyMock.createMock(StorageProvider.class);
         providerBase.setWrappedStorageProvider(wrappedProvider);
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(contents.iterator())
-                .once();
 
-        wrappedProvider.deleteContent(spaceId, contentId);
-        EasyMock.expectLastCall().once();
+        expectListContents(null, contents);
 
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(new ArrayList<String>().iterator())
+        EasyMock.expect(wrappedProvider.deleteContents(spaceId, contents))
+                .andReturn(new HashMap<String, String>())
                 .once();
 
+        expectListContents(contentId, new ArrayList<ContentSummary>());
+        expectListContents(null, new ArrayList<ContentSummary>());
+
         providerMock.removeSpace(spaceId);
         EasyMock.expectLastCall().once();
         EasyMock.replay(wrappedProvider);
@@ -400,51 +409,56 @@ public class StorageProviderBaseTest {
     }
 
     @Test
-    public void testOnceMultipleDeleteWorker() {
-        String contentId = "content-id";
-        List<String> contents = new ArrayList<String>();
-        contents.add(contentId);
-        contents.add(contentId);
-
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(contents.iterator())
-                .once();
+    public void testMultipleBatchDeleteWorker() {
+        String contentId0 = "content-id-0";
+        String contentId1 = "content-id-1";
+        String contentId2 = "content-id-2";
+        StorageProvider wrappedProvider = EasyMock.createMock(StorageProvider.class);
+        providerBase.setWrappedStorageProvider(wrappedProvider);
 
-        providerMock.deleteContent(spaceId, contentId);
-        EasyMock.expectLastCall().times(2);
+        List<ContentSummary> batch0 = summaries(contentId0, contentId1);
+        List<ContentSummary> batch1 = summaries(contentId2);
+        expectListContents(null, batch0);
+        expectListContents(contentId1, batch1);
+        expectListContents(contentId2, new ArrayList<ContentSummary>());
 
-        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
-                                                      EasyMock.<String>isNull()))
-                .andReturn(new ArrayList<String>().iterator())
+        EasyMock.expect(wrappedProvider.deleteContents(spaceId, batch0))
+                .andReturn(new HashMap<String, String>())
+                .once();
+        Map<String, String> failures = new HashMap<>();
+        failures.put(contentId2, "failed");
+        EasyMock.expect(wrappedProvider.deleteContents(spaceId, batch1))
+                .andReturn(failures)
                 .once();
 
+        expectListContents(null, new ArrayList<ContentSummary>());
+
         providerMock.removeSpace(spaceId);
         EasyMock.expectLastCall().once();
-
+        EasyMock.replay(wrappedProvider);
         replayMocks();
 
         StorageProviderBase.SpaceDeleteWorker worker =
             providerBase.getSpaceDeleteWorker(spaceId);
         worker.run();
+        Assert.assertEquals(2, worker.getDeletedCount());
+
+        EasyMock.verify(wrappedProvider);
     }
 
     @Test
     public void testRetriesDeleteWorker() {
         String contentId = "content-id";
-        List<String> contents = new ArrayList<String>();
-        contents.add(contentId);
 
-        EasyMock.expect(providerMock.getSpaceContents(spaceId, null)).andReturn(
-            contents.iterator());
+        expectListContents(null, summaries(contentId));
 
         // 5 tries, 5 failures
         for (int i = 0; i < 5; ++i) {
-            EasyMock.expect(providerMock.getSpaceContents(spaceId, null))
-                    .andReturn(contents.iterator());
-
             providerMock.deleteContent(spaceId, contentId);
-            EasyMock.expectLastCall().andThrow(new NotFoundException(""));
+            EasyMock.expectLastCall().andThrow(new StorageException(""));
+
+            expectListContents(contentId, new ArrayList<ContentSummary>());
+            expectListContents(null, summaries(contentId));
         }
 
         EasyMock.expect(providerMock.getAllSpaceProperties(spaceId)).andReturn(
@@ -459,6 +473,30 @@ public class StorageProviderBaseTest {
         StorageProviderBase.SpaceDeleteWorker worker =
             providerBase.getSpaceDeleteWorker(spaceId);
         worker.run();
+        Assert.assertEquals(0, worker.getDeletedCount());
+    }
+
+    @Test
+    public void testDeleteContents() {
+        String contentId0 = "content-id-0";
+        String contentId1 = "content-id-1";
+        String contentId2 = "content-id-2";
+
+        providerMock.deleteContent(spaceId, contentId0);
+        EasyMock.expectLastCall().once();
+        providerMock.deleteContent(spaceId, contentId1);
+        EasyMock.expectLastCall().andThrow(new NotFoundException(""));
+        providerMock.deleteContent(spaceId, contentId2);
+        EasyMock.expectLastCall().andThrow(new StorageException("failed"));
+
+        replayMocks();
+
+        Map<String, String> failures =
+            providerBase.deleteContents(spaceId, summaries(contentId0,
+                                                           contentId1,
+                                                           contentId2));
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("failed", failures.get(contentId2));
     }
 
     /**
@@ -568,5 +606,16 @@ public class StorageProviderBaseTest {
                                                         String contentId) {
             return mock.getContentProperties(spaceId, contentId);
         }
+
+        @Override
+        public List<ContentSummary> getSpaceContentSummariesChunked(String spaceId,
+                                                                    String prefix,
+                                                                    long maxResults,
+                                                                    String marker) {
+            return mock.getSpaceContentSummariesChunked(spaceId,
+                                                        prefix,
+                                                        maxResults,
+                                                        marker);
+        }
     }
 }
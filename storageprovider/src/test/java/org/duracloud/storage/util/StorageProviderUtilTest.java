@@ -7,7 +7,9 @@
  */
 package org.duracloud.storage.util;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.junit.After;
 import org.junit.Before;
@@ -15,6 +17,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -124,4 +127,30 @@ public class StorageProviderUtilTest {
         assertNotNull(props.get(StorageProvider.PROPERTIES_CONTENT_FILE_MODIFIED));
         assertNotNull(props.get(StorageProvider.PROPERTIES_CONTENT_FILE_PATH));
     }
+
+    @Test
+    public void testGetContentRange() throws Exception {
+        String content = "0123456789";
+
+        InputStream range = StorageProviderUtil.getContentRange(
+            new ByteArrayInputStream(content.getBytes()), 2, 5L);
+        assertEquals("2345", IOUtils.toString(range));
+
+        range = StorageProviderUtil.getContentRange(
+            new ByteArrayInputStream(content.getBytes()), 7, null);
+        assertEquals("789", IOUtils.toString(range));
+
+        // End beyond the content includes the remainder
+        range = StorageProviderUtil.getContentRange(
+            new ByteArrayInputStream(content.getBytes()), 8, 100L);
+        assertEquals("89", IOUtils.toString(range));
+
+        try {
+            StorageProviderUtil.getContentRange(
+                new ByteArrayInputStream(content.getBytes()), 5, 4L);
+            fail("Exception expected");
+        } catch(StorageException expected) {
+            assertNotNull(expected.getMessage());
+        }
+    }
 }
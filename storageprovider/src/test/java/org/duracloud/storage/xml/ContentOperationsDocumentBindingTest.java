@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.xml;
+
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.error.InvalidRequestException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContentOperationsDocumentBindingTest {
+
+    private ContentOperationsDocumentBinding binding;
+
+    @Before
+    public void setUp() {
+        binding = new ContentOperationsDocumentBinding();
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        List<ContentOperation> operations = new ArrayList<>();
+        operations.add(new ContentOperation(ContentOperation.Type.DELETE,
+                                            "dir/item & <1>"));
+        operations.add(new ContentOperation(ContentOperation.Type.HEAD,
+                                            "item2"));
+        ContentOperation setProps =
+            new ContentOperation(ContentOperation.Type.SET_PROPERTIES, "item3");
+        setProps.getProperties().put("name", "value");
+        setProps.getProperties().put("tags", "a|b");
+        operations.add(setProps);
+        ContentOperation copy =
+            new ContentOperation(ContentOperation.Type.COPY, "item4");
+        copy.setDestContentId("item4-copy");
+        operations.add(copy);
+
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        binding.writeOperations(operations, xml);
+        List<ContentOperation> read =
+            binding.readOperations(new ByteArrayInputStream(xml.toByteArray()));
+
+        Assert.assertEquals(operations.size(), read.size());
+        for (int i = 0; i < operations.size(); i++) {
+            ContentOperation expected = operations.get(i);
+            ContentOperation actual = read.get(i);
+            Assert.assertEquals(expected.getType(), actual.getType());
+            Assert.assertEquals(expected.getContentId(), actual.getContentId());
+            Assert.assertEquals(expected.getDestContentId(),
+                                actual.getDestContentId());
+            Assert.assertEquals(expected.getProperties(),
+                                actual.getProperties());
+        }
+    }
+
+    @Test
+    public void testInvalidOperations() throws Exception {
+        verifyInvalid("<operations><operation contentId=\"a\"/></operations>");
+        verifyInvalid("<operations><operation type=\"move\" " +
+                      "contentId=\"a\"/></operations>");
+        verifyInvalid("<operations><operation type=\"copy\" " +
+                      "contentId=\"a\"/></operations>");
+        verifyInvalid("<operations><operation type=\"head\"");
+    }
+
+    private void verifyInvalid(String xml) throws Exception {
+        try {
+            binding.readOperations(toStream(xml));
+            Assert.fail("Exception expected for: " + xml);
+        } catch (InvalidRequestException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTooManyOperations() throws Exception {
+        StringBuilder xml = new StringBuilder("<operations>");
+        for (int i = 0; i <= ContentOperationsDocumentBinding.MAX_OPERATIONS;
+             i++) {
+            xml.append("<operation type=\"head\" contentId=\"item\"/>");
+        }
+        xml.append("</operations>");
+        verifyInvalid(xml.toString());
+    }
+
+    @Test
+    public void testResults() throws Exception {
+        ContentOperationResult head =
+            new ContentOperationResult(ContentOperation.Type.HEAD, "item1", 200);
+        head.getProperties().put("content-checksum", "abc");
+        ContentOperationResult delete =
+            new ContentOperationResult(ContentOperation.Type.DELETE,
+                                       "item2",
+                                       500);
+        delete.setMessage("failed <badly>");
+
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        XMLStreamWriter writer = binding.startResults(xml, "space-id");
+        binding.writeResult(writer, head);
+        binding.writeResult(writer, delete);
+        binding.endResults(writer);
+
+        List<ContentOperationResult> read =
+            binding.readResults(new ByteArrayInputStream(xml.toByteArray()));
+        Assert.assertEquals(2, read.size());
+
+        ContentOperationResult readHead = read.get(0);
+        Assert.assertEquals(ContentOperation.Type.HEAD, readHead.getType());
+        Assert.assertEquals("item1", readHead.getContentId());
+        Assert.assertEquals(200, readHead.getStatus());
+        Assert.assertTrue(readHead.isSuccess());
+        Assert.assertEquals("abc",
+                            readHead.getProperties().get("content-checksum"));
+        Assert.assertNull(readHead.getMessage());
+
+        ContentOperationResult readDelete = read.get(1);
+        Assert.assertEquals(ContentOperation.Type.DELETE, readDelete.getType());
+        Assert.assertEquals(500, readDelete.getStatus());
+        Assert.assertFalse(readDelete.isSuccess());
+        Assert.assertEquals("failed <badly>", readDelete.getMessage());
+        Assert.assertTrue(readDelete.getProperties().isEmpty());
+    }
+
+    private InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
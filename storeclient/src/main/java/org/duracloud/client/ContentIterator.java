@@ -7,6 +7,7 @@
  */
 package org.duracloud.client;
 
+import org.duracloud.common.util.PagePrefetcher;
 import org.duracloud.common.util.WaitUtil;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.error.ContentStoreException;
@@ -21,13 +22,19 @@ import java.util.NoSuchElementException;
  * Iterates over the content list in a DuraCloud space. Handles the chunked
  * nature of long item lists internally, allowing the caller to simply
  * call next() to iterate through the entire content listing, regardless
- * of its length.
+ * of its length. By default, the next chunk of the list is requested in the
+ * background while the current chunk is being consumed.
  *
  * @author: Bill Branan
  * Date: Dec 23, 2009
  */
 public class ContentIterator implements Iterator<String> {
 
+    /**
+     * Number of chunks requested ahead of the chunk being consumed
+     */
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+
     private ContentStore store;
     private String spaceId;
     private String prefix;
@@ -35,7 +42,8 @@ public class ContentIterator implements Iterator<String> {
     private int index;
     private List<String> contentList;
     private long maxResults;
-    private int maxRetries;
+    private volatile int maxRetries;
+    private PagePrefetcher<String> prefetcher;
 
     private final Logger log =
         LoggerFactory.getLogger(ContentIterator.class);
@@ -50,6 +58,19 @@ public class ContentIterator implements Iterator<String> {
                            String spaceId,
                            String prefix,
                            long maxResults) throws ContentStoreException {
+        this(store, spaceId, prefix, maxResults, DEFAULT_PREFETCH_DEPTH);
+    }
+
+    /**
+     * @param prefetchDepth number of chunks to request ahead of the chunk
+     *                      being consumed, 0 to request each chunk only
+     *                      once the previous chunk has been consumed
+     */
+    public ContentIterator(ContentStore store,
+                           String spaceId,
+                           String prefix,
+                           long maxResults,
+                           int prefetchDepth) throws ContentStoreException {
         index = 0;
         this.store = store;
         this.spaceId = spaceId;
@@ -57,6 +78,11 @@ public class ContentIterator implements Iterator<String> {
         this.maxResults = maxResults;
         this.maxRetries = 7;
         contentList = retryBuildContentList(null);
+        if (prefetchDepth > 0) {
+            prefetcher = new PagePrefetcher<>(this::retryBuildContentList,
+                                              contentList,
+                                              prefetchDepth);
+        }
     }
 
     public void setMaxRetries(int maxRetries) {
@@ -93,10 +119,16 @@ public class ContentIterator implements Iterator<String> {
     }
 
     private void updateList() {
-        String lastItem = contentList.get(contentList.size()-1);
         try {
-            contentList = retryBuildContentList(lastItem);
-        } catch(ContentStoreException e) {
+            if (null != prefetcher) {
+                contentList = prefetcher.nextPage();
+            } else {
+                String lastItem = contentList.get(contentList.size()-1);
+                contentList = retryBuildContentList(lastItem);
+            }
+        } catch(RuntimeException e) {
+            throw e;
+        } catch(Exception e) {
             throw new RuntimeException(e);
         }
         index = 0;
@@ -24,6 +24,9 @@ import org.duracloud.error.NotFoundException;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReport;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.provider.StorageProvider;
 
 /**
@@ -149,6 +152,43 @@ public interface ContentStore {
                           String marker)
         throws ContentStoreException;
 
+    /**
+     * Retrieves the complete list of content items within a space, including
+     * the size, checksum and modified date of each item. For spaces with many
+     * content items, the list is paged and updated automatically in order to
+     * retrieve the entire list. This avoids the need to call
+     * getContentProperties() for each item when only these values are needed.
+     *
+     * @param spaceId the identifier of the DuraCloud Space
+     * @param prefix only retrieve content items with this prefix (null for all content items)
+     * @return Iterator for content summaries
+     * @throws NotFoundException if the space does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Iterator<ContentSummary> getSpaceContentSummaries(String spaceId,
+                                                             String prefix)
+        throws ContentStoreException;
+
+    /**
+     * Provides a limited list of the content items within a space, including
+     * the size, checksum and modified date of each item. This call allows for
+     * manual paging of content items using the maxResults and marker
+     * parameters.
+     *
+     * @param spaceId the identifier of the DuraCloud Space
+     * @param prefix only retrieve content items with this prefix (null for all content items)
+     * @param maxResults the maximum number of content items to return in the list (0 indicates default - which is 1000)
+     * @param marker the content id marking the last item in the previous set (null to specify first set of ids)
+     * @return List of content summaries
+     * @throws NotFoundException if the space does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public List<ContentSummary> getSpaceContentSummaries(String spaceId,
+                                                         String prefix,
+                                                         long maxResults,
+                                                         String marker)
+        throws ContentStoreException;
+
     /**
      * Creates a new space. Depending on the storage implementation, the spaceId
      * may be changed somewhat to comply with the naming rules of the underlying
@@ -322,6 +362,26 @@ public interface ContentStore {
     public Content getContent(String spaceId, String contentId)
             throws ContentStoreException;
 
+    /**
+     * Gets a range of bytes of content from a space. The properties of the
+     * returned Content describe the full content item.
+     *
+     * @param spaceId the identifier of the DuraCloud Space
+     * @param contentId the identifier of the content item
+     * @param startByte the position of the first byte to retrieve (0-based),
+     *                  null indicates the start of the content
+     * @param endByte the position of the last byte to retrieve (inclusive),
+     *                null indicates the end of the content
+     * @return the content stream, including only the requested bytes
+     * @throws NotFoundException if the space or content does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Content getContent(String spaceId,
+                              String contentId,
+                              Long startByte,
+                              Long endByte)
+            throws ContentStoreException;
+
     /**
      * Removes content from a space.
      *
@@ -333,6 +393,27 @@ public interface ContentStore {
     public void deleteContent(String spaceId, String contentId)
             throws ContentStoreException;
 
+    /**
+     * Performs a batch of operations (delete, head, set-properties and copy)
+     * on content items within a space. The operations are sent to DuraCloud
+     * with as few requests as possible, and are performed concurrently, so
+     * the results may be in a different order than the operations.
+     *
+     * The failure of an operation does not prevent the others from being
+     * performed; the result of each operation indicates whether it
+     * succeeded. Deleting a content item which does not exist is reported
+     * as a success. Copy operations create the copy within the same space.
+     *
+     * @param spaceId the identifier of the DuraCloud Space
+     * @param operations the operations to perform
+     * @return the result of each operation
+     * @throws ContentStoreException if the operations could not be performed
+     */
+    public List<ContentOperationResult> executeContentOperations(
+        String spaceId,
+        List<ContentOperation> operations)
+            throws ContentStoreException;
+
     /**
      * Sets the properties associated with content. This effectively removes all
      * of the current content properties and adds a new set of properties. Some
@@ -9,6 +9,7 @@ package org.duracloud.client;
 
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
@@ -49,10 +50,15 @@ import org.duracloud.error.UnsupportedTaskException;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReport;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportResult;
+import org.duracloud.storage.domain.ContentOperation;
+import org.duracloud.storage.domain.ContentOperationResult;
+import org.duracloud.storage.domain.ContentSummary;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.util.IdUtil;
+import org.duracloud.storage.util.StorageProviderUtil;
+import org.duracloud.storage.xml.ContentOperationsDocumentBinding;
 import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.input.SAXBuilder;
@@ -376,6 +382,90 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<ContentSummary> getSpaceContentSummaries(
+        final String spaceId,
+        final String prefix)
+        throws ContentStoreException {
+        final ContentStore store = this;
+        return execute(new Retriable() {
+            @Override
+            public Iterator<ContentSummary> retry()
+                throws ContentStoreException {
+                // The actual method being executed
+                return new ContentSummaryIterator(store, spaceId, prefix);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ContentSummary> getSpaceContentSummaries(final String spaceId,
+                                                         final String prefix,
+                                                         final long maxResults,
+                                                         final String marker)
+        throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public List<ContentSummary> retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetSpaceContentSummaries(spaceId,
+                                                  prefix,
+                                                  maxResults,
+                                                  marker);
+            }
+        });
+    }
+
+    private List<ContentSummary> doGetSpaceContentSummaries(String spaceId,
+                                                            String prefix,
+                                                            long maxResults,
+                                                            String marker)
+        throws ContentStoreException {
+        String task = "get space content summaries";
+        String url = buildSpaceURL(spaceId, prefix, maxResults, marker);
+        url = addQueryParameter(url, "summaries", String.valueOf(true));
+        try {
+            HttpResponse response = restHelper.get(url);
+            checkResponse(response, HttpStatus.SC_OK);
+
+            InputStream is = response.getResponseStream();
+            if (is == null) {
+                throw new ContentStoreException("Response body is empty");
+            }
+
+            List<ContentSummary> summaries = new ArrayList<>();
+            try {
+                SAXBuilder builder = new SAXBuilder();
+                Document doc = builder.build(is);
+                Element spaceElem = doc.getRootElement();
+                Iterator<?> spaceContents = spaceElem.getChildren().iterator();
+                while (spaceContents.hasNext()) {
+                    Element contentElem = (Element) spaceContents.next();
+                    summaries.add(new ContentSummary(
+                        contentElem.getText(),
+                        contentElem.getAttributeValue("size"),
+                        contentElem.getAttributeValue("checksum"),
+                        contentElem.getAttributeValue("modified")));
+                }
+            } finally {
+                is.close();
+            }
+            return summaries;
+        } catch(NotFoundException e) {
+            throw new NotFoundException(task, spaceId, e);
+        } catch(UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -845,6 +935,85 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Content getContent(final String spaceId,
+                              final String contentId,
+                              final Long startByte,
+                              final Long endByte)
+        throws ContentStoreException {
+        if(null == startByte && null == endByte) {
+            return getContent(spaceId, contentId);
+        }
+        final long start = (null == startByte) ? 0 : startByte;
+        if(start < 0 || (null != endByte && endByte < start)) {
+            throw new ContentStoreException("Invalid range for content " +
+                                            contentId + ": " + startByte +
+                                            "-" + endByte);
+        }
+        return execute(new Retriable() {
+            @Override
+            public Content retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetContent(spaceId, contentId, start, endByte);
+            }
+        });
+    }
+
+    private Content doGetContent(String spaceId,
+                                 String contentId,
+                                 long startByte,
+                                 Long endByte)
+        throws ContentStoreException {
+        String task = "get content range";
+        String url = buildContentURL(spaceId, contentId);
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.RANGE, "bytes=" + startByte + "-" +
+                                       (null == endByte ? "" : endByte));
+        try {
+            HttpResponse response = restHelper.get(url, headers);
+            InputStream stream;
+            if(response != null &&
+               response.getStatusCode() == HttpStatus.SC_OK) {
+                // The range was not applied, so it is applied here
+                stream = StorageProviderUtil.getContentRange(
+                    response.getResponseStream(), startByte, endByte);
+            } else {
+                checkResponse(response, HttpStatus.SC_PARTIAL_CONTENT);
+                stream = response.getResponseStream();
+            }
+
+            Content content = new Content();
+            content.setId(contentId);
+            content.setStream(stream);
+            Map<String, String> properties =
+                mergeMaps(extractPropertiesFromHeaders(response),
+                          extractNonPropertiesHeaders(response));
+            // Report the size of the full content rather than of the range
+            Header rangeHeader =
+                response.getResponseHeader(HttpHeaders.CONTENT_RANGE);
+            String contentRange =
+                (null == rangeHeader) ? null : rangeHeader.getValue();
+            if(null != contentRange && contentRange.contains("/")) {
+                String size =
+                    contentRange.substring(contentRange.indexOf('/') + 1);
+                if(!size.equals("*")) {
+                    properties.put(CONTENT_SIZE, size);
+                }
+            }
+            content.setProperties(properties);
+            return content;
+        } catch(NotFoundException e) {
+            throw new NotFoundException(task, spaceId, contentId, e);
+        } catch(UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, contentId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, contentId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -877,6 +1046,69 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ContentOperationResult> executeContentOperations(
+        final String spaceId,
+        final List<ContentOperation> operations)
+        throws ContentStoreException {
+        List<ContentOperationResult> results = new ArrayList<>();
+        int batchSize = ContentOperationsDocumentBinding.MAX_OPERATIONS;
+        for (int i = 0; i < operations.size(); i += batchSize) {
+            final List<ContentOperation> batch =
+                operations.subList(i, Math.min(operations.size(),
+                                               i + batchSize));
+            results.addAll(execute(new Retriable() {
+                @Override
+                public List<ContentOperationResult> retry()
+                    throws ContentStoreException {
+                    // The actual method being executed
+                    return doExecuteContentOperations(spaceId, batch);
+                }
+            }));
+        }
+        return results;
+    }
+
+    private List<ContentOperationResult> doExecuteContentOperations(
+        String spaceId,
+        List<ContentOperation> operations)
+        throws ContentStoreException {
+        String task = "execute content operations";
+        String url = buildSpaceURL(spaceId);
+        ContentOperationsDocumentBinding binding =
+            new ContentOperationsDocumentBinding();
+        try {
+            ByteArrayOutputStream xml = new ByteArrayOutputStream();
+            binding.writeOperations(operations, xml);
+            HttpResponse response =
+                restHelper.post(url,
+                                new ByteArrayInputStream(xml.toByteArray()),
+                                "application/xml",
+                                xml.size(),
+                                null);
+            checkResponse(response, HttpStatus.SC_OK);
+
+            InputStream is = response.getResponseStream();
+            if (is == null) {
+                throw new ContentStoreException("Response body is empty");
+            }
+            try {
+                return binding.readResults(is);
+            } finally {
+                is.close();
+            }
+        } catch(NotFoundException e) {
+            throw new NotFoundException(task, spaceId, e);
+        } catch(UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
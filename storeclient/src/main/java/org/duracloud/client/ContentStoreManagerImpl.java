@@ -17,6 +17,7 @@ import java.util.Map;
 import org.apache.http.HttpStatus;
 import org.duracloud.common.model.Credential;
 import org.duracloud.common.model.Securable;
+import org.duracloud.common.web.HttpConnectionPool;
 import org.duracloud.common.web.RestHttpHelper;
 import org.duracloud.common.web.RestHttpHelper.HttpResponse;
 import org.duracloud.error.ContentStoreException;
@@ -42,6 +43,8 @@ public class ContentStoreManagerImpl implements ContentStoreManager, Securable {
 
     private RestHttpHelper restHelper;
 
+    private HttpConnectionPool connectionPool;
+
     /**
      * <p>Constructor for ContentStoreManagerImpl.</p>
      *
@@ -60,6 +63,23 @@ public class ContentStoreManagerImpl implements ContentStoreManager, Securable {
      * @param context the application context by which DuraStore can be accessed
      */
     public ContentStoreManagerImpl(String host, String port, String context) {
+        this(host, port, context, null);
+    }
+
+    /**
+     * <p>Constructor for ContentStoreManagerImpl.</p>
+     *
+     * @param host the host name on which DuraStore can be accessed
+     * @param port the port on which DuraStore can be accessed
+     * @param context the application context by which DuraStore can be accessed
+     * @param connectionPool pool of HTTP connections to be reused by all
+     *                       content stores created by this manager, may be null
+     */
+    public ContentStoreManagerImpl(String host,
+                                   String port,
+                                   String context,
+                                   HttpConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
         init(host, port, context);
     }
 
@@ -166,12 +186,12 @@ public class ContentStoreManagerImpl implements ContentStoreManager, Securable {
 
     public void login(Credential appCred) {
         log.debug("login: " + appCred.getUsername());
-        setRestHelper(new RestHttpHelper(appCred));
+        setRestHelper(new RestHttpHelper(appCred, connectionPool));
     }
 
     public void logout() {
         log.debug("logout");
-        setRestHelper(new RestHttpHelper());
+        setRestHelper(new RestHttpHelper(null, connectionPool));
     }
 
     private StorageAccountManager getStorageAccounts()
@@ -246,7 +266,7 @@ public class ContentStoreManagerImpl implements ContentStoreManager, Securable {
 
     protected RestHttpHelper getRestHelper() {
         if (null == restHelper) {
-            restHelper = new RestHttpHelper();
+            restHelper = new RestHttpHelper(null, connectionPool);
         }
         return restHelper;
     }
@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client;
+
+import org.duracloud.common.util.PagePrefetcher;
+import org.duracloud.common.util.WaitUtil;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.storage.domain.ContentSummary;
+import org.duracloud.storage.provider.StorageProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the content list in a DuraCloud space, providing the size,
+ * checksum and modified date of each content item along with its ID. As with
+ * ContentIterator, the chunked nature of long item lists is handled
+ * internally, with the next chunk requested in the background while the
+ * current chunk is being consumed.
+ */
+public class ContentSummaryIterator implements Iterator<ContentSummary> {
+
+    private ContentStore store;
+    private String spaceId;
+    private String prefix;
+
+    private int index;
+    private List<ContentSummary> contentList;
+    private long maxResults;
+    private volatile int maxRetries;
+    private PagePrefetcher<ContentSummary> prefetcher;
+
+    private final Logger log =
+        LoggerFactory.getLogger(ContentSummaryIterator.class);
+
+    public ContentSummaryIterator(ContentStore store,
+                                  String spaceId,
+                                  String prefix) throws ContentStoreException {
+        this(store, spaceId, prefix, StorageProvider.DEFAULT_MAX_RESULTS);
+    }
+
+    public ContentSummaryIterator(ContentStore store,
+                                  String spaceId,
+                                  String prefix,
+                                  long maxResults)
+        throws ContentStoreException {
+        index = 0;
+        this.store = store;
+        this.spaceId = spaceId;
+        this.prefix = prefix;
+        this.maxResults = maxResults;
+        this.maxRetries = 7;
+        contentList = retryBuildContentList(null);
+        prefetcher = new PagePrefetcher<>(this::retryBuildContentList,
+                                          contentList,
+                                          ContentIterator.DEFAULT_PREFETCH_DEPTH);
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        if(maxRetries >= 0) {
+            this.maxRetries = maxRetries;
+        }
+    }
+
+    public boolean hasNext() {
+        if (index < contentList.size()) {
+            return true;
+        } else {
+            if (contentList.size() > 0) {
+                updateList();
+                return contentList.size() > 0;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    public ContentSummary next() {
+        if (hasNext()) {
+            ContentSummary next = contentList.get(index);
+            ++index;
+            return next;
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void updateList() {
+        try {
+            contentList = prefetcher.nextPage();
+        } catch(RuntimeException e) {
+            throw e;
+        } catch(Exception e) {
+            throw new RuntimeException(e);
+        }
+        index = 0;
+    }
+
+    private List<ContentSummary> retryBuildContentList(ContentSummary lastItem)
+        throws ContentStoreException {
+        String marker = (null == lastItem) ? null : lastItem.getContentId();
+        ContentStoreException lastException = null;
+        for(int i=0; i<=maxRetries; i++) {
+            try {
+                return store.getSpaceContentSummaries(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+            } catch (ContentStoreException e) {
+                lastException = e;
+                log.warn(e.getMessage());
+                WaitUtil.wait(i);
+            }
+        }
+        throw lastException;
+    }
+
+}
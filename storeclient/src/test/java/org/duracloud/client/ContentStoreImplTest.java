@@ -378,6 +378,57 @@ public class ContentStoreImplTest {
         Assert.assertEquals(stream, content.getStream());
     }
 
+    @Test
+    public void testGetContentRange() throws Exception {
+        InputStream stream = IOUtils.toInputStream("tent");
+
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId +
+                         "?storeID=" + storeId;
+        Capture<Map<String, String>> headersCapture = new Capture<>();
+        EasyMock.expect(response.getStatusCode()).andReturn(206).times(2);
+        EasyMock.expect(response.getResponseHeaders())
+                .andReturn(new Header[0]).times(2);
+        EasyMock.expect(response.getResponseHeader(HttpHeaders.CONTENT_RANGE))
+                .andReturn(new BasicHeader(HttpHeaders.CONTENT_RANGE,
+                                           "bytes 3-6/7"));
+        EasyMock.expect(response.getResponseStream()).andReturn(stream);
+        EasyMock.expect(restHelper.get(EasyMock.eq(fullURL),
+                                       EasyMock.capture(headersCapture)))
+                .andReturn(response);
+
+        replayMocks();
+
+        Content content = contentStore.getContent(spaceId, contentId, 3L, 6L);
+        Assert.assertEquals(stream, content.getStream());
+        Assert.assertEquals("7", content.getProperties()
+                                        .get(ContentStore.CONTENT_SIZE));
+        Assert.assertEquals("bytes=3-6",
+                            headersCapture.getValue().get(HttpHeaders.RANGE));
+    }
+
+    @Test
+    public void testGetContentRangeNotApplied() throws Exception {
+        // The full content is returned when the range is not applied
+        InputStream stream = IOUtils.toInputStream("content");
+
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId +
+                         "?storeID=" + storeId;
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        EasyMock.expect(response.getResponseHeaders())
+                .andReturn(new Header[0]).times(2);
+        EasyMock.expect(response.getResponseHeader(HttpHeaders.CONTENT_RANGE))
+                .andReturn(null);
+        EasyMock.expect(response.getResponseStream()).andReturn(stream);
+        EasyMock.expect(restHelper.get(EasyMock.eq(fullURL),
+                                       EasyMock.<Map<String, String>>anyObject()))
+                .andReturn(response);
+
+        replayMocks();
+
+        Content content = contentStore.getContent(spaceId, contentId, 3L, null);
+        Assert.assertEquals("tent", IOUtils.toString(content.getStream()));
+    }
+
     @Test
     public void testDeleteContent() throws Exception {
         String fullURL = baseURL + "/" + spaceId + "/" + contentId +
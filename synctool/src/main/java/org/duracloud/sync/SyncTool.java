@@ -16,6 +16,7 @@ import java.util.Properties;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.util.StoreClientUtil;
 import org.duracloud.common.util.ApplicationConfig;
+import org.duracloud.common.web.HttpConnectionPool;
 import org.duracloud.sync.backup.SyncBackupManager;
 import org.duracloud.sync.config.SyncToolConfig;
 import org.duracloud.sync.config.SyncToolConfigParser;
@@ -23,9 +24,11 @@ import org.duracloud.sync.endpoint.DuraStoreChunkSyncEndpoint;
 import org.duracloud.sync.endpoint.EndPointLogger;
 import org.duracloud.sync.endpoint.SyncEndpoint;
 import org.duracloud.sync.mgmt.ChangedList;
+import org.duracloud.sync.mgmt.DiskBackedChangedList;
 import org.duracloud.sync.mgmt.FileExclusionManager;
 import org.duracloud.sync.mgmt.StatusManager;
 import org.duracloud.sync.mgmt.SyncManager;
+import org.duracloud.sync.mgmt.SyncStateIndex;
 import org.duracloud.sync.monitor.DirectoryUpdateMonitor;
 import org.duracloud.sync.walker.DeleteChecker;
 import org.duracloud.sync.walker.DirWalker;
@@ -88,7 +91,11 @@ public class SyncTool {
         } else{
             this.fileExclusionManager = new FileExclusionManager();
         }
-        
+
+        if(this.syncConfig.isDiskBackedList()) {
+            ChangedList.setInstance(new DiskBackedChangedList(
+                new File(this.syncConfig.getWorkDir(), "changedList")));
+        }
         ChangedList.getInstance()
                    .setFileExclusionManager(this.fileExclusionManager);
 
@@ -143,10 +150,12 @@ public class SyncTool {
                                          prevConfig.getExcludeList());
         boolean samePrefix = sameConfig(currConfig.getPrefix(),
                                         prevConfig.getPrefix());
+        boolean sameDiskBackedList =
+            currConfig.isDiskBackedList() == prevConfig.isDiskBackedList();
 
         if(sameHost && sameSpaceId && sameStoreId && sameSyncDeletes &&
            sameContentDirs && sameSyncUpdates && sameRenameUpdates &&
-           sameExclude && samePrefix) {
+           sameExclude && samePrefix && sameDiskBackedList) {
             return true;
         }
         return false;
@@ -168,7 +177,9 @@ public class SyncTool {
                                           syncConfig.getContext(),
                                           syncConfig.getUsername(),
                                           syncConfig.getPassword(),
-                                          syncConfig.getStoreId());
+                                          syncConfig.getStoreId(),
+                                          new HttpConnectionPool(
+                                              syncConfig.getNumThreads()));
 
         syncEndpoint = 
             new DuraStoreChunkSyncEndpoint(contentStore,
@@ -296,6 +307,10 @@ public class SyncTool {
             System.out.println("\nThe Sync Tool will exit after the remaining "
                                + inWork + " work items have completed\n");
         }
+
+        // The state recorded by the workers is written out once they finish
+        syncManager.awaitEnd();
+        SyncStateIndex.getInstance().close();
     }
 
     public void runSyncTool() {
@@ -303,10 +318,9 @@ public class SyncTool {
         logger.info("Running Sync Tool with configuration: " +
                     syncConfig.getPrintableConfig());
         System.out.print("\nStarting up the Sync Tool ...");
-        startSyncManager();
-
-        System.out.print("...");
         boolean restart = restartPossible();
+        openSyncStateIndex(restart);
+        startSyncManager();
         System.out.print("...");
 
         File backupDir = new File(syncConfig.getWorkDir(), "backup");
@@ -356,6 +370,19 @@ public class SyncTool {
         }
     }
 
+    /*
+     * Loads the state of files as of their last sync. The recorded state is
+     * only valid if the sync configuration has not changed, so it is cleared
+     * if a restart is not possible.
+     */
+    private void openSyncStateIndex(boolean restart) {
+        SyncStateIndex syncStateIndex = SyncStateIndex.getInstance();
+        syncStateIndex.open(new File(syncConfig.getWorkDir(), "index"));
+        if(!restart) {
+            syncStateIndex.clear();
+        }
+    }
+
     private void startBackupsOnDirWalkerCompletion() {
         new Thread(new Runnable(){
             @Override
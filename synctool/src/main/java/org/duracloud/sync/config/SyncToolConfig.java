@@ -44,6 +44,7 @@ public class SyncToolConfig implements Serializable {
     private String updateSuffix = DEFAULT_UPDATE_SUFFIX;
     private String prefix;
     private boolean jumpStart = false;
+    private boolean diskBackedList = false;
 
     public String getPrintableConfig() {
         StringBuilder config = new StringBuilder();
@@ -94,6 +95,8 @@ public class SyncToolConfig implements Serializable {
         config.append(isCleanStart()).append("\n");
         config.append("Jump Start Mode: ");
         config.append(isJumpStart()).append("\n");
+        config.append("Disk Backed Changed List: ");
+        config.append(isDiskBackedList()).append("\n");
         config.append("SyncTool Exit on Completion: ");
         config.append(exitOnCompletion()).append("\n");
         config.append("Sync Updates: ");
@@ -283,6 +286,14 @@ public class SyncToolConfig implements Serializable {
         this.jumpStart = jumpStart;
     }
 
+    public boolean isDiskBackedList() {
+        return diskBackedList;
+    }
+
+    public void setDiskBackedList(boolean diskBackedList) {
+        this.diskBackedList = diskBackedList;
+    }
+
     public long getBackupFrequency() {
         return backupFrequency;
     }
@@ -226,6 +226,16 @@ public class SyncToolConfigParser {
        prefixOption.setRequired(false);
        cmdOptions.addOption(prefixOption);
 
+       Option diskBackedList =
+           new Option("b", "disk-backed-list", false,
+                      "indicates that the list of files waiting to be synced " +
+                      "should be kept on disk in the work-dir, with only a " +
+                      "small portion held in memory. Recommended when " +
+                      "syncing a very large number of files. " +
+                      "(optional, not set by default)");
+       diskBackedList.setRequired(false);
+       cmdOptions.addOption(diskBackedList);
+
        // Options to use Backup Config
        configFileOptions = new Options();
 
@@ -476,6 +486,12 @@ public class SyncToolConfigParser {
             config.setPrefix(cmd.getOptionValue("a"));
         }
 
+        if(cmd.hasOption("b")) {
+            config.setDiskBackedList(true);
+        } else {
+            config.setDiskBackedList(false);
+        }
+
         return config;
     }
 
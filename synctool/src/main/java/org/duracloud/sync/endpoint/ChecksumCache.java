@@ -0,0 +1,101 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.endpoint;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the MD5 checksums of recently synced local files, so that a file
+ * which has not changed since it was last read does not need to be read
+ * again to determine its checksum. A cached checksum is only returned while
+ * the size and last modified date of the file match the values recorded
+ * when the checksum was computed.
+ *
+ * Once the cache is full, the least recently used entries are discarded.
+ */
+public class ChecksumCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private static ChecksumCache instance;
+
+    private Map<String, CachedChecksum> checksums;
+
+    public static synchronized ChecksumCache getInstance() {
+        if (instance == null) {
+            instance = new ChecksumCache(DEFAULT_MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    protected ChecksumCache(final int maxEntries) {
+        checksums = Collections.synchronizedMap(
+            new LinkedHashMap<String, CachedChecksum>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                    Map.Entry<String, CachedChecksum> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+    }
+
+    /**
+     * @param file local file
+     * @return the cached checksum of the file, or null if no checksum is
+     *         cached or the file has changed since its checksum was cached
+     */
+    public String get(File file) {
+        CachedChecksum cached = checksums.get(file.getAbsolutePath());
+        if (null != cached) {
+            if (cached.size == file.length() &&
+                cached.modified == file.lastModified()) {
+                return cached.checksum;
+            }
+            checksums.remove(file.getAbsolutePath());
+        }
+        return null;
+    }
+
+    /**
+     * Caches the checksum of a file.
+     *
+     * @param file local file
+     * @param size size of the file at the time the checksum was computed
+     * @param modified last modified date of the file at the time the
+     *                 checksum was computed
+     * @param checksum MD5 checksum of the file
+     */
+    public void put(File file, long size, long modified, String checksum) {
+        checksums.put(file.getAbsolutePath(),
+                      new CachedChecksum(size, modified, checksum));
+    }
+
+    public void remove(File file) {
+        checksums.remove(file.getAbsolutePath());
+    }
+
+    public void clear() {
+        checksums.clear();
+    }
+
+    private static class CachedChecksum {
+        private final long size;
+        private final long modified;
+        private final String checksum;
+
+        public CachedChecksum(long size, long modified, String checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+    }
+
+}
@@ -198,12 +198,21 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
             new DuracloudContentWriter(getContentStore(), getUsername(), true, this.jumpStart);
         FileChunker chunker = new FileChunker(contentWriter, chunkerOptions);
 
-        chunker.addContent(getSpaceId(),
-                           contentId,
-                           syncFile.getChecksum(),
-                           syncFile.length(),
-                           syncFile.getStream(),
-                           properties);
+        // If the checksum is not yet known, the chunker computes it as the
+        // file is transferred, rather than reading the file an extra time.
+        // The file is passed rather than a stream, so that each chunk of a
+        // large file is read from its own region of the file. The bytes read
+        // are reported back to the syncFile to track transfer progress.
+        String checksum = syncFile.getKnownChecksum();
+        String finalChecksum = chunker.addContent(getSpaceId(),
+                                                  contentId,
+                                                  checksum,
+                                                  syncFile.getFileForRead(),
+                                                  properties,
+                                                  syncFile.getReadListener());
+        if(null == checksum && null != finalChecksum) {
+            syncFile.setStreamChecksum(finalChecksum);
+        }
     }
 
     @Override
@@ -9,6 +9,7 @@ package org.duracloud.sync.endpoint;
 
 import org.apache.commons.lang3.event.EventListenerSupport;
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.stream.ChecksumInputStream;
 import org.duracloud.common.util.ContentIdUtil;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.error.ContentStoreException;
@@ -20,7 +21,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -306,17 +306,32 @@ public class DuraStoreSyncEndpoint implements SyncEndpoint {
 
     protected void addUpdateContent(String contentId, MonitoredFile syncFile)
         throws ContentStoreException {
-        InputStream syncStream = syncFile.getStream();
+        // If the checksum is not yet known, it is computed as the file is
+        // transferred, rather than reading the file an extra time up front
+        String checksum = syncFile.getKnownChecksum();
+        ChecksumInputStream syncStream =
+            new ChecksumInputStream(syncFile.getStream(), checksum);
         Map<String,String> props = createProps(syncFile.getAbsolutePath(), this.username);        
 
         try {
-            contentStore.addContent(spaceId,
-                                    contentId,
-                                    syncStream,
-                                    syncFile.length(),
-                                    syncFile.getMimetype(),
-                                    syncFile.getChecksum(),
-                                    props);
+            String dcChecksum = contentStore.addContent(spaceId,
+                                                        contentId,
+                                                        syncStream,
+                                                        syncFile.length(),
+                                                        syncFile.getMimetype(),
+                                                        checksum,
+                                                        props);
+            if(null == checksum) {
+                String localChecksum = syncStream.getMD5();
+                if(!localChecksum.equals(dcChecksum)) {
+                    throw new ContentStoreException(
+                        "Checksum of file " + syncFile.getAbsolutePath() +
+                        " computed during transfer (" + localChecksum +
+                        ") does not match the checksum of stored content " +
+                        contentId + " (" + dcChecksum + ")");
+                }
+                syncFile.setStreamChecksum(localChecksum);
+            }
         } finally {
             try {
                 syncStream.close();
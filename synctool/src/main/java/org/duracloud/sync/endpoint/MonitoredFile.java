@@ -8,6 +8,7 @@
 package org.duracloud.sync.endpoint;
 
 import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.CountListener;
 import org.duracloud.common.util.MimetypeUtil;
 
 import java.io.File;
@@ -25,12 +26,21 @@ public class MonitoredFile {
     private MonitoredInputStream stream;
     private String checksum;
     private String mimetype;
+    private ChecksumCache checksumCache;
+    private long streamFileSize;
+    private long streamFileModified;
+    private volatile long fileBytesRead;
 
     public MonitoredFile(File file) {
+        this(file, ChecksumCache.getInstance());
+    }
+
+    public MonitoredFile(File file, ChecksumCache checksumCache) {
         this.file = file;
         this.stream = null;
         this.checksum = null;
         this.mimetype = null;
+        this.checksumCache = checksumCache;
     }
 
     public File getFile() {
@@ -60,7 +70,7 @@ public class MonitoredFile {
 
     public long getStreamBytesRead() {
         if(null == stream) {
-            return 0;
+            return fileBytesRead;
         }
         return stream.getBytesRead();
     }
@@ -68,6 +78,8 @@ public class MonitoredFile {
     public MonitoredInputStream getStream() {
         if(null == stream) {
             try {
+                streamFileSize = file.length();
+                streamFileModified = file.lastModified();
                 stream = new MonitoredInputStream(file);
             } catch(FileNotFoundException e) {
                 throw new RuntimeException("Could not get stream for " +
@@ -78,13 +90,60 @@ public class MonitoredFile {
         return stream;
     }
 
+    /**
+     * Provides the file to be read directly rather than through getStream(),
+     * recording its current size and modified date so that a checksum
+     * computed during the read can be passed to setStreamChecksum().
+     */
+    public File getFileForRead() {
+        streamFileSize = file.length();
+        streamFileModified = file.lastModified();
+        fileBytesRead = 0;
+        return file;
+    }
+
+    /**
+     * @return a listener to be given the number of bytes read from the file
+     *         provided by getFileForRead(), which is then reported by
+     *         getStreamBytesRead()
+     */
+    public CountListener getReadListener() {
+        return count -> fileBytesRead = count;
+    }
+
     public String getChecksum() {
-        if(null == checksum) {
+        if(null == getKnownChecksum()) {
+            long size = file.length();
+            long modified = file.lastModified();
             checksum = computeChecksum(file);
+            checksumCache.put(file, size, modified, checksum);
         }
         return checksum;
     }
 
+    /**
+     * @return the checksum of the file if it is known without reading the
+     *         file, either because it has already been computed or because
+     *         it is cached from an earlier read of the unchanged file.
+     *         Otherwise null.
+     */
+    public String getKnownChecksum() {
+        if(null == checksum) {
+            checksum = checksumCache.get(file);
+        }
+        return checksum;
+    }
+
+    /**
+     * Sets the checksum of the file as computed while reading the file
+     * through the stream provided by getStream(), or directly after a call
+     * to getFileForRead().
+     */
+    public void setStreamChecksum(String checksum) {
+        this.checksum = checksum;
+        checksumCache.put(file, streamFileSize, streamFileModified, checksum);
+    }
+
     /*
      * Computes the checksum of a local file
      */
@@ -14,7 +14,8 @@ package org.duracloud.sync.mgmt;
 public interface ChangeHandler {
 
     /**
-     * Tells the handler that a file has changed
+     * Tells the handler that a file has changed. The handler may block until
+     * it is able to accept the file.
      *
      * @param changedFile a file which has changed
      * @returns true if handling was successful, false otherwise
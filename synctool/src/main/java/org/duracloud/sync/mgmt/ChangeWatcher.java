@@ -52,7 +52,9 @@ public class ChangeWatcher implements Runnable {
                 if(success) {
                     status.startingWork();
                 } else {
+                    // Handler is unable to accept work, wait before retrying
                     changedFile.unreserve();
+                    sleep(watchFrequency);
                 }
             } else {
                 // List is empty or handler not ready, wait before next check
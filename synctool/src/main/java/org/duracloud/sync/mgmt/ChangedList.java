@@ -53,8 +53,23 @@ public class ChangedList implements Serializable {
         }
         return instance;
     }
-    
-    private ChangedList() {
+
+    /**
+     * Replaces the shared ChangedList, allowing an alternate implementation
+     * (such as the DiskBackedChangedList) to be used. Files in the current
+     * list are not carried over, so this should be called before the list is
+     * put to use.
+     *
+     * @param changedList the list to use from this point on
+     */
+    public static synchronized void setInstance(ChangedList changedList) {
+        if (instance != null && instance != changedList) {
+            instance.executorService.shutdown();
+        }
+        instance = changedList;
+    }
+
+    protected ChangedList() {
         fileList = new LinkedHashMap<String,ChangedFile>();
         reservedFiles = new LinkedHashMap<String,ChangedFile>();
         this.fileExclusionManager = new FileExclusionManager();
@@ -71,6 +86,10 @@ public class ChangedList implements Serializable {
         this.fileExclusionManager = fileExclusionManager;
     }
 
+    protected FileExclusionManager getFileExclusionManager() {
+        return fileExclusionManager;
+    }
+
     /**
      * Adds a changed file to the list of items to be processed. If the file
      * happens to match exclusion rules it will not be added to the list (and
@@ -168,7 +187,7 @@ public class ChangedList implements Serializable {
         return changedFile;
     }
 
-    private void incrementVersion() {
+    protected void incrementVersion() {
         if(listVersion < Long.MAX_VALUE) {
             listVersion++;
         } else {
@@ -229,19 +248,7 @@ public class ChangedList implements Serializable {
                         fileListFromDisk.entrySet().iterator();
                     while (entries.hasNext()) {
                         Entry<String, ChangedFile> entry = entries.next();
-                        ChangedFile file = entry.getValue();
-                        boolean watched = false;
-                        for (File contentDir : contentDirs) {
-                            if (file.getFile()
-                                    .getAbsolutePath()
-                                    .startsWith(contentDir.getAbsolutePath()) &&
-                                    !this.fileExclusionManager.isExcluded(file.getFile())) {
-                                watched = true;
-                                break;
-                            }
-                        }
-
-                        if (!watched) {
+                        if (!isWatched(entry.getValue(), contentDirs)) {
                             entries.remove();
                         }
                     }
@@ -255,7 +262,22 @@ public class ChangedList implements Serializable {
                 e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * Determines if a changed file is within one of the given content
+     * directories and is not excluded, so should still be synced.
+     */
+    protected boolean isWatched(ChangedFile file, List<File> contentDirs) {
+        for (File contentDir : contentDirs) {
+            if (file.getFile()
+                    .getAbsolutePath()
+                    .startsWith(contentDir.getAbsolutePath()) &&
+                    !this.fileExclusionManager.isExcluded(file.getFile())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     public synchronized List<File> peek(int maxFiles){
         List<File> files = new LinkedList<File>();
@@ -293,7 +315,11 @@ public class ChangedList implements Serializable {
         }
     }
 
-    private String getKey(ChangedFile changedFile) {
+    protected boolean isShutdown() {
+        return shutdown;
+    }
+
+    protected String getKey(ChangedFile changedFile) {
         return changedFile.getFile().getAbsolutePath();
     }
 
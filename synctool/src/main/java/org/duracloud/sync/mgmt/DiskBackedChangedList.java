@@ -0,0 +1,534 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A ChangedList which holds only a bounded window of the files at the head of
+ * the list in memory. Files added while the window is full are appended to a
+ * log on disk, in order, and are read back into the window as files are
+ * reserved. Memory use therefore stays flat no matter how many files are
+ * waiting to be synced, as during the initial walk of a very large set of
+ * content directories.
+ *
+ * The log is made up of numbered segment files in the log directory, which
+ * are removed once all of their files have been read and checkpointed.
+ * Persisting the list writes only a small checkpoint: the position of the
+ * next unread file in the log along with the files in the window and those
+ * which are reserved. Files appended to the log after the last checkpoint are
+ * recovered from the log when the checkpoint is restored.
+ *
+ * Repeated changes to a file are collapsed once they reach the window. Files
+ * still in the log are not checked for duplicates, so a file which changes
+ * repeatedly while the list is long may be handed out more than once; the
+ * sync endpoint skips files which are already in sync.
+ */
+public class DiskBackedChangedList extends ChangedList {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(DiskBackedChangedList.class);
+
+    public static final int DEFAULT_WINDOW_SIZE = 10000;
+
+    protected static final String SEGMENT_PREFIX = "changes-";
+    protected static final String SEGMENT_SUFFIX = ".log";
+
+    // A new log segment is started once the current one reaches this size
+    protected static final long SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int CHECKPOINT_HEADER = 0x44434c31;
+
+    private File logDir;
+    private int windowSize;
+    private LinkedHashMap<String, ChangedFile> window;
+    private LinkedHashMap<String, ChangedFile> reservedFiles;
+    private List<File> contentDirs;
+
+    private boolean logOpen;
+    private long unread;
+
+    private FileOutputStream writerFile;
+    private DataOutputStream writer;
+    private long writeSegment;
+    private long writeStartOffset;
+
+    private DataInputStream reader;
+    private CountingInputStream readerCounter;
+    private long readSegment;
+    private long readStartOffset;
+
+    /**
+     * @param logDir directory in which the log of changed files is kept
+     */
+    public DiskBackedChangedList(File logDir) {
+        this(logDir, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param logDir directory in which the log of changed files is kept
+     * @param windowSize maximum number of unreserved files held in memory
+     */
+    public DiskBackedChangedList(File logDir, int windowSize) {
+        super();
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        this.logDir = logDir;
+        this.windowSize = windowSize;
+        this.window = new LinkedHashMap<>();
+        this.reservedFiles = new LinkedHashMap<>();
+    }
+
+    @Override
+    public synchronized int getListSize() {
+        return (int) Math.min(Integer.MAX_VALUE, window.size() + unread);
+    }
+
+    @Override
+    public synchronized int getListSizeIncludingReservedFiles() {
+        return (int) Math.min(Integer.MAX_VALUE,
+                              window.size() + unread + reservedFiles.size());
+    }
+
+    /*
+     * Files go to the window only while nothing is waiting in the log, so
+     * that files are handed out in the order in which they were added.
+     */
+    @Override
+    synchronized boolean addChangedFile(ChangedFile changedFile) {
+        File file = changedFile.getFile();
+        if(getFileExclusionManager().isExcluded(file)){
+            return false;
+        }
+
+        String key = getKey(changedFile);
+        if (window.containsKey(key) ||
+            (unread <= 0 && window.size() < windowSize)) {
+            window.put(key, changedFile);
+        } else {
+            try {
+                append(changedFile);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to add " + key +
+                                           " to changed list log: " +
+                                           e.getMessage(), e);
+            }
+        }
+        incrementVersion();
+        fireChangedEvent();
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        window.clear();
+        reservedFiles.clear();
+        contentDirs = null;
+        closeLog();
+        deleteSegments(Long.MAX_VALUE);
+        unread = 0;
+        logOpen = false;
+        fireChangedEvent();
+    }
+
+    @Override
+    public synchronized ChangedFile reserve() {
+        if (isShutdown()) {
+            return null;
+        }
+        fillWindow();
+        if (window.isEmpty()) {
+            return null;
+        }
+
+        Iterator<ChangedFile> files = window.values().iterator();
+        ChangedFile changedFile = files.next();
+        files.remove();
+        reservedFiles.put(getKey(changedFile), changedFile);
+        incrementVersion();
+        fireChangedEventAsync();
+        return changedFile;
+    }
+
+    @Override
+    public synchronized List<File> peek(int maxFiles) {
+        fillWindow();
+        List<File> files = new LinkedList<File>();
+        Iterator<ChangedFile> it = window.values().iterator();
+        while (it.hasNext() && files.size() < maxFiles) {
+            files.add(it.next().getFile());
+        }
+        return files;
+    }
+
+    @Override
+    synchronized void remove(ChangedFile changedFile) {
+        reservedFiles.remove(getKey(changedFile));
+    }
+
+    @Override
+    synchronized void unreserve(ChangedFile changedFile) {
+        ChangedFile removedFile = reservedFiles.remove(getKey(changedFile));
+        if (removedFile != null && !window.containsKey(getKey(removedFile))) {
+            addChangedFile(removedFile);
+        }
+    }
+
+    /**
+     * Writes a checkpoint of the list to the given file. The checkpoint
+     * holds the files in memory and the position of the next unread file in
+     * the log, which is flushed to disk first. Log segments which have been
+     * fully read are removed once the checkpoint is written.
+     *
+     * @param persistFile file to write the checkpoint to
+     * @return the version ID of the ChangedList which was persisted
+     */
+    @Override
+    public synchronized long persist(File persistFile) {
+        try {
+            if (!logOpen) {
+                startLog();
+            }
+            writer.flush();
+            writerFile.getFD().sync();
+
+            List<ChangedFile> files = new ArrayList<>(window.values());
+            files.addAll(reservedFiles.values());
+
+            FileOutputStream fileStream = new FileOutputStream(persistFile);
+            try (DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(fileStream))) {
+                out.writeInt(CHECKPOINT_HEADER);
+                out.writeLong(readSegment);
+                out.writeLong(getReadOffset());
+                out.writeLong(writeSegment);
+                out.writeLong(getWriteOffset());
+                out.writeLong(unread);
+                out.writeInt(files.size());
+                for (ChangedFile file : files) {
+                    writeFile(out, file);
+                }
+                out.flush();
+                fileStream.getFD().sync();
+            }
+
+            deleteSegments(readSegment);
+            return getVersion();
+        } catch(IOException e) {
+            throw new RuntimeException("Unable to persist File Changed List:" +
+                e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Restores the state of the list from the given checkpoint, along with
+     * any files which were added to the log after the checkpoint was written.
+     *
+     * @param persistFile checkpoint containing previous state
+     * @param contentDirs content directories currently configured.
+     */
+    @Override
+    public synchronized void restore(File persistFile, List<File> contentDirs) {
+        log.info("Restoring changed list from checkpoint: {}",
+                 persistFile.getAbsolutePath());
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(persistFile)))) {
+            if (in.readInt() != CHECKPOINT_HEADER) {
+                throw new IOException(persistFile.getAbsolutePath() +
+                                      " is not a changed list checkpoint");
+            }
+            long checkpointReadSegment = in.readLong();
+            long checkpointReadOffset = in.readLong();
+            long checkpointWriteSegment = in.readLong();
+            long checkpointWriteOffset = in.readLong();
+            long checkpointUnread = in.readLong();
+            int count = in.readInt();
+            List<ChangedFile> files = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                files.add(readFile(in));
+            }
+
+            if (checkpointUnread > 0 &&
+                !segmentFile(checkpointReadSegment).exists()) {
+                throw new IOException("Changed list log segment " +
+                                      segmentFile(checkpointReadSegment) +
+                                      " is missing");
+            }
+
+            closeLog();
+            window.clear();
+            reservedFiles.clear();
+            this.contentDirs = null;
+            if (contentDirs != null && !contentDirs.isEmpty()) {
+                this.contentDirs = contentDirs;
+            }
+            for (ChangedFile file : files) {
+                if (isIncluded(file)) {
+                    window.put(getKey(file), file);
+                }
+            }
+
+            readSegment = checkpointReadSegment;
+            readStartOffset = checkpointReadOffset;
+            long recovered =
+                recoverLog(checkpointWriteSegment, checkpointWriteOffset);
+            unread = checkpointUnread + recovered;
+            logOpen = true;
+            log.info("Restored changed list with {} files in memory and {} " +
+                     "in the log ({} added since the checkpoint)",
+                     window.size(), unread, recovered);
+        } catch(Exception e) {
+            throw new RuntimeException("Unable to restore File Changed List:" +
+                e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (this) {
+            if (null != writer) {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    log.warn("Unable to flush changed list log due to: " +
+                             e.getMessage());
+                }
+            }
+        }
+        super.shutdown();
+    }
+
+    private boolean isIncluded(ChangedFile file) {
+        return null == contentDirs || isWatched(file, contentDirs);
+    }
+
+    /*
+     * Reads files from the log once the window is half empty, so that the
+     * log is read in batches rather than a file at a time
+     */
+    private void fillWindow() {
+        if (unread <= 0 || window.size() > windowSize / 2) {
+            return;
+        }
+
+        try {
+            writer.flush();
+            while (unread > 0 && window.size() < windowSize) {
+                ChangedFile changedFile = readNext();
+                if (isIncluded(changedFile)) {
+                    window.put(getKey(changedFile), changedFile);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read from changed list " +
+                                       "log: " + e.getMessage(), e);
+        }
+    }
+
+    private ChangedFile readNext() throws IOException {
+        while (true) {
+            if (null == reader) {
+                openReader();
+            }
+            try {
+                ChangedFile changedFile = readFile(reader);
+                unread--;
+                return changedFile;
+            } catch (EOFException e) {
+                if (readSegment >= writeSegment) {
+                    throw new IOException("Changed list log " +
+                                          segmentFile(readSegment) +
+                                          " ended unexpectedly", e);
+                }
+                IOUtils.closeQuietly(reader);
+                reader = null;
+                readSegment++;
+                readStartOffset = 0;
+            }
+        }
+    }
+
+    private void append(ChangedFile changedFile) throws IOException {
+        if (!logOpen) {
+            startLog();
+        }
+        if (getWriteOffset() >= SEGMENT_SIZE) {
+            writer.flush();
+            writerFile.getFD().sync();
+            writer.close();
+            writeSegment++;
+            openWriter(0);
+        }
+        writeFile(writer, changedFile);
+        unread++;
+    }
+
+    private void writeFile(DataOutputStream out, ChangedFile changedFile)
+        throws IOException {
+        out.writeUTF(changedFile.getFile().getAbsolutePath());
+        out.writeInt(changedFile.getSyncAttempts());
+    }
+
+    private ChangedFile readFile(DataInputStream in) throws IOException {
+        String path = in.readUTF();
+        int syncAttempts = in.readInt();
+        return new ChangedFile(new File(path), syncAttempts);
+    }
+
+    /*
+     * Starts a new, empty log, removing any left from a previous run
+     */
+    private void startLog() throws IOException {
+        closeLog();
+        logDir.mkdirs();
+        deleteSegments(Long.MAX_VALUE);
+        readSegment = 0;
+        readStartOffset = 0;
+        writeSegment = 0;
+        unread = 0;
+        openWriter(0);
+        logOpen = true;
+    }
+
+    /*
+     * Counts the files added to the log after the given position and
+     * prepares to append to the end of the log. Anything following the last
+     * complete entry (due to the process being killed mid-write) is dropped.
+     */
+    private long recoverLog(long segment, long offset) throws IOException {
+        logDir.mkdirs();
+        long recovered = 0;
+        while (true) {
+            File file = segmentFile(segment);
+            long validLength = 0;
+            if (file.exists()) {
+                validLength = Math.min(offset, file.length());
+                CountingInputStream counter = new CountingInputStream(
+                    new BufferedInputStream(new FileInputStream(file)));
+                try (DataInputStream in = new DataInputStream(counter)) {
+                    IOUtils.skipFully(counter, offset);
+                    while (true) {
+                        readFile(in);
+                        recovered++;
+                        validLength = counter.getByteCount();
+                    }
+                } catch (EOFException e) {
+                    // End of the segment, possibly mid-way through an entry
+                }
+            }
+
+            if (!segmentFile(segment + 1).exists()) {
+                if (file.length() > validLength) {
+                    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                        raf.setLength(validLength);
+                    }
+                }
+                writeSegment = segment;
+                openWriter(validLength);
+                return recovered;
+            }
+            segment++;
+            offset = 0;
+        }
+    }
+
+    private void openWriter(long offset) throws IOException {
+        writerFile = new FileOutputStream(segmentFile(writeSegment), true);
+        writer = new DataOutputStream(new BufferedOutputStream(writerFile));
+        writeStartOffset = offset;
+    }
+
+    private long getWriteOffset() {
+        return writeStartOffset + writer.size();
+    }
+
+    private void openReader() throws IOException {
+        InputStream in = new FileInputStream(segmentFile(readSegment));
+        try {
+            IOUtils.skipFully(in, readStartOffset);
+        } catch (IOException e) {
+            IOUtils.closeQuietly(in);
+            throw e;
+        }
+        readerCounter = new CountingInputStream(new BufferedInputStream(in));
+        reader = new DataInputStream(readerCounter);
+    }
+
+    private long getReadOffset() {
+        if (null == reader) {
+            return readStartOffset;
+        }
+        return readStartOffset + readerCounter.getByteCount();
+    }
+
+    private void closeLog() {
+        if (null != reader) {
+            readStartOffset = getReadOffset();
+            IOUtils.closeQuietly(reader);
+            reader = null;
+        }
+        if (null != writer) {
+            IOUtils.closeQuietly(writer);
+            writer = null;
+        }
+    }
+
+    /*
+     * Removes the log segments numbered below the given segment
+     */
+    private void deleteSegments(long before) {
+        File[] files = logDir.listFiles();
+        if (null == files) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) &&
+                name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    long segment = Long.parseLong(name.substring(
+                        SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length()));
+                    if (segment < before) {
+                        FileUtils.deleteQuietly(file);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file in changed list log " +
+                             "directory: {}", file.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private File segmentFile(long segment) {
+        return new File(logDir, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+}
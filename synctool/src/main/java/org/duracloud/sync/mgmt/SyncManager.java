@@ -7,6 +7,7 @@
  */
 package org.duracloud.sync.mgmt;
 
+import org.duracloud.common.util.BlockingExecutor;
 import org.duracloud.sync.endpoint.MonitoredFile;
 import org.duracloud.sync.endpoint.SyncEndpoint;
 import org.slf4j.Logger;
@@ -18,8 +19,6 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,7 +36,7 @@ public class SyncManager implements ChangeHandler {
     private List<File> watchDirs;
     private SyncEndpoint endpoint;
     private ExecutorService watcherPool;
-    private ThreadPoolExecutor workerPool;
+    private BlockingExecutor workerPool;
     private ArrayList<SyncWorker> workerList;
 
     /**
@@ -62,13 +61,7 @@ public class SyncManager implements ChangeHandler {
         // Create thread pool for changeWatcher
         watcherPool = Executors.newFixedThreadPool(1);
         // Create thread pool for workers
-        workerPool =
-            new ThreadPoolExecutor(threads,
-                                   threads,
-                                   Long.MAX_VALUE,
-                                   TimeUnit.NANOSECONDS,
-                                   new SynchronousQueue(),
-                                   new ThreadPoolExecutor.AbortPolicy());
+        workerPool = new BlockingExecutor(threads, "sync-worker");
         workerList = new ArrayList<SyncWorker>();
     }
 
@@ -90,6 +83,18 @@ public class SyncManager implements ChangeHandler {
         workerPool.shutdown();
     }
 
+    /**
+     * Waits for the workers to complete the files already handed to them,
+     * once endSync() has been called
+     */
+    public void awaitEnd() {
+        try {
+            workerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public void terminateSync() {
         logger.info("Closing Sync Manager, terminating sync");
         changeWatcher.endWatch();
@@ -98,25 +103,36 @@ public class SyncManager implements ChangeHandler {
     }
 
     /**
-     * Notifies the SyncManager that a file has changed
+     * Notifies the SyncManager that a file has changed. Waits for a worker to
+     * become available if all workers are busy.
      *
      * @param changedFile the changed file
      * @returns true if file accepted for processing, false otherwise
      */
-    public synchronized boolean handleChangedFile(ChangedFile changedFile) {
+    public boolean handleChangedFile(ChangedFile changedFile) {
         File watchDir = getWatchDir(changedFile.getFile());
         SyncWorker worker = new SyncWorker(changedFile, watchDir, endpoint);
 
         try {
-            addToWorkerList(worker);
+            synchronized(this) {
+                addToWorkerList(worker);
+            }
             workerPool.execute(worker);
             return true;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            removeFromWorkerList(worker);
+            return false;
         } catch(RejectedExecutionException e) {
-            workerList.remove(worker);
+            removeFromWorkerList(worker);
             return false;
         }
     }
 
+    private synchronized void removeFromWorkerList(SyncWorker worker) {
+        workerList.remove(worker);
+    }
+
     /*
      * Determines which of the watched directories includes the changed file.
      * Returns null if the file is not included in any watch directories.
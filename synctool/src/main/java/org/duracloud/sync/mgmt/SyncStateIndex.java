@@ -0,0 +1,946 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk index of the state of each local file as of the last time it was
+ * successfully synced: its size, last modified date and MD5 checksum (which,
+ * at the time of recording, matched the checksum of the file in DuraCloud).
+ *
+ * A file whose current size and modified date match its indexed state is
+ * known to be in sync, so it can be skipped without a call to DuraCloud and
+ * without computing its checksum.
+ *
+ * The index is kept in the work directory as a set of segment files, each
+ * holding records sorted by path along with a sparse index of the paths at
+ * which each block of records starts. Only recent changes, the sparse
+ * indexes and a cache of recently read states are held in memory, so memory
+ * use is bounded no matter how many files are indexed:
+ *
+ * - Changes are recorded in a sorted table in memory and appended to a log,
+ *   which is replayed when the index is opened. The log is flushed in
+ *   batches, and at least once a second, so a crash may lose the most recent
+ *   changes, in which case the affected files are simply checked against
+ *   DuraCloud again. Closing the index flushes the log.
+ * - Once the table is full, it is written out as a new segment and the log
+ *   is started over.
+ * - Segments are merged as they accumulate, newer segments being merged into
+ *   older ones of similar size, which keeps the number of segments to search
+ *   (and the number of times each record is rewritten) logarithmic.
+ *
+ * A record which was only partially written to the log (due to the process
+ * being killed) is discarded when the index is opened. The set of segments
+ * is listed in a manifest which is replaced atomically, so segment files not
+ * listed there are left over from an interrupted write and are removed.
+ *
+ * Segments are never modified once written, so they are searched without
+ * holding the lock which guards changes to the index.
+ *
+ * Until the index is opened, it holds no state and records nothing.
+ */
+public class SyncStateIndex {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(SyncStateIndex.class);
+
+    protected static final String INDEX_FILE_NAME = "sync-state.log";
+    protected static final String MANIFEST_FILE_NAME = "sync-state.manifest";
+    protected static final String SEGMENT_PREFIX = "sync-state-";
+    protected static final String SEGMENT_SUFFIX = ".seg";
+
+    public static final int DEFAULT_TABLE_SIZE = 50000;
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    // Records per block of a segment, one path per block is held in memory
+    private static final int BLOCK_SIZE = 128;
+
+    // The log is flushed once this many records or this much time has
+    // accumulated since the last flush
+    private static final int FLUSH_RECORDS = 1000;
+    private static final long FLUSH_MILLIS = 1000;
+
+    private static final int MANIFEST_HEADER = 0x53534d31;
+    private static final int SEGMENT_FOOTER = 0x53535331;
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    // Marks a removed file, in the table and cache
+    private static final SyncState REMOVED = new SyncState(-1, -1, null);
+
+    private static SyncStateIndex instance;
+
+    private final int tableSize;
+    private final int cacheSize;
+
+    private File indexDir;
+    private TreeMap<String, SyncState> table;
+    private LinkedHashMap<String, SyncState> cache;
+    // Replaced rather than modified, so that it may be searched without
+    // holding the lock
+    private List<Segment> segments;
+    private long nextSegmentId;
+    private long entryCount;
+
+    private File indexFile;
+    private DataOutputStream indexWriter;
+    private int unflushedRecords;
+    private long lastFlush;
+    private ScheduledExecutorService flushTimer;
+
+    public static synchronized SyncStateIndex getInstance() {
+        if (instance == null) {
+            instance = new SyncStateIndex();
+        }
+        return instance;
+    }
+
+    protected SyncStateIndex() {
+        this(DEFAULT_TABLE_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param tableSize number of changed files held in memory before they
+     *                  are written to a new segment
+     * @param cacheSize number of file states read from segments which are
+     *                  cached in memory
+     */
+    protected SyncStateIndex(int tableSize, int cacheSize) {
+        if (tableSize < 1 || cacheSize < 0) {
+            throw new IllegalArgumentException(
+                "tableSize must be at least 1 and cacheSize at least 0");
+        }
+        this.tableSize = tableSize;
+        this.cacheSize = cacheSize;
+        this.table = new TreeMap<>();
+        this.segments = new ArrayList<>();
+        this.cache = new LinkedHashMap<String, SyncState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<String, SyncState> eldest) {
+                return size() > SyncStateIndex.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Loads the index stored in the given directory (if any) and prepares
+     * for further state to be recorded there.
+     *
+     * @param indexDir directory in which the index is stored
+     */
+    public synchronized void open(File indexDir) {
+        close();
+        this.indexDir = indexDir;
+        indexDir.mkdirs();
+        indexFile = new File(indexDir, INDEX_FILE_NAME);
+
+        try {
+            readManifest();
+            removeUnlistedSegments();
+
+            // The writer is opened first, so that replayed changes can be
+            // written to a new segment should they fill the table
+            indexWriter = openWriter(indexFile, true);
+            if (indexFile.length() > 0) {
+                replayLog();
+            }
+            startFlushTimer();
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Unable to open sync state index in " +
+                                       indexDir.getAbsolutePath() + " due to " +
+                                       e.getMessage(), e);
+        }
+        log.info("Opened sync state index in {} with {} entries in {} " +
+                 "segments", indexDir.getAbsolutePath(), entryCount,
+                 segments.size());
+    }
+
+    private void readManifest() throws IOException {
+        File manifest = new File(indexDir, MANIFEST_FILE_NAME);
+        if (!manifest.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(manifest)))) {
+            if (in.readInt() != MANIFEST_HEADER) {
+                throw new IOException("Unrecognized sync state manifest " +
+                                      manifest.getAbsolutePath());
+            }
+            nextSegmentId = in.readLong();
+            entryCount = in.readLong();
+            int segmentCount = in.readInt();
+            for (int i = 0; i < segmentCount; i++) {
+                segments.add(new Segment(getSegmentFile(in.readLong())));
+            }
+        }
+    }
+
+    /*
+     * Removes segments which were written, or merged away, by a process
+     * which stopped before the manifest was updated
+     */
+    private void removeUnlistedSegments() {
+        Set<String> listed = new HashSet<>();
+        for (Segment segment : segments) {
+            listed.add(segment.file.getName());
+        }
+        File[] files = indexDir.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) &&
+                    name.endsWith(SEGMENT_SUFFIX) && !listed.contains(name)) {
+                    FileUtils.deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    /*
+     * Applies the changes recorded since the last segment was written. The
+     * log may repeat changes which are already in a segment, if the process
+     * stopped before the log was started over; applying them again has no
+     * effect.
+     */
+    private void replayLog() throws IOException {
+        long validLength = 0;
+        long replayed = 0;
+        CountingInputStream counter = new CountingInputStream(
+            new BufferedInputStream(new FileInputStream(indexFile)));
+        try (DataInputStream reader = new DataInputStream(counter)) {
+            while (true) {
+                byte type = reader.readByte();
+                String path = reader.readUTF();
+                SyncState state = readState(reader, type);
+                if (null == state) {
+                    log.warn("Sync state index {} is corrupt after {} " +
+                             "records, ignoring remainder",
+                             indexFile.getAbsolutePath(), replayed);
+                    break;
+                }
+                // A full table is written out at the end of the replay
+                apply(path, state);
+                replayed++;
+                validLength = counter.getByteCount();
+            }
+        } catch (EOFException e) {
+            // End of the log, possibly mid-way through a partial record
+        }
+
+        // Drop anything following the last complete record, so that new
+        // records are appended directly after it
+        if (indexFile.length() > validLength) {
+            indexWriter.close();
+            try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+                file.setLength(validLength);
+            }
+            indexWriter = openWriter(indexFile, true);
+        }
+
+        if (table.size() >= tableSize) {
+            writeTable();
+        }
+    }
+
+    /*
+     * Flushes changes which have been waiting since the last change was
+     * recorded, as the log is otherwise only flushed as changes are recorded
+     */
+    private void startFlushTimer() {
+        flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sync-state-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushTimer.scheduleWithFixedDelay(this::flush,
+                                          FLUSH_MILLIS,
+                                          FLUSH_MILLIS,
+                                          TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes any changes which have not yet been written to the log.
+     */
+    public synchronized void flush() {
+        if (null == indexWriter || unflushedRecords == 0) {
+            return;
+        }
+        try {
+            flushLog();
+        } catch (IOException e) {
+            log.warn("Unable to flush sync state index due to " +
+                     e.getMessage(), e);
+        }
+    }
+
+    private DataOutputStream openWriter(File file, boolean append)
+        throws IOException {
+        return new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file, append)));
+    }
+
+    /**
+     * Records that a file has been synced.
+     *
+     * @param file the local file
+     * @param size size of the file when it was synced
+     * @param modified last modified date of the file when it was synced
+     * @param checksum MD5 checksum of the file, matching that in DuraCloud
+     */
+    public synchronized void put(File file,
+                                 long size,
+                                 long modified,
+                                 String checksum) {
+        if (null == indexWriter || null == checksum) {
+            return;
+        }
+        record(file.getAbsolutePath(), new SyncState(size, modified, checksum));
+    }
+
+    /**
+     * Removes the recorded state of a file, which will then no longer be
+     * considered to be in sync.
+     *
+     * @param file the local file
+     */
+    public synchronized void remove(File file) {
+        String path = file.getAbsolutePath();
+        if (null == indexWriter || null == lookup(path)) {
+            return;
+        }
+        record(path, REMOVED);
+    }
+
+    /*
+     * Logs and applies a change, writing out the table once it is full
+     */
+    private void record(String path, SyncState state) {
+        try {
+            writeRecord(indexWriter, path, state);
+            unflushedRecords++;
+            long now = System.currentTimeMillis();
+            if (unflushedRecords >= FLUSH_RECORDS ||
+                now - lastFlush >= FLUSH_MILLIS) {
+                flushLog();
+            }
+
+            apply(path, state);
+            if (table.size() >= tableSize) {
+                writeTable();
+            }
+        } catch (IOException e) {
+            log.warn("Unable to record sync state of " + path + " due to " +
+                     e.getMessage(), e);
+        }
+    }
+
+    private void flushLog() throws IOException {
+        indexWriter.flush();
+        unflushedRecords = 0;
+        lastFlush = System.currentTimeMillis();
+    }
+
+    private void apply(String path, SyncState state) {
+        boolean existed = null != lookup(path);
+        if (state == REMOVED) {
+            if (existed) {
+                entryCount--;
+            }
+        } else if (!existed) {
+            entryCount++;
+        }
+        table.put(path, state);
+        if (cache.containsKey(path)) {
+            cache.put(path, state);
+        }
+    }
+
+    /**
+     * @param file the local file
+     * @return the state of the file when last synced, or null if not known
+     */
+    public SyncState get(File file) {
+        String path = file.getAbsolutePath();
+        List<Segment> searched;
+        synchronized (this) {
+            SyncState state = findInMemory(path);
+            if (null != state) {
+                return state == REMOVED ? null : state;
+            }
+            searched = segments;
+        }
+
+        // The segments are searched without holding the lock. Should they
+        // be replaced in the meantime (which is also the case if the path
+        // is changed and written out), they are searched again.
+        while (true) {
+            SyncState state;
+            IOException error = null;
+            try {
+                state = findInSegments(searched, path);
+            } catch (IOException e) {
+                state = null;
+                error = e;
+            }
+
+            synchronized (this) {
+                SyncState current = findInMemory(path);
+                if (null != current) {
+                    return current == REMOVED ? null : current;
+                }
+                if (searched == segments) {
+                    if (null != error) {
+                        log.warn("Unable to read sync state of " + path +
+                                 " due to " + error.getMessage(), error);
+                        return null;
+                    }
+                    cacheState(path, state);
+                    return state == REMOVED ? null : state;
+                }
+                searched = segments;
+            }
+        }
+    }
+
+    /*
+     * Finds the state of a path, searching the segments while holding the
+     * lock, for use when changes are being recorded
+     */
+    private SyncState lookup(String path) {
+        SyncState state = findInMemory(path);
+        if (null == state) {
+            try {
+                state = findInSegments(segments, path);
+            } catch (IOException e) {
+                log.warn("Unable to read sync state of " + path +
+                         " due to " + e.getMessage(), e);
+                return null;
+            }
+            cacheState(path, state);
+        }
+        return state == REMOVED ? null : state;
+    }
+
+    /*
+     * @return the state of the path in the table or cache, REMOVED, or null
+     *         if the segments must be searched
+     */
+    private SyncState findInMemory(String path) {
+        SyncState state = table.get(path);
+        if (null == state) {
+            state = cache.get(path);
+        }
+        return state;
+    }
+
+    /*
+     * @return the state of the path in the newest segment which includes
+     *         it, or REMOVED if it is in none of them
+     */
+    private static SyncState findInSegments(List<Segment> segments,
+                                            String path) throws IOException {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            SyncState found = segments.get(i).find(path);
+            if (null != found) {
+                return found;
+            }
+        }
+        return REMOVED;
+    }
+
+    private void cacheState(String path, SyncState state) {
+        if (cacheSize > 0) {
+            cache.put(path, state);
+        }
+    }
+
+    /**
+     * Determines if a file is known to be in sync, based only on its size
+     * and last modified date matching those recorded when last synced.
+     *
+     * @param file the local file
+     * @return true if the file has not changed since it was last synced
+     */
+    public boolean isUnchanged(File file) {
+        SyncState state = get(file);
+        return null != state &&
+               state.getSize() == file.length() &&
+               state.getModified() == file.lastModified();
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(Integer.MAX_VALUE, entryCount);
+    }
+
+    /*
+     * Writes the table to a new segment, merges segments as necessary, and
+     * starts the log over
+     */
+    private void writeTable() throws IOException {
+        Segment segment = writeSegment(
+            Arrays.asList(new TableCursor(table)), segments.isEmpty());
+        segments = new ArrayList<>(segments);
+        segments.add(segment);
+
+        List<Segment> merged = new ArrayList<>();
+        while (segments.size() >= 2) {
+            Segment newest = segments.get(segments.size() - 1);
+            Segment previous = segments.get(segments.size() - 2);
+            if (newest.recordCount * 2 < previous.recordCount) {
+                break;
+            }
+            Segment mergedSegment =
+                writeSegment(Arrays.asList(new SegmentCursor(newest),
+                                           new SegmentCursor(previous)),
+                             segments.size() == 2);
+            segments.remove(segments.size() - 1);
+            segments.set(segments.size() - 1, mergedSegment);
+            merged.add(newest);
+            merged.add(previous);
+        }
+
+        writeManifest();
+        for (Segment old : merged) {
+            old.delete();
+        }
+
+        indexWriter.close();
+        indexWriter = openWriter(indexFile, false);
+        unflushedRecords = 0;
+        table.clear();
+    }
+
+    /*
+     * Writes the records of the given cursors, which are in order from
+     * newest to oldest, to a new segment. Where more than one cursor
+     * includes a path, the newest record is kept.
+     *
+     * @param dropRemoved true if no older segment remains, so there is no
+     *                    need to keep records of removed files
+     */
+    private Segment writeSegment(List<RecordCursor> cursors,
+                                 boolean dropRemoved) throws IOException {
+        PriorityQueue<RecordCursor> queue =
+            new PriorityQueue<>((a, b) -> {
+                int compare = a.getPath().compareTo(b.getPath());
+                return compare != 0 ? compare
+                                    : Integer.compare(a.age, b.age);
+            });
+        for (int i = 0; i < cursors.size(); i++) {
+            RecordCursor cursor = cursors.get(i);
+            cursor.age = i;
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+
+        File file = getSegmentFile(nextSegmentId++);
+        List<String> blockPaths = new ArrayList<>();
+        List<Long> blockOffsets = new ArrayList<>();
+        long recordCount = 0;
+        CountingOutputStream counter = new CountingOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file)));
+        try (DataOutputStream out = new DataOutputStream(counter)) {
+            while (!queue.isEmpty()) {
+                RecordCursor newest = queue.poll();
+                String path = newest.getPath();
+                SyncState state = newest.getState();
+                advance(newest, queue);
+                // Skip older records of the same path
+                while (!queue.isEmpty() &&
+                       queue.peek().getPath().equals(path)) {
+                    advance(queue.poll(), queue);
+                }
+
+                if (state == REMOVED && dropRemoved) {
+                    continue;
+                }
+                if (recordCount % BLOCK_SIZE == 0) {
+                    out.flush();
+                    blockPaths.add(path);
+                    blockOffsets.add(counter.getByteCount());
+                }
+                writeRecord(out, path, state);
+                recordCount++;
+            }
+
+            out.flush();
+            long indexOffset = counter.getByteCount();
+            out.writeInt(blockPaths.size());
+            for (int i = 0; i < blockPaths.size(); i++) {
+                out.writeUTF(blockPaths.get(i));
+                out.writeLong(blockOffsets.get(i));
+            }
+            out.writeLong(recordCount);
+            out.writeLong(indexOffset);
+            out.writeInt(SEGMENT_FOOTER);
+        } finally {
+            for (RecordCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        return new Segment(file);
+    }
+
+    private void advance(RecordCursor cursor,
+                         PriorityQueue<RecordCursor> queue) throws IOException {
+        if (cursor.next()) {
+            queue.add(cursor);
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        File manifest = new File(indexDir, MANIFEST_FILE_NAME);
+        File newManifest = new File(indexDir, MANIFEST_FILE_NAME + ".new");
+        try (DataOutputStream out = openWriter(newManifest, false)) {
+            out.writeInt(MANIFEST_HEADER);
+            out.writeLong(nextSegmentId);
+            out.writeLong(entryCount);
+            out.writeInt(segments.size());
+            for (Segment segment : segments) {
+                out.writeLong(segment.id);
+            }
+        }
+        Files.move(newManifest.toPath(), manifest.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private File getSegmentFile(long id) {
+        return new File(indexDir, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+
+    private static void writeRecord(DataOutputStream writer,
+                                     String path,
+                                     SyncState state) throws IOException {
+        if (state == REMOVED) {
+            writer.writeByte(RECORD_REMOVE);
+            writer.writeUTF(path);
+        } else {
+            writer.writeByte(RECORD_PUT);
+            writer.writeUTF(path);
+            writer.writeLong(state.getSize());
+            writer.writeLong(state.getModified());
+            writer.writeUTF(state.getChecksum());
+        }
+    }
+
+    /*
+     * Reads the remainder of a record following its type and path
+     *
+     * @return the state, REMOVED, or null if the type is not recognized
+     */
+    private static SyncState readState(DataInputStream reader, byte type)
+        throws IOException {
+        if (type == RECORD_PUT) {
+            long size = reader.readLong();
+            long modified = reader.readLong();
+            String checksum = reader.readUTF();
+            return new SyncState(size, modified, checksum);
+        } else if (type == RECORD_REMOVE) {
+            return REMOVED;
+        }
+        return null;
+    }
+
+    /**
+     * Removes all recorded state, both in memory and on disk.
+     */
+    public synchronized void clear() {
+        table.clear();
+        cache.clear();
+        entryCount = 0;
+        if (null != indexWriter) {
+            try {
+                for (Segment segment : segments) {
+                    segment.delete();
+                }
+                segments = new ArrayList<>();
+                writeManifest();
+                indexWriter.close();
+                indexWriter = openWriter(indexFile, false);
+                unflushedRecords = 0;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to clear sync state " +
+                                           "index due to " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the index. Further changes will not be recorded
+     * until the index is opened again.
+     */
+    public synchronized void close() {
+        if (null != flushTimer) {
+            flushTimer.shutdownNow();
+            flushTimer = null;
+        }
+        if (null != indexWriter) {
+            IOUtils.closeQuietly(indexWriter);
+            indexWriter = null;
+        }
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments = new ArrayList<>();
+        table.clear();
+        cache.clear();
+        entryCount = 0;
+        nextSegmentId = 0;
+        unflushedRecords = 0;
+    }
+
+    /*
+     * A sorted file of records, of which only the first path of each block
+     * of records is held in memory
+     */
+    private static class Segment {
+        private final long id;
+        private final File file;
+        private final RandomAccessFile data;
+        private final String[] blockPaths;
+        private final long[] blockOffsets;
+        private final long indexOffset;
+        private final long recordCount;
+
+        private Segment(File file) throws IOException {
+            this.file = file;
+            String name = file.getName();
+            this.id = Long.parseLong(
+                name.substring(SEGMENT_PREFIX.length(),
+                               name.length() - SEGMENT_SUFFIX.length()));
+            this.data = new RandomAccessFile(file, "r");
+            try {
+                long length = data.length();
+                data.seek(length - 20);
+                recordCount = data.readLong();
+                indexOffset = data.readLong();
+                if (data.readInt() != SEGMENT_FOOTER) {
+                    throw new IOException("Sync state segment " +
+                                          file.getAbsolutePath() +
+                                          " is incomplete");
+                }
+
+                DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(
+                        readBytes(indexOffset, length - 20)));
+                int blocks = in.readInt();
+                blockPaths = new String[blocks];
+                blockOffsets = new long[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    blockPaths[i] = in.readUTF();
+                    blockOffsets[i] = in.readLong();
+                }
+            } catch (IOException e) {
+                data.close();
+                throw e;
+            }
+        }
+
+        /*
+         * @return the state of the path, REMOVED, or null if the path is not
+         *         included in this segment
+         */
+        private SyncState find(String path) throws IOException {
+            int block = Arrays.binarySearch(blockPaths, path);
+            if (block < 0) {
+                // The block which would contain the path, if any
+                block = -block - 2;
+                if (block < 0) {
+                    return null;
+                }
+            }
+
+            long end = block + 1 < blockOffsets.length
+                       ? blockOffsets[block + 1] : indexOffset;
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                readBytes(blockOffsets[block], end)));
+            while (in.available() > 0) {
+                byte type = in.readByte();
+                int compare = in.readUTF().compareTo(path);
+                SyncState state = readState(in, type);
+                if (compare == 0) {
+                    return state;
+                } else if (compare > 0) {
+                    break;
+                }
+            }
+            return null;
+        }
+
+        /*
+         * Reads are serialized per segment, as they position the file
+         */
+        private synchronized byte[] readBytes(long start, long end)
+            throws IOException {
+            byte[] bytes = new byte[(int) (end - start)];
+            data.seek(start);
+            data.readFully(bytes);
+            return bytes;
+        }
+
+        private synchronized void close() {
+            IOUtils.closeQuietly(data);
+        }
+
+        private void delete() {
+            close();
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    /*
+     * Steps through records in path order
+     */
+    private abstract static class RecordCursor {
+        // Lower is newer, used to order records of the same path
+        private int age;
+
+        abstract boolean next() throws IOException;
+
+        abstract String getPath();
+
+        abstract SyncState getState();
+
+        void close() {
+        }
+    }
+
+    private static class TableCursor extends RecordCursor {
+        private final java.util.Iterator<Map.Entry<String, SyncState>> entries;
+        private Map.Entry<String, SyncState> current;
+
+        private TableCursor(TreeMap<String, SyncState> table) {
+            this.entries = table.entrySet().iterator();
+        }
+
+        @Override
+        boolean next() {
+            current = entries.hasNext() ? entries.next() : null;
+            return null != current;
+        }
+
+        @Override
+        String getPath() {
+            return current.getKey();
+        }
+
+        @Override
+        SyncState getState() {
+            return current.getValue();
+        }
+    }
+
+    private static class SegmentCursor extends RecordCursor {
+        private final DataInputStream in;
+        private String path;
+        private SyncState state;
+
+        private SegmentCursor(Segment segment) throws IOException {
+            this.in = new DataInputStream(new BoundedInputStream(
+                new BufferedInputStream(new FileInputStream(segment.file)),
+                segment.indexOffset));
+        }
+
+        @Override
+        boolean next() throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                return false;
+            }
+            path = in.readUTF();
+            state = readState(in, (byte) type);
+            if (null == state) {
+                throw new IOException("Unrecognized record in sync state " +
+                                      "segment");
+            }
+            return true;
+        }
+
+        @Override
+        String getPath() {
+            return path;
+        }
+
+        @Override
+        SyncState getState() {
+            return state;
+        }
+
+        @Override
+        void close() {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * The state of a file as of its last successful sync
+     */
+    public static class SyncState {
+        private final long size;
+        private final long modified;
+        private final String checksum;
+
+        public SyncState(long size, long modified, String checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ public class SyncWorker implements Runnable {
     private File watchDir;
     private SyncEndpoint syncEndpoint;
     private StatusManager statusManager;
+    private SyncStateIndex syncStateIndex;
     private boolean complete;
     private MonitoredFile monitoredFile;
     private Date start, stop;
@@ -51,6 +52,7 @@ public class SyncWorker implements Runnable {
         this.watchDir = watchDir;
         this.syncEndpoint = endpoint;
         this.statusManager = StatusManager.getInstance();
+        this.syncStateIndex = SyncStateIndex.getInstance();
         this.complete = false;
         this.monitoredFile = new MonitoredFile(syncFile.getFile());
     }
@@ -61,8 +63,23 @@ public class SyncWorker implements Runnable {
         File file = syncFile.getFile();
         String filePath = (null != file ? file.getAbsolutePath() : "null");
 
+        // State of the file as the sync begins
+        long fileSize = -1;
+        long fileModified = -1;
+        if(null != file && file.exists()) {
+            fileSize = file.length();
+            fileModified = file.lastModified();
+        }
+
         try {
-            result = syncEndpoint.syncFileAndReturnDetailedResult(monitoredFile, watchDir);
+            if(fileSize > -1 && syncStateIndex.isUnchanged(file)) {
+                logger.debug("File {} unchanged since last synced", filePath);
+                result = SyncResultType.ALREADY_IN_SYNC;
+            } else {
+                result = syncEndpoint.syncFileAndReturnDetailedResult(
+                    monitoredFile, watchDir);
+                recordSyncState(result, fileSize, fileModified);
+            }
             stop = new Date();
         } catch (Exception e) {
             logger.error("Exception syncing file "
@@ -100,6 +117,22 @@ public class SyncWorker implements Runnable {
         
     }
 
+    private void recordSyncState(SyncResultType result,
+                                 long fileSize,
+                                 long fileModified) {
+        File file = syncFile.getFile();
+        if(result == SyncResultType.DELETED || fileSize < 0) {
+            syncStateIndex.remove(file);
+        } else if(result == SyncResultType.ADDED ||
+                  result == SyncResultType.UPDATED ||
+                  result == SyncResultType.ALREADY_IN_SYNC) {
+            syncStateIndex.put(file,
+                               fileSize,
+                               fileModified,
+                               monitoredFile.getKnownChecksum());
+        }
+    }
+
     public boolean isComplete() {
         return complete;
     }
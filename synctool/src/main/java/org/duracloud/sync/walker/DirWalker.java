@@ -16,6 +16,7 @@ import java.util.List;
 import org.apache.commons.io.DirectoryWalker;
 import org.duracloud.sync.mgmt.ChangedList;
 import org.duracloud.sync.mgmt.FileExclusionManager;
+import org.duracloud.sync.mgmt.SyncStateIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +39,9 @@ public class DirWalker extends DirectoryWalker implements Runnable {
     private List<File> filesAndDirs;
  
     protected final ChangedList changedList;
+    protected final SyncStateIndex syncStateIndex;
     private int files = 0;
+    private int unchangedFiles = 0;
     private boolean complete = false;
     protected FileExclusionManager fileExclusionManager;
     
@@ -46,6 +49,7 @@ public class DirWalker extends DirectoryWalker implements Runnable {
         super();
         this.filesAndDirs = filesAndDirs;
         this.changedList = ChangedList.getInstance();
+        this.syncStateIndex = SyncStateIndex.getInstance();
         this.fileExclusionManager = fileExclusionManager;
     }
 
@@ -91,7 +95,8 @@ public class DirWalker extends DirectoryWalker implements Runnable {
                 }
             }
             logger.info("Found " + files +
-                " files to sync in initial directory walk");
+                " files to sync in initial directory walk, skipped " +
+                unchangedFiles + " files unchanged since last synced");
         
         }catch(Exception e){
             logger.error("dir walker failed: " + e.getMessage(), e);
@@ -114,7 +119,9 @@ public class DirWalker extends DirectoryWalker implements Runnable {
         if( null == file){
             logger.warn("The file parameter is unexpectedly null. Ignoring...");
         } else if(!this.fileExclusionManager.isExcluded(file)) {
-            if(changedList.addChangedFile(file)){
+            if(syncStateIndex.isUnchanged(file)) {
+                ++unchangedFiles;
+            } else if(changedList.addChangedFile(file)){
                 ++files;
             }
         } 
@@ -145,27 +145,37 @@ public class DuraStoreChunkSyncEndpointTest {
                 .andReturn(new HashMap<String, AclType>())
                 .anyTimes();
 
+        // Checksum is computed as the content is transferred
         Capture<Map<String, String>> propsCapture =
             new Capture<Map<String, String>>();
+        final Capture<InputStream> isCapture = EasyMock.newCapture();
         EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
                                                 EasyMock.eq(contentId),
-                                                EasyMock.isA(InputStream.class),
+                                                EasyMock.capture(isCapture),
                                                 EasyMock.eq(contentFile.length()),
                                                 EasyMock.eq("application/octet-stream"),
-                                                EasyMock.eq(checksum),
+                                                EasyMock.<String>isNull(),
                                                 EasyMock.capture(propsCapture)))
-                .andReturn("");
+                .andAnswer(new IAnswer<String>() {
+                    @Override
+                    public String answer() throws Throwable {
+                        ChecksumUtil util = new ChecksumUtil(Algorithm.MD5);
+                        return util.generateChecksum(isCapture.getValue());
+                    }
+                });
 
         replayMocks();
         setEndpoint();
 
-        MonitoredFile monitoredFile = new MonitoredFile(contentFile);
+        MonitoredFile monitoredFile =
+            new MonitoredFile(contentFile, new ChecksumCache(10));
         endpoint.addUpdateContent(contentId, monitoredFile);
 
         Map<String, String> props = propsCapture.getValue();
         assertNotNull(props);
         String creator = props.get(StorageProvider.PROPERTIES_CONTENT_CREATOR);
         assertEquals(username, creator);
+        assertEquals(checksum, monitoredFile.getKnownChecksum());
 
         FileUtils.deleteQuietly(contentFile);
     }
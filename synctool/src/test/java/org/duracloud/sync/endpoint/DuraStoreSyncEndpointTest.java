@@ -10,8 +10,10 @@ package org.duracloud.sync.endpoint;
 import org.apache.commons.io.FileUtils;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.error.ContentStoreException;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
+import org.easymock.IAnswer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -21,7 +23,10 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Map;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.fail;
 
 /**
  * @author: Bill Branan
@@ -53,6 +58,8 @@ public class DuraStoreSyncEndpointTest {
 
         contentFile = File.createTempFile("content", "file.txt");
         contentFile.deleteOnExit();
+
+        ChecksumCache.getInstance().clear();
     }
 
     @After
@@ -82,15 +89,27 @@ public class DuraStoreSyncEndpointTest {
             new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
         String checksum = checksumUtil.generateChecksum(contentFile);
 
+        // Checksum is not known prior to the transfer
         Capture<Map<String, String>> propsCapture = new Capture<>();
+        Capture<InputStream> streamCapture = new Capture<>();
+        EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
+                                                EasyMock.eq(contentId),
+                                                EasyMock.capture(streamCapture),
+                                                EasyMock.eq(contentFile.length()),
+                                                EasyMock.eq("text/plain"),
+                                                EasyMock.<String>isNull(),
+                                                EasyMock.capture(propsCapture)))
+                .andAnswer(readStreamAnswer(streamCapture));
+
+        // Checksum computed during the first transfer is used for the second
         EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
                                                 EasyMock.eq(contentId),
                                                 EasyMock.isA(InputStream.class),
                                                 EasyMock.eq(contentFile.length()),
                                                 EasyMock.eq("text/plain"),
                                                 EasyMock.eq(checksum),
-                                                EasyMock.capture(propsCapture)))
-                .andReturn("");
+                                                EasyMock.isA(Map.class)))
+                .andReturn(checksum);
 
         replayMocks();
         setEndpoint(null, false);
@@ -100,18 +119,64 @@ public class DuraStoreSyncEndpointTest {
 
         Map<String, String> props = propsCapture.getValue();
         assertNotNull(props);
+        assertEquals(checksum, monitoredFile.getKnownChecksum());
+
+        endpoint.addUpdateContent(contentId, new MonitoredFile(contentFile));
+    }
+
+    @Test
+    public void testAddUpdateFileChecksumMismatch() throws Exception {
+        String contentId = "contentId";
+        FileUtils.writeStringToFile(contentFile, "content-file");
+
+        EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
+                                                EasyMock.eq(contentId),
+                                                EasyMock.isA(InputStream.class),
+                                                EasyMock.eq(contentFile.length()),
+                                                EasyMock.eq("text/plain"),
+                                                EasyMock.<String>isNull(),
+                                                EasyMock.isA(Map.class)))
+                .andReturn("invalid-checksum");
+
+        replayMocks();
+        setEndpoint(null, false);
+
+        MonitoredFile monitoredFile = new MonitoredFile(contentFile);
+        try {
+            endpoint.addUpdateContent(contentId, monitoredFile);
+            fail("Exception expected on checksum mismatch");
+        } catch (ContentStoreException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertNull(ChecksumCache.getInstance().get(contentFile));
+    }
+
+    /*
+     * Reads the captured stream, as would be done by the content store
+     */
+    private IAnswer<String> readStreamAnswer(
+        final Capture<InputStream> streamCapture) {
+        return new IAnswer<String>() {
+            @Override
+            public String answer() throws Throwable {
+                ChecksumUtil checksumUtil =
+                    new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+                return checksumUtil.generateChecksum(streamCapture.getValue());
+            }
+        };
     }
 
     @Test
     public void testSyncJumpstart() throws Exception {
+        Capture<InputStream> streamCapture = new Capture<>();
         EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
                                                 EasyMock.isA(String.class),
-                                                EasyMock.isA(InputStream.class),
+                                                EasyMock.capture(streamCapture),
                                                 EasyMock.eq(0L),
                                                 EasyMock.eq("text/plain"),
-                                                EasyMock.isA(String.class),
+                                                EasyMock.<String>isNull(),
                                                 EasyMock.isA(Map.class)))
-                .andReturn("");
+                .andAnswer(readStreamAnswer(streamCapture));
 
         replayMocks();
         setEndpoint(null, true);
@@ -18,6 +18,7 @@ import java.io.File;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author: Bill Branan
@@ -64,4 +65,46 @@ public class MonitoredFileTest {
         assertEquals(1, mFile.getStreamBytesRead());
     }
 
+    @Test
+    public void testCachedChecksum() throws Exception {
+        ChecksumCache cache = new ChecksumCache(10);
+        mFile = new MonitoredFile(file, cache);
+        assertNull(mFile.getKnownChecksum());
+
+        ChecksumUtil cksumUtil =
+            new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        String checksum = cksumUtil.generateChecksum(file);
+        assertEquals(checksum, mFile.getChecksum());
+
+        // Checksum of unchanged file is available without reading the file
+        assertEquals(checksum, new MonitoredFile(file, cache).getKnownChecksum());
+
+        // Checksum of a changed file is not
+        FileUtils.writeStringToFile(file, "This file has been updated");
+        assertNull(new MonitoredFile(file, cache).getKnownChecksum());
+    }
+
+    @Test
+    public void testStreamChecksum() throws Exception {
+        ChecksumCache cache = new ChecksumCache(10);
+        mFile = new MonitoredFile(file, cache);
+        mFile.getStream().close();
+        mFile.setStreamChecksum("checksum");
+
+        assertEquals("checksum", mFile.getChecksum());
+        assertEquals("checksum",
+                     new MonitoredFile(file, cache).getKnownChecksum());
+    }
+
+    @Test
+    public void testFileForReadChecksum() throws Exception {
+        ChecksumCache cache = new ChecksumCache(10);
+        mFile = new MonitoredFile(file, cache);
+        assertEquals(file, mFile.getFileForRead());
+        mFile.setStreamChecksum("checksum");
+
+        assertEquals("checksum",
+                     new MonitoredFile(file, cache).getKnownChecksum());
+    }
+
 }
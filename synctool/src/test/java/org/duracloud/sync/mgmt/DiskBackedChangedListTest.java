@@ -0,0 +1,163 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiskBackedChangedListTest {
+
+    private static final int WINDOW_SIZE = 4;
+
+    private File tempDir;
+    private File logDir;
+    private DiskBackedChangedList changedList;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = File.createTempFile("changed", "list");
+        tempDir.delete();
+        tempDir.mkdirs();
+        logDir = new File(tempDir, "log");
+        changedList = new DiskBackedChangedList(logDir, WINDOW_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        changedList.shutdown();
+        FileUtils.deleteQuietly(tempDir);
+    }
+
+    @Test
+    public void testReserveInOrder() throws Exception {
+        List<File> files = addFiles(0, 20);
+        assertEquals(20, changedList.getListSize());
+
+        for (File file : files) {
+            ChangedFile reserved = changedList.reserve();
+            assertEquals(file.getAbsolutePath(),
+                         reserved.getFile().getAbsolutePath());
+            changedList.remove(reserved);
+        }
+        assertNull(changedList.reserve());
+        assertEquals(0, changedList.getListSizeIncludingReservedFiles());
+    }
+
+    @Test
+    public void testPersistRestore() throws Exception {
+        List<File> files = addFiles(0, 10);
+        ChangedFile reserved = changedList.reserve();
+        reserved.incrementSyncAttempts();
+
+        File persistFile = new File(tempDir, "checkpoint");
+        changedList.persist(persistFile);
+        files.addAll(addFiles(10, 5));
+
+        // Restore to a new list, as would happen on restart
+        changedList.shutdown();
+        changedList = new DiskBackedChangedList(logDir, WINDOW_SIZE);
+        changedList.restore(persistFile, new ArrayList<File>());
+
+        // Files in memory at the checkpoint come first, then the log
+        List<File> expected = new ArrayList<>(files.subList(1, WINDOW_SIZE));
+        expected.add(files.get(0));
+        expected.addAll(files.subList(WINDOW_SIZE, files.size()));
+        assertEquals(expected.size(), changedList.getListSize());
+
+        for (File file : expected) {
+            ChangedFile changedFile = changedList.reserve();
+            assertEquals(file, changedFile.getFile());
+            if (file.equals(reserved.getFile())) {
+                assertEquals(1, changedFile.getSyncAttempts());
+            }
+        }
+        assertNull(changedList.reserve());
+    }
+
+    @Test
+    public void testRestorePartialEntry() throws Exception {
+        List<File> files = addFiles(0, 10);
+        File persistFile = new File(tempDir, "checkpoint");
+        changedList.persist(persistFile);
+        changedList.shutdown();
+
+        // Simulates the process being killed while adding to the log
+        File segment = new File(logDir, DiskBackedChangedList.SEGMENT_PREFIX +
+                                        0 + DiskBackedChangedList.SEGMENT_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[] {0, 100, 'a'});
+        }
+
+        changedList = new DiskBackedChangedList(logDir, WINDOW_SIZE);
+        changedList.restore(persistFile, Arrays.asList(tempDir));
+        assertEquals(files.size(), changedList.getListSize());
+
+        File added = new File(tempDir, "added");
+        changedList.addChangedFile(added);
+        for (File file : files) {
+            assertEquals(file, changedList.reserve().getFile());
+        }
+        assertEquals(added, changedList.reserve().getFile());
+        assertNull(changedList.reserve());
+    }
+
+    @Test
+    public void testRestoreFiltersContentDirs() throws Exception {
+        addFiles(0, 10);
+        File persistFile = new File(tempDir, "checkpoint");
+        changedList.persist(persistFile);
+
+        changedList.restore(persistFile,
+                            Arrays.asList(new File(tempDir, "other")));
+        assertNull(changedList.reserve());
+    }
+
+    @Test
+    public void testUnreserve() throws Exception {
+        addFiles(0, 10);
+        ChangedFile reserved = changedList.reserve();
+        assertEquals(9, changedList.getListSize());
+        assertEquals(10, changedList.getListSizeIncludingReservedFiles());
+
+        changedList.unreserve(reserved);
+        assertEquals(10, changedList.getListSize());
+        assertEquals(10, changedList.getListSizeIncludingReservedFiles());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        addFiles(0, 10);
+        changedList.clear();
+        assertEquals(0, changedList.getListSize());
+        assertNull(changedList.reserve());
+        assertEquals(0, logDir.list().length);
+    }
+
+    private List<File> addFiles(int start, int count) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = start; i < start + count; i++) {
+            File file = new File(tempDir, "file-" + i);
+            files.add(file);
+            changedList.addChangedFile(file);
+        }
+        return files;
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SyncStateIndexTest {
+
+    private File indexDir;
+    private File file;
+    private SyncStateIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        indexDir = new File(System.getProperty("java.io.tmpdir"),
+                            "sync-state-index-test");
+        FileUtils.deleteDirectory(indexDir);
+        file = File.createTempFile("sync", "file");
+        FileUtils.writeStringToFile(file, "content");
+        index = new SyncStateIndex();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        index.close();
+        FileUtils.deleteDirectory(indexDir);
+        FileUtils.deleteQuietly(file);
+    }
+
+    @Test
+    public void testNotOpened() throws Exception {
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        assertFalse(index.isUnchanged(file));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testPutAndReload() throws Exception {
+        index.open(indexDir);
+        assertFalse(index.isUnchanged(file));
+
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        assertTrue(index.isUnchanged(file));
+        index.close();
+
+        SyncStateIndex reloaded = new SyncStateIndex();
+        reloaded.open(indexDir);
+        assertTrue(reloaded.isUnchanged(file));
+        assertEquals("checksum", reloaded.get(file).getChecksum());
+        reloaded.close();
+    }
+
+    @Test
+    public void testFlushedWithoutChanges() throws Exception {
+        index.open(indexDir);
+        index.put(file, file.length(), file.lastModified(), "checksum");
+
+        // Written to the log on a timer, with no further changes or close
+        File log = new File(indexDir, SyncStateIndex.INDEX_FILE_NAME);
+        long wait = System.currentTimeMillis() + 5000;
+        while (log.length() == 0 && System.currentTimeMillis() < wait) {
+            Thread.sleep(50);
+        }
+
+        SyncStateIndex reloaded = new SyncStateIndex();
+        reloaded.open(indexDir);
+        assertTrue(reloaded.isUnchanged(file));
+        reloaded.close();
+    }
+
+    @Test
+    public void testChangedFile() throws Exception {
+        index.open(indexDir);
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        assertTrue(index.isUnchanged(file));
+
+        FileUtils.writeStringToFile(file, "updated content");
+        assertFalse(index.isUnchanged(file));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        index.open(indexDir);
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        index.remove(file);
+        assertFalse(index.isUnchanged(file));
+        index.close();
+
+        index.open(indexDir);
+        assertNull(index.get(file));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        index.open(indexDir);
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        index.clear();
+        assertEquals(0, index.size());
+        index.close();
+
+        index.open(indexDir);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testPartialRecord() throws Exception {
+        index.open(indexDir);
+        index.put(file, file.length(), file.lastModified(), "checksum");
+        index.close();
+
+        // Simulate a record cut off part way through being written
+        File indexFile = new File(indexDir, SyncStateIndex.INDEX_FILE_NAME);
+        try (FileOutputStream out = new FileOutputStream(indexFile, true)) {
+            out.write(new byte[] {1, 0, 20, 'x'});
+        }
+
+        index.open(indexDir);
+        assertEquals(1, index.size());
+        assertTrue(index.isUnchanged(file));
+
+        // Records written after the partial record are readable
+        File file2 = File.createTempFile("sync", "file");
+        try {
+            index.put(file2, file2.length(), file2.lastModified(), "checksum2");
+            index.close();
+            index.open(indexDir);
+            assertEquals(2, index.size());
+            assertTrue(index.isUnchanged(file2));
+        } finally {
+            FileUtils.deleteQuietly(file2);
+        }
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        // A small table, so that changes are written to segments and merged
+        index = new SyncStateIndex(10, 5);
+        index.open(indexDir);
+        for (int i = 0; i < 500; i++) {
+            index.put(new File(indexDir, "file" + i), i, i, "checksum" + i);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            index.remove(new File(indexDir, "file" + i));
+        }
+        index.put(new File(indexDir, "file1"), 1, 1, "updated");
+        assertEquals(250, index.size());
+        index.close();
+
+        File[] segments = indexDir.listFiles(
+            (dir, name) -> name.endsWith(SyncStateIndex.SEGMENT_SUFFIX));
+        assertTrue(segments.length > 0 && segments.length < 10);
+
+        index.open(indexDir);
+        assertEquals(250, index.size());
+        for (int i = 0; i < 500; i++) {
+            SyncStateIndex.SyncState state =
+                index.get(new File(indexDir, "file" + i));
+            if (i % 2 == 0) {
+                assertNull(state);
+            } else {
+                assertEquals(i, state.getSize());
+                assertEquals(i == 1 ? "updated" : "checksum" + i,
+                             state.getChecksum());
+            }
+        }
+        assertNull(index.get(new File(indexDir, "other")));
+    }
+
+}